@@ -0,0 +1,84 @@
+package com.example.moviewatchlist;
+
+import com.example.moviewatchlist.model.Movie;
+
+import java.util.List;
+
+/**
+ * Fixed inputs shared by the benchmarks.
+ * Every value is derived from an index, so all runs measure the same data.
+ */
+public final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Builds a fully populated movie, as saved after a successful add.
+     *
+     * @param index distinguishes the movie
+     * @return the movie
+     */
+    public static Movie movie(int index) {
+        return Movie.builder()
+                .id((long) index)
+                .title("Benchmark Movie " + index)
+                .releaseYear(String.valueOf(1980 + index % 45))
+                .director("Director " + index % 100)
+                .genre("Action, Adventure, Sci-Fi")
+                .plot("A thief who steals corporate secrets through the use of dream-sharing technology. " + index)
+                .runtime((90 + index % 60) + " min")
+                .imdbRating(String.valueOf(5 + index % 5) + ".8")
+                .tmdbId(27000 + index)
+                .overview("Cobb, a skilled thief who commits corporate espionage by infiltrating the subconscious. " + index)
+                .releaseDate("2010-07-" + (10 + index % 20))
+                .voteAverage(6.0 + (index % 40) / 10.0)
+                .imagePaths(List.of("movie-images/" + index + "a.jpg", "movie-images/" + index + "b.jpg",
+                        "movie-images/" + index + "c.jpg"))
+                .similarMovies(List.of("Interstellar", "The Prestige", "Memento", "Tenet", "Shutter Island"))
+                .watched(index % 2 == 0)
+                .rating(index % 5 + 1)
+                .build();
+    }
+
+    /**
+     * Builds a TMDb search response body with the given number of results.
+     *
+     * @param results number of results
+     * @return the JSON body
+     */
+    public static String tmdbSearchJson(int results) {
+        StringBuilder json = new StringBuilder("{\"page\":1,\"results\":[");
+        for (int i = 0; i < results; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"adult\":false,\"backdrop_path\":\"/b").append(i).append(".jpg\",")
+                    .append("\"genre_ids\":[28,878,12],\"id\":").append(27000 + i).append(',')
+                    .append("\"original_language\":\"en\",\"original_title\":\"Benchmark Movie ").append(i).append("\",")
+                    .append("\"overview\":\"Cobb, a skilled thief who commits corporate espionage. ").append(i).append("\",")
+                    .append("\"popularity\":").append(80 + i).append(".5,")
+                    .append("\"poster_path\":\"/p").append(i).append(".jpg\",")
+                    .append("\"release_date\":\"2010-07-").append(10 + i % 20).append("\",")
+                    .append("\"title\":\"Benchmark Movie ").append(i).append("\",")
+                    .append("\"video\":false,\"vote_average\":8.").append(i % 10).append(',')
+                    .append("\"vote_count\":").append(30000 + i).append('}');
+        }
+        return json.append("],\"total_pages\":1,\"total_results\":").append(results).append('}').toString();
+    }
+
+    /** A complete OMDb movie response body. */
+    public static final String OMDB_JSON = "{\"Title\":\"Inception\",\"Year\":\"2010\",\"Rated\":\"PG-13\","
+            + "\"Released\":\"16 Jul 2010\",\"Runtime\":\"148 min\",\"Genre\":\"Action, Adventure, Sci-Fi\","
+            + "\"Director\":\"Christopher Nolan\",\"Writer\":\"Christopher Nolan\","
+            + "\"Actors\":\"Leonardo DiCaprio, Joseph Gordon-Levitt, Elliot Page\","
+            + "\"Plot\":\"A thief who steals corporate secrets through the use of dream-sharing technology is given "
+            + "the inverse task of planting an idea into the mind of a C.E.O.\",\"Language\":\"English, Japanese, French\","
+            + "\"Country\":\"United States, United Kingdom\",\"Awards\":\"Won 4 Oscars. 159 wins & 220 nominations total\","
+            + "\"Poster\":\"https://m.media-amazon.com/images/M/MV5BMjAxMzY3NjcxNF5BMl5BanBnXkFtZTcwNTI5OTM0Mw@@._V1_SX300.jpg\","
+            + "\"Ratings\":[{\"Source\":\"Internet Movie Database\",\"Value\":\"8.8/10\"},"
+            + "{\"Source\":\"Rotten Tomatoes\",\"Value\":\"87%\"},{\"Source\":\"Metacritic\",\"Value\":\"74/100\"}],"
+            + "\"Metascore\":\"74\",\"imdbRating\":\"8.8\",\"imdbVotes\":\"2,624,538\",\"imdbID\":\"tt1375666\","
+            + "\"Type\":\"movie\",\"DVD\":\"N/A\",\"BoxOffice\":\"$292,587,330\",\"Production\":\"N/A\","
+            + "\"Website\":\"N/A\",\"Response\":\"True\"}";
+}
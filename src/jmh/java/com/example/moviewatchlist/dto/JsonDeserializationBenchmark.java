@@ -0,0 +1,77 @@
+package com.example.moviewatchlist.dto;
+
+import com.example.moviewatchlist.BenchmarkData;
+import com.example.moviewatchlist.service.JsonBodyHandler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deserialization of TMDb search and OMDb responses, both by binding the whole body at once and
+ * through the streaming body handler used by the services.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JsonDeserializationBenchmark {
+
+    /** Number of results in the TMDb search response; TMDb pages hold 20. */
+    @Param({"20"})
+    public int results;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final JsonBodyHandler bodyHandler = JsonBodyHandler.create();
+    private final JsonBodyHandler limitingBodyHandler = JsonBodyHandler.limitingArray("results", 10,
+            Set.of("id", "title", "overview", "release_date", "vote_average", "poster_path"));
+
+    private byte[] tmdbSearch;
+    private byte[] omdb;
+
+    @Setup
+    public void setUp() {
+        tmdbSearch = BenchmarkData.tmdbSearchJson(results).getBytes(StandardCharsets.UTF_8);
+        omdb = BenchmarkData.OMDB_JSON.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public TMDbSearchResponse tmdbSearchDataBinding() throws IOException {
+        return objectMapper.readValue(tmdbSearch, TMDbSearchResponse.class);
+    }
+
+    @Benchmark
+    public TMDbSearchResponse tmdbSearchStreaming() throws IOException {
+        return bodyHandler.parse(tmdbSearch).read(objectMapper, TMDbSearchResponse.class);
+    }
+
+    @Benchmark
+    public TMDbSearchResponse tmdbSearchStreamingLimited() throws IOException {
+        return limitingBodyHandler.parse(tmdbSearch).read(objectMapper, TMDbSearchResponse.class);
+    }
+
+    @Benchmark
+    public OMDbResponse omdbDataBinding() throws IOException {
+        return objectMapper.readValue(omdb, OMDbResponse.class);
+    }
+
+    @Benchmark
+    public OMDbResponse omdbStreaming() throws IOException {
+        return bodyHandler.parse(omdb).read(objectMapper, OMDbResponse.class);
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.moviewatchlist.dto;
+
+import com.example.moviewatchlist.BenchmarkData;
+import com.example.moviewatchlist.model.Movie;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping of a movie entity to its API response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MovieResponseBenchmark {
+
+    private Movie movie;
+
+    @Setup
+    public void setUp() {
+        movie = BenchmarkData.movie(42);
+    }
+
+    @Benchmark
+    public MovieResponse fromMovie() {
+        return new MovieResponse(movie);
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.moviewatchlist.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * File name sanitizing of downloaded images.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ImageDownloadServiceBenchmark {
+
+    /** A typical extension, and a name that needs every replacement. */
+    @Param({".jpg", "/qJ2tW6WMUDux911r6m7haRef0WH.poster:v2?.jpg"})
+    public String fileName;
+
+    private final ImageDownloadService imageDownloadService = new ImageDownloadService();
+
+    @Benchmark
+    public String sanitizeFileName() {
+        return imageDownloadService.sanitizeFileName(fileName);
+    }
+}
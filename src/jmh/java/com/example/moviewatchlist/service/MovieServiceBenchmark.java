@@ -0,0 +1,121 @@
+package com.example.moviewatchlist.service;
+
+import com.example.moviewatchlist.BenchmarkData;
+import com.example.moviewatchlist.dto.MovieResponse;
+import com.example.moviewatchlist.dto.PaginatedResponse;
+import com.example.moviewatchlist.dto.TMDbImagesResponse;
+import com.example.moviewatchlist.dto.TMDbSearchResponse;
+import com.example.moviewatchlist.model.Movie;
+import com.example.moviewatchlist.repository.MovieRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Page assembly, search result conversion and image path selection in MovieService.
+ * The repository is replaced by a stub returning a prepared page, so only the service code is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MovieServiceBenchmark {
+
+    private final MovieService movieService = new MovieService();
+    private TMDbSearchResponse.TMDbMovie searchResult;
+    private TMDbImagesResponse imagesResponse;
+
+    /** A service whose repository returns pages of the benchmarked size. */
+    @State(Scope.Benchmark)
+    public static class Pages {
+
+        /** Movies per page; 10 is the default page size and 100 the maximum. */
+        @Param({"10", "100"})
+        public int pageSize;
+
+        private final MovieService movieService = new MovieService();
+
+        @Setup
+        public void setUp() {
+            List<Movie> movies = IntStream.range(0, pageSize).mapToObj(BenchmarkData::movie).toList();
+            ReflectionTestUtils.setField(movieService, "movieRepository", pagedRepository(movies));
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        searchResult = new TMDbSearchResponse.TMDbMovie();
+        searchResult.setId(27205);
+        searchResult.setTitle("Inception");
+        searchResult.setOverview("Cobb, a skilled thief who commits corporate espionage.");
+        searchResult.setReleaseDate("2010-07-15");
+        searchResult.setVoteAverage(8.4);
+        searchResult.setPosterPath("/oYuLEt3zVCKq57qu2F8dT7NIa6f.jpg");
+
+        imagesResponse = new TMDbImagesResponse();
+        imagesResponse.setPosters(images("/poster", 30));
+        imagesResponse.setBackdrops(images("/backdrop", 40));
+    }
+
+    @Benchmark
+    public PaginatedResponse<MovieResponse> getMovies(Pages pages) {
+        return pages.movieService.getMovies(3, pages.pageSize);
+    }
+
+    @Benchmark
+    public Map<String, Object> convertToSearchResult() {
+        return movieService.convertToSearchResult(searchResult);
+    }
+
+    @Benchmark
+    public List<String> extractImagePaths() {
+        return movieService.extractImagePaths(imagesResponse);
+    }
+
+    /** Stub repository whose findAll(Pageable) returns the movies as the requested page of 1000. */
+    private static MovieRepository pagedRepository(List<Movie> movies) {
+        return (MovieRepository) Proxy.newProxyInstance(MovieRepository.class.getClassLoader(),
+                new Class<?>[]{MovieRepository.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("findAll") && args != null && args.length == 1
+                            && args[0] instanceof Pageable pageable) {
+                        return new PageImpl<>(movies, pageable, 1000);
+                    }
+                    if (method.getDeclaringClass() == Object.class) {
+                        return method.getName().equals("equals") ? proxy == args[0]
+                                : method.getName().equals("hashCode") ? System.identityHashCode(proxy)
+                                : "MovieRepository stub";
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static List<TMDbImagesResponse.ImageData> images(String prefix, int count) {
+        List<TMDbImagesResponse.ImageData> images = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            TMDbImagesResponse.ImageData image = new TMDbImagesResponse.ImageData();
+            image.setFile_path(prefix + i + ".jpg");
+            images.add(image);
+        }
+        return images;
+    }
+}
@@ -3,13 +3,15 @@ package com.example.moviewatchlist;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Entry point for the Movie Watchlist Spring Boot application.
- * Enables asynchronous processing.
+ * Enables asynchronous processing and scheduled background tasks.
  */
 @SpringBootApplication
 @EnableAsync
+@EnableScheduling
 public class MovieWatchlistApplication {
 
     /**
@@ -1,12 +1,19 @@
 package com.example.moviewatchlist.repository;
 
+import com.example.moviewatchlist.dto.MovieSummary;
 import com.example.moviewatchlist.model.Movie;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.lang.NonNull;
 
+import java.util.Collection;
+import java.util.List;
+
 /**
  * Repository interface for Movie entities.
  * Handles all database operations for movies, including pagination and existence checks.
@@ -23,6 +30,49 @@ public interface MovieRepository extends JpaRepository<Movie, Long> {
     @NonNull
     Page<Movie> findAll(@NonNull Pageable pageable);
 
+    /**
+     * Retrieves the movies following a given ID, in ID order, without counting the total.
+     * The primary key index makes this seek cost the same for every page, however deep.
+     *
+     * @param id the ID of the last movie already read (0 for the first page)
+     * @param limit maximum number of movies to return
+     * @return the movies with a greater ID, in ascending ID order
+     */
+    List<Movie> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    /**
+     * Retrieves a paginated list of movie summaries. Only the columns shown in a listing are read,
+     * not the overview or the element collections.
+     *
+     * @param pageable pagination information
+     * @return a page of movie summaries, without posters
+     */
+    @Query(value = "SELECT new com.example.moviewatchlist.dto.MovieSummary("
+            + "m.id, m.title, m.releaseYear, m.imdbRating, m.plot, m.watched, m.rating) FROM Movie m",
+            countQuery = "SELECT COUNT(m) FROM Movie m")
+    Page<MovieSummary> findSummaries(Pageable pageable);
+
+    /**
+     * Retrieves the summaries of the movies following a given ID, in ID order, without counting the total.
+     *
+     * @param id the ID of the last movie already read (0 for the first page)
+     * @param limit maximum number of summaries to return
+     * @return the summaries of the movies with a greater ID, in ascending ID order, without posters
+     */
+    @Query("SELECT new com.example.moviewatchlist.dto.MovieSummary("
+            + "m.id, m.title, m.releaseYear, m.imdbRating, m.plot, m.watched, m.rating) "
+            + "FROM Movie m WHERE m.id > :id ORDER BY m.id")
+    List<MovieSummary> findSummariesByIdGreaterThan(@Param("id") Long id, Limit limit);
+
+    /**
+     * Retrieves the poster, the first image path, of the given movies as (movie ID, image path) rows.
+     *
+     * @param ids the movie IDs
+     * @return one row per movie that has images
+     */
+    @Query("SELECT m.id, p FROM Movie m JOIN m.imagePaths p WHERE m.id IN :ids AND INDEX(p) = 0")
+    List<Object[]> findPosterPathsByIdIn(@Param("ids") Collection<Long> ids);
+
     /**
      * Checks if a movie with the given title and release year already exists.
      *
@@ -31,4 +81,21 @@ public interface MovieRepository extends JpaRepository<Movie, Long> {
      * @return true if a movie with the same title and year exists, false otherwise
      */
     boolean existsByTitleAndReleaseYear(String title, String year);
-}       
\ No newline at end of file
+
+    /**
+     * Counts the movies whose image paths contain the given local image path.
+     *
+     * @param imagePath the local image path
+     * @return the number of movies referencing the image
+     */
+    @Query("SELECT COUNT(DISTINCT m) FROM Movie m JOIN m.imagePaths p WHERE p = :imagePath")
+    long countByImagePath(@Param("imagePath") String imagePath);
+
+    /**
+     * Lists every image path referenced by any movie, local paths and TMDb paths alike, each once.
+     *
+     * @return the distinct image paths of all movies
+     */
+    @Query("SELECT DISTINCT p FROM Movie m JOIN m.imagePaths p")
+    List<String> findAllImagePaths();
+}
@@ -0,0 +1,41 @@
+package com.example.moviewatchlist.repository;
+
+import com.example.moviewatchlist.model.StoredImage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for StoredImage entities.
+ * Maps TMDb image paths to files in the content-addressed image store.
+ */
+@Repository
+public interface StoredImageRepository extends JpaRepository<StoredImage, Long> {
+
+    /**
+     * Finds the stored image for a TMDb image path.
+     *
+     * @param tmdbPath the TMDb image path
+     * @return the stored image, or empty if the path was never downloaded
+     */
+    Optional<StoredImage> findByTmdbPath(String tmdbPath);
+
+    /**
+     * Finds all stored images that share a file.
+     *
+     * @param fileName the file name in the images directory
+     * @return the stored images using that file
+     */
+    List<StoredImage> findByFileName(String fileName);
+
+    /**
+     * Lists the TMDb path and file name of every stored image, without loading the entities.
+     *
+     * @return pairs of TMDb path and file name
+     */
+    @Query("SELECT s.tmdbPath, s.fileName FROM StoredImage s")
+    List<Object[]> findAllTmdbPathsAndFileNames();
+}
@@ -6,6 +6,7 @@
  *
  * <ul>
  *   <li><b>MovieRepository</b> – provides CRUD operations, pagination, and existence checks for Movie entities.</li>
+ *   <li><b>StoredImageRepository</b> – maps TMDb image paths to files in the content-addressed image store.</li>
  * </ul>
  *
  * @since 1.0
@@ -0,0 +1,79 @@
+package com.example.moviewatchlist.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.net.http.HttpClient;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration of the single outbound HTTP client shared by the OMDb, TMDb and image services.
+ * Sharing one client means one connection pool per upstream host instead of one per service.
+ * The client prefers HTTP/2, has a connect timeout, and runs its callbacks on a fixed-size,
+ * dedicated thread pool instead of the common ForkJoinPool.
+ */
+@Configuration
+public class HttpClientConfig {
+
+    /**
+     * Creates the fixed-size executor for HTTP client callbacks.
+     * Its queue is unbounded: the client also hands its own internal tasks to this executor, and those
+     * must never be rejected or run on the submitting selector thread. Backpressure on outbound calls
+     * comes from the per-upstream bulkheads instead.
+     *
+     * @param threads  number of threads
+     * @param registry the meter registry for executor metrics
+     * @return the executor
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService httpClientExecutor(@Value("${http.client.executor-threads:8}") int threads,
+                                              MeterRegistry registry) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new CustomizableThreadFactory("http-client-"));
+        executor.allowCoreThreadTimeOut(true);
+        return ExecutorServiceMetrics.monitor(registry, executor, "http.client");
+    }
+
+    /**
+     * Creates the shared outbound HTTP client.
+     * With {@code upstream.traffic.mode=record} every response is also written to the archive directory;
+     * with {@code replay} responses are served from the archive, after their recorded latency multiplied
+     * by {@code upstream.traffic.latency-scale}, and no request leaves the process.
+     *
+     * @param connectTimeoutMs   connect timeout in milliseconds
+     * @param trafficMode        "record", "replay", or "off"
+     * @param archivePath        directory of the recorded responses
+     * @param latencyScale       factor applied to recorded latencies when replaying
+     * @param httpClientExecutor the executor for client callbacks
+     * @param registry           the meter registry for request metrics
+     * @return the instrumented HTTP client
+     */
+    @Bean
+    public HttpClient outboundHttpClient(@Value("${http.client.connect-timeout-ms:5000}") long connectTimeoutMs,
+                                         @Value("${upstream.traffic.mode:off}") String trafficMode,
+                                         @Value("${upstream.traffic.archive-path:./upstream-archive/}") String archivePath,
+                                         @Value("${upstream.traffic.latency-scale:1.0}") double latencyScale,
+                                         ExecutorService httpClientExecutor,
+                                         MeterRegistry registry) {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(httpClientExecutor)
+                .build();
+        HttpClient upstreamClient = RecordReplayHttpClient.Mode.fromProperty(trafficMode)
+                .<HttpClient>map(mode -> new RecordReplayHttpClient(client,
+                        new UpstreamArchive(Paths.get(archivePath)), mode, latencyScale))
+                .orElse(client);
+        return new InstrumentedHttpClient(upstreamClient, registry);
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.moviewatchlist.config;
+
+import com.example.moviewatchlist.service.ImageVariantService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.web.servlet.resource.AbstractResourceResolver;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Resource resolver that serves a smaller variant of a movie image when the request carries a
+ * {@code size} parameter, e.g. {@code /movie-images/abc.jpg?size=thumb}.
+ * Requests without a known size, or for images that cannot be scaled, get the original file.
+ */
+public class ImageVariantResourceResolver extends AbstractResourceResolver {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageVariantResourceResolver.class);
+
+    /** Name of the request parameter that selects the variant. */
+    public static final String SIZE_PARAMETER = "size";
+
+    private final ImageVariantService imageVariantService;
+
+    /**
+     * Creates a resolver backed by the given variant service.
+     *
+     * @param imageVariantService the service that generates and caches variants
+     */
+    public ImageVariantResourceResolver(ImageVariantService imageVariantService) {
+        this.imageVariantService = imageVariantService;
+    }
+
+    @Override
+    protected Resource resolveResourceInternal(@Nullable HttpServletRequest request, @NonNull String requestPath,
+                                               @NonNull List<? extends Resource> locations,
+                                               @NonNull ResourceResolverChain chain) {
+        Resource original = chain.resolveResource(request, requestPath, locations);
+        if (original == null || request == null) {
+            return original;
+        }
+        Optional<ImageVariantService.Size> size =
+                ImageVariantService.Size.fromParameter(request.getParameter(SIZE_PARAMETER));
+        if (size.isEmpty()) {
+            return original;
+        }
+        try {
+            return new FileSystemResource(imageVariantService.getVariant(original.getFile().toPath(), size.get()));
+        } catch (IOException e) {
+            logger.warn("Failed to create image variant for {}", requestPath, e);
+            return original;
+        }
+    }
+
+    @Override
+    protected String resolveUrlPathInternal(@NonNull String resourceUrlPath,
+                                            @NonNull List<? extends Resource> locations,
+                                            @NonNull ResourceResolverChain chain) {
+        return chain.resolveUrlPath(resourceUrlPath, locations);
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.moviewatchlist.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+import java.io.IOException;
+import java.net.Authenticator;
+import java.net.CookieHandler;
+import java.net.ProxySelector;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * HttpClient that delegates to another client and records a timer for every request.
+ * The timer is tagged with the target host, the negotiated HTTP version and the status code,
+ * so the share of HTTP/2 traffic (multiplexed over one connection per host) is visible per upstream.
+ * The JDK client does not expose its connection pool, so this is the closest observable signal of reuse.
+ */
+public class InstrumentedHttpClient extends HttpClient {
+
+    /** Name of the request timer. */
+    public static final String REQUESTS_METRIC = "outbound.http.requests";
+
+    private final HttpClient delegate;
+    private final MeterRegistry registry;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /**
+     * Wraps a client and registers an in-flight gauge.
+     *
+     * @param delegate the client performing the requests
+     * @param registry the registry for request timers
+     */
+    public InstrumentedHttpClient(HttpClient delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.registry = registry;
+        registry.gauge("outbound.http.inflight", inFlight);
+    }
+
+    @Override
+    public <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> responseBodyHandler)
+            throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        inFlight.incrementAndGet();
+        try {
+            HttpResponse<T> response = delegate.send(request, responseBodyHandler);
+            record(request, response, null, start);
+            return response;
+        } catch (IOException | RuntimeException e) {
+            record(request, null, e, start);
+            throw e;
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request,
+                                                            HttpResponse.BodyHandler<T> responseBodyHandler) {
+        return sendAsync(request, responseBodyHandler, null);
+    }
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request,
+                                                            HttpResponse.BodyHandler<T> responseBodyHandler,
+                                                            HttpResponse.PushPromiseHandler<T> pushPromiseHandler) {
+        long start = System.nanoTime();
+        inFlight.incrementAndGet();
+        return delegate.sendAsync(request, responseBodyHandler, pushPromiseHandler)
+                .whenComplete((response, ex) -> {
+                    inFlight.decrementAndGet();
+                    record(request, response, ex, start);
+                });
+    }
+
+    /** Records the duration of one request with host, HTTP version and status tags. */
+    private void record(HttpRequest request, HttpResponse<?> response, Throwable failure, long start) {
+        String host = request.uri().getHost() != null ? request.uri().getHost() : "unknown";
+        String version = response != null ? response.version().name() : "none";
+        String status = response != null ? String.valueOf(response.statusCode()) : failure.getClass().getSimpleName();
+        Timer.builder(REQUESTS_METRIC)
+                .tags("host", host, "version", version, "status", status)
+                .register(registry)
+                .record(Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    /** @return the number of requests currently in flight */
+    public int inFlightCount() { return inFlight.get(); }
+
+    @Override
+    public Optional<CookieHandler> cookieHandler() { return delegate.cookieHandler(); }
+
+    @Override
+    public Optional<Duration> connectTimeout() { return delegate.connectTimeout(); }
+
+    @Override
+    public Redirect followRedirects() { return delegate.followRedirects(); }
+
+    @Override
+    public Optional<ProxySelector> proxy() { return delegate.proxy(); }
+
+    @Override
+    public SSLContext sslContext() { return delegate.sslContext(); }
+
+    @Override
+    public SSLParameters sslParameters() { return delegate.sslParameters(); }
+
+    @Override
+    public Optional<Authenticator> authenticator() { return delegate.authenticator(); }
+
+    @Override
+    public Version version() { return delegate.version(); }
+
+    @Override
+    public Optional<Executor> executor() { return delegate.executor(); }
+}
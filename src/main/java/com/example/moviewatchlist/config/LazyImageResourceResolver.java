@@ -0,0 +1,97 @@
+package com.example.moviewatchlist.config;
+
+import com.example.moviewatchlist.repository.MovieRepository;
+import com.example.moviewatchlist.service.ImageCacheManager;
+import com.example.moviewatchlist.service.ImageDownloadService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.web.servlet.resource.AbstractResourceResolver;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Resource resolver that fetches images on demand.
+ * Requests like {@code /movie-images/tmdb/abc.jpg} map to the TMDb image path {@code /abc.jpg};
+ * only paths referenced by a saved movie are fetched, so clients cannot make the server download
+ * arbitrary TMDb images. Stored images that are missing from disk, e.g. after quota eviction,
+ * are downloaded again from their recorded TMDb path.
+ * The request thread never waits for a download: an image that is not on disk yet gets 404 while
+ * it is downloaded in the background, and is served from disk once it is stored.
+ * Every served image is reported to the {@link ImageCacheManager}.
+ */
+public class LazyImageResourceResolver extends AbstractResourceResolver {
+
+    /** Request path prefix, below the images URL, of images addressed by their TMDb path. */
+    public static final String TMDB_PREFIX = "tmdb/";
+
+    private final ImageDownloadService imageDownloadService;
+    private final ImageCacheManager imageCacheManager;
+    private final MovieRepository movieRepository;
+
+    /**
+     * Creates a resolver that downloads missing images through the given service.
+     *
+     * @param imageDownloadService the service fetching and storing TMDb images
+     * @param imageCacheManager    the manager tracking when images were last served
+     * @param movieRepository      the repository telling which TMDb paths are referenced by movies
+     */
+    public LazyImageResourceResolver(ImageDownloadService imageDownloadService, ImageCacheManager imageCacheManager,
+                                     MovieRepository movieRepository) {
+        this.imageDownloadService = imageDownloadService;
+        this.imageCacheManager = imageCacheManager;
+        this.movieRepository = movieRepository;
+    }
+
+    @Override
+    protected Resource resolveResourceInternal(@Nullable HttpServletRequest request, @NonNull String requestPath,
+                                               @NonNull List<? extends Resource> locations,
+                                               @NonNull ResourceResolverChain chain) {
+        Resource resource;
+        if (requestPath.startsWith(TMDB_PREFIX)) {
+            String tmdbPath = "/" + requestPath.substring(TMDB_PREFIX.length());
+            if (!ImageDownloadService.isTmdbImagePath(tmdbPath) || movieRepository.countByImagePath(tmdbPath) == 0) {
+                return null;
+            }
+            resource = storedResource(imageDownloadService.fetchImage(tmdbPath));
+        } else {
+            resource = chain.resolveResource(request, requestPath, locations);
+            if (resource == null && isPlainFileName(requestPath)) {
+                resource = storedResource(imageDownloadService.fetchStoredFile(requestPath));
+            }
+        }
+        if (resource != null && resource.getFilename() != null) {
+            imageCacheManager.recordAccess(resource.getFilename());
+        }
+        return resource;
+    }
+
+    /**
+     * Wraps the file of a fetch that is already complete, i.e. an image found in the store.
+     * A download still running is left to finish in the background and null is returned.
+     */
+    private Resource storedResource(CompletableFuture<String> fetch) {
+        if (!fetch.isDone() || fetch.isCompletedExceptionally()) {
+            return null;
+        }
+        String localPath = fetch.join();
+        return localPath != null ? new FileSystemResource(Paths.get(localPath)) : null;
+    }
+
+    /** Only top-level image files can be restored; variants and nested paths are not looked up. */
+    private boolean isPlainFileName(String requestPath) {
+        return !requestPath.isEmpty() && !requestPath.contains("/") && !requestPath.startsWith(".");
+    }
+
+    @Override
+    protected String resolveUrlPathInternal(@NonNull String resourceUrlPath,
+                                            @NonNull List<? extends Resource> locations,
+                                            @NonNull ResourceResolverChain chain) {
+        return chain.resolveUrlPath(resourceUrlPath, locations);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.moviewatchlist.config;
+
+import com.example.moviewatchlist.service.ImageDownloadService;
+import com.example.moviewatchlist.service.MovieService;
+import com.example.moviewatchlist.service.OMDbService;
+import com.example.moviewatchlist.service.TMDbService;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers application-specific metrics with Micrometer.
+ * The metrics are available through the actuator metrics and Prometheus endpoints.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Binds hit/miss/eviction counters and size gauges of the upstream response caches,
+     * plus the coalesced/in-flight request meters of each upstream and of image downloads,
+     * and the per-endpoint call timers and response sizes of each upstream.
+     *
+     * @param tmdbService the TMDb service owning the TMDb caches
+     * @param omdbService the OMDb service owning the OMDb cache
+     * @param imageDownloadService the service downloading TMDb images
+     * @return a binder registering all cache and in-flight meters
+     */
+    @Bean
+    public MeterBinder upstreamCacheMetrics(TMDbService tmdbService, OMDbService omdbService,
+                                            ImageDownloadService imageDownloadService) {
+        return registry -> {
+            tmdbService.getCaches().forEach(cache -> cache.bindTo(registry));
+            omdbService.getCache().bindTo(registry);
+            tmdbService.getInFlightRequests().bindTo(registry);
+            omdbService.getInFlightRequests().bindTo(registry);
+            tmdbService.getCallLog().bindTo(registry);
+            omdbService.getCallLog().bindTo(registry);
+            imageDownloadService.getInFlightDownloads().bindTo(registry);
+        };
+    }
+
+    /**
+     * Binds the timers of the whole add-movie pipeline and of each of its stages,
+     * plus the counters of failed additions by reason.
+     *
+     * @param movieService the service running the pipeline
+     * @return a binder registering the pipeline meters
+     */
+    @Bean
+    public MeterBinder addMoviePipelineMetrics(MovieService movieService) {
+        return movieService.getAddMovieMetrics();
+    }
+}
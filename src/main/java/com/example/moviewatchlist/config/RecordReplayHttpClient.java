@@ -0,0 +1,273 @@
+package com.example.moviewatchlist.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSession;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.Authenticator;
+import java.net.CookieHandler;
+import java.net.ProxySelector;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HttpClient that records upstream responses to an {@link UpstreamArchive}, or replays them from it.
+ * In record mode, requests go to the delegate and each complete response is archived with its latency;
+ * the body still reaches the caller's body handler as it arrives. In replay mode, no request leaves the
+ * process: the archived response is fed to the caller's body handler after its recorded latency multiplied
+ * by a scale factor (0 answers at once), and a request that was never recorded fails with an IOException.
+ * Because the OMDb, TMDb and image services share one client, this covers all of their traffic.
+ */
+public class RecordReplayHttpClient extends HttpClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecordReplayHttpClient.class);
+
+    /** What the client does with requests. */
+    public enum Mode {
+        /** Sends requests and archives the responses. */
+        RECORD,
+        /** Answers requests from the archive only. */
+        REPLAY;
+
+        /**
+         * Parses the configured mode.
+         *
+         * @param value "record", "replay", or anything else for none
+         * @return the mode, or empty if traffic is neither recorded nor replayed
+         */
+        public static Optional<Mode> fromProperty(String value) {
+            if (value == null) {
+                return Optional.empty();
+            }
+            return switch (value.trim().toLowerCase(Locale.ROOT)) {
+                case "record" -> Optional.of(RECORD);
+                case "replay" -> Optional.of(REPLAY);
+                default -> Optional.empty();
+            };
+        }
+    }
+
+    private final HttpClient delegate;
+    private final UpstreamArchive archive;
+    private final Mode mode;
+    private final double latencyScale;
+
+    /**
+     * Wraps a client.
+     *
+     * @param delegate     the client performing requests in record mode
+     * @param archive      the archive to write to or read from
+     * @param mode         record or replay
+     * @param latencyScale factor applied to recorded latencies when replaying
+     */
+    public RecordReplayHttpClient(HttpClient delegate, UpstreamArchive archive, Mode mode, double latencyScale) {
+        this.delegate = delegate;
+        this.archive = archive;
+        this.mode = mode;
+        this.latencyScale = Math.max(latencyScale, 0);
+    }
+
+    @Override
+    public <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> responseBodyHandler)
+            throws IOException, InterruptedException {
+        try {
+            return sendAsync(request, responseBodyHandler).get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request,
+                                                            HttpResponse.BodyHandler<T> responseBodyHandler) {
+        return sendAsync(request, responseBodyHandler, null);
+    }
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request,
+                                                            HttpResponse.BodyHandler<T> responseBodyHandler,
+                                                            HttpResponse.PushPromiseHandler<T> pushPromiseHandler) {
+        return mode == Mode.REPLAY ? replay(request, responseBodyHandler) : record(request, responseBodyHandler);
+    }
+
+    /** Sends the request, copying the body into a buffer that is archived once the response is complete. */
+    private <T> CompletableFuture<HttpResponse<T>> record(HttpRequest request, HttpResponse.BodyHandler<T> handler) {
+        long start = System.nanoTime();
+        ByteArrayOutputStream captured = new ByteArrayOutputStream();
+        HttpResponse.BodyHandler<T> capturing = info -> new CapturingSubscriber<>(handler.apply(info), captured);
+        return delegate.sendAsync(request, capturing)
+                .thenApply(response -> {
+                    UpstreamArchive.Entry entry = new UpstreamArchive.Entry(UpstreamArchive.key(request),
+                            response.statusCode(), System.nanoTime() - start,
+                            UpstreamArchive.keptHeaders(response.headers().map()), captured.toByteArray());
+                    try {
+                        archive.write(entry);
+                    } catch (IOException e) {
+                        logger.warn("Failed to record upstream response", e);
+                    }
+                    return response;
+                });
+    }
+
+    /** Feeds the archived body to the handler after the scaled recorded latency. */
+    private <T> CompletableFuture<HttpResponse<T>> replay(HttpRequest request, HttpResponse.BodyHandler<T> handler) {
+        String key = UpstreamArchive.key(request);
+        UpstreamArchive.Entry entry;
+        try {
+            entry = archive.read(key).orElse(null);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        if (entry == null) {
+            return CompletableFuture.failedFuture(new IOException("No recorded response for " + key));
+        }
+        long delayNanos = (long) (entry.latencyNanos() * latencyScale);
+        Executor executor = delayNanos > 0
+                ? CompletableFuture.delayedExecutor(delayNanos, TimeUnit.NANOSECONDS)
+                : Runnable::run;
+        return CompletableFuture.supplyAsync(() -> entry, executor)
+                .thenCompose(recorded -> deliver(request, recorded, handler));
+    }
+
+    private <T> CompletionStage<HttpResponse<T>> deliver(HttpRequest request, UpstreamArchive.Entry entry,
+                                                         HttpResponse.BodyHandler<T> handler) {
+        HttpHeaders headers = HttpHeaders.of(entry.headers(), (name, value) -> true);
+        HttpResponse.ResponseInfo info = new HttpResponse.ResponseInfo() {
+            @Override
+            public int statusCode() { return entry.status(); }
+
+            @Override
+            public HttpHeaders headers() { return headers; }
+
+            @Override
+            public Version version() { return Version.HTTP_1_1; }
+        };
+        HttpResponse.BodySubscriber<T> subscriber = handler.apply(info);
+        subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+                // The whole body is delivered at once below.
+            }
+
+            @Override
+            public void cancel() {
+                // Nothing to release.
+            }
+        });
+        subscriber.onNext(List.of(ByteBuffer.wrap(entry.body())));
+        subscriber.onComplete();
+        return subscriber.getBody()
+                .thenApply(body -> new ReplayedResponse<>(request, entry.status(), headers, body));
+    }
+
+    /** Forwards every chunk to the caller's subscriber after copying it into the capture buffer. */
+    private static final class CapturingSubscriber<T> implements HttpResponse.BodySubscriber<T> {
+
+        private final HttpResponse.BodySubscriber<T> delegate;
+        private final ByteArrayOutputStream captured;
+
+        CapturingSubscriber(HttpResponse.BodySubscriber<T> delegate, ByteArrayOutputStream captured) {
+            this.delegate = delegate;
+            this.captured = captured;
+        }
+
+        @Override
+        public CompletionStage<T> getBody() {
+            return delegate.getBody();
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            delegate.onSubscribe(subscription);
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> items) {
+            for (ByteBuffer item : items) {
+                ByteBuffer copy = item.duplicate();
+                byte[] bytes = new byte[copy.remaining()];
+                copy.get(bytes);
+                captured.writeBytes(bytes);
+            }
+            delegate.onNext(items);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            delegate.onError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            delegate.onComplete();
+        }
+    }
+
+    /** Response built from an archive entry. */
+    private record ReplayedResponse<T>(HttpRequest request, int statusCode, HttpHeaders headers, T body)
+            implements HttpResponse<T> {
+
+        @Override
+        public Optional<HttpResponse<T>> previousResponse() { return Optional.empty(); }
+
+        @Override
+        public Optional<SSLSession> sslSession() { return Optional.empty(); }
+
+        @Override
+        public URI uri() { return request.uri(); }
+
+        @Override
+        public Version version() { return Version.HTTP_1_1; }
+    }
+
+    @Override
+    public Optional<CookieHandler> cookieHandler() { return delegate.cookieHandler(); }
+
+    @Override
+    public Optional<Duration> connectTimeout() { return delegate.connectTimeout(); }
+
+    @Override
+    public Redirect followRedirects() { return delegate.followRedirects(); }
+
+    @Override
+    public Optional<ProxySelector> proxy() { return delegate.proxy(); }
+
+    @Override
+    public SSLContext sslContext() { return delegate.sslContext(); }
+
+    @Override
+    public SSLParameters sslParameters() { return delegate.sslParameters(); }
+
+    @Override
+    public Optional<Authenticator> authenticator() { return delegate.authenticator(); }
+
+    @Override
+    public Version version() { return delegate.version(); }
+
+    @Override
+    public Optional<Executor> executor() { return delegate.executor(); }
+}
@@ -0,0 +1,117 @@
+package com.example.moviewatchlist.config;
+
+import com.example.moviewatchlist.service.HedgedRetry;
+import com.example.moviewatchlist.service.RateLimiter;
+import com.example.moviewatchlist.service.UpstreamGuard;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration of the per-upstream rate limiters, bulkheads and circuit breakers.
+ * TMDb and OMDb each get their own guard, so a slow or failing TMDb cannot use up
+ * the capacity needed for OMDb calls, and vice versa. Each API key also gets a token bucket
+ * matching its quota, and a hedging and retry policy that bounds tail latency.
+ * All of them are meter binders, so their metrics are registered with the actuator automatically.
+ */
+@Configuration
+public class ResilienceConfig {
+
+    /**
+     * Creates the guard for TMDb API calls.
+     *
+     * @param maxConcurrent    maximum number of TMDb calls in flight
+     * @param failureThreshold consecutive failures that open the circuit
+     * @param openDurationMs   how long the circuit stays open before a trial call
+     * @return the TMDb guard
+     */
+    @Bean
+    public UpstreamGuard tmdbGuard(@Value("${tmdb.bulkhead.max-concurrent:16}") int maxConcurrent,
+                                   @Value("${tmdb.circuit.failure-threshold:5}") int failureThreshold,
+                                   @Value("${tmdb.circuit.open-duration-ms:30000}") long openDurationMs) {
+        return new UpstreamGuard("tmdb", maxConcurrent, failureThreshold, openDurationMs);
+    }
+
+    /**
+     * Creates the guard for OMDb API calls.
+     *
+     * @param maxConcurrent    maximum number of OMDb calls in flight
+     * @param failureThreshold consecutive failures that open the circuit
+     * @param openDurationMs   how long the circuit stays open before a trial call
+     * @return the OMDb guard
+     */
+    @Bean
+    public UpstreamGuard omdbGuard(@Value("${omdb.bulkhead.max-concurrent:16}") int maxConcurrent,
+                                   @Value("${omdb.circuit.failure-threshold:5}") int failureThreshold,
+                                   @Value("${omdb.circuit.open-duration-ms:30000}") long openDurationMs) {
+        return new UpstreamGuard("omdb", maxConcurrent, failureThreshold, openDurationMs);
+    }
+
+    /**
+     * Creates the rate limiter for requests with the TMDb API key.
+     *
+     * @param permitsPerSecond sustained request rate
+     * @param burst            maximum burst size
+     * @param maxQueue         maximum number of waiting requests
+     * @param maxRetries       how often a 429 response is retried
+     * @return the TMDb rate limiter
+     */
+    @Bean
+    public RateLimiter tmdbRateLimiter(@Value("${tmdb.ratelimit.permits-per-second:20}") double permitsPerSecond,
+                                       @Value("${tmdb.ratelimit.burst:20}") int burst,
+                                       @Value("${tmdb.ratelimit.max-queue:100}") int maxQueue,
+                                       @Value("${tmdb.ratelimit.max-retries:2}") int maxRetries) {
+        return new RateLimiter("tmdb", permitsPerSecond, burst, maxQueue, maxRetries);
+    }
+
+    /**
+     * Creates the rate limiter for requests with the OMDb API key.
+     *
+     * @param permitsPerSecond sustained request rate
+     * @param burst            maximum burst size
+     * @param maxQueue         maximum number of waiting requests
+     * @param maxRetries       how often a 429 response is retried
+     * @return the OMDb rate limiter
+     */
+    @Bean
+    public RateLimiter omdbRateLimiter(@Value("${omdb.ratelimit.permits-per-second:5}") double permitsPerSecond,
+                                       @Value("${omdb.ratelimit.burst:5}") int burst,
+                                       @Value("${omdb.ratelimit.max-queue:100}") int maxQueue,
+                                       @Value("${omdb.ratelimit.max-retries:2}") int maxRetries) {
+        return new RateLimiter("omdb", permitsPerSecond, burst, maxQueue, maxRetries);
+    }
+
+    /**
+     * Creates the hedging and retry policy for TMDb API calls.
+     *
+     * @param maxAttempts     maximum attempts per call, including the first
+     * @param baseBackoffMs   backoff before the first retry
+     * @param hedgingEnabled  whether slow attempts are hedged
+     * @param minHedgeDelayMs lower bound for the p95-based hedge delay
+     * @return the TMDb hedging and retry policy
+     */
+    @Bean
+    public HedgedRetry tmdbHedgedRetry(@Value("${tmdb.retry.max-attempts:3}") int maxAttempts,
+                                       @Value("${tmdb.retry.base-backoff-ms:100}") long baseBackoffMs,
+                                       @Value("${tmdb.hedge.enabled:true}") boolean hedgingEnabled,
+                                       @Value("${tmdb.hedge.min-delay-ms:50}") long minHedgeDelayMs) {
+        return new HedgedRetry("tmdb", maxAttempts, baseBackoffMs, hedgingEnabled, minHedgeDelayMs);
+    }
+
+    /**
+     * Creates the hedging and retry policy for OMDb API calls.
+     *
+     * @param maxAttempts     maximum attempts per call, including the first
+     * @param baseBackoffMs   backoff before the first retry
+     * @param hedgingEnabled  whether slow attempts are hedged
+     * @param minHedgeDelayMs lower bound for the p95-based hedge delay
+     * @return the OMDb hedging and retry policy
+     */
+    @Bean
+    public HedgedRetry omdbHedgedRetry(@Value("${omdb.retry.max-attempts:3}") int maxAttempts,
+                                       @Value("${omdb.retry.base-backoff-ms:100}") long baseBackoffMs,
+                                       @Value("${omdb.hedge.enabled:true}") boolean hedgingEnabled,
+                                       @Value("${omdb.hedge.min-delay-ms:50}") long minHedgeDelayMs) {
+        return new HedgedRetry("omdb", maxAttempts, baseBackoffMs, hedgingEnabled, minHedgeDelayMs);
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.moviewatchlist.config;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * On-disk archive of recorded upstream responses.
+ * Each response is one gzip-compressed file named after the hash of its request key, which is the
+ * method and URL with the API key parameters removed, so an archive recorded with one key replays
+ * with any other and never contains the keys. Only the status, latency, the headers the services
+ * read and the body are kept.
+ */
+public class UpstreamArchive {
+
+    /** Query parameters holding API keys, left out of request keys. */
+    private static final Set<String> SECRET_PARAMETERS = Set.of("api_key", "apikey");
+
+    /** Response headers kept in the archive. */
+    private static final Set<String> KEPT_HEADERS = Set.of("content-type", "retry-after");
+
+    private static final int FORMAT_VERSION = 1;
+
+    private final Path directory;
+
+    /**
+     * Creates an archive stored in the given directory.
+     *
+     * @param directory the archive directory; created on the first write
+     */
+    public UpstreamArchive(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * A recorded response.
+     *
+     * @param key          the request key
+     * @param status       the HTTP status
+     * @param latencyNanos time from sending the request to the complete body
+     * @param headers      the kept response headers
+     * @param body         the response body
+     */
+    public record Entry(String key, int status, long latencyNanos, Map<String, List<String>> headers, byte[] body) {}
+
+    /**
+     * Returns the key a request is archived under: the method and the URL without API keys.
+     *
+     * @param request the request
+     * @return the request key
+     */
+    public static String key(HttpRequest request) {
+        URI uri = request.uri();
+        StringBuilder key = new StringBuilder(request.method()).append(' ')
+                .append(uri.getScheme()).append("://").append(uri.getRawAuthority()).append(uri.getRawPath());
+        if (uri.getRawQuery() != null) {
+            char separator = '?';
+            for (String parameter : uri.getRawQuery().split("&")) {
+                int eq = parameter.indexOf('=');
+                String name = eq >= 0 ? parameter.substring(0, eq) : parameter;
+                if (!SECRET_PARAMETERS.contains(name.toLowerCase())) {
+                    key.append(separator).append(parameter);
+                    separator = '&';
+                }
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * Filters response headers down to the ones kept in the archive.
+     *
+     * @param headers all response headers
+     * @return the kept headers
+     */
+    public static Map<String, List<String>> keptHeaders(Map<String, List<String>> headers) {
+        Map<String, List<String>> kept = new LinkedHashMap<>();
+        headers.forEach((name, values) -> {
+            if (KEPT_HEADERS.contains(name.toLowerCase())) {
+                kept.put(name.toLowerCase(), List.copyOf(values));
+            }
+        });
+        return kept;
+    }
+
+    /**
+     * Stores a response, replacing an earlier one for the same request key.
+     * The file is written next to its final name and moved into place, so readers never see a partial entry.
+     *
+     * @param entry the response
+     * @throws IOException if the file cannot be written
+     */
+    public void write(Entry entry) throws IOException {
+        Files.createDirectories(directory);
+        Path target = file(entry.key());
+        Path temp = Files.createTempFile(directory, ".record-", ".tmp");
+        try {
+            try (OutputStream file = Files.newOutputStream(temp);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(file)))) {
+                out.writeInt(FORMAT_VERSION);
+                out.writeUTF(entry.key());
+                out.writeInt(entry.status());
+                out.writeLong(entry.latencyNanos());
+                out.writeInt(entry.headers().size());
+                for (Map.Entry<String, List<String>> header : entry.headers().entrySet()) {
+                    out.writeUTF(header.getKey());
+                    out.writeInt(header.getValue().size());
+                    for (String value : header.getValue()) {
+                        out.writeUTF(value);
+                    }
+                }
+                out.writeInt(entry.body().length);
+                out.write(entry.body());
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Reads the response recorded for a request key.
+     *
+     * @param key the request key
+     * @return the response, or empty if none was recorded
+     * @throws IOException if the entry exists but cannot be read
+     */
+    public Optional<Entry> read(String key) throws IOException {
+        try (InputStream file = Files.newInputStream(file(key));
+             DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(file)))) {
+            int version = in.readInt();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Unsupported archive entry version " + version + " for " + key);
+            }
+            String storedKey = in.readUTF();
+            if (!storedKey.equals(key)) {
+                return Optional.empty();
+            }
+            int status = in.readInt();
+            long latencyNanos = in.readLong();
+            int headerCount = in.readInt();
+            Map<String, List<String>> headers = new LinkedHashMap<>();
+            for (int i = 0; i < headerCount; i++) {
+                String name = in.readUTF();
+                int valueCount = in.readInt();
+                List<String> values = new ArrayList<>(valueCount);
+                for (int j = 0; j < valueCount; j++) {
+                    values.add(in.readUTF());
+                }
+                headers.put(name, values);
+            }
+            byte[] body = in.readNBytes(in.readInt());
+            return Optional.of(new Entry(storedKey, status, latencyNanos, headers, body));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        }
+    }
+
+    /** Names the file of a request key after the SHA-256 hash of the key. */
+    private Path file(String key) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            StringBuilder name = new StringBuilder();
+            for (int i = 0; i < 16; i++) {
+                name.append(String.format("%02x", hash[i]));
+            }
+            return directory.resolve(name.append(".rec.gz").toString());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -4,15 +4,44 @@ package com.example.moviewatchlist.config;
  * Spring Web configuration for serving static resources.
  * Maps the local images directory to a public URL path so the frontend can access downloaded movie images.
  */
+import com.example.moviewatchlist.repository.MovieRepository;
+import com.example.moviewatchlist.service.ImageCacheManager;
+import com.example.moviewatchlist.service.ImageDownloadService;
+import com.example.moviewatchlist.service.ImageVariantService;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.lang.NonNull;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.util.regex.Pattern;
+
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    /** How long browsers may cache an image whose URL never changes content, without revalidating it. */
+    static final Duration IMAGE_CACHE_MAX_AGE = Duration.ofDays(365);
+
+    /** How long browsers may cache any other image, e.g. a title-named file, before revalidating it. */
+    static final Duration MUTABLE_IMAGE_CACHE_MAX_AGE = Duration.ofMinutes(10);
+
+    /**
+     * URL patterns of images whose content never changes: content-addressed file names and TMDb paths.
+     * The TMDb prefix is a capture so that the path handed to the resolvers still starts with "tmdb/".
+     */
+    private static final String[] IMMUTABLE_IMAGE_PATTERNS = {
+            "/movie-images/{file:[0-9a-f]{64}(?:_[a-z]+)?\\.[A-Za-z0-9]+}",
+            "/movie-images/{source:tmdb}/*"
+    };
+
+    /** File names starting with a SHA-256 hex hash are content-addressed, e.g. "{hash}.jpg" or "{hash}_thumb.jpg". */
+    private static final Pattern CONTENT_ADDRESSED_NAME = Pattern.compile("[0-9a-f]{64}(_[a-z]+)?\\.[A-Za-z0-9]+");
+
     /**
      * Path to the directory where movie images are stored, loaded from application properties.
      */
@@ -20,14 +49,80 @@ public class WebConfig implements WebMvcConfigurer {
     private String imagesPath;
 
     /**
-     * Adds a resource handler so images can be accessed via URLs like:
+     * Service that generates the smaller image variants requested with {@code ?size=}.
+     */
+    @Autowired
+    private ImageVariantService imageVariantService;
+
+    /**
+     * Service that downloads images requested by TMDb path under {@code /movie-images/tmdb/}.
+     */
+    @Autowired
+    private ImageDownloadService imageDownloadService;
+
+    /**
+     * Manager of the image quota, told about every served image so it can evict the least recently served.
+     */
+    @Autowired
+    private ImageCacheManager imageCacheManager;
+
+    /**
+     * Repository used to fetch only TMDb images that a saved movie references.
+     */
+    @Autowired
+    private MovieRepository movieRepository;
+
+    /**
+     * Adds resource handlers so images can be accessed via URLs like:
      * http://localhost:8080/movie-images/Inception_0.jpg
+     * A smaller variant can be requested with {@code ?size=thumb} or {@code ?size=medium}.
+     * Images addressed by TMDb path, e.g. /movie-images/tmdb/abc.jpg, are downloaded in the background on their
+     * first request if a movie references them, and served once stored.
+     * The resolver chain is not cached because the resolved file depends on the query parameter.
+     * Content-addressed file names and TMDb paths never change content, so they are cacheable for a year
+     * as immutable; other files, such as title-named images, get a short max-age and must be revalidated.
+     * Strong ETags and Last-Modified allow 304 responses for revalidation, and byte ranges are supported
+     * by the resource handler.
      *
      * @param registry the resource handler registry
      */
     @Override
     public void addResourceHandlers(@NonNull ResourceHandlerRegistry registry) {
-        registry.addResourceHandler("/movie-images/**")
-                .addResourceLocations("file:" + imagesPath);
+        addImageHandler(registry, CacheControl.maxAge(IMAGE_CACHE_MAX_AGE).cachePublic().immutable(),
+                IMMUTABLE_IMAGE_PATTERNS);
+        addImageHandler(registry, CacheControl.maxAge(MUTABLE_IMAGE_CACHE_MAX_AGE).cachePublic().mustRevalidate(),
+                "/movie-images/**");
+    }
+
+    /** Registers an images handler for the given URL patterns with the given caching policy. */
+    private void addImageHandler(ResourceHandlerRegistry registry, CacheControl cacheControl, String... patterns) {
+        registry.addResourceHandler(patterns)
+                .addResourceLocations("file:" + imagesPath)
+                .setCacheControl(cacheControl)
+                .setUseLastModified(true)
+                .setEtagGenerator(WebConfig::imageEtag)
+                .resourceChain(false)
+                .addResolver(new ImageVariantResourceResolver(imageVariantService))
+                .addResolver(new LazyImageResourceResolver(imageDownloadService, imageCacheManager, movieRepository));
+    }
+
+    /**
+     * Builds a strong ETag for an image.
+     * Content-addressed files use their name, which is derived from the content; other files
+     * use their modification time and length.
+     *
+     * @param resource the resolved image
+     * @return the ETag value, or null if the file cannot be inspected
+     */
+    static String imageEtag(Resource resource) {
+        String fileName = resource.getFilename();
+        if (fileName != null && CONTENT_ADDRESSED_NAME.matcher(fileName).matches()) {
+            return fileName;
+        }
+        try {
+            return Long.toHexString(resource.lastModified()) + "-" + Long.toHexString(resource.contentLength());
+        } catch (IOException e) {
+            return null;
+        }
     }
-}
\ No newline at end of file
+}
@@ -5,6 +5,12 @@
  * <ul>
  *   <li>Enabling and configuring asynchronous task execution (see {@code AsyncConfig})</li>
  *   <li>Mapping static resources and serving movie images (see {@code WebConfig})</li>
+ *   <li>Serving resized movie image variants selected by a {@code size} parameter (see {@code ImageVariantResourceResolver})</li>
+ *   <li>Downloading images addressed by TMDb path on their first request (see {@code LazyImageResourceResolver})</li>
+ *   <li>Providing the shared, instrumented outbound HTTP client (see {@code HttpClientConfig} and {@code InstrumentedHttpClient})</li>
+ *   <li>Recording upstream responses to an on-disk archive and replaying them offline (see {@code RecordReplayHttpClient} and {@code UpstreamArchive})</li>
+ *   <li>Creating the per-upstream rate limiters, bulkheads and circuit breakers (see {@code ResilienceConfig})</li>
+ *   <li>Registering application metrics such as upstream cache statistics (see {@code MetricsConfig})</li>
  * </ul>
  *
  * <p>These classes customize core application behavior such as thread pools and static file handling.
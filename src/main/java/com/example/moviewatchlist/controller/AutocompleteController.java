@@ -0,0 +1,67 @@
+package com.example.moviewatchlist.controller;
+
+import com.example.moviewatchlist.service.AutocompleteService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+
+/**
+ * REST controller for search-as-you-type suggestions.
+ * Delegates to AutocompleteService, which caches results per prefix and debounces each client.
+ */
+@RestController
+@RequestMapping("/api/movies/autocomplete")
+@CrossOrigin(origins = "*")
+public class AutocompleteController {
+
+    /**
+     * Header identifying the client (e.g. a browser tab) whose older lookups are superseded.
+     * Requests without it are not debounced: clients behind one address must not cancel each other.
+     */
+    public static final String CLIENT_ID_HEADER = "X-Client-Id";
+
+    private final AutocompleteService autocompleteService;
+
+    public AutocompleteController(AutocompleteService autocompleteService) {
+        this.autocompleteService = autocompleteService;
+    }
+
+    /**
+     * Suggest movies for the text typed so far.
+     * A lookup superseded by a newer one from the same client is answered with 204 No Content.
+     *
+     * @param query Text typed so far
+     * @param clientId Client identifier; lookups are not debounced if missing
+     * @return List of suggested movies
+     */
+    @GetMapping
+    public DeferredResult<ResponseEntity<?>> autocomplete(
+            @RequestParam String query,
+            @RequestHeader(value = CLIENT_ID_HEADER, required = false) String clientId) {
+        DeferredResult<ResponseEntity<?>> output = new DeferredResult<>();
+        String client = clientId != null && !clientId.isBlank() ? clientId : null;
+        autocompleteService.suggest(client, query)
+            .whenComplete((suggestions, ex) -> {
+                if (ex == null) {
+                    output.setResult(ResponseEntity.ok(suggestions));
+                } else if (unwrap(ex) instanceof CancellationException) {
+                    output.setResult(ResponseEntity.noContent().build());
+                } else {
+                    output.setErrorResult(ResponseEntity
+                            .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .header("Content-Type", "application/json")
+                            .body(Map.of("error", String.valueOf(unwrap(ex).getMessage()))));
+                }
+            });
+        return output;
+    }
+
+    private Throwable unwrap(Throwable ex) {
+        return ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+    }
+}
@@ -1,16 +1,21 @@
 package com.example.moviewatchlist.controller;
 
+import com.example.moviewatchlist.dto.CursorPage;
 import com.example.moviewatchlist.dto.MovieResponse;
 import com.example.moviewatchlist.dto.PaginatedResponse;
 import com.example.moviewatchlist.model.Movie;
+import com.example.moviewatchlist.service.Deadline;
 import com.example.moviewatchlist.service.MovieService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.context.request.async.DeferredResult;
 
+import java.time.Duration;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeoutException;
 
 /**
  * REST controller for movie-related endpoints.
@@ -21,10 +26,25 @@ import java.util.Optional;
 @CrossOrigin(origins = "*")
 public class MovieController {
 
+    /**
+     * Time kept between the service deadline and the request timeout, so the service has stopped,
+     * and has either saved the movie or given up, before the client is told that adding it timed out.
+     */
+    static final long ADD_DEADLINE_MARGIN_MS = 1000;
+
     private final MovieService movieService;
 
-    public MovieController(MovieService movieService) {
+    /**
+     * Overall time limit for adding a movie. The client gets 504 Gateway Timeout if the movie is still not added.
+     * The service works to a deadline {@link #ADD_DEADLINE_MARGIN_MS} shorter, after which the upstream calls
+     * stop retrying and hedging and the movie is no longer saved.
+     */
+    private final long addTimeoutMs;
+
+    public MovieController(MovieService movieService,
+                           @Value("${movie.add.timeout-ms:15000}") long addTimeoutMs) {
         this.movieService = movieService;
+        this.addTimeoutMs = addTimeoutMs;
     }
 
     /**
@@ -55,27 +75,49 @@ public class MovieController {
 
     /**
      * Add a new movie to the watchlist.
+     * The request carries a deadline, shorter than the request timeout, that is passed down to the upstream calls.
      *
      * @param request Request body containing movie title
      * @return The created movie or error response
      */
     @PostMapping
     public DeferredResult<ResponseEntity<?>> addMovie(@RequestBody Map<String, String> request) {
-        DeferredResult<ResponseEntity<?>> output = new DeferredResult<>();
+        DeferredResult<ResponseEntity<?>> output = new DeferredResult<>(addTimeoutMs);
         String title = request.get("title");
         if (title == null || title.trim().isEmpty()) {
             output.setResult(buildBadRequestResponse("Movie title is required"));
             return output;
         }
-        movieService.addMovieByTitle(title)
+        output.onTimeout(() -> output.setErrorResult(buildGatewayTimeoutResponse("Adding the movie timed out")));
+        movieService.addMovieByTitle(title, Deadline.after(Duration.ofMillis(serviceTimeoutMs())))
             .thenAccept(movie -> output.setResult(ResponseEntity.status(HttpStatus.CREATED).body(new MovieResponse(movie))))
             .exceptionally(ex -> {
-                output.setResult(buildBadRequestResponse(ex));
+                output.setResult(buildAddFailedResponse(ex));
                 return null;
             });
         return output;
     }
 
+    /** Returns the service deadline for adding a movie, leaving the margin but at least half the request timeout. */
+    private long serviceTimeoutMs() {
+        return Math.max(addTimeoutMs - ADD_DEADLINE_MARGIN_MS, addTimeoutMs / 2);
+    }
+
+    private ResponseEntity<?> buildAddFailedResponse(Throwable ex) {
+        Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+        if (cause instanceof TimeoutException) {
+            return buildGatewayTimeoutResponse(cause.getMessage());
+        }
+        return buildBadRequestResponse(ex);
+    }
+
+    private ResponseEntity<?> buildGatewayTimeoutResponse(String message) {
+        return ResponseEntity
+                .status(HttpStatus.GATEWAY_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .body(Map.of("error", message));
+    }
+
     private ResponseEntity<?> buildBadRequestResponse(String message) {
         return ResponseEntity
                 .badRequest()
@@ -104,6 +146,46 @@ public class MovieController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Get movies with cursor pagination, selected when the cursor parameter is present.
+     * Pass an empty cursor for the first page and the returned nextCursor for each following one.
+     *
+     * @param cursor Cursor from the previous page (empty for the first page)
+     * @param size Page size (default: 10)
+     * @return Movie page with the cursor of the next page
+     */
+    @GetMapping(params = {"cursor", "!fields"})
+    public ResponseEntity<CursorPage<MovieResponse>> getMoviesByCursor(
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+
+        CursorPage<MovieResponse> response = movieService.getMoviesAfter(cursor, size);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Get movie summaries with only the requested fields, selected when the fields parameter is present.
+     * Uses cursor pagination if a cursor is given, page-number pagination otherwise.
+     *
+     * @param fields Comma-separated summary fields, e.g. id,title,poster (empty for all of them)
+     * @param cursor Cursor from the previous page (empty for the first page), or absent for page-number pagination
+     * @param page Page number (default: 0), ignored with a cursor
+     * @param size Page size (default: 10)
+     * @return Paginated list of movie summaries
+     */
+    @GetMapping(params = "fields")
+    public ResponseEntity<?> getMovieSummaries(
+            @RequestParam String fields,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+
+        if (cursor != null) {
+            return ResponseEntity.ok(movieService.getMovieSummariesAfter(cursor, size, fields));
+        }
+        return ResponseEntity.ok(movieService.getMovieSummaries(page, size, fields));
+    }
+
     /**
      * Get a specific movie by ID.
      *
@@ -7,6 +7,7 @@
  * <h2>Main Components:</h2>
  * <ul>
  *   <li>{@link com.example.moviewatchlist.controller.MovieController} - Handles all movie-related endpoints</li>
+ *   <li>{@link com.example.moviewatchlist.controller.AutocompleteController} - Search-as-you-type suggestions</li>
  *   <li>{@link com.example.moviewatchlist.controller.GlobalExceptionHandler} - Centralized exception handling</li>
  * </ul>
  * 
@@ -14,6 +15,7 @@
  * <ul>
  *   <li>POST /api/movies - Add a new movie to the watchlist</li>
  *   <li>GET /api/movies - Get paginated list of movies</li>
+ *   <li>GET /api/movies/autocomplete?query= - Suggest movies for the text typed so far</li>
  *   <li>GET /api/movies/{id} - Get specific movie details</li>
  *   <li>PATCH /api/movies/{id}/rating - Update movie rating</li>
  *   <li>PATCH /api/movies/{id}/watched - Update watched status</li>
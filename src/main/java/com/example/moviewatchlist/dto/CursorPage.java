@@ -0,0 +1,62 @@
+package com.example.moviewatchlist.dto;
+
+import java.util.List;
+
+/**
+ * A page of data read with keyset (cursor) pagination.
+ * Unlike {@link PaginatedResponse} it carries no totals, so no count query is needed; the next page
+ * is requested with the opaque {@code nextCursor}, which is null on the last page.
+ *
+ * @param <T> the type of content in the page
+ */
+public class CursorPage<T> {
+    /**
+     * The actual data items for this page.
+     */
+    private List<T> content;
+    /**
+     * How many items were requested per page.
+     */
+    private int pageSize;
+    /**
+     * Cursor of the next page, or null if this is the last page.
+     */
+    private String nextCursor;
+
+    /**
+     * Constructs a cursor page with the given data and next-page cursor.
+     *
+     * @param content the data items for this page
+     * @param pageSize the number of items requested per page
+     * @param nextCursor the cursor of the next page, or null if this is the last page
+     */
+    public CursorPage(List<T> content, int pageSize, String nextCursor) {
+        this.content = content;
+        this.pageSize = pageSize;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Gets the data items for this page.
+     * @return the content list
+     */
+    public List<T> getContent() { return content; }
+
+    /**
+     * Gets the number of items requested per page.
+     * @return the page size
+     */
+    public int getPageSize() { return pageSize; }
+
+    /**
+     * Gets the cursor of the next page.
+     * @return the next cursor, or null if this is the last page
+     */
+    public String getNextCursor() { return nextCursor; }
+
+    /**
+     * Returns true if there is a next page.
+     * @return true if a next cursor is present, false otherwise
+     */
+    public boolean isHasNext() { return nextCursor != null; }
+}
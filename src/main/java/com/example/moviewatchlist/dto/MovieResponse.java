@@ -2,6 +2,7 @@ package com.example.moviewatchlist.dto;
 
 import com.example.moviewatchlist.model.Movie;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -42,6 +43,8 @@ public class MovieResponse {
 
     /**
      * Constructs a MovieResponse by copying data from a Movie entity.
+     * The image paths and similar movies are copied into plain lists, so the lazy collections are
+     * loaded while the entity is still attached and the response can be serialized outside a session.
      * @param movie the Movie entity to copy data from
      */
     public MovieResponse(Movie movie) {
@@ -56,8 +59,8 @@ public class MovieResponse {
         this.overview = movie.getOverview();
         this.releaseDate = movie.getReleaseDate();
         this.voteAverage = movie.getVoteAverage();
-        this.imagePaths = movie.getImagePaths();
-        this.similarMovies = movie.getSimilarMovies();
+        this.imagePaths = copy(movie.getImagePaths());
+        this.similarMovies = copy(movie.getSimilarMovies());
         this.watched = Boolean.TRUE.equals(movie.getWatched());
         this.rating = movie.getRating();
     }
@@ -100,6 +103,10 @@ public class MovieResponse {
         this.rating = rating;
     }
 
+    private static List<String> copy(List<String> values) {
+        return values != null ? new ArrayList<>(values) : null;
+    }
+
     /** @return the movie ID */
     public Long getId() { return id; }
     /** @return the movie title */
@@ -0,0 +1,105 @@
+package com.example.moviewatchlist.dto;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Represents a movie in a listing: only what a movie card shows.
+ * Read with a projection query, so the overview, similar movies and other details are not loaded,
+ * and only the first image path is kept as the poster.
+ */
+public class MovieSummary {
+    /** Names of the fields a listing can select, in the order they are returned. */
+    public static final List<String> FIELDS =
+            List.of("id", "title", "releaseYear", "poster", "imdbRating", "plot", "watched", "rating");
+
+    /** Movie ID. */
+    private Long id;
+    /** Movie title. */
+    private String title;
+    /** Release year. */
+    private String releaseYear;
+    /** Path of the poster image (the first image path), or null if there is none. */
+    private String poster;
+    /** IMDb rating score. */
+    private String imdbRating;
+    /** Movie plot/description. */
+    private String plot;
+    /** Whether the user has marked this movie as watched. */
+    private boolean watched;
+    /** User's rating for this movie (1-5 stars, or null if not rated). */
+    private Integer rating;
+
+    /**
+     * Constructs a MovieSummary from the columns selected by the projection query.
+     * The poster is set separately, since it comes from the image paths collection.
+     * @param id Movie ID
+     * @param title Movie title
+     * @param releaseYear Release year
+     * @param imdbRating IMDb rating score
+     * @param plot Movie plot/description
+     * @param watched Whether the user has marked this movie as watched
+     * @param rating User's rating for this movie
+     */
+    public MovieSummary(Long id, String title, String releaseYear, String imdbRating, String plot,
+                        Boolean watched, Integer rating) {
+        this.id = id;
+        this.title = title;
+        this.releaseYear = releaseYear;
+        this.imdbRating = imdbRating;
+        this.plot = plot;
+        this.watched = Boolean.TRUE.equals(watched);
+        this.rating = rating;
+    }
+
+    /**
+     * Returns the selected fields of this summary, in the order of {@link #FIELDS}.
+     * Selected fields are included even when null, so clients can tell them from unselected ones.
+     * @param fields names of the fields to include, all from {@link #FIELDS}
+     * @return field names mapped to their values
+     */
+    public Map<String, Object> select(Set<String> fields) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (String field : FIELDS) {
+            if (fields.contains(field)) {
+                values.put(field, get(field));
+            }
+        }
+        return values;
+    }
+
+    private Object get(String field) {
+        return switch (field) {
+            case "id" -> id;
+            case "title" -> title;
+            case "releaseYear" -> releaseYear;
+            case "poster" -> poster;
+            case "imdbRating" -> imdbRating;
+            case "plot" -> plot;
+            case "watched" -> watched;
+            case "rating" -> rating;
+            default -> throw new IllegalArgumentException("Unknown field: " + field);
+        };
+    }
+
+    /** @return the movie ID */
+    public Long getId() { return id; }
+    /** @return the movie title */
+    public String getTitle() { return title; }
+    /** @return the release year */
+    public String getReleaseYear() { return releaseYear; }
+    /** @return the poster image path, or null if there is none */
+    public String getPoster() { return poster; }
+    /** @param poster the poster image path */
+    public void setPoster(String poster) { this.poster = poster; }
+    /** @return the IMDb rating */
+    public String getImdbRating() { return imdbRating; }
+    /** @return the plot/description */
+    public String getPlot() { return plot; }
+    /** @return true if the movie is marked as watched */
+    public boolean isWatched() { return watched; }
+    /** @return the user's rating for this movie */
+    public Integer getRating() { return rating; }
+}
@@ -0,0 +1,134 @@
+package com.example.moviewatchlist.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Response class for the TMDb movie details endpoint called with
+ * {@code append_to_response=images,similar}.
+ * Contains the movie details plus its images and similar movies in one payload.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class TMDbMovieDetailsResponse {
+
+    /**
+     * Unique movie ID from TMDb.
+     */
+    private Integer id;
+
+    /**
+     * Movie title.
+     */
+    private String title;
+
+    /**
+     * Movie overview/description.
+     */
+    private String overview;
+
+    /**
+     * Release date (mapped from "release_date" in JSON).
+     */
+    @JsonProperty("release_date")
+    private String releaseDate;
+
+    /**
+     * Average vote/rating (mapped from "vote_average" in JSON).
+     */
+    @JsonProperty("vote_average")
+    private Double voteAverage;
+
+    /**
+     * Posters and backdrops appended to the details response.
+     */
+    private TMDbImagesResponse images;
+
+    /**
+     * Similar movies appended to the details response.
+     */
+    private TMDbSimilarResponse similar;
+
+    /**
+     * Gets the movie ID.
+     * @return movie ID
+     */
+    public Integer getId() { return id; }
+
+    /**
+     * Sets the movie ID.
+     * @param id movie ID
+     */
+    public void setId(Integer id) { this.id = id; }
+
+    /**
+     * Gets the movie title.
+     * @return movie title
+     */
+    public String getTitle() { return title; }
+
+    /**
+     * Sets the movie title.
+     * @param title movie title
+     */
+    public void setTitle(String title) { this.title = title; }
+
+    /**
+     * Gets the movie overview.
+     * @return movie overview
+     */
+    public String getOverview() { return overview; }
+
+    /**
+     * Sets the movie overview.
+     * @param overview movie overview
+     */
+    public void setOverview(String overview) { this.overview = overview; }
+
+    /**
+     * Gets the release date.
+     * @return release date
+     */
+    public String getReleaseDate() { return releaseDate; }
+
+    /**
+     * Sets the release date.
+     * @param releaseDate release date
+     */
+    public void setReleaseDate(String releaseDate) { this.releaseDate = releaseDate; }
+
+    /**
+     * Gets the average vote.
+     * @return average vote
+     */
+    public Double getVoteAverage() { return voteAverage; }
+
+    /**
+     * Sets the average vote.
+     * @param voteAverage average vote
+     */
+    public void setVoteAverage(Double voteAverage) { this.voteAverage = voteAverage; }
+
+    /**
+     * Gets the appended images.
+     * @return images response, or null if not present
+     */
+    public TMDbImagesResponse getImages() { return images; }
+
+    /**
+     * Sets the appended images.
+     * @param images images response
+     */
+    public void setImages(TMDbImagesResponse images) { this.images = images; }
+
+    /**
+     * Gets the appended similar movies.
+     * @return similar movies response, or null if not present
+     */
+    public TMDbSimilarResponse getSimilar() { return similar; }
+
+    /**
+     * Sets the appended similar movies.
+     * @param similar similar movies response
+     */
+    public void setSimilar(TMDbSimilarResponse similar) { this.similar = similar; }
+}
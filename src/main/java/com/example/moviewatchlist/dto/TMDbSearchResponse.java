@@ -29,6 +29,24 @@ public class TMDbSearchResponse {
      */
     public void setResults(List<TMDbMovie> results) { this.results = results; }
 
+    /**
+     * The "total_results" field: number of matches across all result pages.
+     */
+    @JsonProperty("total_results")
+    private Integer totalResults;
+
+    /**
+     * Gets the total number of matches across all result pages.
+     * @return total number of results, or null if not present
+     */
+    public Integer getTotalResults() { return totalResults; }
+
+    /**
+     * Sets the total number of matches across all result pages.
+     * @param totalResults total number of results
+     */
+    public void setTotalResults(Integer totalResults) { this.totalResults = totalResults; }
+
     /**
      * Represents a single movie from the TMDb search results.
      */
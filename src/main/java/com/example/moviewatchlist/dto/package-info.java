@@ -4,9 +4,9 @@
  * <p>This package contains simple Java classes used to transfer data between
  * the backend, external APIs (OMDb and TMDb), and the client. DTOs are used for:
  * <ul>
- *   <li>Representing movie data sent to and from the client (e.g., {@code MovieResponse})</li>
- *   <li>Mapping responses from OMDb and TMDb APIs (e.g., {@code OMDbResponse}, {@code TMDbSearchResponse}, {@code TMDbImagesResponse}, {@code TMDbSimilarResponse})</li>
- *   <li>Wrapping paginated results and related movie information (e.g., {@code PaginatedResponse})</li>
+ *   <li>Representing movie data sent to and from the client (e.g., {@code MovieResponse}, {@code MovieSummary})</li>
+ *   <li>Mapping responses from OMDb and TMDb APIs (e.g., {@code OMDbResponse}, {@code TMDbSearchResponse}, {@code TMDbImagesResponse}, {@code TMDbSimilarResponse}, {@code TMDbMovieDetailsResponse})</li>
+ *   <li>Wrapping paginated results and related movie information (e.g., {@code PaginatedResponse}, {@code CursorPage})</li>
  * </ul>
  *
  * @since 1.0
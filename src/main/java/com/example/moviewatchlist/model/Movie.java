@@ -2,6 +2,7 @@ package com.example.moviewatchlist.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 import java.util.List;
 
 /**
@@ -94,11 +95,22 @@ public class Movie {
     private Double voteAverage;
 
     /**
-     * List of local file paths to downloaded movie images.
-     * Stored in a separate table with a foreign key relationship.
+     * Number of movies whose lazy collections are loaded together, in one statement, when the
+     * first of them is accessed. Larger than the biggest page (100 movies plus the look-ahead row
+     * of cursor pagination), so listing a page needs one statement per collection instead of one
+     * per movie.
+     */
+    private static final int COLLECTION_BATCH_SIZE = 128;
+
+    /**
+     * List of local file paths to downloaded movie images, posters first.
+     * Stored in a separate table with a foreign key relationship; the image_order column keeps
+     * the list order, so the first image of a movie can be selected as its poster.
      */
     @ElementCollection
+    @BatchSize(size = COLLECTION_BATCH_SIZE)
     @CollectionTable(name = "movie_images", joinColumns = @JoinColumn(name = "movie_id"))
+    @OrderColumn(name = "image_order")
     @Column(name = "image_path")
     private List<String> imagePaths;
 
@@ -107,6 +119,7 @@ public class Movie {
      * Stored in a separate table with a foreign key relationship.
      */
     @ElementCollection
+    @BatchSize(size = COLLECTION_BATCH_SIZE)
     @CollectionTable(name = "similar_movies", joinColumns = @JoinColumn(name = "movie_id"))
     @Column(name = "similar_movie_title")
     private List<String> similarMovies;
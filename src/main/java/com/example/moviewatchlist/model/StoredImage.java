@@ -0,0 +1,55 @@
+package com.example.moviewatchlist.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Entity representing a movie image in the local content-addressed image store.
+ * Each TMDb image path maps to a file named after the SHA-256 hash of its content,
+ * so identical images downloaded for different paths share one file on disk.
+ *
+ * @author Movie Watchlist Team
+ * @version 1.0
+ */
+@Entity
+@Table(name = "stored_images")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+@EqualsAndHashCode(of = {"id", "tmdbPath"})
+@ToString(of = {"id", "tmdbPath", "fileName", "sizeBytes"})
+public class StoredImage {
+
+    /**
+     * Unique identifier for the stored image.
+     * Auto-generated by the database.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * The image path on TMDb (e.g., "/abc123.jpg").
+     * Each TMDb path is stored at most once.
+     */
+    @Column(nullable = false, unique = true)
+    private String tmdbPath;
+
+    /**
+     * Hex-encoded SHA-256 hash of the image content.
+     */
+    @Column(nullable = false, length = 64)
+    private String contentHash;
+
+    /**
+     * Name of the file in the images directory (content hash plus extension).
+     */
+    @Column(nullable = false)
+    private String fileName;
+
+    /**
+     * Size of the image file in bytes.
+     */
+    private long sizeBytes;
+}
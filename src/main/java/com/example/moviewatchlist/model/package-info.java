@@ -6,6 +6,7 @@
  *
  * <ul>
  *   <li><b>Movie</b> – Represents a movie in the watchlist, including metadata, images, similar movies, and user-specific fields.</li>
+ *   <li><b>StoredImage</b> – Maps a TMDb image path to a content-addressed file in the local image store.</li>
  * </ul>
  *
  * @since 1.0
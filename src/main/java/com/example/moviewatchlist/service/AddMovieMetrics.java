@@ -0,0 +1,185 @@
+package com.example.moviewatchlist.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.lang.NonNull;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Timers of the add-movie pipeline.
+ * The whole pipeline is timed as {@code movie.add} and each of its stages as {@code movie.add.stage},
+ * tagged with the stage name and whether it succeeded; both publish percentile histograms, so latency
+ * distributions can be compared across releases. Failed additions are also counted as
+ * {@code movie.add.failures}, tagged with the reason.
+ * Meters are recorded only once the metrics are bound to a registry.
+ */
+public class AddMovieMetrics implements MeterBinder {
+
+    /** The OMDb lookup, from sending the request to the parsed response. */
+    public static final String OMDB_FETCH = "omdb_fetch";
+    /** The check whether the movie is already in the watchlist. */
+    public static final String DUPLICATE_CHECK = "duplicate_check";
+    /** The TMDb search; it runs at the same time as the OMDb lookup. */
+    public static final String TMDB_SEARCH = "tmdb_search";
+    /** The combined TMDb images and similar movies request. */
+    public static final String TMDB_DETAILS = "tmdb_details";
+    /** The download of the selected images. */
+    public static final String IMAGE_DOWNLOAD = "image_download";
+    /** The save of the movie in the repository. */
+    public static final String REPOSITORY_SAVE = "repository_save";
+
+    private volatile MeterRegistry registry;
+
+    /**
+     * Times a whole addition and counts it by reason if it fails.
+     *
+     * @param pipeline starts the addition
+     * @param <T>      the result type
+     * @return the future of the addition
+     */
+    public <T> CompletableFuture<T> timeAdd(Supplier<CompletableFuture<T>> pipeline) {
+        long start = System.nanoTime();
+        return pipeline.get().whenComplete((result, ex) -> {
+            MeterRegistry meters = registry;
+            if (meters == null) {
+                return;
+            }
+            Timer.builder("movie.add")
+                    .description("Time to add a movie to the watchlist")
+                    .tag("outcome", ex == null ? "success" : "failure")
+                    .publishPercentileHistogram()
+                    .register(meters)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (ex != null) {
+                Counter.builder("movie.add.failures")
+                        .description("Failed additions of a movie, by reason")
+                        .tag("reason", failureReason(ex))
+                        .register(meters)
+                        .increment();
+            }
+        });
+    }
+
+    /**
+     * Times an asynchronous stage, until its future completes.
+     * Cancelling the returned future cancels the stage's own future as well.
+     *
+     * @param stage the stage name
+     * @param call  starts the stage
+     * @param <T>   the result type
+     * @return the future of the stage, or null if the call returned null
+     */
+    public <T> CompletableFuture<T> timeAsync(String stage, Supplier<CompletableFuture<T>> call) {
+        long start = System.nanoTime();
+        CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException e) {
+            recordStage(stage, start, e);
+            throw e;
+        }
+        if (future == null) {
+            return null;
+        }
+        CompletableFuture<T> timed = new CompletableFuture<>();
+        future.whenComplete((result, ex) -> {
+            recordStage(stage, start, ex);
+            if (ex != null) {
+                timed.completeExceptionally(ex);
+            } else {
+                timed.complete(result);
+            }
+        });
+        timed.whenComplete((result, ex) -> {
+            if (timed.isCancelled()) {
+                future.cancel(true);
+            }
+        });
+        return timed;
+    }
+
+    /**
+     * Times a synchronous stage.
+     *
+     * @param stage the stage name
+     * @param call  runs the stage
+     * @param <T>   the result type
+     * @return the result of the stage
+     */
+    public <T> T time(String stage, Supplier<T> call) {
+        long start = System.nanoTime();
+        try {
+            T result = call.get();
+            recordStage(stage, start, null);
+            return result;
+        } catch (RuntimeException e) {
+            recordStage(stage, start, e);
+            throw e;
+        }
+    }
+
+    private void recordStage(String stage, long start, Throwable failure) {
+        MeterRegistry meters = registry;
+        if (meters == null) {
+            return;
+        }
+        Timer.builder("movie.add.stage")
+                .description("Time spent in each stage of adding a movie")
+                .tag("stage", stage)
+                .tag("outcome", failure == null ? "success" : "failure")
+                .publishPercentileHistogram()
+                .register(meters)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Classifies why an addition failed.
+     *
+     * @param ex the failure, possibly wrapped in a CompletionException
+     * @return the reason tag
+     */
+    static String failureReason(Throwable ex) {
+        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+        String message = cause.getMessage() != null ? cause.getMessage() : "";
+        if (cause instanceof IllegalArgumentException) {
+            return "invalid_request";
+        }
+        if (cause instanceof TimeoutException) {
+            return "timeout";
+        }
+        if (cause instanceof UpstreamUnavailableException) {
+            return "upstream_unavailable";
+        }
+        if (cause instanceof IOException) {
+            return "upstream_io";
+        }
+        if (message.startsWith(MovieService.MOVIE_NOT_FOUND)) {
+            return "not_found";
+        }
+        if (message.equals(MovieService.MOVIE_ALREADY_EXISTS)) {
+            return "duplicate";
+        }
+        if (message.startsWith("Failed to parse")) {
+            return "parse_error";
+        }
+        return "other";
+    }
+
+    /**
+     * Starts recording the pipeline timers and failure counters in the given registry.
+     *
+     * @param registry the meter registry
+     */
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        this.registry = registry;
+    }
+}
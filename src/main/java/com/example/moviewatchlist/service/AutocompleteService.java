@@ -0,0 +1,278 @@
+package com.example.moviewatchlist.service;
+
+import com.example.moviewatchlist.dto.TMDbSearchResponse;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Search-as-you-type suggestions backed by TMDb search.
+ * Results are cached per normalized prefix. When TMDb returned every match for a shorter prefix
+ * (all results fit on the first page), a longer prefix is answered by filtering those results
+ * locally, so typing on usually needs no further TMDb call.
+ * Lookups that do go upstream are debounced per client: a lookup waits briefly before calling TMDb,
+ * and a newer lookup from the same client cancels the one still pending, so only the last
+ * keystroke of a burst reaches TMDb. Clients that send no id are looked up at once.
+ */
+@Service
+public class AutocompleteService implements MeterBinder {
+
+    /** Prefixes shorter than this get no suggestions. */
+    public static final int MIN_PREFIX_LENGTH = 2;
+
+    /** Maximum number of suggestions returned. */
+    public static final int MAX_SUGGESTIONS = 10;
+
+    /** Rough size of a cached search result besides its title, used to weigh cache entries. */
+    private static final int RESULT_WEIGHT = 64;
+
+    private static final long DEFAULT_DEBOUNCE_MS = 150;
+    private static final long DEFAULT_CACHE_TTL_SECONDS = 600;
+    private static final int DEFAULT_CACHE_MAX_ENTRIES = 5000;
+    private static final long DEFAULT_CACHE_MAX_BYTES = 4L * 1024 * 1024;
+
+    @Autowired
+    private TMDbService tmdbService;
+
+    private final long debounceMs;
+    private final ResponseCache<String, Suggestions> prefixCache;
+
+    /** The lookup still pending for each client; replaced and cancelled by the client's next lookup. */
+    private final Map<String, CompletableFuture<List<Map<String, Object>>>> pendingLookups = new ConcurrentHashMap<>();
+
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder prefixHits = new LongAdder();
+    private final LongAdder upstreamLookups = new LongAdder();
+    private final LongAdder superseded = new LongAdder();
+
+    /** Creates the service with the default debounce delay and cache settings. */
+    public AutocompleteService() {
+        this(DEFAULT_DEBOUNCE_MS, DEFAULT_CACHE_TTL_SECONDS, DEFAULT_CACHE_MAX_ENTRIES, DEFAULT_CACHE_MAX_BYTES);
+    }
+
+    /**
+     * Creates the service with the given debounce delay and prefix cache settings.
+     *
+     * @param debounceMs      how long a lookup waits for a newer one from the same client before calling TMDb
+     * @param cacheTtlSeconds how long the results for a prefix stay cached
+     * @param cacheMaxEntries maximum number of cached prefixes
+     * @param cacheMaxBytes   maximum total size of the cached results
+     */
+    @Autowired
+    public AutocompleteService(@Value("${movie.autocomplete.debounce-ms:150}") long debounceMs,
+                               @Value("${movie.autocomplete.cache.ttl-seconds:600}") long cacheTtlSeconds,
+                               @Value("${movie.autocomplete.cache.max-entries:5000}") int cacheMaxEntries,
+                               @Value("${movie.autocomplete.cache.max-bytes:4194304}") long cacheMaxBytes) {
+        this.debounceMs = debounceMs;
+        this.prefixCache = new ResponseCache<>("autocomplete", cacheTtlSeconds, cacheMaxEntries, cacheMaxBytes);
+    }
+
+    /**
+     * Returns suggestions for what a client has typed so far.
+     * The future is cancelled if the same client asks for another prefix before it completes.
+     * Lookups without a client id are neither debounced nor superseded, since they cannot be told apart.
+     *
+     * @param clientId identifies the client, e.g. one browser tab; may be null
+     * @param query    the text typed so far
+     * @return the suggestions, in the same shape as the search results
+     */
+    public CompletableFuture<List<Map<String, Object>>> suggest(String clientId, String query) {
+        String prefix = query == null ? "" : ResponseCache.normalizeTitle(query);
+        CompletableFuture<List<Map<String, Object>>> lookup = new CompletableFuture<>();
+        if (clientId != null) {
+            CompletableFuture<List<Map<String, Object>>> previous = pendingLookups.put(clientId, lookup);
+            if (previous != null && previous.cancel(false)) {
+                superseded.increment();
+            }
+        }
+
+        if (prefix.length() < MIN_PREFIX_LENGTH) {
+            complete(clientId, lookup, new ArrayList<>());
+            return lookup;
+        }
+        List<TMDbSearchResponse.TMDbMovie> local = findLocally(prefix);
+        if (local != null) {
+            complete(clientId, lookup, toSuggestions(local));
+            return lookup;
+        }
+
+        if (clientId == null) {
+            lookUpstream(null, prefix, lookup);
+            return lookup;
+        }
+        CompletableFuture.delayedExecutor(debounceMs, TimeUnit.MILLISECONDS).execute(() -> {
+            if (lookup.isDone()) {
+                return;
+            }
+            lookUpstream(clientId, prefix, lookup);
+        });
+        return lookup;
+    }
+
+    /** Asks TMDb for a prefix and completes the client's lookup with the suggestions. */
+    private void lookUpstream(String clientId, String prefix, CompletableFuture<List<Map<String, Object>>> lookup) {
+        upstreamLookups.increment();
+        tmdbService.searchMovie(prefix)
+                .thenApply(response -> toSuggestions(store(prefix, response)))
+                .whenComplete((suggestions, ex) -> {
+                    forget(clientId, lookup);
+                    if (ex != null) {
+                        lookup.completeExceptionally(ex);
+                    } else {
+                        lookup.complete(suggestions);
+                    }
+                });
+    }
+
+    private void complete(String clientId, CompletableFuture<List<Map<String, Object>>> lookup,
+                          List<Map<String, Object>> suggestions) {
+        forget(clientId, lookup);
+        lookup.complete(suggestions);
+    }
+
+    /** Stops tracking a client's lookup, unless a newer one has replaced it already. */
+    private void forget(String clientId, CompletableFuture<List<Map<String, Object>>> lookup) {
+        if (clientId != null) {
+            pendingLookups.remove(clientId, lookup);
+        }
+    }
+
+    /**
+     * Answers a prefix from the cache: directly if it was looked up before, otherwise by filtering
+     * the complete results of the longest cached shorter prefix.
+     *
+     * @param prefix the normalized prefix
+     * @return the matching results, or null if TMDb has to be asked
+     */
+    private List<TMDbSearchResponse.TMDbMovie> findLocally(String prefix) {
+        Suggestions exact = prefixCache.get(prefix);
+        if (exact != null) {
+            cacheHits.increment();
+            return exact.movies();
+        }
+        for (int end = prefix.length() - 1; end >= MIN_PREFIX_LENGTH; end--) {
+            Suggestions shorter = prefixCache.get(prefix.substring(0, end));
+            if (shorter != null && shorter.complete()) {
+                List<TMDbSearchResponse.TMDbMovie> filtered = shorter.movies().stream()
+                        .filter(movie -> matches(movie.getTitle(), prefix))
+                        .collect(Collectors.toList());
+                put(prefix, new Suggestions(filtered, true));
+                prefixHits.increment();
+                return filtered;
+            }
+        }
+        return null;
+    }
+
+    /** Caches the TMDb results for a prefix, noting whether they contain every match. */
+    private List<TMDbSearchResponse.TMDbMovie> store(String prefix, TMDbSearchResponse response) {
+        List<TMDbSearchResponse.TMDbMovie> movies = response.getResults() != null ? response.getResults() : List.of();
+        boolean complete = response.getTotalResults() != null && response.getTotalResults() <= movies.size();
+        put(prefix, new Suggestions(movies, complete));
+        return movies;
+    }
+
+    private void put(String prefix, Suggestions suggestions) {
+        long weight = prefix.length();
+        for (TMDbSearchResponse.TMDbMovie movie : suggestions.movies()) {
+            weight += RESULT_WEIGHT + (movie.getTitle() != null ? movie.getTitle().length() : 0);
+        }
+        prefixCache.put(prefix, suggestions, weight);
+    }
+
+    /**
+     * Checks whether a title matches a prefix the way TMDb search does: every word of the prefix
+     * must start a word of the title.
+     *
+     * @param title  the movie title
+     * @param prefix the normalized prefix
+     * @return true if the title matches
+     */
+    static boolean matches(String title, String prefix) {
+        if (title == null) {
+            return false;
+        }
+        String[] titleWords = title.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+");
+        for (String word : prefix.split("[^\\p{L}\\p{N}]+")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            boolean found = false;
+            for (String titleWord : titleWords) {
+                if (titleWord.startsWith(word)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private List<Map<String, Object>> toSuggestions(List<TMDbSearchResponse.TMDbMovie> movies) {
+        return movies.stream()
+                .limit(MAX_SUGGESTIONS)
+                .map(this::toSuggestion)
+                .collect(Collectors.toList());
+    }
+
+    private Map<String, Object> toSuggestion(TMDbSearchResponse.TMDbMovie movie) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("id", movie.getId());
+        result.put("title", movie.getTitle());
+        result.put("releaseDate", movie.getReleaseDate());
+        result.put("voteAverage", movie.getVoteAverage());
+        result.put("posterPath", movie.getPosterPath());
+        return result;
+    }
+
+    /** @return the number of prefixes answered from their own cache entry */
+    public long cacheHitCount() { return cacheHits.sum(); }
+    /** @return the number of prefixes answered by filtering a shorter prefix's results */
+    public long prefixHitCount() { return prefixHits.sum(); }
+    /** @return the number of lookups sent to TMDb */
+    public long upstreamLookupCount() { return upstreamLookups.sum(); }
+    /** @return the number of lookups cancelled by a newer one from the same client */
+    public long supersededCount() { return superseded.sum(); }
+
+    /**
+     * Registers the prefix cache meters and counters for each way a lookup was answered.
+     *
+     * @param registry the meter registry
+     */
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        prefixCache.bindTo(registry);
+        FunctionCounter.builder("movie.autocomplete.lookups", this, AutocompleteService::cacheHitCount)
+                .tag("source", "cache")
+                .register(registry);
+        FunctionCounter.builder("movie.autocomplete.lookups", this, AutocompleteService::prefixHitCount)
+                .tag("source", "prefix")
+                .register(registry);
+        FunctionCounter.builder("movie.autocomplete.lookups", this, AutocompleteService::upstreamLookupCount)
+                .tag("source", "upstream")
+                .register(registry);
+        FunctionCounter.builder("movie.autocomplete.superseded", this, AutocompleteService::supersededCount)
+                .register(registry);
+    }
+
+    /** Cached TMDb results for a prefix; complete if they contain every match TMDb has. */
+    private record Suggestions(List<TMDbSearchResponse.TMDbMovie> movies, boolean complete) {}
+}
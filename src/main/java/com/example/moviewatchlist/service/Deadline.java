@@ -0,0 +1,84 @@
+package com.example.moviewatchlist.service;
+
+import java.time.Duration;
+
+/**
+ * Point in time by which a request must be answered, passed down from the controller to the
+ * upstream calls so that retries and hedged attempts stop once the client would have given up.
+ * Based on {@link System#nanoTime()}, so it is not affected by wall clock changes.
+ */
+public final class Deadline {
+
+    private static final Deadline NONE = new Deadline(0, false);
+
+    private final long expiresAt;
+    private final boolean bounded;
+
+    private Deadline(long expiresAt, boolean bounded) {
+        this.expiresAt = expiresAt;
+        this.bounded = bounded;
+    }
+
+    /**
+     * Creates a deadline the given time from now.
+     *
+     * @param timeout time until the deadline
+     * @return the deadline
+     */
+    public static Deadline after(Duration timeout) {
+        return new Deadline(System.nanoTime() + timeout.toNanos(), true);
+    }
+
+    /**
+     * Returns a deadline that never expires, for callers without a time limit.
+     *
+     * @return the unbounded deadline
+     */
+    public static Deadline none() {
+        return NONE;
+    }
+
+    /**
+     * Returns the time left until the deadline.
+     *
+     * @return the remaining time, zero once expired, or a practically infinite duration if unbounded
+     */
+    public Duration remaining() {
+        if (!bounded) {
+            return Duration.ofNanos(Long.MAX_VALUE);
+        }
+        return Duration.ofNanos(Math.max(0, expiresAt - System.nanoTime()));
+    }
+
+    /**
+     * Checks whether this deadline is a real time limit, unlike {@link #none()}.
+     *
+     * @return true if the deadline expires at some point
+     */
+    public boolean isBounded() {
+        return bounded;
+    }
+
+    /**
+     * Checks whether the deadline has passed.
+     *
+     * @return true if no time is left
+     */
+    public boolean isExpired() {
+        return bounded && expiresAt - System.nanoTime() <= 0;
+    }
+
+    /**
+     * Caps a timeout to the time left until the deadline.
+     *
+     * @param timeout the timeout that applies without a deadline
+     * @return the smaller of the timeout and the remaining time, but at least one millisecond
+     */
+    public Duration cap(Duration timeout) {
+        Duration remaining = remaining();
+        if (remaining.compareTo(timeout) >= 0) {
+            return timeout;
+        }
+        return remaining.compareTo(Duration.ofMillis(1)) < 0 ? Duration.ofMillis(1) : remaining;
+    }
+}
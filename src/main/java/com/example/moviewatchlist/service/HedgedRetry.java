@@ -0,0 +1,332 @@
+package com.example.moviewatchlist.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.lang.NonNull;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Cuts the tail latency of one upstream with hedged requests and retries, both bounded by a {@link Deadline}.
+ * When an attempt has not answered after the upstream's recent p95 latency, a second identical attempt
+ * is sent and whichever answers successfully first wins; the other attempt is cancelled.
+ * Attempts that fail with an I/O error or a 502/503/504 response are retried after an exponential
+ * backoff with full jitter, as long as the backoff still fits before the deadline.
+ * With a {@link RateLimiter}, every attempt takes a token: the first attempt of each try waits for one,
+ * while a hedge is only sent if a token is free right away, so hedging never queues behind the quota.
+ * Latencies are measured from the moment an attempt is sent, so time spent waiting for a token does not
+ * raise the hedge delay. Only idempotent GET requests are sent through it.
+ */
+public class HedgedRetry implements MeterBinder {
+
+    /** Number of latency samples the p95 is computed from. */
+    static final int LATENCY_WINDOW = 256;
+
+    /** Hedging starts only once this many latencies have been recorded. */
+    static final int MIN_SAMPLES = 20;
+
+    /** Upper bound for a single retry backoff. */
+    static final Duration MAX_BACKOFF = Duration.ofSeconds(2);
+
+    private final String upstream;
+    private final int maxAttempts;
+    private final long baseBackoffNanos;
+    private final boolean hedgingEnabled;
+    private final long minHedgeDelayNanos;
+
+    private final long[] latencies = new long[LATENCY_WINDOW];
+    private int latencyCount;
+    private int latencyNext;
+
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder hedgesSkipped = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder deadlineExceeded = new LongAdder();
+
+    /**
+     * Creates the policy.
+     *
+     * @param upstream        name of the upstream, used in messages and metrics
+     * @param maxAttempts     maximum number of attempts per call, including the first
+     * @param baseBackoffMs   backoff before the first retry; doubled for every further retry
+     * @param hedgingEnabled  whether hedged attempts are sent
+     * @param minHedgeDelayMs lower bound for the hedge delay, so fast upstreams are not hedged immediately
+     */
+    public HedgedRetry(String upstream, int maxAttempts, long baseBackoffMs,
+                       boolean hedgingEnabled, long minHedgeDelayMs) {
+        if (maxAttempts < 1 || baseBackoffMs < 0 || minHedgeDelayMs < 0) {
+            throw new IllegalArgumentException("Retry settings must be positive");
+        }
+        this.upstream = upstream;
+        this.maxAttempts = maxAttempts;
+        this.baseBackoffNanos = TimeUnit.MILLISECONDS.toNanos(baseBackoffMs);
+        this.hedgingEnabled = hedgingEnabled;
+        this.minHedgeDelayNanos = TimeUnit.MILLISECONDS.toNanos(minHedgeDelayMs);
+    }
+
+    /**
+     * Sends a request, hedging slow attempts and retrying failed ones until the deadline.
+     * Calls made after the deadline, and retryable failures with no time left for another attempt,
+     * fail with {@link UpstreamUnavailableException}, so callers can degrade as for an open circuit.
+     *
+     * @param call     sends one attempt of the request
+     * @param deadline time by which the response is needed
+     * @param <T>      the response body type
+     * @return the response of the first successful attempt, or the outcome of the last one
+     */
+    public <T> CompletableFuture<HttpResponse<T>> execute(Supplier<CompletableFuture<HttpResponse<T>>> call,
+                                                          Deadline deadline) {
+        return execute(call, null, deadline);
+    }
+
+    /**
+     * Sends a rate limited request, hedging slow attempts and retrying failed ones until the deadline.
+     * Each attempt takes a token from the rate limiter; hedges are skipped when no token is free.
+     *
+     * @param call        sends one attempt of the request
+     * @param rateLimiter the token bucket of the upstream API key, or null if the calls are not rate limited
+     * @param deadline    time by which the response is needed
+     * @param <T>         the response body type
+     * @return the response of the first successful attempt, or the outcome of the last one
+     */
+    public <T> CompletableFuture<HttpResponse<T>> execute(Supplier<CompletableFuture<HttpResponse<T>>> call,
+                                                          RateLimiter rateLimiter, Deadline deadline) {
+        return attempt(call, rateLimiter, deadline, 1);
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> attempt(Supplier<CompletableFuture<HttpResponse<T>>> call,
+                                                           RateLimiter rateLimiter, Deadline deadline, int attempt) {
+        if (deadline.isExpired()) {
+            return deadlineExceeded();
+        }
+        return hedged(call, rateLimiter, deadline)
+                .handle((response, ex) -> {
+                    boolean retryable = ex != null ? isRetryable(ex) : isRetryableStatus(response.statusCode());
+                    if (!retryable || attempt >= maxAttempts) {
+                        return ex != null ? CompletableFuture.<HttpResponse<T>>failedFuture(unwrap(ex))
+                                : CompletableFuture.completedFuture(response);
+                    }
+                    long backoff = backoffNanos(attempt);
+                    if (deadline.remaining().toNanos() <= backoff) {
+                        return ex != null ? this.<T>deadlineExceeded()
+                                : CompletableFuture.completedFuture(response);
+                    }
+                    retries.increment();
+                    return CompletableFuture.runAsync(() -> { },
+                                    CompletableFuture.delayedExecutor(backoff, TimeUnit.NANOSECONDS))
+                            .thenCompose(ignored -> attempt(call, rateLimiter, deadline, attempt + 1));
+                })
+                .thenCompose(future -> future);
+    }
+
+    /** Runs one attempt, plus a hedged copy if it has not answered within the hedge delay. */
+    private <T> CompletableFuture<HttpResponse<T>> hedged(Supplier<CompletableFuture<HttpResponse<T>>> call,
+                                                          RateLimiter rateLimiter, Deadline deadline) {
+        Race<T> race = new Race<>(call, rateLimiter, deadline);
+        race.launch(false);
+        long delay = hedgeDelayNanos();
+        if (delay > 0 && deadline.remaining().toNanos() > delay) {
+            CompletableFuture.delayedExecutor(delay, TimeUnit.NANOSECONDS).execute(() -> race.launch(true));
+        }
+        return race.result;
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> deadlineExceeded() {
+        deadlineExceeded.increment();
+        return CompletableFuture.failedFuture(new UpstreamUnavailableException(upstream + " deadline exceeded"));
+    }
+
+    /** Computes the jittered backoff before the given retry: uniformly random up to base * 2^(attempt - 1). */
+    private long backoffNanos(int attempt) {
+        long ceiling = Math.min(MAX_BACKOFF.toNanos(), baseBackoffNanos << Math.min(attempt - 1, 20));
+        return ceiling > 0 ? ThreadLocalRandom.current().nextLong(ceiling + 1) : 0;
+    }
+
+    /**
+     * Returns how long to wait before hedging: the p95 of the recent latencies, but at least the minimum delay.
+     *
+     * @return the delay in nanoseconds, or 0 if hedging is disabled or there are too few samples
+     */
+    synchronized long hedgeDelayNanos() {
+        if (!hedgingEnabled || latencyCount < MIN_SAMPLES) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(latencies, latencyCount);
+        Arrays.sort(sorted);
+        long p95 = sorted[(int) Math.ceil(0.95 * latencyCount) - 1];
+        return Math.max(p95, minHedgeDelayNanos);
+    }
+
+    /** Records the latency of a successful attempt in the sliding window. */
+    synchronized void recordLatency(long nanos) {
+        latencies[latencyNext] = nanos;
+        latencyNext = (latencyNext + 1) % LATENCY_WINDOW;
+        latencyCount = Math.min(latencyCount + 1, LATENCY_WINDOW);
+    }
+
+    private static boolean isRetryable(Throwable ex) {
+        return unwrap(ex) instanceof IOException;
+    }
+
+    private static boolean isRetryableStatus(int statusCode) {
+        return statusCode == 502 || statusCode == 503 || statusCode == 504;
+    }
+
+    private static Throwable unwrap(Throwable ex) {
+        return ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+    }
+
+    /** @return the number of hedged attempts sent */
+    public long hedgeCount() { return hedges.sum(); }
+    /** @return the number of hedged attempts not sent because no rate limiter token was free */
+    public long hedgeSkippedCount() { return hedgesSkipped.sum(); }
+    /** @return the number of calls answered by their hedged attempt */
+    public long hedgeWinCount() { return hedgeWins.sum(); }
+    /** @return the number of retried attempts */
+    public long retryCount() { return retries.sum(); }
+    /** @return the number of calls given up because the deadline passed */
+    public long deadlineExceededCount() { return deadlineExceeded.sum(); }
+
+    /** @return the current hedge delay in milliseconds, 0 while hedging is inactive */
+    public double hedgeDelayMillis() {
+        return hedgeDelayNanos() / 1e6;
+    }
+
+    /**
+     * Registers the hedge delay gauge and the hedge, skipped hedge, hedge win, retry and deadline counters,
+     * all tagged with the upstream name.
+     *
+     * @param registry the meter registry
+     */
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        Gauge.builder("upstream.hedge.delay", this, HedgedRetry::hedgeDelayMillis)
+                .tag("upstream", upstream)
+                .baseUnit("milliseconds")
+                .register(registry);
+        FunctionCounter.builder("upstream.hedge.sent", this, HedgedRetry::hedgeCount)
+                .tag("upstream", upstream)
+                .register(registry);
+        FunctionCounter.builder("upstream.hedge.skipped", this, HedgedRetry::hedgeSkippedCount)
+                .tag("upstream", upstream)
+                .register(registry);
+        FunctionCounter.builder("upstream.hedge.wins", this, HedgedRetry::hedgeWinCount)
+                .tag("upstream", upstream)
+                .register(registry);
+        FunctionCounter.builder("upstream.retry.attempts", this, HedgedRetry::retryCount)
+                .tag("upstream", upstream)
+                .register(registry);
+        FunctionCounter.builder("upstream.deadline.exceeded", this, HedgedRetry::deadlineExceededCount)
+                .tag("upstream", upstream)
+                .register(registry);
+    }
+
+    /**
+     * Attempts of one request racing each other. The first successful response completes the result
+     * and cancels the attempts still running; a failure only completes it once no other attempt is running.
+     */
+    private final class Race<T> {
+
+        private final Supplier<CompletableFuture<HttpResponse<T>>> call;
+        private final RateLimiter rateLimiter;
+        private final Deadline deadline;
+        private final CompletableFuture<HttpResponse<T>> result = new CompletableFuture<>();
+        private final List<CompletableFuture<HttpResponse<T>>> attempts = new ArrayList<>();
+        private int pending;
+        private boolean decided;
+
+        Race(Supplier<CompletableFuture<HttpResponse<T>>> call, RateLimiter rateLimiter, Deadline deadline) {
+            this.call = call;
+            this.rateLimiter = rateLimiter;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Starts an attempt unless the race is already decided. The first attempt waits for a rate limiter
+         * token until the deadline; a hedge is skipped if no token is free right away. The token is taken together with the
+         * check, so it is never taken for a race that is decided before the hedge is sent.
+         */
+        void launch(boolean hedge) {
+            synchronized (this) {
+                if (decided) {
+                    return;
+                }
+                if (hedge && rateLimiter != null && !rateLimiter.tryAcquire()) {
+                    hedgesSkipped.increment();
+                    return;
+                }
+                pending++;
+            }
+            if (hedge) {
+                hedges.increment();
+            }
+            AtomicLong start = new AtomicLong();
+            Supplier<CompletableFuture<HttpResponse<T>>> timed = () -> {
+                start.set(System.nanoTime());
+                return call.get();
+            };
+            CompletableFuture<HttpResponse<T>> attempt;
+            try {
+                if (rateLimiter == null) {
+                    attempt = timed.get();
+                } else if (hedge) {
+                    attempt = rateLimiter.executeAcquired(timed);
+                } else {
+                    attempt = rateLimiter.execute(timed, deadline);
+                }
+            } catch (RuntimeException e) {
+                attempt = CompletableFuture.failedFuture(e);
+            }
+            boolean lost;
+            synchronized (this) {
+                lost = decided;
+                attempts.add(attempt);
+            }
+            if (lost) {
+                attempt.cancel(true);
+            }
+            attempt.whenComplete((response, ex) -> finish(response, ex, System.nanoTime() - start.get(), hedge));
+        }
+
+        private void finish(HttpResponse<T> response, Throwable ex, long latency, boolean hedge) {
+            boolean success = ex == null && response.statusCode() < 500;
+            List<CompletableFuture<HttpResponse<T>>> losers;
+            synchronized (this) {
+                pending--;
+                if (decided || (!success && pending > 0)) {
+                    return;
+                }
+                decided = true;
+                losers = new ArrayList<>(attempts);
+            }
+            // Only a success can leave attempts running; they lost and would only use connections and quota
+            losers.forEach(loser -> loser.cancel(true));
+            if (success) {
+                recordLatency(latency);
+                if (hedge) {
+                    hedgeWins.increment();
+                }
+            }
+            if (ex != null) {
+                result.completeExceptionally(ex);
+            } else {
+                result.complete(response);
+            }
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package com.example.moviewatchlist.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Background manager that keeps the images directory within a byte quota.
+ * On every run it removes image files no movie references any more (plus stale temporary
+ * downloads and variants of missing originals), then evicts the least recently served images
+ * until the directory fits the quota. Evicted images keep their store entries and are downloaded
+ * again on their next request. Files younger than the minimum age are never touched, so downloads
+ * that are not yet saved with their movie are safe.
+ */
+@Service
+public class ImageCacheManager implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageCacheManager.class);
+
+    /** Directory path for stored images, loaded from application properties. */
+    @Value("${movie.images.path}")
+    private String imagesPath;
+
+    /** Maximum total size of the images directory in bytes, including variants. */
+    @Value("${movie.images.cache.max-bytes:536870912}")
+    private long maxBytes;
+
+    /** Files modified more recently than this are neither collected nor evicted. */
+    @Value("${movie.images.cache.min-age-seconds:600}")
+    private long minAgeSeconds;
+
+    @Autowired
+    private ImageStore imageStore;
+
+    /** Last time each image file was served, by file name. Falls back to the file modification time. */
+    private final Map<String, Long> lastServed = new ConcurrentHashMap<>();
+
+    private final AtomicLong usageBytes = new AtomicLong();
+    private final AtomicLong fileCount = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong orphansRemoved = new AtomicLong();
+
+    /**
+     * Records that an image file was served, which moves it to the back of the eviction order.
+     *
+     * @param fileName the file name in the images directory
+     */
+    public void recordAccess(String fileName) {
+        lastServed.put(fileName, System.currentTimeMillis());
+    }
+
+    /**
+     * Runs garbage collection and quota enforcement. Scheduled with a fixed delay;
+     * the first run happens one interval after startup.
+     */
+    @Scheduled(fixedDelayString = "${movie.images.cache.interval-ms:300000}",
+            initialDelayString = "${movie.images.cache.interval-ms:300000}")
+    public void maintain() {
+        Path directory = Paths.get(imagesPath);
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try {
+            collectOrphans(directory);
+            enforceQuota(directory);
+        } catch (IOException e) {
+            logger.warn("Image cache maintenance failed", e);
+        }
+    }
+
+    /**
+     * Deletes unreferenced images, stale temporary downloads and variants whose original is gone.
+     * The referenced file names are loaded once per run, when the first old image is checked;
+     * only files missing from that snapshot are released, and the store checks them again before deleting.
+     *
+     * @param directory the images directory
+     * @throws IOException if the directory cannot be listed
+     */
+    void collectOrphans(Path directory) throws IOException {
+        long cutoff = System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(minAgeSeconds);
+        Set<String> referenced = null;
+        for (Path file : listFiles(directory)) {
+            if (lastModified(file) > cutoff) {
+                continue;
+            }
+            String fileName = file.getFileName().toString();
+            if (fileName.startsWith(".")) {
+                deleteQuietly(file);
+                continue;
+            }
+            if (referenced == null) {
+                referenced = imageStore.referencedFileNames();
+            }
+            if (!referenced.contains(fileName)) {
+                imageStore.release(List.of(file.toString()));
+                lastServed.remove(fileName);
+                orphansRemoved.incrementAndGet();
+            }
+        }
+
+        Path variants = directory.resolve(ImageVariantService.VARIANTS_DIRECTORY);
+        for (Path variant : listFiles(variants)) {
+            if (lastModified(variant) <= cutoff && !Files.exists(directory.resolve(originalName(variant)))) {
+                deleteQuietly(variant);
+            }
+        }
+    }
+
+    /**
+     * Evicts the least recently served images until the directory fits the quota,
+     * then updates the usage gauges.
+     *
+     * @param directory the images directory
+     * @throws IOException if the directory cannot be listed
+     */
+    void enforceQuota(Path directory) throws IOException {
+        long usage = directorySize(directory);
+        if (usage > maxBytes) {
+            long cutoff = System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(minAgeSeconds);
+            List<Path> candidates = new ArrayList<>();
+            for (Path file : listFiles(directory)) {
+                if (!file.getFileName().toString().startsWith(".") && lastModified(file) <= cutoff) {
+                    candidates.add(file);
+                }
+            }
+            candidates.sort(Comparator.comparingLong(this::lastServed));
+
+            for (Path file : candidates) {
+                if (usage <= maxBytes) {
+                    break;
+                }
+                long freed = size(file) + variantsSize(directory, file.getFileName().toString());
+                imageStore.evict(file.toString());
+                lastServed.remove(file.getFileName().toString());
+                usage -= freed;
+                evictions.incrementAndGet();
+            }
+            usage = directorySize(directory);
+        }
+        usageBytes.set(usage);
+    }
+
+    /** Lists the regular files directly inside a directory, or nothing if it does not exist. */
+    private List<Path> listFiles(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(Files::isRegularFile).toList();
+        }
+    }
+
+    /** Sums the size of all files in the directory and its variants subdirectory, and counts them. */
+    private long directorySize(Path directory) throws IOException {
+        long total = 0;
+        long count = 0;
+        for (Path file : listFiles(directory)) {
+            total += size(file);
+            count++;
+        }
+        for (Path variant : listFiles(directory.resolve(ImageVariantService.VARIANTS_DIRECTORY))) {
+            total += size(variant);
+            count++;
+        }
+        fileCount.set(count);
+        return total;
+    }
+
+    /** Sums the size of the variants generated for an original image. */
+    private long variantsSize(Path directory, String fileName) throws IOException {
+        long total = 0;
+        for (Path variant : listFiles(directory.resolve(ImageVariantService.VARIANTS_DIRECTORY))) {
+            if (originalName(variant).equals(fileName)) {
+                total += size(variant);
+            }
+        }
+        return total;
+    }
+
+    /** Maps a variant file name like "abc_thumb.jpg" back to its original "abc.jpg". */
+    private String originalName(Path variant) {
+        String name = variant.getFileName().toString();
+        int underscore = name.lastIndexOf('_');
+        int dot = name.lastIndexOf('.');
+        if (underscore < 0) {
+            return name;
+        }
+        return name.substring(0, underscore) + (dot > underscore ? name.substring(dot) : "");
+    }
+
+    private long lastServed(Path file) {
+        return lastServed.getOrDefault(file.getFileName().toString(), lastModified(file));
+    }
+
+    private long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private long size(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Failed to delete image file {}", file, e);
+        }
+    }
+
+    /** @return the size of the images directory in bytes as of the last run */
+    public long getUsageBytes() { return usageBytes.get(); }
+    /** @return the configured quota in bytes */
+    public long getMaxBytes() { return maxBytes; }
+    /** @return the number of files in the images directory as of the last run */
+    public long getFileCount() { return fileCount.get(); }
+    /** @return the number of images evicted to stay within the quota */
+    public long getEvictionCount() { return evictions.get(); }
+    /** @return the number of unreferenced images removed */
+    public long getOrphansRemovedCount() { return orphansRemoved.get(); }
+
+    /**
+     * Registers usage, quota and file count gauges plus eviction and orphan counters.
+     *
+     * @param registry the meter registry
+     */
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        Gauge.builder("movie.images.cache.usage", this, ImageCacheManager::getUsageBytes)
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("movie.images.cache.quota", this, ImageCacheManager::getMaxBytes)
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("movie.images.cache.files", this, ImageCacheManager::getFileCount)
+                .register(registry);
+        FunctionCounter.builder("movie.images.cache.evictions", this, ImageCacheManager::getEvictionCount)
+                .register(registry);
+        FunctionCounter.builder("movie.images.cache.orphans.removed", this, ImageCacheManager::getOrphansRemovedCount)
+                .register(registry);
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.moviewatchlist.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.util.concurrent.CompletionException;
+
+/**
+ * Flight Recorder event for one image download, from the request to the file being in the image store.
+ * The event carries the movie the image was downloaded for, so slow downloads can be traced to an add.
+ * Stack traces are not recorded, so the event is cheap enough to keep enabled.
+ */
+@Name("com.example.moviewatchlist.ImageDownload")
+@Label("Image Download")
+@Category({"Movie Watchlist", "Images"})
+@Description("Download of a TMDb image and its write into the image store")
+@StackTrace(false)
+public class ImageDownloadEvent extends Event {
+
+    @Label("TMDb Path")
+    String tmdbPath;
+
+    @Label("Title")
+    @Description("Title of the movie being added, or null for an image fetched on its first request")
+    String title;
+
+    @Label("TMDb ID")
+    int tmdbId;
+
+    @Label("Local Path")
+    @Description("Path of the stored file, or null if the download failed")
+    String localPath;
+
+    @Label("Status")
+    @Description("HTTP status, or 0 if no response was received")
+    int status;
+
+    @Label("Size")
+    @DataAmount
+    long bytes;
+
+    @Label("Failure")
+    String failure;
+
+    /**
+     * Ends the event and commits it, if it is enabled and over its threshold.
+     *
+     * @param tmdbPath  the TMDb image path
+     * @param title     the title of the movie, or null
+     * @param tmdbId    the TMDb movie id, or null
+     * @param status    the HTTP status, or 0 if no response was received
+     * @param bytes     the size of the downloaded image
+     * @param localPath the path of the stored file, or null
+     * @param failure   the failure, or null
+     */
+    public void complete(String tmdbPath, String title, Integer tmdbId, int status, long bytes,
+                         String localPath, Throwable failure) {
+        end();
+        if (!shouldCommit()) {
+            return;
+        }
+        this.tmdbPath = tmdbPath;
+        this.title = title;
+        this.tmdbId = tmdbId != null ? tmdbId : 0;
+        this.status = status;
+        this.bytes = bytes;
+        this.localPath = localPath;
+        if (failure != null) {
+            Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                    ? failure.getCause() : failure;
+            this.failure = cause.getClass().getSimpleName() + ": " + cause.getMessage();
+        }
+        commit();
+    }
+}
@@ -1,5 +1,8 @@
 package com.example.moviewatchlist.service;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import java.io.IOException;
@@ -10,38 +13,100 @@ import java.net.http.HttpResponse;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.regex.Pattern;
 
 /**
  * Service for downloading and saving movie images from TMDb.
- * Downloads up to 3 images per movie and stores them locally.
+ * Downloads up to 3 images per movie into the content-addressed {@link ImageStore}.
+ * Images already in the store are reused without a download. Image bodies are streamed
+ * straight to a temporary file, so whole images are never buffered on the heap.
+ * Single images can also be fetched on demand, which is used when images are loaded lazily.
  */
 @Service
 public class ImageDownloadService {
 
+    private static final Logger logger = LoggerFactory.getLogger(ImageDownloadService.class);
+
     /** Directory path for saving downloaded images, loaded from application properties. */
     @Value("${movie.images.path}")
     private String imagesPath;
 
+    /** Base URL of the TMDb image size that is downloaded; points at a stub server in load tests. */
+    @Value("${tmdb.image.base-url:https://image.tmdb.org/t/p/w780}")
+    private String imageBaseUrl = "https://image.tmdb.org/t/p/w780";
+
+    @Autowired
+    private ImageStore imageStore;
+
+    /** TMDb image paths are a single file name segment, e.g. "/kqjL17yufvn9OVLyXYpvtyrFfak.jpg". */
+    private static final Pattern TMDB_IMAGE_PATH = Pattern.compile("/[A-Za-z0-9_-]+\\.(jpg|jpeg|png|webp)");
+
+    private static final long DEFAULT_REQUEST_TIMEOUT_MS = 10000;
+
     private final HttpClient httpClient;
+    private final Duration requestTimeout;
+
+    /** Shares one download between concurrent requests for the same TMDb image. */
+    private final SingleFlight inFlightDownloads = new SingleFlight("images");
 
+    /** Creates the service with its own HTTP client. */
     public ImageDownloadService() {
-        this.httpClient = HttpClient.newHttpClient();
+        this(HttpClient.newHttpClient(), DEFAULT_REQUEST_TIMEOUT_MS);
+    }
+
+    /**
+     * Creates the service with the shared HTTP client.
+     *
+     * @param httpClient       the shared outbound HTTP client
+     * @param requestTimeoutMs timeout for a whole request in milliseconds
+     */
+    @Autowired
+    public ImageDownloadService(HttpClient httpClient,
+                                @Value("${http.client.request-timeout-ms:10000}") long requestTimeoutMs) {
+        this.httpClient = httpClient;
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMs);
+    }
+
+    /**
+     * Returns the group that coalesces concurrent downloads of the same image, for metrics.
+     *
+     * @return the in-flight download group
+     */
+    public SingleFlight getInFlightDownloads() {
+        return inFlightDownloads;
     }
 
     /**
-     * Downloads up to 3 images for a movie and returns their local file paths.
+     * Stores up to 3 images for a movie and returns their local file paths.
      *
      * @param imagePaths List of TMDb image paths
-     * @param movieTitle The movie title (used for filenames)
      * @return CompletableFuture with list of local file paths
      */
-    public CompletableFuture<List<String>> downloadImages(List<String> imagePaths, String movieTitle) {
+    public CompletableFuture<List<String>> downloadImages(List<String> imagePaths) {
+        return downloadImages(imagePaths, null, null, Deadline.none());
+    }
+
+    /**
+     * Stores up to 3 images for a movie within the deadline of the calling request.
+     * Each download's timeout is capped to the time left, and a download already in flight for another
+     * caller is only waited for until the deadline; after it the future fails.
+     *
+     * @param imagePaths List of TMDb image paths
+     * @param title      Title of the movie, recorded in the download events
+     * @param tmdbId     TMDb ID of the movie, recorded in the download events
+     * @param deadline   Time by which the images are needed
+     * @return CompletableFuture with list of local file paths
+     */
+    public CompletableFuture<List<String>> downloadImages(List<String> imagePaths, String title, Integer tmdbId,
+                                                         Deadline deadline) {
         ensureImagesDirectoryExists();
 
-        List<CompletableFuture<String>> downloadTasks = createDownloadTasks(imagePaths, movieTitle);
+        List<CompletableFuture<String>> downloadTasks = createDownloadTasks(imagePaths, title, tmdbId, deadline);
 
         return CompletableFuture.allOf(downloadTasks.toArray(new CompletableFuture[0]))
                 .thenApply(v -> downloadTasks.stream()
@@ -50,6 +115,45 @@ public class ImageDownloadService {
                         .toList());
     }
 
+    /**
+     * Returns the local file for a single TMDb image, downloading it on first use.
+     * Concurrent calls for the same image share one download.
+     *
+     * @param tmdbPath the TMDb image path, e.g. "/abc.jpg"
+     * @return CompletableFuture with the local file path, or null if the path is invalid or the download failed
+     */
+    public CompletableFuture<String> fetchImage(String tmdbPath) {
+        if (!isTmdbImagePath(tmdbPath)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        ensureImagesDirectoryExists();
+        return createDownloadTask(tmdbPath, null, null, Deadline.none());
+    }
+
+    /**
+     * Restores a stored image file that is missing from disk, e.g. after it was evicted,
+     * by downloading it again from the TMDb path recorded for it.
+     *
+     * @param fileName the file name in the images directory
+     * @return CompletableFuture with the local file path, or null if the file is unknown or the download failed
+     */
+    public CompletableFuture<String> fetchStoredFile(String fileName) {
+        return imageStore.findTmdbPath(fileName)
+                .map(this::fetchImage)
+                .orElseGet(() -> CompletableFuture.completedFuture(null));
+    }
+
+    /**
+     * Checks whether a value is a well-formed TMDb image path.
+     * Only such paths are fetched on demand, so request paths cannot point the download elsewhere.
+     *
+     * @param path the value to check
+     * @return true if the value looks like a TMDb image path
+     */
+    public static boolean isTmdbImagePath(String path) {
+        return path != null && TMDB_IMAGE_PATH.matcher(path).matches();
+    }
+
     /** Ensures the images directory exists, creating it if necessary. */
     private void ensureImagesDirectoryExists() {
         try {
@@ -63,56 +167,101 @@ public class ImageDownloadService {
     }
 
     /** Creates download tasks for up to 3 images. */
-    private List<CompletableFuture<String>> createDownloadTasks(List<String> imagePaths, String movieTitle) {
+    private List<CompletableFuture<String>> createDownloadTasks(List<String> imagePaths, String title, Integer tmdbId,
+                                                                Deadline deadline) {
         List<CompletableFuture<String>> downloadTasks = new ArrayList<>();
         int imagesToDownload = Math.min(imagePaths.size(), 3);
 
         for (int i = 0; i < imagesToDownload; i++) {
-            downloadTasks.add(createDownloadTask(imagePaths.get(i), movieTitle, i));
+            downloadTasks.add(createDownloadTask(imagePaths.get(i), title, tmdbId, deadline));
         }
         return downloadTasks;
     }
 
-    private CompletableFuture<String> createDownloadTask(String imagePath, String movieTitle, int index) {
-        String imageUrl = "https://image.tmdb.org/t/p/w780" + imagePath;
-        String safeTitle = sanitizeFileName(movieTitle);
-        String imageName = index + getFileExtension(imagePath);
-        String safeImageName = sanitizeFileName(imageName);
-        String fileName = safeTitle + "_" + safeImageName;
-        String localPath = Paths.get(imagesPath, fileName).toString();
-        return downloadImage(imageUrl, localPath);
+    /** Reuses the stored file for the TMDb path if there is one, otherwise downloads it. */
+    private CompletableFuture<String> createDownloadTask(String imagePath, String title, Integer tmdbId,
+                                                         Deadline deadline) {
+        Optional<String> storedPath = imageStore.findLocalPath(imagePath);
+        if (storedPath.isPresent()) {
+            return CompletableFuture.completedFuture(storedPath.get());
+        }
+        String imageUrl = imageBaseUrl + imagePath;
+        return inFlightDownloads.execute(imagePath,
+                () -> downloadImage(imageUrl, imagePath, title, tmdbId, deadline), deadline);
     }
 
     /**
-     * Downloads a single image from URL and saves it to local path.
+     * Downloads a single image from URL into the image store.
+     * The body is written to a temporary file in the images directory while it arrives,
+     * and only a complete 200 OK download is handed to the store.
+     * The download is recorded as a Flight Recorder event.
      *
-     * @param imageUrl  The image URL
-     * @param localPath The local file path to save the image
+     * @param imageUrl The image URL
+     * @param tmdbPath The TMDb image path the URL was built from
+     * @param title    Title of the movie the image is for, or null
+     * @param tmdbId   TMDb ID of the movie the image is for, or null
+     * @param deadline Time by which the image is needed; caps the request timeout
      * @return CompletableFuture with the local file path, or null if failed
      */
-    private CompletableFuture<String> downloadImage(String imageUrl, String localPath) {
+    private CompletableFuture<String> downloadImage(String imageUrl, String tmdbPath, String title, Integer tmdbId,
+                                                    Deadline deadline) {
+        ImageDownloadEvent event = new ImageDownloadEvent();
+        event.begin();
         HttpRequest request = HttpRequest.newBuilder()
                 .uri(URI.create(imageUrl))
+                .timeout(deadline.cap(requestTimeout))
                 .GET()
                 .build();
 
-        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+        Path tempFile;
+        try {
+            tempFile = Files.createTempFile(Paths.get(imagesPath), ".download-", ".tmp");
+        } catch (IOException e) {
+            logger.warn("Failed to create temporary image file", e);
+            event.complete(tmdbPath, title, tmdbId, 0, 0, null, e);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        String extension = sanitizeFileName(getFileExtension(tmdbPath));
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofFile(tempFile))
                 .thenApply(response -> {
+                    int status = response.statusCode();
+                    long bytes = 0;
                     try {
-                        if (response.statusCode() == 200) {
-                            Files.write(Paths.get(localPath), response.body());
-                            return localPath;
+                        String path = null;
+                        if (status == 200) {
+                            if (event.isEnabled()) {
+                                bytes = Files.size(response.body());
+                            }
+                            path = imageStore.store(tmdbPath, response.body(), extension);
                         }
-                        return null;
+                        event.complete(tmdbPath, title, tmdbId, status, bytes, path, null);
+                        return path;
                     } catch (IOException e) {
-                        System.err.println("Failed to save image: " + e.getMessage());
+                        logger.warn("Failed to save image {}", tmdbPath, e);
+                        event.complete(tmdbPath, title, tmdbId, status, bytes, null, e);
                         return null;
                     }
+                })
+                .whenComplete((path, ex) -> {
+                    deleteQuietly(tempFile);
+                    if (ex != null) {
+                        event.complete(tmdbPath, title, tmdbId, 0, 0, null, ex);
+                    }
                 });
     }
 
+    /** Deletes a leftover temporary file, ignoring errors. */
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Failed to delete temporary image file {}", file, e);
+        }
+    }
+
     /** Removes special characters from filename to avoid file system issues. */
-    private String sanitizeFileName(String fileName) {
+    String sanitizeFileName(String fileName) {
         // Replace all forbidden characters (\ / : * ? " < > |) with _
         String sanitized = fileName.replaceAll("[\\\\/:*?\"<>|]", "_");
         // Then replace anything not a-z, A-Z, 0-9, dash, underscore, dot with _
@@ -0,0 +1,276 @@
+package com.example.moviewatchlist.service;
+
+import com.example.moviewatchlist.model.StoredImage;
+import com.example.moviewatchlist.repository.MovieRepository;
+import com.example.moviewatchlist.repository.StoredImageRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Content-addressed store for downloaded movie images.
+ * Files are named after the SHA-256 hash of their content, and every TMDb image path is
+ * recorded once, so repeated adds reuse the existing file without any network traffic.
+ * Files are shared between movies and are deleted, together with their generated variants,
+ * once no {@code Movie.imagePaths} entry references them. A movie being added reserves its TMDb
+ * paths until it is saved, so the files it is about to reference count as referenced meanwhile.
+ */
+@Service
+public class ImageStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageStore.class);
+
+    /** Directory path for stored images, loaded from application properties. */
+    @Value("${movie.images.path}")
+    private String imagesPath;
+
+    @Autowired
+    private StoredImageRepository storedImageRepository;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private ImageVariantService imageVariantService;
+
+    /** TMDb paths reserved by movies that are being added, with the number of reservations of each. */
+    private final Map<String, Integer> reservedTmdbPaths = new HashMap<>();
+
+    /**
+     * Reserves the TMDb paths of a movie that is being added, before its images are looked up or
+     * downloaded. Until {@link #unreserve(Collection)} is called, the files stored for these paths
+     * are not deleted, even though no saved movie references them yet.
+     *
+     * @param tmdbPaths the TMDb image paths of the movie
+     */
+    public synchronized void reserve(Collection<String> tmdbPaths) {
+        for (String tmdbPath : tmdbPaths) {
+            reservedTmdbPaths.merge(tmdbPath, 1, Integer::sum);
+        }
+    }
+
+    /**
+     * Ends reservations made with {@link #reserve(Collection)}, once the movie is saved
+     * (its image paths then reference the files) or its addition failed.
+     *
+     * @param tmdbPaths the TMDb image paths of the movie
+     */
+    public synchronized void unreserve(Collection<String> tmdbPaths) {
+        for (String tmdbPath : tmdbPaths) {
+            reservedTmdbPaths.computeIfPresent(tmdbPath, (path, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+
+    /**
+     * Checks whether a TMDb path is reserved by a movie that is being added.
+     *
+     * @param tmdbPath the TMDb image path
+     * @return true if at least one reservation holds the path
+     */
+    public synchronized boolean isReserved(String tmdbPath) {
+        return reservedTmdbPaths.containsKey(tmdbPath);
+    }
+
+    /**
+     * Returns the local path of a TMDb image that is already stored.
+     *
+     * @param tmdbPath the TMDb image path
+     * @return the local file path, or empty if the image is not stored or its file is gone
+     */
+    public Optional<String> findLocalPath(String tmdbPath) {
+        return storedImageRepository.findByTmdbPath(tmdbPath)
+                .map(image -> localPath(image.getFileName()))
+                .filter(path -> Files.exists(Paths.get(path)));
+    }
+
+    /**
+     * Adds a downloaded image to the store.
+     * If a file with the same content already exists, the download is discarded and the existing file is used.
+     *
+     * @param tmdbPath       the TMDb image path the file was downloaded from
+     * @param downloadedFile the downloaded file; it is moved into the store or deleted
+     * @param extension      the file extension including the dot (e.g. ".jpg")
+     * @return the local path of the stored file
+     * @throws IOException if the file cannot be read or moved
+     */
+    public String store(String tmdbPath, Path downloadedFile, String extension) throws IOException {
+        String contentHash = hash(downloadedFile);
+        String fileName = contentHash + extension;
+        Path target = Paths.get(imagesPath, fileName);
+        long size = Files.size(downloadedFile);
+
+        synchronized (this) {
+            if (Files.exists(target)) {
+                Files.delete(downloadedFile);
+            } else {
+                moveIntoPlace(downloadedFile, target);
+            }
+            StoredImage image = storedImageRepository.findByTmdbPath(tmdbPath)
+                    .orElseGet(() -> StoredImage.builder().tmdbPath(tmdbPath).build());
+            image.setContentHash(contentHash);
+            image.setFileName(fileName);
+            image.setSizeBytes(size);
+            storedImageRepository.save(image);
+        }
+        return target.toString();
+    }
+
+    /**
+     * Returns a TMDb path whose image is stored in the given file, so an evicted file can be fetched again.
+     *
+     * @param fileName the file name in the images directory
+     * @return a TMDb path stored in that file, or empty if the file is unknown
+     */
+    public Optional<String> findTmdbPath(String fileName) {
+        return storedImageRepository.findByFileName(fileName).stream()
+                .map(StoredImage::getTmdbPath)
+                .findFirst();
+    }
+
+    /**
+     * Counts how many movies reference a stored image, either by its local path
+     * or by any TMDb path whose content is stored in the same file.
+     * Reservations of those TMDb paths by movies being added count as references.
+     *
+     * @param localPath the local image path
+     * @return the number of references
+     */
+    public long referenceCount(String localPath) {
+        long count = movieRepository.countByImagePath(localPath);
+        String fileName = Paths.get(localPath).getFileName().toString();
+        for (StoredImage image : storedImageRepository.findByFileName(fileName)) {
+            count += movieRepository.countByImagePath(image.getTmdbPath());
+            if (isReserved(image.getTmdbPath())) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the names of all files referenced by a movie, directly by local path or through a
+     * TMDb path stored in the file, or reserved by a movie being added.
+     * Reads all references with two queries, so callers checking many files need no query per file.
+     * The result is a snapshot; {@link #release(Collection)} checks the references again before deleting.
+     *
+     * @return the referenced file names in the images directory
+     */
+    public synchronized Set<String> referencedFileNames() {
+        Set<String> fileNames = new HashSet<>();
+        Set<String> tmdbPaths = new HashSet<>(reservedTmdbPaths.keySet());
+        for (String imagePath : movieRepository.findAllImagePaths()) {
+            if (isLocalPath(imagePath)) {
+                fileNames.add(Paths.get(imagePath).getFileName().toString());
+            } else {
+                tmdbPaths.add(imagePath);
+            }
+        }
+        for (Object[] row : storedImageRepository.findAllTmdbPathsAndFileNames()) {
+            if (tmdbPaths.contains((String) row[0])) {
+                fileNames.add((String) row[1]);
+            }
+        }
+        return fileNames;
+    }
+
+    /**
+     * Releases images that were referenced by a deleted movie.
+     * The paths may be local file paths or, for lazily fetched images, TMDb paths.
+     * Images no longer referenced by any movie are removed from disk and from the store.
+     *
+     * @param imagePaths the image paths of the deleted movie
+     */
+    public synchronized void release(Collection<String> imagePaths) {
+        for (String imagePath : imagePaths) {
+            Optional<String> localPath = isLocalPath(imagePath)
+                    ? Optional.of(imagePath)
+                    : storedImageRepository.findByTmdbPath(imagePath).map(image -> localPath(image.getFileName()));
+            if (localPath.isPresent() && referenceCount(localPath.get()) == 0) {
+                delete(localPath.get());
+            }
+        }
+    }
+
+    /**
+     * Removes an image file and its variants from disk to free space, keeping its store entries.
+     * The image is downloaded again from its TMDb path the next time it is requested.
+     *
+     * @param localPath the local image path
+     */
+    public synchronized void evict(String localPath) {
+        Path file = Paths.get(localPath);
+        imageVariantService.deleteVariants(file.getFileName().toString());
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Failed to evict image {}", file, e);
+        }
+    }
+
+    private void delete(String localPath) {
+        Path file = Paths.get(localPath);
+        List<StoredImage> images = storedImageRepository.findByFileName(file.getFileName().toString());
+        storedImageRepository.deleteAll(images);
+        imageVariantService.deleteVariants(file.getFileName().toString());
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Failed to delete image {}", file, e);
+        }
+    }
+
+    /** Checks whether an image path points into the images directory rather than being a TMDb path. */
+    private boolean isLocalPath(String imagePath) {
+        return Paths.get(imagePath).normalize().startsWith(Paths.get(imagesPath).normalize());
+    }
+
+    /** Builds the local path for a file in the images directory. */
+    private String localPath(String fileName) {
+        return Paths.get(imagesPath, fileName).toString();
+    }
+
+    /** Computes the hex SHA-256 hash of a file, streaming it in small chunks. */
+    private String hash(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /** Moves a finished download into place, atomically where the file system supports it. */
+    private void moveIntoPlace(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
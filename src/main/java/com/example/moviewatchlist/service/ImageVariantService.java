@@ -0,0 +1,173 @@
+package com.example.moviewatchlist.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Generates and caches smaller variants of stored movie images.
+ * Variants are created lazily on the first request for a size and kept under
+ * {@code <images path>/variants/}, so later requests are served straight from disk.
+ * Images that cannot be decoded, or are already smaller than the requested size, are served unchanged.
+ */
+@Service
+public class ImageVariantService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageVariantService.class);
+
+    /** Name of the subdirectory of the images directory that holds the generated variants. */
+    public static final String VARIANTS_DIRECTORY = "variants";
+
+    /** Supported image variants with their target widths in pixels. */
+    public enum Size {
+        /** Small image for list and grid cards. */
+        THUMB(185),
+        /** Medium image for the detail view. */
+        MEDIUM(342);
+
+        private final int width;
+
+        Size(int width) {
+            this.width = width;
+        }
+
+        /** @return the target width in pixels */
+        public int getWidth() { return width; }
+
+        /**
+         * Parses a size request parameter such as {@code thumb} or {@code medium}.
+         *
+         * @param value the parameter value, may be null
+         * @return the matching size, or empty for missing or unknown values (the original image is served)
+         */
+        public static Optional<Size> fromParameter(String value) {
+            if (value == null) {
+                return Optional.empty();
+            }
+            for (Size size : values()) {
+                if (size.name().equalsIgnoreCase(value.trim())) {
+                    return Optional.of(size);
+                }
+            }
+            return Optional.empty();
+        }
+    }
+
+    /** Directory path for stored images, loaded from application properties. */
+    @Value("${movie.images.path}")
+    private String imagesPath;
+
+    /**
+     * Returns the file for a variant of an original image, generating it on first use.
+     *
+     * @param original the original image file
+     * @param size     the requested variant size
+     * @return the variant file, or the original if no smaller variant can be produced
+     * @throws IOException if the original cannot be read or the variant cannot be written
+     */
+    public Path getVariant(Path original, Size size) throws IOException {
+        String fileName = original.getFileName().toString();
+        String formatName = formatName(fileName);
+        if (formatName == null) {
+            return original;
+        }
+
+        Path variant = variantPath(fileName, size);
+        if (Files.exists(variant)) {
+            return variant;
+        }
+
+        BufferedImage source = ImageIO.read(original.toFile());
+        if (source == null || source.getWidth() <= size.getWidth()) {
+            return original;
+        }
+
+        BufferedImage scaled = scale(source, size.getWidth(), "jpg".equals(formatName));
+        Files.createDirectories(variant.getParent());
+        Path tempFile = Files.createTempFile(variant.getParent(), ".variant-", ".tmp");
+        try {
+            if (!ImageIO.write(scaled, formatName, tempFile.toFile())) {
+                return original;
+            }
+            moveIntoPlace(tempFile, variant);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+        return variant;
+    }
+
+    /**
+     * Deletes all generated variants of an original image.
+     *
+     * @param fileName the file name of the original image
+     */
+    public void deleteVariants(String fileName) {
+        for (Size size : Size.values()) {
+            try {
+                Files.deleteIfExists(variantPath(fileName, size));
+            } catch (IOException e) {
+                logger.warn("Failed to delete image variant {} of {}", size, fileName, e);
+            }
+        }
+    }
+
+    /** Builds the variant path, e.g. {@code variants/abc_thumb.jpg} for {@code abc.jpg}. */
+    private Path variantPath(String fileName, Size size) {
+        int dot = fileName.lastIndexOf('.');
+        String baseName = dot > 0 ? fileName.substring(0, dot) : fileName;
+        String extension = dot > 0 ? fileName.substring(dot) : "";
+        String variantName = baseName + "_" + size.name().toLowerCase(Locale.ROOT) + extension;
+        return Paths.get(imagesPath, VARIANTS_DIRECTORY, variantName);
+    }
+
+    /** Returns the ImageIO format name for a file, or null if variants are not supported for it. */
+    private String formatName(String fileName) {
+        String lower = fileName.toLowerCase(Locale.ROOT);
+        if (lower.endsWith(".jpg") || lower.endsWith(".jpeg")) {
+            return "jpg";
+        }
+        if (lower.endsWith(".png")) {
+            return "png";
+        }
+        return null;
+    }
+
+    /** Scales an image to the given width, keeping its aspect ratio. JPEG output has no alpha channel. */
+    private BufferedImage scale(BufferedImage source, int width, boolean opaque) {
+        int height = Math.max(1, Math.round((float) source.getHeight() * width / source.getWidth()));
+        BufferedImage target = new BufferedImage(width, height,
+                opaque ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    /** Moves a finished variant into place, atomically where the file system supports it. */
+    private void moveIntoPlace(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
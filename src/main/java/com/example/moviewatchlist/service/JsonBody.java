@@ -0,0 +1,53 @@
+package com.example.moviewatchlist.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.io.IOException;
+
+/**
+ * JSON response body as parsed by {@link JsonBodyHandler}: the buffered tokens of the document,
+ * ready to be bound to a DTO, plus the number of bytes received.
+ * A body that is not valid JSON keeps the parse error, which is thrown when the body is read,
+ * so an invalid body fails the parsing step rather than the HTTP call.
+ */
+public final class JsonBody {
+
+    private final TokenBuffer tokens;
+    private final IOException error;
+    private final long size;
+
+    JsonBody(TokenBuffer tokens, IOException error, long size) {
+        this.tokens = tokens;
+        this.error = error;
+        this.size = size;
+    }
+
+    /**
+     * Binds the body to a type.
+     *
+     * @param objectMapper the mapper used for data binding
+     * @param type         the target type
+     * @param <T>          the target type
+     * @return the bound value
+     * @throws IOException if the body is not valid JSON or does not match the type
+     */
+    public <T> T read(ObjectMapper objectMapper, Class<T> type) throws IOException {
+        if (error != null) {
+            throw error;
+        }
+        try (JsonParser parser = tokens.asParser(objectMapper)) {
+            return objectMapper.readValue(parser, type);
+        }
+    }
+
+    /**
+     * Returns the size of the body as received, including skipped parts.
+     *
+     * @return the number of bytes received
+     */
+    public long size() {
+        return size;
+    }
+}
@@ -0,0 +1,229 @@
+package com.example.moviewatchlist.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+
+/**
+ * Body handler that parses a JSON response while it arrives, without building a String of the body.
+ * Each chunk received by the HTTP client is fed to Jackson's non-blocking parser and the resulting
+ * tokens are buffered, so the DTO can be bound as soon as the last chunk is in and no thread blocks
+ * waiting for data.
+ * Optionally, one array field of the root object is limited: elements beyond a maximum are skipped
+ * and only the listed fields of each element are kept, so large search results cost no more than
+ * the part that is actually used. Fields after the array, such as totals, are still read.
+ */
+public class JsonBodyHandler implements HttpResponse.BodyHandler<JsonBody> {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final String limitedArray;
+    private final int maxElements;
+    private final Set<String> elementFields;
+
+    private JsonBodyHandler(String limitedArray, int maxElements, Set<String> elementFields) {
+        this.limitedArray = limitedArray;
+        this.maxElements = maxElements;
+        this.elementFields = elementFields;
+    }
+
+    /**
+     * Creates a handler that keeps the whole document.
+     *
+     * @return the handler
+     */
+    public static JsonBodyHandler create() {
+        return new JsonBodyHandler(null, Integer.MAX_VALUE, null);
+    }
+
+    /**
+     * Creates a handler that keeps only the first elements of an array field of the root object,
+     * and only some fields of each element.
+     *
+     * @param arrayField    name of the array field in the root object, e.g. "results"
+     * @param maxElements   number of elements to keep
+     * @param elementFields fields kept in each element; all others are skipped
+     * @return the handler
+     */
+    public static JsonBodyHandler limitingArray(String arrayField, int maxElements, Set<String> elementFields) {
+        return new JsonBodyHandler(arrayField, maxElements, elementFields);
+    }
+
+    @Override
+    public HttpResponse.BodySubscriber<JsonBody> apply(HttpResponse.ResponseInfo responseInfo) {
+        return new Subscriber();
+    }
+
+    /**
+     * Parses a complete body that is already in memory, e.g. one read from a file.
+     *
+     * @param body the JSON bytes
+     * @return the parsed body
+     */
+    public JsonBody parse(byte[] body) {
+        Subscriber subscriber = new Subscriber();
+        subscriber.onNext(List.of(ByteBuffer.wrap(body)));
+        subscriber.onComplete();
+        return subscriber.getBody().toCompletableFuture().join();
+    }
+
+    /** Feeds the received chunks to the non-blocking parser and buffers the kept tokens. */
+    private final class Subscriber implements HttpResponse.BodySubscriber<JsonBody> {
+
+        private final CompletableFuture<JsonBody> body = new CompletableFuture<>();
+        private final JsonParser parser;
+        private final TokenBuffer tokens;
+        private IOException error;
+        private long size;
+
+        private int depth;
+        private int skipFromDepth = -1;
+        private boolean skipNextValue;
+        private boolean atLimitedField;
+        private boolean inLimitedArray;
+        private int elementCount;
+
+        Subscriber() {
+            try {
+                parser = JSON_FACTORY.createNonBlockingByteBufferParser();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            tokens = new TokenBuffer(parser);
+        }
+
+        @Override
+        public CompletionStage<JsonBody> getBody() {
+            return body;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> items) {
+            for (ByteBuffer item : items) {
+                size += item.remaining();
+                if (error == null && item.hasRemaining()) {
+                    try {
+                        ((ByteBufferFeeder) parser.getNonBlockingInputFeeder()).feedInput(item);
+                        drain();
+                    } catch (IOException e) {
+                        error = e;
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            body.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            if (error == null) {
+                try {
+                    parser.getNonBlockingInputFeeder().endOfInput();
+                    drain();
+                } catch (IOException e) {
+                    error = e;
+                }
+            }
+            body.complete(new JsonBody(error == null ? tokens : null, error, size));
+        }
+
+        /** Processes all tokens that are complete in the input fed so far. */
+        private void drain() throws IOException {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                process(token);
+            }
+        }
+
+        private void process(JsonToken token) throws IOException {
+            if (skipFromDepth >= 0) {
+                continueSkip(token);
+                return;
+            }
+            if (skipNextValue) {
+                skipNextValue = false;
+                startSkip(token);
+                return;
+            }
+            if (limitedArray != null && filter(token)) {
+                return;
+            }
+            tokens.copyCurrentEvent(parser);
+            track(token);
+        }
+
+        /**
+         * Applies the array limit to a token.
+         *
+         * @return true if the token was consumed (skipped or already copied)
+         */
+        private boolean filter(JsonToken token) throws IOException {
+            if (depth == 1) {
+                if (token == JsonToken.START_ARRAY && atLimitedField) {
+                    inLimitedArray = true;
+                }
+                atLimitedField = token == JsonToken.FIELD_NAME && limitedArray.equals(parser.currentName());
+                return false;
+            }
+            if (!inLimitedArray) {
+                return false;
+            }
+            if (depth == 2) {
+                if (token == JsonToken.END_ARRAY) {
+                    inLimitedArray = false;
+                } else if (++elementCount > maxElements) {
+                    startSkip(token);
+                    return true;
+                }
+                return false;
+            }
+            if (depth == 3 && token == JsonToken.FIELD_NAME && elementFields != null
+                    && !elementFields.contains(parser.currentName())) {
+                skipNextValue = true;
+                return true;
+            }
+            return false;
+        }
+
+        private void startSkip(JsonToken token) {
+            skipFromDepth = depth;
+            continueSkip(token);
+        }
+
+        /** Drops a token of a skipped value; the value ends when the depth is back where it started. */
+        private void continueSkip(JsonToken token) {
+            track(token);
+            if (depth == skipFromDepth) {
+                skipFromDepth = -1;
+            }
+        }
+
+        private void track(JsonToken token) {
+            if (token.isStructStart()) {
+                depth++;
+            } else if (token.isStructEnd()) {
+                depth--;
+            }
+        }
+    }
+}
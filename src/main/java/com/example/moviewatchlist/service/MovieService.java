@@ -4,17 +4,26 @@ import com.example.moviewatchlist.dto.*;
 import com.example.moviewatchlist.model.Movie;
 import com.example.moviewatchlist.repository.MovieRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 /**
  * Service class for managing movie watchlist operations.
@@ -23,6 +32,21 @@ import java.util.HashMap;
 @Service
 public class MovieService {
 
+    /** Start of the error message when OMDb does not know the title. */
+    static final String MOVIE_NOT_FOUND = "Movie not found: ";
+
+    /** Error message when the movie is already in the watchlist. */
+    static final String MOVIE_ALREADY_EXISTS = "Movie already exists in watchlist";
+
+    /** Error message when a listing cursor cannot be decoded. */
+    static final String INVALID_CURSOR = "Invalid cursor";
+
+    /** Message of the {@link TimeoutException} an addition fails with once its deadline has passed. */
+    static final String ADD_TIMED_OUT = "Adding the movie timed out";
+
+    /** Prefix of a decoded cursor; versions the format so it can change without breaking old links. */
+    private static final String CURSOR_PREFIX = "id:";
+
     @Autowired
     private MovieRepository movieRepository;
 
@@ -35,6 +59,27 @@ public class MovieService {
     @Autowired
     private ImageDownloadService imageDownloadService;
 
+    @Autowired
+    private ImageStore imageStore;
+
+    /**
+     * When images are fetched: "eager" downloads them while adding a movie,
+     * "lazy" stores the TMDb paths and downloads each image on its first request.
+     */
+    @Value("${movie.images.fetch-mode:eager}")
+    private String imageFetchMode;
+
+    private final AddMovieMetrics addMovieMetrics = new AddMovieMetrics();
+
+    /**
+     * Returns the timers of the add-movie pipeline, e.g. for metrics registration.
+     *
+     * @return the pipeline metrics
+     */
+    public AddMovieMetrics getAddMovieMetrics() {
+        return addMovieMetrics;
+    }
+
     /**
      * Search for movies using TMDb API.
      *
@@ -65,7 +110,7 @@ public class MovieService {
      * @param movie TMDb movie object
      * @return Map containing simplified movie data
      */
-    private Map<String, Object> convertToSearchResult(TMDbSearchResponse.TMDbMovie movie) {
+    Map<String, Object> convertToSearchResult(TMDbSearchResponse.TMDbMovie movie) {
         Map<String, Object> result = new HashMap<>();
         result.put("id", movie.getId());
         result.put("title", movie.getTitle());
@@ -83,31 +128,80 @@ public class MovieService {
      * @return CompletableFuture containing the saved movie
      */
     public CompletableFuture<Movie> addMovieByTitle(String title) {
+        return addMovieByTitle(title, Deadline.none());
+    }
+
+    /**
+     * Adds a movie to the watchlist by title, within the deadline of the calling request.
+     * Validates the title before processing.
+     *
+     * @param title    Movie title
+     * @param deadline Time by which the movie must be added; upstream calls stop retrying and hedging after it
+     * @return CompletableFuture containing the saved movie
+     */
+    public CompletableFuture<Movie> addMovieByTitle(String title, Deadline deadline) {
         if (title == null || title.trim().isEmpty()) {
-            CompletableFuture<Movie> failed = new CompletableFuture<>();
-            failed.completeExceptionally(new IllegalArgumentException("Movie title is required"));
-            return failed;
+            return addMovieMetrics.timeAdd(() -> failedFuture(new IllegalArgumentException("Movie title is required")));
         }
-        return addMovieToWatchlist(title.trim());
+        return addMovieToWatchlist(title.trim(), deadline);
     }
 
     /**
      * Adds a new movie to the watchlist by searching for it using external APIs.
+     * The OMDb lookup and the TMDb search only need the title, so both are started at once
+     * and the total latency is that of the slower call rather than their sum.
      *
      * @param title The movie title to search for
      * @return CompletableFuture containing the saved movie
      */
     public CompletableFuture<Movie> addMovieToWatchlist(String title) {
+        return addMovieToWatchlist(title, Deadline.none());
+    }
+
+    /**
+     * Adds a new movie to the watchlist, with all upstream calls bounded by the given deadline.
+     * If TMDb is unavailable, the movie is saved with the OMDb data alone. Once the deadline has passed
+     * the movie is not saved at all and the future fails with a {@link TimeoutException}.
+     * The addition and each of its stages are timed by {@link AddMovieMetrics}.
+     *
+     * @param title    The movie title to search for
+     * @param deadline Time by which the movie must be added
+     * @return CompletableFuture containing the saved movie
+     */
+    public CompletableFuture<Movie> addMovieToWatchlist(String title, Deadline deadline) {
+        return addMovieMetrics.timeAdd(() -> startAddingMovie(title, deadline));
+    }
+
+    // Extracted from addMovieToWatchlist so the whole pipeline is timed, including early failures
+    private CompletableFuture<Movie> startAddingMovie(String title, Deadline deadline) {
         if (isBlank(title)) {
             return failedFuture(new IllegalArgumentException("Title cannot be null or blank"));
         }
 
-        CompletableFuture<OMDbResponse> omdbFuture = omdbService.getMovieData(title);
+        CompletableFuture<OMDbResponse> omdbFuture = addMovieMetrics.timeAsync(AddMovieMetrics.OMDB_FETCH,
+                () -> omdbService.getMovieData(title, deadline));
         if (omdbFuture == null) {
             return failedFuture(new NullPointerException("OMDbService.getMovieData returned null"));
         }
+        CompletableFuture<TMDbSearchResponse> tmdbFuture = addMovieMetrics.timeAsync(AddMovieMetrics.TMDB_SEARCH,
+                () -> tmdbService.searchMovie(title, deadline));
+        if (tmdbFuture == null) {
+            return failedFuture(new NullPointerException("TMDbService.searchMovie returned null"));
+        }
+
+        // An OMDb failure, unknown title or duplicate ends the addition before the TMDb search is used;
+        // a search still running is cancelled then, so it does not hold a token and connection for nothing
+        return omdbFuture.thenCompose(omdbResponse -> handleOmdbResponse(omdbResponse, tmdbFuture, deadline))
+                .whenComplete((movie, ex) -> {
+                    if (ex != null) {
+                        tmdbFuture.cancel(true);
+                    }
+                })
+                .exceptionallyCompose(ex -> failedFuture(deadline.isExpired() ? addTimedOut() : ex));
+    }
 
-        return omdbFuture.thenCompose(omdbResponse -> handleOmdbResponse(omdbResponse, title));
+    private CompletionException addTimedOut() {
+        return new CompletionException(new TimeoutException(ADD_TIMED_OUT));
     }
 
     private boolean isBlank(String str) {
@@ -120,13 +214,16 @@ public class MovieService {
         return failed;
     }
 
-    // Extracted from addMovieToWatchlist for method size and clarity
-    private CompletableFuture<Movie> handleOmdbResponse(OMDbResponse omdbResponse, String title) {
+    // Extracted from addMovieToWatchlist for method size and clarity.
+    // OMDb errors are reported first, even if the TMDb search (already running) fails as well.
+    private CompletableFuture<Movie> handleOmdbResponse(OMDbResponse omdbResponse,
+                                                        CompletableFuture<TMDbSearchResponse> tmdbFuture,
+                                                        Deadline deadline) {
         try {
             validateOmdbResponse(omdbResponse);
             checkIfMovieExists(omdbResponse.getTitle(), omdbResponse.getYear());
             Movie movie = createMovieFromOmdbData(omdbResponse);
-            return enrichMovieWithTmdbData(movie, title);
+            return enrichMovieWithTmdbData(movie, tmdbFuture, deadline);
         } catch (Exception ex) {
             CompletableFuture<Movie> failed = new CompletableFuture<>();
             failed.completeExceptionally(ex);
@@ -142,7 +239,7 @@ public class MovieService {
      */
     private void validateOmdbResponse(OMDbResponse response) {
         if (!"True".equals(response.getResponse())) {
-            throw new RuntimeException("Movie not found: " + response.getError());
+            throw new RuntimeException(MOVIE_NOT_FOUND + response.getError());
         }
     }
 
@@ -154,8 +251,10 @@ public class MovieService {
      * @throws RuntimeException if movie already exists
      */
     private void checkIfMovieExists(String title, String year) {
-        if (movieRepository.existsByTitleAndReleaseYear(title, year)) {
-            throw new RuntimeException("Movie already exists in watchlist");
+        if (addMovieMetrics.time(AddMovieMetrics.DUPLICATE_CHECK,
+                () -> RepositoryEvent.record("existsByTitleAndReleaseYear", title, null, null,
+                        () -> movieRepository.existsByTitleAndReleaseYear(title, year)))) {
+            throw new RuntimeException(MOVIE_ALREADY_EXISTS);
         }
     }
 
@@ -179,29 +278,40 @@ public class MovieService {
 
     /**
      * Enriches movie data with additional information from TMDb API.
+     * If TMDb is unavailable (its circuit is open or too many calls are in flight), the movie is saved with
+     * the data gathered so far, the same way as when TMDb finds no match. If the deadline has passed,
+     * nothing is saved: the client has been told the addition timed out and may retry it.
      *
      * @param movie The movie entity to enrich
-     * @param title The movie title for searching
+     * @param tmdbFuture The TMDb search started together with the OMDb lookup
+     * @param deadline Time by which the movie must be added
      * @return CompletableFuture containing the enriched and saved movie
      */
-    private CompletableFuture<Movie> enrichMovieWithTmdbData(Movie movie, String title) {
-        CompletableFuture<TMDbSearchResponse> tmdbFuture = tmdbService.searchMovie(title);
-        if (tmdbFuture == null) {
-            CompletableFuture<Movie> failed = new CompletableFuture<>();
-            failed.completeExceptionally(new NullPointerException("TMDbService.searchMovie returned null"));
-            return failed;
-        }
-        return tmdbFuture.thenCompose(tmdbSearchResponse -> handleTmdbSearchResponse(movie, tmdbSearchResponse));
+    private CompletableFuture<Movie> enrichMovieWithTmdbData(Movie movie,
+                                                             CompletableFuture<TMDbSearchResponse> tmdbFuture,
+                                                             Deadline deadline) {
+        return tmdbFuture
+                .thenCompose(tmdbSearchResponse -> handleTmdbSearchResponse(movie, tmdbSearchResponse, deadline))
+                .exceptionallyCompose(ex -> isUpstreamUnavailable(ex) && !deadline.isExpired()
+                        ? CompletableFuture.completedFuture(saveMovie(movie, deadline))
+                        : CompletableFuture.failedFuture(ex));
+    }
+
+    /** Checks whether a failure, possibly wrapped, is a rejected upstream call. */
+    private boolean isUpstreamUnavailable(Throwable ex) {
+        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+        return cause instanceof UpstreamUnavailableException;
     }
 
     // Extracted from enrichMovieWithTmdbData for method size and clarity
-    private CompletableFuture<Movie> handleTmdbSearchResponse(Movie movie, TMDbSearchResponse tmdbSearchResponse) {
+    private CompletableFuture<Movie> handleTmdbSearchResponse(Movie movie, TMDbSearchResponse tmdbSearchResponse,
+                                                              Deadline deadline) {
         if (tmdbSearchResponse.getResults().isEmpty()) {
-            return CompletableFuture.completedFuture(movieRepository.save(movie));
+            return CompletableFuture.completedFuture(saveMovie(movie, deadline));
         }
         TMDbSearchResponse.TMDbMovie tmdbMovie = tmdbSearchResponse.getResults().get(0);
         updateMovieWithTmdbInfo(movie, tmdbMovie);
-        return fetchAdditionalTmdbData(movie, tmdbMovie.getId());
+        return fetchAdditionalTmdbData(movie, tmdbMovie.getId(), deadline);
     }
 
     /**
@@ -219,17 +329,19 @@ public class MovieService {
 
     /**
      * Fetches additional data (images and similar movies) from TMDb.
+     * Uses the combined details request, so this costs one TMDb round trip.
      *
      * @param movie The movie entity
      * @param tmdbId The TMDb movie ID
+     * @param deadline Time by which the movie must be added
      * @return CompletableFuture containing the movie with additional data
      */
-    private CompletableFuture<Movie> fetchAdditionalTmdbData(Movie movie, Integer tmdbId) {
-        CompletableFuture<TMDbImagesResponse> imagesFuture = tmdbService.getMovieImages(tmdbId);
-        CompletableFuture<TMDbSimilarResponse> similarFuture = tmdbService.getSimilarMovies(tmdbId);
-
-        return CompletableFuture.allOf(imagesFuture, similarFuture)
-                .thenCompose(v -> processAdditionalData(movie, imagesFuture.join(), similarFuture.join()));
+    private CompletableFuture<Movie> fetchAdditionalTmdbData(Movie movie, Integer tmdbId, Deadline deadline) {
+        return addMovieMetrics.timeAsync(AddMovieMetrics.TMDB_DETAILS, () -> tmdbService.getMovieDetails(tmdbId, deadline))
+                .thenCompose(details -> processAdditionalData(movie,
+                        details.getImages() != null ? details.getImages() : new TMDbImagesResponse(),
+                        details.getSimilar() != null ? details.getSimilar() : new TMDbSimilarResponse(),
+                        deadline));
     }
 
     /**
@@ -238,21 +350,35 @@ public class MovieService {
      * @param movie The movie entity
      * @param imagesResponse TMDb images response
      * @param similarResponse TMDb similar movies response
+     * @param deadline Time by which the movie must be added
      * @return CompletableFuture containing the saved movie
      */
     private CompletableFuture<Movie> processAdditionalData(Movie movie,
                                                           TMDbImagesResponse imagesResponse,
-                                                          TMDbSimilarResponse similarResponse) {
+                                                          TMDbSimilarResponse similarResponse,
+                                                          Deadline deadline) {
         movie.setSimilarMovies(extractSimilarMovieTitles(similarResponse));
         List<String> imagePaths = extractImagePaths(imagesResponse);
 
-        if (!imagePaths.isEmpty()) {
-            return downloadAndSaveImages(movie, imagePaths);
+        if (imagePaths.isEmpty()) {
+            return CompletableFuture.completedFuture(saveMovie(movie, deadline));
+        } else if (isLazyImageFetch()) {
+            movie.setImagePaths(imagePaths);
+            return CompletableFuture.completedFuture(saveMovie(movie, deadline));
         } else {
-            return CompletableFuture.completedFuture(movieRepository.save(movie));
+            return downloadAndSaveImages(movie, imagePaths, deadline);
         }
     }
 
+    /**
+     * Checks whether images are fetched lazily, on their first request, instead of while adding a movie.
+     *
+     * @return true if the lazy fetch mode is configured
+     */
+    private boolean isLazyImageFetch() {
+        return "lazy".equalsIgnoreCase(imageFetchMode);
+    }
+
     /**
      * Extracts similar movie titles from TMDb response.
      *
@@ -303,17 +429,67 @@ public class MovieService {
 
     /**
      * Downloads images and saves the movie with image paths.
+     * The TMDb paths are reserved in the image store until the movie is saved, so a concurrent
+     * delete or cleanup cannot remove a stored file the new movie is about to reference.
      *
      * @param movie The movie entity
      * @param imagePaths List of image paths to download
+     * @param deadline Time by which the movie must be added; also bounds the downloads
      * @return CompletableFuture containing the saved movie
      */
-    private CompletableFuture<Movie> downloadAndSaveImages(Movie movie, List<String> imagePaths) {
-        return imageDownloadService.downloadImages(imagePaths, movie.getTitle())
+    private CompletableFuture<Movie> downloadAndSaveImages(Movie movie, List<String> imagePaths, Deadline deadline) {
+        imageStore.reserve(imagePaths);
+        CompletableFuture<List<String>> downloads;
+        try {
+            downloads = addMovieMetrics.timeAsync(AddMovieMetrics.IMAGE_DOWNLOAD,
+                    () -> imageDownloadService.downloadImages(imagePaths, movie.getTitle(), movie.getTmdbId(), deadline));
+        } catch (RuntimeException e) {
+            imageStore.unreserve(imagePaths);
+            throw e;
+        }
+        return downloads
                 .thenApply(downloadedPaths -> {
                     movie.setImagePaths(downloadedPaths);
-                    return movieRepository.save(movie);
-                });
+                    return saveMovie(movie, deadline);
+                })
+                .whenComplete((saved, ex) -> imageStore.unreserve(imagePaths));
+    }
+
+    /**
+     * Saves a movie added to the watchlist, timing the repository call.
+     * Nothing is saved once the deadline has passed.
+     *
+     * @param movie The movie entity
+     * @param deadline Time by which the movie must be added
+     * @return The saved movie
+     * @throws CompletionException wrapping a {@link TimeoutException} if the deadline has passed
+     */
+    private Movie saveMovie(Movie movie, Deadline deadline) {
+        if (deadline.isExpired()) {
+            throw addTimedOut();
+        }
+        return addMovieMetrics.time(AddMovieMetrics.REPOSITORY_SAVE, () -> save(movie));
+    }
+
+    /**
+     * Saves a movie, recording the repository call as a Flight Recorder event.
+     *
+     * @param movie The movie entity
+     * @return The saved movie
+     */
+    private Movie save(Movie movie) {
+        return RepositoryEvent.record("save", movie.getTitle(), movie.getTmdbId(), movie.getId(),
+                () -> movieRepository.save(movie));
+    }
+
+    /**
+     * Finds a movie by ID, recording the repository call as a Flight Recorder event.
+     *
+     * @param movieId The movie ID
+     * @return Optional containing the movie, or empty if not found
+     */
+    private Optional<Movie> findById(Long movieId) {
+        return RepositoryEvent.record("findById", null, null, movieId, () -> movieRepository.findById(movieId));
     }
 
     /**
@@ -324,9 +500,11 @@ public class MovieService {
      * @param size Number of items per page
      * @return PaginatedResponse containing movie data
      */
+    @Transactional(readOnly = true)
     public PaginatedResponse<MovieResponse> getMovies(int page, int size) {
         Pageable pageable = createPageable(page, size);
-        Page<Movie> moviePage = movieRepository.findAll(pageable);
+        Page<Movie> moviePage = RepositoryEvent.record("findAll", null, null, null,
+                () -> movieRepository.findAll(pageable));
         List<MovieResponse> movieResponses = mapToMovieResponses(moviePage.getContent());
 
         return new PaginatedResponse<>(
@@ -338,12 +516,177 @@ public class MovieService {
         );
     }
 
+    /**
+     * Retrieves a page of movies with keyset pagination: the page starts after the movie the cursor
+     * points to, in ID order. No count query is run and the database seeks on the primary key, so
+     * every page costs the same regardless of how deep it is. Movies added while paging appear on a
+     * later page instead of shifting the pages already read.
+     *
+     * @param cursor Cursor returned with the previous page, or null/blank for the first page
+     * @param size Number of items per page
+     * @return CursorPage containing movie data and the cursor of the next page
+     * @throws IllegalArgumentException if the cursor is not valid
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<MovieResponse> getMoviesAfter(String cursor, int size) {
+        long afterId = decodeCursor(cursor);
+        int safeSize = safeSize(size);
+        // One extra row tells whether a next page exists without counting
+        List<Movie> movies = RepositoryEvent.record("findByIdGreaterThan", null, null, afterId,
+                () -> movieRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(safeSize + 1)));
+
+        boolean hasNext = movies.size() > safeSize;
+        List<Movie> pageMovies = hasNext ? movies.subList(0, safeSize) : movies;
+        String nextCursor = hasNext ? encodeCursor(pageMovies.get(safeSize - 1).getId()) : null;
+        return new CursorPage<>(mapToMovieResponses(pageMovies), safeSize, nextCursor);
+    }
+
+    /**
+     * Retrieves a paginated list of movie summaries with only the selected fields.
+     * The summaries are read with a projection query that skips the overview and the element
+     * collections; the image paths are only queried if the poster is selected.
+     *
+     * @param page Page number (0-based)
+     * @param size Number of items per page
+     * @param fields Comma-separated names from {@link MovieSummary#FIELDS}, or null/blank for all of them
+     * @return PaginatedResponse containing the selected fields of each movie
+     * @throws IllegalArgumentException if a field name is unknown
+     */
+    @Transactional(readOnly = true)
+    public PaginatedResponse<Map<String, Object>> getMovieSummaries(int page, int size, String fields) {
+        Set<String> selected = parseSummaryFields(fields);
+        Pageable pageable = createPageable(page, size);
+        Page<MovieSummary> summaryPage = RepositoryEvent.record("findSummaries", null, null, null,
+                () -> movieRepository.findSummaries(pageable));
+
+        return new PaginatedResponse<>(
+                selectSummaryFields(summaryPage.getContent(), selected),
+                summaryPage.getNumber(),
+                summaryPage.getSize(),
+                summaryPage.getTotalElements(),
+                summaryPage.getTotalPages()
+        );
+    }
+
+    /**
+     * Retrieves a page of movie summaries with keyset pagination and only the selected fields.
+     *
+     * @param cursor Cursor returned with the previous page, or null/blank for the first page
+     * @param size Number of items per page
+     * @param fields Comma-separated names from {@link MovieSummary#FIELDS}, or null/blank for all of them
+     * @return CursorPage containing the selected fields of each movie and the cursor of the next page
+     * @throws IllegalArgumentException if the cursor is not valid or a field name is unknown
+     * @see #getMoviesAfter(String, int)
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<Map<String, Object>> getMovieSummariesAfter(String cursor, int size, String fields) {
+        Set<String> selected = parseSummaryFields(fields);
+        long afterId = decodeCursor(cursor);
+        int safeSize = safeSize(size);
+        List<MovieSummary> summaries = RepositoryEvent.record("findSummariesByIdGreaterThan", null, null, afterId,
+                () -> movieRepository.findSummariesByIdGreaterThan(afterId, Limit.of(safeSize + 1)));
+
+        boolean hasNext = summaries.size() > safeSize;
+        List<MovieSummary> pageSummaries = hasNext ? summaries.subList(0, safeSize) : summaries;
+        String nextCursor = hasNext ? encodeCursor(pageSummaries.get(safeSize - 1).getId()) : null;
+        return new CursorPage<>(selectSummaryFields(pageSummaries, selected), safeSize, nextCursor);
+    }
+
+    /**
+     * Parses a sparse fieldset.
+     *
+     * @param fields Comma-separated field names, or null/blank for all summary fields
+     * @return the selected field names
+     * @throws IllegalArgumentException if a field name is unknown
+     */
+    static Set<String> parseSummaryFields(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return new LinkedHashSet<>(MovieSummary.FIELDS);
+        }
+        Set<String> selected = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!MovieSummary.FIELDS.contains(name)) {
+                throw new IllegalArgumentException("Unknown field: " + name
+                        + " (allowed: " + String.join(", ", MovieSummary.FIELDS) + ")");
+            }
+            selected.add(name);
+        }
+        return selected;
+    }
+
+    private List<Map<String, Object>> selectSummaryFields(List<MovieSummary> summaries, Set<String> fields) {
+        if (fields.contains("poster") && !summaries.isEmpty()) {
+            setPosters(summaries);
+        }
+        return summaries.stream().map(summary -> summary.select(fields)).toList();
+    }
+
+    /** Sets the first image path of each movie as its poster, with one query for the whole page. */
+    private void setPosters(List<MovieSummary> summaries) {
+        List<Long> ids = summaries.stream().map(MovieSummary::getId).toList();
+        List<Object[]> rows = RepositoryEvent.record("findPosterPathsByIdIn", null, null, null,
+                () -> movieRepository.findPosterPathsByIdIn(ids));
+        Map<Long, String> posters = new HashMap<>();
+        for (Object[] row : rows) {
+            posters.put((Long) row[0], (String) row[1]);
+        }
+        summaries.forEach(summary -> summary.setPoster(posters.get(summary.getId())));
+    }
+
+    /**
+     * Encodes the ID of the last movie of a page as an opaque, URL-safe cursor.
+     *
+     * @param lastId ID of the last movie returned
+     * @return the cursor
+     */
+    static String encodeCursor(long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((CURSOR_PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor created by {@link #encodeCursor(long)}.
+     *
+     * @param cursor the cursor, or null/blank for the first page
+     * @return the ID after which the page starts (0 for the first page)
+     * @throws IllegalArgumentException if the cursor is not valid
+     */
+    static long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            if (decoded.startsWith(CURSOR_PREFIX)) {
+                long id = Long.parseLong(decoded.substring(CURSOR_PREFIX.length()));
+                if (id >= 0) {
+                    return id;
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            // Not Base64 or not a number; reported below
+        }
+        throw new IllegalArgumentException(INVALID_CURSOR);
+    }
+
     private Pageable createPageable(int page, int size) {
         int safePage = Math.max(page, 0);
-        int safeSize = (size < 1 || size > 100) ? 10 : size;
-        return PageRequest.of(safePage, safeSize);
+        return PageRequest.of(safePage, safeSize(size));
+    }
+
+    private int safeSize(int size) {
+        return (size < 1 || size > 100) ? 10 : size;
     }
 
+    /**
+     * Maps movies to responses within the read transaction. Accessing the first movie's image paths
+     * and similar movies batch-loads those collections for the whole page (see {@code @BatchSize} on
+     * {@link Movie}), so a page costs a constant number of statements rather than two per movie.
+     */
     private List<MovieResponse> mapToMovieResponses(List<Movie> movies) {
         return movies.stream().map(MovieResponse::new).toList();
     }
@@ -361,11 +704,11 @@ public class MovieService {
             throw new IllegalArgumentException("Watched status is required");
         }
 
-        Optional<Movie> movieOpt = movieRepository.findById(movieId);
+        Optional<Movie> movieOpt = findById(movieId);
         if (movieOpt.isPresent()) {
             Movie movie = movieOpt.get();
             movie.setWatched(watched);
-            return Optional.of(movieRepository.save(movie));
+            return Optional.of(save(movie));
         }
         return Optional.empty();
     }
@@ -385,25 +728,36 @@ public class MovieService {
         if (rating < 1 || rating > 5) {
             throw new IllegalArgumentException("Rating must be between 1 and 5");
         }
-        return movieRepository.findById(id)
+        return findById(id)
                 .map(movie -> {
                     movie.setRating(rating);
-                    return movieRepository.save(movie);
+                    return save(movie);
                 });
     }
 
     /**
      * Deletes a movie from the watchlist.
+     * Images that are no longer referenced by any other movie are released from the image store.
      *
      * @param movieId The movie ID to delete
      * @return true if movie was deleted, false if not found
      */
     public boolean deleteMovie(Long movieId) {
-        if (movieRepository.existsById(movieId)) {
+        Optional<Movie> movieOpt = findById(movieId);
+        if (movieOpt.isEmpty()) {
+            return false;
+        }
+        List<String> imagePaths = movieOpt.get().getImagePaths() != null
+                ? List.copyOf(movieOpt.get().getImagePaths())
+                : List.of();
+        RepositoryEvent.record("deleteById", movieOpt.get().getTitle(), movieOpt.get().getTmdbId(), movieId, () -> {
             movieRepository.deleteById(movieId);
-            return true;
+            return null;
+        });
+        if (!imagePaths.isEmpty()) {
+            imageStore.release(imagePaths);
         }
-        return false;
+        return true;
     }
 
     /**
@@ -412,8 +766,9 @@ public class MovieService {
      * @param movieId The movie ID
      * @return Optional containing the movie response, or empty if not found
      */
+    @Transactional(readOnly = true)
     public Optional<MovieResponse> getMovieById(Long movieId) {
-        return movieRepository.findById(movieId)
+        return findById(movieId)
                 .map(MovieResponse::new);
     }
 }
\ No newline at end of file
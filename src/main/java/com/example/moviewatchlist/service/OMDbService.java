@@ -2,6 +2,8 @@ package com.example.moviewatchlist.service;
 
 import com.example.moviewatchlist.dto.OMDbResponse;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import java.io.IOException;
@@ -9,11 +11,18 @@ import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.time.Duration;
 import java.util.concurrent.CompletableFuture;
 
 /**
  * Service for fetching movie data from the OMDb API.
  * Handles HTTP requests and JSON parsing for OMDb responses.
+ * Found movies are kept in a bounded TTL cache keyed on the normalized title,
+ * and concurrent identical requests share a single in-flight HTTP call.
+ * Calls go through a bulkhead and circuit breaker, so a failing OMDb is not called until it recovers,
+ * and a client-side token bucket keeps them within the API quota.
+ * Slow attempts are hedged and transient failures retried, within the deadline of the calling request.
+ * Responses are parsed from the byte stream as they arrive, without building a String of the body.
  */
 @Service
 public class OMDbService {
@@ -22,12 +31,116 @@ public class OMDbService {
     @Value("${omdb.api.key}")
     private String apiKey;
 
+    /** OMDb base URL; points at a stub server in load tests. */
+    @Value("${omdb.api.base-url:https://www.omdbapi.com}")
+    private String baseUrl = "https://www.omdbapi.com";
+
+    private static final JsonBodyHandler BODY_HANDLER = JsonBodyHandler.create();
+
+    /** URL template of the OMDb lookup, used in logs and metrics instead of the URL with the API key. */
+    private static final String MOVIE_URI = "/?t={title}";
+
+    private static final int LOG_LINES_PER_SECOND = 10;
+
     private final HttpClient httpClient;
+    private final Duration requestTimeout;
     private final ObjectMapper objectMapper;
 
-    public OMDbService() {
-        this.httpClient = HttpClient.newHttpClient();
+    private final ResponseCache<String, OMDbResponse> movieDataCache;
+    private final SingleFlight inFlightRequests = new SingleFlight("omdb");
+    private final UpstreamCallLog callLog = new UpstreamCallLog("omdb", LOG_LINES_PER_SECOND);
+
+    /** Bulkhead and circuit breaker for OMDb calls. */
+    private final UpstreamGuard guard;
+
+    /** Token bucket for OMDb requests. */
+    private final RateLimiter rateLimiter;
+
+    /** Hedging and retry policy for OMDb calls. */
+    private final HedgedRetry hedgedRetry;
+
+    /**
+     * Creates the service with the shared HTTP client and the given cache settings.
+     *
+     * @param httpClient       the shared outbound HTTP client
+     * @param guard            the bulkhead and circuit breaker for OMDb calls
+     * @param rateLimiter      the token bucket for OMDb requests
+     * @param hedgedRetry      the hedging and retry policy for OMDb calls
+     * @param requestTimeoutMs timeout for a whole request in milliseconds
+     * @param cacheTtlSeconds  how long a response stays cached
+     * @param cacheMaxEntries  maximum number of cached responses
+     * @param cacheMaxBytes    maximum total size of cached responses
+     */
+    @Autowired
+    public OMDbService(HttpClient httpClient,
+                       @Qualifier("omdbGuard") UpstreamGuard guard,
+                       @Qualifier("omdbRateLimiter") RateLimiter rateLimiter,
+                       @Qualifier("omdbHedgedRetry") HedgedRetry hedgedRetry,
+                       @Value("${http.client.request-timeout-ms:10000}") long requestTimeoutMs,
+                       @Value("${omdb.cache.ttl-seconds:1800}") long cacheTtlSeconds,
+                       @Value("${omdb.cache.max-entries:1000}") int cacheMaxEntries,
+                       @Value("${omdb.cache.max-bytes:8388608}") long cacheMaxBytes) {
+        this.httpClient = httpClient;
+        this.guard = guard;
+        this.rateLimiter = rateLimiter;
+        this.hedgedRetry = hedgedRetry;
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMs);
         this.objectMapper = new ObjectMapper();
+        this.movieDataCache = new ResponseCache<>("omdb.movie", cacheTtlSeconds, cacheMaxEntries, cacheMaxBytes);
+    }
+
+    /**
+     * Returns the response cache of this service, e.g. for metrics registration.
+     *
+     * @return the movie data cache
+     */
+    public ResponseCache<String, OMDbResponse> getCache() {
+        return movieDataCache;
+    }
+
+    /**
+     * Returns the bulkhead and circuit breaker guarding the upstream calls.
+     *
+     * @return the upstream guard
+     */
+    public UpstreamGuard getGuard() {
+        return guard;
+    }
+
+    /**
+     * Returns the token bucket limiting the request rate to the upstream.
+     *
+     * @return the rate limiter
+     */
+    public RateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    /**
+     * Returns the policy hedging and retrying the upstream calls.
+     *
+     * @return the hedging and retry policy
+     */
+    public HedgedRetry getHedgedRetry() {
+        return hedgedRetry;
+    }
+
+    /**
+     * Returns the sampled log and timers of the upstream calls, e.g. for metrics registration.
+     *
+     * @return the call log
+     */
+    public UpstreamCallLog getCallLog() {
+        return callLog;
+    }
+
+    /**
+     * Returns the group coalescing concurrent identical requests, e.g. for metrics registration.
+     *
+     * @return the in-flight request group
+     */
+    public SingleFlight getInFlightRequests() {
+        return inFlightRequests;
     }
 
     /**
@@ -38,38 +151,94 @@ public class OMDbService {
      * @throws RuntimeException if the response cannot be parsed
      */
     public CompletableFuture<OMDbResponse> getMovieData(String title) {
+        return getMovieData(title, Deadline.none());
+    }
+
+    /**
+     * Fetches movie data from OMDb API asynchronously, giving up once the deadline has passed.
+     * A concurrent identical request that is already in flight is joined;
+     * this caller still gives up at its own deadline.
+     *
+     * @param title    The movie title to search for
+     * @param deadline Time by which the response is needed
+     * @return CompletableFuture with OMDbResponse data
+     * @throws RuntimeException if the response cannot be parsed
+     */
+    public CompletableFuture<OMDbResponse> getMovieData(String title, Deadline deadline) {
         if (title == null || title.trim().isEmpty()) {
             CompletableFuture<OMDbResponse> failed = new CompletableFuture<>();
             failed.completeExceptionally(new IllegalArgumentException("Title cannot be null or blank"));
             return failed;
         }
 
+        String cacheKey = ResponseCache.normalizeTitle(title);
+        OMDbResponse cached = movieDataCache.get(cacheKey);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
         String url = buildOmdbUrl(title);
         HttpRequest request = buildHttpRequest(url);
 
-        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+        return inFlightRequests.execute(url, () -> send(request, title, deadline)
                 .thenApply(response -> {
                     try {
-                        System.out.println("OMDb Response: " + response.body());
-                        return objectMapper.readValue(response.body(), OMDbResponse.class);
+                        OMDbResponse parsed = response.body().read(objectMapper, OMDbResponse.class);
+                        // Not-found answers also come with 200; they are not cached, so a title
+                        // OMDb lists later can be added without waiting for the TTL
+                        if (response.statusCode() == 200 && "True".equals(parsed.getResponse())) {
+                            movieDataCache.put(cacheKey, parsed, response.body().size());
+                        }
+                        return parsed;
                     } catch (IOException e) {
-                        System.out.println("Parsing error: " + e.getMessage());
-                        System.out.println("Response body: " + response.body());
+                        callLog.recordParseFailure(MOVIE_URI, e);
                         throw new RuntimeException("Failed to parse OMDb response: " + e.getMessage(), e);
                     }
-                });
+                }), deadline);
     }
 
     /** Builds the OMDb API URL for the given title. */
     private String buildOmdbUrl(String title) {
-        return String.format("https://www.omdbapi.com/?t=%s&apikey=%s",
-                title.replace(" ", "+"), apiKey);
+        return String.format("%s/?t=%s&apikey=%s",
+                baseUrl, title.replace(" ", "+"), apiKey);
+    }
+
+    /**
+     * Sends a request once the rate limiter grants a token, through the bulkhead and circuit breaker.
+     * 429 responses are retried after their Retry-After delay; slow attempts are hedged and transient
+     * failures retried while the deadline allows, and each attempt's timeout is capped to the time left.
+     * Calls are rejected with {@link UpstreamUnavailableException} while the circuit is open,
+     * the request queue is full, the rate limit is still exceeded after the retries, or the deadline has passed.
+     * The outcome is recorded in the call log, which replaces printing every response body,
+     * and as a Flight Recorder event carrying the title.
+     */
+    private CompletableFuture<HttpResponse<JsonBody>> send(HttpRequest request, String title, Deadline deadline) {
+        long start = System.nanoTime();
+        UpstreamCallEvent event = new UpstreamCallEvent();
+        event.begin();
+        return hedgedRetry.execute(() -> guard.execute(
+                () -> httpClient.sendAsync(withDeadline(request, deadline), BODY_HANDLER),
+                UpstreamGuard::isServerError), rateLimiter, deadline)
+                .whenComplete((response, ex) -> {
+                    callLog.record(MOVIE_URI, response, ex, System.nanoTime() - start);
+                    event.complete("omdb", MOVIE_URI, title, null, response, ex);
+                });
+    }
+
+    /** Copies a request with its timeout capped to the time left until the deadline. */
+    private HttpRequest withDeadline(HttpRequest request, Deadline deadline) {
+        Duration timeout = deadline.cap(requestTimeout);
+        if (timeout.equals(requestTimeout)) {
+            return request;
+        }
+        return HttpRequest.newBuilder(request, (name, value) -> true).timeout(timeout).build();
     }
 
-    /** Builds an HTTP GET request for the given URL. */
+    /** Builds an HTTP GET request with the request timeout for the given URL. */
     private HttpRequest buildHttpRequest(String url) {
         return HttpRequest.newBuilder()
                 .uri(URI.create(url))
+                .timeout(requestTimeout)
                 .GET()
                 .build();
     }
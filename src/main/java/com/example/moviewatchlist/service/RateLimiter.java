@@ -0,0 +1,389 @@
+package com.example.moviewatchlist.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.lang.NonNull;
+
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Client-side token bucket for the requests sent with one upstream API key.
+ * Tokens refill at a fixed rate up to a burst size; a request without a token waits in a bounded
+ * FIFO queue, and requests arriving while the queue is full are shed with {@link UpstreamUnavailableException}.
+ * Responses with status 429 are retried after the delay given by {@code Retry-After}, during which
+ * no tokens are handed out, so queued requests do not run into the same quota.
+ * Cancelling the returned future cancels the request in flight, or takes it out of the queue; a queued
+ * request whose deadline passes is dropped the same way, so neither uses a token live requests need.
+ */
+public class RateLimiter implements MeterBinder {
+
+    /** Retry delay used when a 429 response has no usable {@code Retry-After} header. */
+    static final Duration DEFAULT_RETRY_AFTER = Duration.ofSeconds(1);
+
+    /** Longer {@code Retry-After} delays are not waited for; the 429 is reported instead. */
+    static final Duration MAX_RETRY_AFTER = Duration.ofSeconds(30);
+
+    private static final int TOO_MANY_REQUESTS = 429;
+
+    private final String upstream;
+    private final double permitsPerNano;
+    private final double burst;
+    private final int maxQueue;
+    private final int maxRetries;
+    private final LongSupplier ticker;
+
+    private double tokens;
+    private long lastRefill;
+    private long blockedUntil;
+    private boolean drainScheduled;
+    private final ArrayDeque<Waiter> waiters = new ArrayDeque<>();
+
+    private final LongAdder shed = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private volatile Timer waitTimer;
+
+    /**
+     * Creates a rate limiter using the system clock.
+     *
+     * @param upstream          name of the upstream, used in messages and metrics
+     * @param permitsPerSecond  sustained request rate
+     * @param burst             maximum number of requests sent at once after an idle period
+     * @param maxQueue          maximum number of requests waiting for a token
+     * @param maxRetries        how often a 429 response is retried
+     */
+    public RateLimiter(String upstream, double permitsPerSecond, int burst, int maxQueue, int maxRetries) {
+        this(upstream, permitsPerSecond, burst, maxQueue, maxRetries, System::nanoTime);
+    }
+
+    /** Creates a rate limiter with a custom nanosecond ticker (used by tests to control time). */
+    RateLimiter(String upstream, double permitsPerSecond, int burst, int maxQueue, int maxRetries, LongSupplier ticker) {
+        if (permitsPerSecond <= 0 || burst < 1 || maxQueue < 0 || maxRetries < 0) {
+            throw new IllegalArgumentException("Rate limits must be positive");
+        }
+        this.upstream = upstream;
+        this.permitsPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.burst = burst;
+        this.maxQueue = maxQueue;
+        this.maxRetries = maxRetries;
+        this.ticker = ticker;
+        this.tokens = burst;
+        this.lastRefill = ticker.getAsLong();
+    }
+
+    /**
+     * Sends a request once a token is available, retrying it when the upstream answers 429.
+     * A 429 that is still returned after all retries, or whose {@code Retry-After} is too long,
+     * fails the future with {@link UpstreamUnavailableException} instead of being parsed as a result.
+     *
+     * @param call sends the request
+     * @param <T>  the response body type
+     * @return the response future
+     */
+    public <T> CompletableFuture<HttpResponse<T>> execute(Supplier<CompletableFuture<HttpResponse<T>>> call) {
+        return execute(call, Deadline.none());
+    }
+
+    /**
+     * Sends a request once a token is available before the deadline, retrying it when the upstream answers 429.
+     * If the deadline passes while the request waits for a token, it fails with
+     * {@link UpstreamUnavailableException} without taking one.
+     *
+     * @param call     sends the request
+     * @param deadline time by which the caller needs the response
+     * @param <T>      the response body type
+     * @return the response future
+     */
+    public <T> CompletableFuture<HttpResponse<T>> execute(Supplier<CompletableFuture<HttpResponse<T>>> call,
+                                                          Deadline deadline) {
+        return attempt(call, maxRetries, deadline);
+    }
+
+    /**
+     * Sends a request with a token already taken by {@link #tryAcquire()}.
+     * A 429 response is not retried but fails the future with {@link UpstreamUnavailableException},
+     * since the caller chose not to wait.
+     *
+     * @param call sends the request
+     * @param <T>  the response body type
+     * @return the response future
+     */
+    public <T> CompletableFuture<HttpResponse<T>> executeAcquired(Supplier<CompletableFuture<HttpResponse<T>>> call) {
+        return send(CompletableFuture.completedFuture(null), call, 0, Deadline.none());
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> attempt(Supplier<CompletableFuture<HttpResponse<T>>> call,
+                                                           int retriesLeft, Deadline deadline) {
+        return send(acquire(deadline), call, retriesLeft, deadline);
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> send(CompletableFuture<Void> permit,
+                                                        Supplier<CompletableFuture<HttpResponse<T>>> call,
+                                                        int retriesLeft, Deadline deadline) {
+        CompletableFuture<HttpResponse<T>> result = new CompletableFuture<>();
+        AtomicReference<CompletableFuture<HttpResponse<T>>> inFlight = new AtomicReference<>();
+        permit
+                .thenCompose(ignored -> track(inFlight, call.get(), result))
+                .thenCompose(response -> {
+                    if (response.statusCode() != TOO_MANY_REQUESTS) {
+                        return CompletableFuture.completedFuture(response);
+                    }
+                    Duration retryAfter = retryAfter(response).orElse(DEFAULT_RETRY_AFTER);
+                    if (retriesLeft == 0 || retryAfter.compareTo(MAX_RETRY_AFTER) > 0) {
+                        return CompletableFuture.failedFuture(
+                                new UpstreamUnavailableException(upstream + " rate limit exceeded"));
+                    }
+                    retries.increment();
+                    pause(retryAfter);
+                    return track(inFlight, attempt(call, retriesLeft - 1, deadline), result);
+                })
+                .whenComplete((response, ex) -> {
+                    if (ex != null) {
+                        result.completeExceptionally(ex);
+                    } else {
+                        result.complete(response);
+                    }
+                });
+        result.whenComplete((response, ex) -> {
+            if (!result.isCancelled()) {
+                return;
+            }
+            permit.cancel(false);
+            CompletableFuture<HttpResponse<T>> sent = inFlight.get();
+            if (sent != null) {
+                sent.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    /** Remembers the request in flight, so cancelling the result cancels it, even if that already happened. */
+    private static <T> CompletableFuture<HttpResponse<T>> track(
+            AtomicReference<CompletableFuture<HttpResponse<T>>> inFlight,
+            CompletableFuture<HttpResponse<T>> sent, CompletableFuture<HttpResponse<T>> result) {
+        inFlight.set(sent);
+        if (result.isCancelled()) {
+            sent.cancel(true);
+        }
+        return sent;
+    }
+
+    /**
+     * Takes a token, waiting in the queue if none is available.
+     *
+     * @return a future completed when the caller may send its request, or failed if the queue is full
+     */
+    public CompletableFuture<Void> acquire() {
+        return acquire(Deadline.none());
+    }
+
+    /**
+     * Takes a token, waiting in the queue until the deadline if none is available.
+     * Cancelling the returned future takes the caller out of the queue.
+     *
+     * @param deadline time after which the caller no longer needs the token
+     * @return a future completed when the caller may send its request, or failed if the queue is full
+     *         or the deadline passes first
+     */
+    public CompletableFuture<Void> acquire(Deadline deadline) {
+        CompletableFuture<Void> permit = new CompletableFuture<>();
+        synchronized (this) {
+            long now = ticker.getAsLong();
+            if (deadline.isExpired()) {
+                permit.completeExceptionally(deadlineExceeded());
+                return permit;
+            }
+            if (takeFreeToken(now)) {
+                permit.complete(null);
+                return permit;
+            }
+            if (waiters.size() >= maxQueue) {
+                shed.increment();
+                permit.completeExceptionally(new UpstreamUnavailableException(upstream + " request queue is full"));
+                return permit;
+            }
+            Waiter waiter = new Waiter(permit, now, deadline);
+            waiters.add(waiter);
+            scheduleDrain(now);
+            permit.whenComplete((ignored, ex) -> {
+                if (permit.isCancelled()) {
+                    leaveQueue(waiter);
+                }
+            });
+        }
+        return permit;
+    }
+
+    /** Removes a waiter whose caller gave up. */
+    private synchronized void leaveQueue(Waiter waiter) {
+        waiters.remove(waiter);
+    }
+
+    private UpstreamUnavailableException deadlineExceeded() {
+        return new UpstreamUnavailableException(upstream + " deadline exceeded while waiting for a token");
+    }
+
+    /**
+     * Takes a token only if one is free right away and no request is waiting for one.
+     *
+     * @return true if a token was taken, false if the caller would have to wait
+     */
+    public synchronized boolean tryAcquire() {
+        return takeFreeToken(ticker.getAsLong());
+    }
+
+    /** Takes a token if one is free and nobody is queued ahead. Must hold the lock. */
+    private boolean takeFreeToken(long now) {
+        refill(now);
+        if (waiters.isEmpty() && now >= blockedUntil && tokens >= 1) {
+            tokens -= 1;
+            recordWait(0);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Stops handing out tokens for the given duration, e.g. after a 429 response.
+     *
+     * @param duration how long to pause
+     */
+    public synchronized void pause(Duration duration) {
+        long now = ticker.getAsLong();
+        blockedUntil = Math.max(blockedUntil, now + duration.toNanos());
+        tokens = 0;
+        lastRefill = blockedUntil;
+    }
+
+    /**
+     * Hands tokens to queued requests in arrival order and schedules the next run if some are left.
+     * Requests that were cancelled or whose deadline has passed are dropped without a token.
+     */
+    void drain() {
+        List<CompletableFuture<Void>> granted = new ArrayList<>();
+        List<CompletableFuture<Void>> expired = new ArrayList<>();
+        synchronized (this) {
+            drainScheduled = false;
+            long now = ticker.getAsLong();
+            refill(now);
+            while (!waiters.isEmpty()) {
+                Waiter waiter = waiters.peek();
+                if (waiter.permit().isDone() || waiter.deadline().isExpired()) {
+                    waiters.poll();
+                    expired.add(waiter.permit());
+                    continue;
+                }
+                if (now < blockedUntil || tokens < 1) {
+                    break;
+                }
+                waiters.poll();
+                tokens -= 1;
+                recordWait(now - waiter.enqueuedAt());
+                granted.add(waiter.permit());
+            }
+            if (!waiters.isEmpty()) {
+                scheduleDrain(now);
+            }
+        }
+        expired.forEach(permit -> permit.completeExceptionally(deadlineExceeded()));
+        granted.forEach(permit -> permit.complete(null));
+    }
+
+    private void refill(long now) {
+        if (now > lastRefill) {
+            tokens = Math.min(burst, tokens + (now - lastRefill) * permitsPerNano);
+            lastRefill = now;
+        }
+    }
+
+    /** Schedules a drain for when the next token becomes available. Must hold the lock. */
+    private void scheduleDrain(long now) {
+        if (drainScheduled) {
+            return;
+        }
+        drainScheduled = true;
+        long untilToken = tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) / permitsPerNano);
+        long delay = Math.max(untilToken, blockedUntil - now);
+        CompletableFuture.delayedExecutor(Math.max(delay, 0), TimeUnit.NANOSECONDS).execute(this::drain);
+    }
+
+    private void recordWait(long nanos) {
+        Timer timer = waitTimer;
+        if (timer != null) {
+            timer.record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Reads the {@code Retry-After} header, given either in seconds or as an HTTP date.
+     *
+     * @param response the 429 response
+     * @return the delay, or empty if the header is missing or invalid
+     */
+    static Optional<Duration> retryAfter(HttpResponse<?> response) {
+        Optional<String> header = response.headers().firstValue("Retry-After");
+        if (header.isEmpty()) {
+            return Optional.empty();
+        }
+        String value = header.get().trim();
+        try {
+            return Optional.of(Duration.ofSeconds(Math.max(0, Long.parseLong(value))));
+        } catch (NumberFormatException e) {
+            try {
+                ZonedDateTime date = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME);
+                Duration delay = Duration.between(ZonedDateTime.now(date.getZone()), date);
+                return Optional.of(delay.isNegative() ? Duration.ZERO : delay);
+            } catch (DateTimeParseException ignored) {
+                return Optional.empty();
+            }
+        }
+    }
+
+    /** @return the number of requests waiting for a token */
+    public synchronized int queueDepth() { return waiters.size(); }
+    /** @return the number of requests shed because the queue was full */
+    public long shedCount() { return shed.sum(); }
+    /** @return the number of requests retried after a 429 response */
+    public long retryCount() { return retries.sum(); }
+
+    /**
+     * Registers the queue depth gauge, the wait time timer and the shed and retry counters,
+     * all tagged with the upstream name.
+     *
+     * @param registry the meter registry
+     */
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        Gauge.builder("upstream.ratelimit.queue", this, RateLimiter::queueDepth)
+                .tag("upstream", upstream)
+                .register(registry);
+        waitTimer = Timer.builder("upstream.ratelimit.wait")
+                .tag("upstream", upstream)
+                .register(registry);
+        FunctionCounter.builder("upstream.ratelimit.shed", this, RateLimiter::shedCount)
+                .tag("upstream", upstream)
+                .register(registry);
+        FunctionCounter.builder("upstream.ratelimit.retries", this, RateLimiter::retryCount)
+                .tag("upstream", upstream)
+                .register(registry);
+    }
+
+    /** A request waiting for a token, with the time it started waiting and the deadline of its caller. */
+    private record Waiter(CompletableFuture<Void> permit, long enqueuedAt, Deadline deadline) {}
+}
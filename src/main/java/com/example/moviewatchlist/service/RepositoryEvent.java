@@ -0,0 +1,69 @@
+package com.example.moviewatchlist.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.util.function.Supplier;
+
+/**
+ * Flight Recorder event for one movie repository call, such as the duplicate check or a save.
+ * Stack traces are not recorded, so the event is cheap enough to keep enabled.
+ */
+@Name("com.example.moviewatchlist.RepositoryCall")
+@Label("Repository Call")
+@Category({"Movie Watchlist", "Repository"})
+@Description("Call to the movie repository")
+@StackTrace(false)
+public class RepositoryEvent extends Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Title")
+    String title;
+
+    @Label("TMDb ID")
+    int tmdbId;
+
+    @Label("Movie ID")
+    long movieId;
+
+    @Label("Failed")
+    boolean failed;
+
+    /**
+     * Runs a repository call inside an event.
+     *
+     * @param operation the repository method, e.g. "save"
+     * @param title     the movie title, or null
+     * @param tmdbId    the TMDb movie id, or null
+     * @param movieId   the movie id, or null
+     * @param call      the repository call
+     * @param <T>       the result type
+     * @return the result of the call
+     */
+    public static <T> T record(String operation, String title, Integer tmdbId, Long movieId, Supplier<T> call) {
+        RepositoryEvent event = new RepositoryEvent();
+        event.begin();
+        boolean failed = true;
+        try {
+            T result = call.get();
+            failed = false;
+            return result;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.operation = operation;
+                event.title = title;
+                event.tmdbId = tmdbId != null ? tmdbId : 0;
+                event.movieId = movieId != null ? movieId : 0;
+                event.failed = failed;
+                event.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.moviewatchlist.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.lang.NonNull;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded in-memory cache for parsed upstream API responses.
+ * Entries expire after a fixed time-to-live and the least recently used entries are evicted
+ * once either the entry limit or the total weight limit (approximate response size in bytes) is exceeded.
+ * Hit, miss and eviction counts are kept so the cache can be sized under real load.
+ *
+ * @param <K> the cache key type
+ * @param <V> the cached value type
+ */
+public class ResponseCache<K, V> implements MeterBinder {
+
+    private final String name;
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final long maxWeight;
+    private final LongSupplier ticker;
+
+    /** Access-ordered map, so iteration starts at the least recently used entry. */
+    private final LinkedHashMap<K, CacheEntry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long totalWeight;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Creates a cache using the system clock.
+     *
+     * @param name       name used for metrics
+     * @param ttlSeconds how long an entry stays valid after it is stored
+     * @param maxEntries maximum number of entries
+     * @param maxWeight  maximum total weight of all entries
+     */
+    public ResponseCache(String name, long ttlSeconds, int maxEntries, long maxWeight) {
+        this(name, ttlSeconds, maxEntries, maxWeight, System::nanoTime);
+    }
+
+    /** Creates a cache with a custom nanosecond ticker (used by tests to control time). */
+    ResponseCache(String name, long ttlSeconds, int maxEntries, long maxWeight, LongSupplier ticker) {
+        if (maxEntries < 1 || maxWeight < 1 || ttlSeconds < 1) {
+            throw new IllegalArgumentException("Cache limits must be positive");
+        }
+        this.name = name;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+        this.ticker = ticker;
+    }
+
+    /**
+     * Normalizes a movie title so that lookups differing only in case or spacing share an entry.
+     *
+     * @param title the raw title
+     * @return the trimmed, lower-cased title with single spaces
+     */
+    public static String normalizeTitle(String title) {
+        return title.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Returns the cached value for the key, or null if it is missing or expired.
+     *
+     * @param key the cache key
+     * @return the cached value, or null
+     */
+    public synchronized V get(K key) {
+        V value = peek(key);
+        if (value == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return value;
+    }
+
+    /**
+     * Returns the cached value for the key like {@link #get(Object)}, but without counting a hit or miss.
+     * Used when another cache's lookup reads this one as a fallback, so this cache's hit ratio is not skewed.
+     *
+     * @param key the cache key
+     * @return the cached value, or null
+     */
+    public synchronized V peek(K key) {
+        CacheEntry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (isExpired(entry)) {
+            remove(key, entry);
+            return null;
+        }
+        return entry.value();
+    }
+
+    /**
+     * Stores a value, evicting least recently used entries if a limit is exceeded.
+     * Values heavier than the whole cache are not stored.
+     *
+     * @param key    the cache key
+     * @param value  the value to cache
+     * @param weight the approximate size of the value in bytes
+     */
+    public synchronized void put(K key, V value, long weight) {
+        if (value == null || weight > maxWeight) {
+            return;
+        }
+        CacheEntry<V> previous = entries.put(key, new CacheEntry<>(value, weight, ticker.getAsLong() + ttlNanos));
+        if (previous != null) {
+            totalWeight -= previous.weight();
+        }
+        totalWeight += weight;
+        evictIfNeeded();
+    }
+
+    /**
+     * Removes the entry for the key, if present.
+     *
+     * @param key the cache key
+     */
+    public synchronized void invalidate(K key) {
+        CacheEntry<V> entry = entries.remove(key);
+        if (entry != null) {
+            totalWeight -= entry.weight();
+        }
+    }
+
+    /** Removes all entries. Counters are kept. */
+    public synchronized void clear() {
+        entries.clear();
+        totalWeight = 0;
+    }
+
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<K, CacheEntry<V>>> it = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || totalWeight > maxWeight) && it.hasNext()) {
+            Map.Entry<K, CacheEntry<V>> eldest = it.next();
+            it.remove();
+            totalWeight -= eldest.getValue().weight();
+            evictions++;
+        }
+    }
+
+    private void remove(K key, CacheEntry<V> entry) {
+        entries.remove(key);
+        totalWeight -= entry.weight();
+    }
+
+    private boolean isExpired(CacheEntry<V> entry) {
+        return ticker.getAsLong() - entry.expiresAt() >= 0;
+    }
+
+    /** @return the cache name used for metrics */
+    public String getName() { return name; }
+    /** @return the number of entries currently stored (including not yet purged expired ones) */
+    public synchronized int size() { return entries.size(); }
+    /** @return the total weight of all stored entries */
+    public synchronized long weight() { return totalWeight; }
+    /** @return the number of lookups that found a valid entry */
+    public synchronized long hitCount() { return hits; }
+    /** @return the number of lookups that found no valid entry */
+    public synchronized long missCount() { return misses; }
+    /** @return the number of entries removed to stay within the limits */
+    public synchronized long evictionCount() { return evictions; }
+
+    /**
+     * Registers hit/miss/eviction counters and size/weight gauges tagged with the cache name.
+     *
+     * @param registry the meter registry
+     */
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        FunctionCounter.builder("upstream.cache.requests", this, ResponseCache::hitCount)
+                .tags("cache", name, "result", "hit")
+                .register(registry);
+        FunctionCounter.builder("upstream.cache.requests", this, ResponseCache::missCount)
+                .tags("cache", name, "result", "miss")
+                .register(registry);
+        FunctionCounter.builder("upstream.cache.evictions", this, ResponseCache::evictionCount)
+                .tag("cache", name)
+                .register(registry);
+        Gauge.builder("upstream.cache.size", this, ResponseCache::size)
+                .tag("cache", name)
+                .register(registry);
+        Gauge.builder("upstream.cache.weight", this, ResponseCache::weight)
+                .tag("cache", name)
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    /** A cached value with its weight and expiry time. */
+    private record CacheEntry<V>(V value, long weight, long expiresAt) {}
+}
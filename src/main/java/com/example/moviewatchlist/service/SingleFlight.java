@@ -0,0 +1,115 @@
+package com.example.moviewatchlist.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.lang.NonNull;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent identical upstream requests into a single in-flight call.
+ * Requests are keyed by their URL; callers arriving while a call for the same URL is
+ * still running share its result instead of starting another HTTP request.
+ */
+public class SingleFlight implements MeterBinder {
+
+    private final String name;
+    private final ConcurrentHashMap<String, CompletableFuture<?>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * Creates a single-flight group.
+     *
+     * @param name name used for metrics
+     */
+    public SingleFlight(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Runs the call for the key, or joins the call already in flight for that key.
+     * Each caller gets its own copy of the shared future, so cancelling one copy does not affect the others.
+     *
+     * @param key  the request key (the request URL)
+     * @param call starts the upstream call; only invoked if no call for the key is in flight
+     * @param <V>  the result type
+     * @return a future completed with the shared result
+     */
+    public <V> CompletableFuture<V> execute(String key, Supplier<CompletableFuture<V>> call) {
+        return execute(key, call, Deadline.none());
+    }
+
+    /**
+     * Runs the call for the key, or joins the call already in flight for that key.
+     * The call started here is bounded by the deadline through the upstream call itself; a caller joining
+     * a call started by someone else gets a copy that fails with {@link UpstreamUnavailableException}
+     * at its own deadline, while the shared call keeps running for the others.
+     *
+     * @param key      the request key (the request URL)
+     * @param call     starts the upstream call; only invoked if no call for the key is in flight
+     * @param deadline time by which this caller needs the result
+     * @param <V>      the result type
+     * @return a future completed with the shared result
+     */
+    @SuppressWarnings("unchecked")
+    public <V> CompletableFuture<V> execute(String key, Supplier<CompletableFuture<V>> call, Deadline deadline) {
+        CompletableFuture<V> promise = new CompletableFuture<>();
+        CompletableFuture<V> existing = (CompletableFuture<V>) inFlight.putIfAbsent(key, promise);
+        if (existing != null) {
+            coalesced.increment();
+            return withDeadline(existing.copy(), deadline);
+        }
+
+        try {
+            call.get().whenComplete((result, ex) -> {
+                inFlight.remove(key, promise);
+                if (ex != null) {
+                    promise.completeExceptionally(ex);
+                } else {
+                    promise.complete(result);
+                }
+            });
+        } catch (RuntimeException ex) {
+            inFlight.remove(key, promise);
+            promise.completeExceptionally(ex);
+        }
+        return promise.copy();
+    }
+
+    /** Fails a joined copy with {@link UpstreamUnavailableException} if it is not complete by the deadline. */
+    private <V> CompletableFuture<V> withDeadline(CompletableFuture<V> joined, Deadline deadline) {
+        if (!deadline.isBounded()) {
+            return joined;
+        }
+        return joined.orTimeout(deadline.remaining().toNanos(), TimeUnit.NANOSECONDS)
+                .exceptionallyCompose(ex -> CompletableFuture.failedFuture(ex instanceof TimeoutException
+                        ? new UpstreamUnavailableException(name + " deadline exceeded") : ex));
+    }
+
+    /** @return the number of calls currently in flight */
+    public int inFlightCount() { return inFlight.size(); }
+    /** @return the number of callers that joined an existing call instead of starting a new one */
+    public long coalescedCount() { return coalesced.sum(); }
+
+    /**
+     * Registers the coalesced-request counter and in-flight gauge tagged with the group name.
+     *
+     * @param registry the meter registry
+     */
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        FunctionCounter.builder("upstream.requests.coalesced", this, SingleFlight::coalescedCount)
+                .tag("upstream", name)
+                .register(registry);
+        Gauge.builder("upstream.requests.inflight", this, SingleFlight::inFlightCount)
+                .tag("upstream", name)
+                .register(registry);
+    }
+}
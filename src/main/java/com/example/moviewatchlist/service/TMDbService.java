@@ -2,8 +2,11 @@ package com.example.moviewatchlist.service;
 
 import com.example.moviewatchlist.dto.TMDbSearchResponse;
 import com.example.moviewatchlist.dto.TMDbImagesResponse;
+import com.example.moviewatchlist.dto.TMDbMovieDetailsResponse;
 import com.example.moviewatchlist.dto.TMDbSimilarResponse;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import java.io.IOException;
@@ -11,11 +14,22 @@ import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 
 /**
  * Service for interacting with The Movie Database (TMDb) API.
- * Handles searching for movies, fetching images, and retrieving similar movies.
+ * Handles searching for movies, fetching images, and retrieving similar movies,
+ * either separately or combined in a single details request.
+ * Successful responses are kept in bounded TTL caches keyed on the normalized title or TMDb ID,
+ * and concurrent identical requests share a single in-flight HTTP call.
+ * Calls go through a bulkhead and circuit breaker, so a failing TMDb is not called until it recovers,
+ * and a client-side token bucket keeps them within the API quota.
+ * Slow attempts are hedged and transient failures retried, within the deadline of the calling request.
+ * Responses are parsed from the byte stream as they arrive; search responses keep only the top results
+ * and the fields that are used.
  */
 @Service
 public class TMDbService {
@@ -24,12 +38,134 @@ public class TMDbService {
     @Value("${tmdb.api.key}")
     private String apiKey;
 
+    /** TMDb API base URL; points at a stub server in load tests. */
+    @Value("${tmdb.api.base-url:https://api.themoviedb.org}")
+    private String baseUrl = "https://api.themoviedb.org";
+
+    /** Number of search results kept; callers use at most the top 10. */
+    static final int SEARCH_RESULT_LIMIT = 10;
+
+    /** Search result fields read from TMDb; the others are skipped while parsing. */
+    private static final Set<String> SEARCH_RESULT_FIELDS =
+            Set.of("id", "title", "overview", "release_date", "vote_average", "poster_path");
+
+    private static final JsonBodyHandler SEARCH_BODY_HANDLER =
+            JsonBodyHandler.limitingArray("results", SEARCH_RESULT_LIMIT, SEARCH_RESULT_FIELDS);
+    private static final JsonBodyHandler BODY_HANDLER = JsonBodyHandler.create();
+
+    /** URL templates of the TMDb endpoints, used in logs and metrics instead of the URLs with the API key. */
+    private static final String SEARCH_URI = "/3/search/movie";
+    private static final String IMAGES_URI = "/3/movie/{id}/images";
+    private static final String SIMILAR_URI = "/3/movie/{id}/similar";
+    private static final String DETAILS_URI = "/3/movie/{id}";
+
+    private static final int LOG_LINES_PER_SECOND = 10;
+
     private final HttpClient httpClient;
+    private final Duration requestTimeout;
     private final ObjectMapper objectMapper;
 
-    public TMDbService() {
-        this.httpClient = HttpClient.newHttpClient();
+    private final ResponseCache<String, TMDbSearchResponse> searchCache;
+    private final ResponseCache<Integer, TMDbImagesResponse> imagesCache;
+    private final ResponseCache<Integer, TMDbSimilarResponse> similarCache;
+    private final ResponseCache<Integer, TMDbMovieDetailsResponse> detailsCache;
+    private final SingleFlight inFlightRequests = new SingleFlight("tmdb");
+    private final UpstreamCallLog callLog = new UpstreamCallLog("tmdb", LOG_LINES_PER_SECOND);
+
+    /** Bulkhead and circuit breaker for TMDb calls. */
+    private final UpstreamGuard guard;
+
+    /** Token bucket for TMDb requests. */
+    private final RateLimiter rateLimiter;
+
+    /** Hedging and retry policy for TMDb calls. */
+    private final HedgedRetry hedgedRetry;
+
+    /**
+     * Creates the service with the shared HTTP client and the given cache settings (applied to each of its caches).
+     *
+     * @param httpClient        the shared outbound HTTP client
+     * @param guard             the bulkhead and circuit breaker for TMDb calls
+     * @param rateLimiter       the token bucket for TMDb requests
+     * @param hedgedRetry       the hedging and retry policy for TMDb calls
+     * @param requestTimeoutMs  timeout for a whole request in milliseconds
+     * @param cacheTtlSeconds   how long a response stays cached
+     * @param cacheMaxEntries   maximum number of responses per cache
+     * @param cacheMaxBytes     maximum total response size per cache
+     */
+    @Autowired
+    public TMDbService(HttpClient httpClient,
+                       @Qualifier("tmdbGuard") UpstreamGuard guard,
+                       @Qualifier("tmdbRateLimiter") RateLimiter rateLimiter,
+                       @Qualifier("tmdbHedgedRetry") HedgedRetry hedgedRetry,
+                       @Value("${http.client.request-timeout-ms:10000}") long requestTimeoutMs,
+                       @Value("${tmdb.cache.ttl-seconds:1800}") long cacheTtlSeconds,
+                       @Value("${tmdb.cache.max-entries:1000}") int cacheMaxEntries,
+                       @Value("${tmdb.cache.max-bytes:16777216}") long cacheMaxBytes) {
+        this.httpClient = httpClient;
+        this.guard = guard;
+        this.rateLimiter = rateLimiter;
+        this.hedgedRetry = hedgedRetry;
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMs);
         this.objectMapper = new ObjectMapper();
+        this.searchCache = new ResponseCache<>("tmdb.search", cacheTtlSeconds, cacheMaxEntries, cacheMaxBytes);
+        this.imagesCache = new ResponseCache<>("tmdb.images", cacheTtlSeconds, cacheMaxEntries, cacheMaxBytes);
+        this.similarCache = new ResponseCache<>("tmdb.similar", cacheTtlSeconds, cacheMaxEntries, cacheMaxBytes);
+        this.detailsCache = new ResponseCache<>("tmdb.details", cacheTtlSeconds, cacheMaxEntries, cacheMaxBytes);
+    }
+
+    /**
+     * Returns the response caches of this service, e.g. for metrics registration.
+     *
+     * @return the search, images, similar movies and details caches
+     */
+    public List<ResponseCache<?, ?>> getCaches() {
+        return List.of(searchCache, imagesCache, similarCache, detailsCache);
+    }
+
+    /**
+     * Returns the bulkhead and circuit breaker guarding the upstream calls.
+     *
+     * @return the upstream guard
+     */
+    public UpstreamGuard getGuard() {
+        return guard;
+    }
+
+    /**
+     * Returns the token bucket limiting the request rate to the upstream.
+     *
+     * @return the rate limiter
+     */
+    public RateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    /**
+     * Returns the policy hedging and retrying the upstream calls.
+     *
+     * @return the hedging and retry policy
+     */
+    public HedgedRetry getHedgedRetry() {
+        return hedgedRetry;
+    }
+
+    /**
+     * Returns the sampled log and timers of the upstream calls, e.g. for metrics registration.
+     *
+     * @return the call log
+     */
+    public UpstreamCallLog getCallLog() {
+        return callLog;
+    }
+
+    /**
+     * Returns the group coalescing concurrent identical requests, e.g. for metrics registration.
+     *
+     * @return the in-flight request group
+     */
+    public SingleFlight getInFlightRequests() {
+        return inFlightRequests;
     }
 
     /**
@@ -39,18 +175,40 @@ public class TMDbService {
      * @return CompletableFuture with TMDbSearchResponse
      */
     public CompletableFuture<TMDbSearchResponse> searchMovie(String title) {
-        String url = String.format("https://api.themoviedb.org/3/search/movie?api_key=%s&query=%s",
-                apiKey, title.replace(" ", "%20"));
+        return searchMovie(title, Deadline.none());
+    }
+
+    /**
+     * Searches for movies by title on TMDb, giving up once the deadline has passed.
+     * A concurrent identical search that is already in flight is joined;
+     * this caller still gives up at its own deadline.
+     *
+     * @param title    The movie title to search for
+     * @param deadline Time by which the response is needed
+     * @return CompletableFuture with TMDbSearchResponse
+     */
+    public CompletableFuture<TMDbSearchResponse> searchMovie(String title, Deadline deadline) {
+        String cacheKey = ResponseCache.normalizeTitle(title);
+        TMDbSearchResponse cached = searchCache.get(cacheKey);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        String url = String.format("%s/3/search/movie?api_key=%s&query=%s",
+                baseUrl, apiKey, title.replace(" ", "%20"));
         HttpRequest request = buildHttpRequest(url);
 
-        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+        return inFlightRequests.execute(url, () -> send(request, SEARCH_URI, title, null, SEARCH_BODY_HANDLER, deadline)
                 .thenApply(response -> {
                     try {
-                        return objectMapper.readValue(response.body(), TMDbSearchResponse.class);
+                        TMDbSearchResponse parsed = response.body().read(objectMapper, TMDbSearchResponse.class);
+                        cacheIfOk(searchCache, cacheKey, parsed, response);
+                        return parsed;
                     } catch (IOException e) {
+                        callLog.recordParseFailure(SEARCH_URI, e);
                         throw new RuntimeException("Failed to parse TMDb search response", e);
                     }
-                });
+                }), deadline);
     }
 
     /**
@@ -60,45 +218,153 @@ public class TMDbService {
      * @return CompletableFuture with TMDbImagesResponse
      */
     public CompletableFuture<TMDbImagesResponse> getMovieImages(Integer movieId) {
-        String url = String.format("https://api.themoviedb.org/3/movie/%d/images?api_key=%s",
-                movieId, apiKey);
+        TMDbImagesResponse cached = imagesCache.get(movieId);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        String url = String.format("%s/3/movie/%d/images?api_key=%s",
+                baseUrl, movieId, apiKey);
         HttpRequest request = buildHttpRequest(url);
 
-        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+        return inFlightRequests.execute(url, () -> send(request, IMAGES_URI, null, movieId, BODY_HANDLER, Deadline.none())
                 .thenApply(response -> {
                     try {
-                        return objectMapper.readValue(response.body(), TMDbImagesResponse.class);
+                        TMDbImagesResponse parsed = response.body().read(objectMapper, TMDbImagesResponse.class);
+                        cacheIfOk(imagesCache, movieId, parsed, response);
+                        return parsed;
                     } catch (Exception e) { // <-- catch all exceptions
+                        callLog.recordParseFailure(IMAGES_URI, e);
                         throw new RuntimeException("Failed to parse TMDb images response", e);
                     }
-                });
+                }));
     }
 
     /**
      * Gets movies similar to the given movie ID from TMDb.
+     * The similar movies of a cached details response are reused, since they are the same list.
      *
      * @param movieId The TMDb movie ID
      * @return CompletableFuture with TMDbSimilarResponse
      */
     public CompletableFuture<TMDbSimilarResponse> getSimilarMovies(Integer movieId) {
-        String url = String.format("https://api.themoviedb.org/3/movie/%d/similar?api_key=%s",
-                movieId, apiKey);
+        TMDbSimilarResponse cached = similarCache.get(movieId);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        TMDbMovieDetailsResponse details = detailsCache.peek(movieId);
+        if (details != null && details.getSimilar() != null) {
+            return CompletableFuture.completedFuture(details.getSimilar());
+        }
+
+        String url = String.format("%s/3/movie/%d/similar?api_key=%s",
+                baseUrl, movieId, apiKey);
         HttpRequest request = buildHttpRequest(url);
 
-        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+        return inFlightRequests.execute(url, () -> send(request, SIMILAR_URI, null, movieId, BODY_HANDLER, Deadline.none())
                 .thenApply(response -> {
                     try {
-                        return objectMapper.readValue(response.body(), TMDbSimilarResponse.class);
+                        TMDbSimilarResponse parsed = response.body().read(objectMapper, TMDbSimilarResponse.class);
+                        cacheIfOk(similarCache, movieId, parsed, response);
+                        return parsed;
                     } catch (Exception e) { // <-- catch all exceptions
+                        callLog.recordParseFailure(SIMILAR_URI, e);
                         throw new RuntimeException("Failed to parse TMDb similar movies response", e);
                     }
+                }));
+    }
+
+    /**
+     * Gets movie details together with its images and similar movies in a single request,
+     * using TMDb's {@code append_to_response=images,similar}.
+     * The response is cached once, weighed by its full size. Its similar movies are also served by
+     * {@link #getSimilarMovies(Integer)}; its images are not, because they are filtered by language
+     * and so differ from what {@link #getMovieImages(Integer)} returns.
+     *
+     * @param movieId The TMDb movie ID
+     * @return CompletableFuture with TMDbMovieDetailsResponse
+     */
+    public CompletableFuture<TMDbMovieDetailsResponse> getMovieDetails(Integer movieId) {
+        return getMovieDetails(movieId, Deadline.none());
+    }
+
+    /**
+     * Gets movie details together with its images and similar movies in a single request,
+     * giving up once the deadline has passed.
+     *
+     * @param movieId  The TMDb movie ID
+     * @param deadline Time by which the response is needed
+     * @return CompletableFuture with TMDbMovieDetailsResponse
+     */
+    public CompletableFuture<TMDbMovieDetailsResponse> getMovieDetails(Integer movieId, Deadline deadline) {
+        TMDbMovieDetailsResponse cached = detailsCache.get(movieId);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        String url = String.format(
+                "%s/3/movie/%d?api_key=%s&append_to_response=images,similar&include_image_language=en,null",
+                baseUrl, movieId, apiKey);
+        HttpRequest request = buildHttpRequest(url);
+
+        return inFlightRequests.execute(url, () -> send(request, DETAILS_URI, null, movieId, BODY_HANDLER, deadline)
+                .thenApply(response -> {
+                    try {
+                        TMDbMovieDetailsResponse parsed = response.body().read(objectMapper, TMDbMovieDetailsResponse.class);
+                        cacheIfOk(detailsCache, movieId, parsed, response);
+                        return parsed;
+                    } catch (Exception e) {
+                        callLog.recordParseFailure(DETAILS_URI, e);
+                        throw new RuntimeException("Failed to parse TMDb movie details response", e);
+                    }
+                }), deadline);
+    }
+
+    /** Caches a parsed response, but only if TMDb answered with 200 OK. */
+    private <K, V> void cacheIfOk(ResponseCache<K, V> cache, K key, V value, HttpResponse<JsonBody> response) {
+        if (response.statusCode() == 200) {
+            cache.put(key, value, response.body().size());
+        }
+    }
+
+    /**
+     * Sends a request once the rate limiter grants a token, through the bulkhead and circuit breaker.
+     * 429 responses are retried after their Retry-After delay; slow attempts are hedged and transient
+     * failures retried while the deadline allows, and each attempt's timeout is capped to the time left.
+     * Calls are rejected with {@link UpstreamUnavailableException} while the circuit is open,
+     * the request queue is full, the rate limit is still exceeded after the retries, or the deadline has passed.
+     * The outcome is recorded in the call log under the URL template, and as a Flight Recorder event
+     * carrying the title or TMDb id the call was made for.
+     */
+    private CompletableFuture<HttpResponse<JsonBody>> send(HttpRequest request, String uriTemplate,
+                                                           String title, Integer tmdbId,
+                                                           JsonBodyHandler bodyHandler, Deadline deadline) {
+        long start = System.nanoTime();
+        UpstreamCallEvent event = new UpstreamCallEvent();
+        event.begin();
+        return hedgedRetry.execute(() -> guard.execute(
+                () -> httpClient.sendAsync(withDeadline(request, deadline), bodyHandler),
+                UpstreamGuard::isServerError), rateLimiter, deadline)
+                .whenComplete((response, ex) -> {
+                    callLog.record(uriTemplate, response, ex, System.nanoTime() - start);
+                    event.complete("tmdb", uriTemplate, title, tmdbId, response, ex);
                 });
     }
 
-    /** Builds an HTTP GET request for the given URL. */
+    /** Copies a request with its timeout capped to the time left until the deadline. */
+    private HttpRequest withDeadline(HttpRequest request, Deadline deadline) {
+        Duration timeout = deadline.cap(requestTimeout);
+        if (timeout.equals(requestTimeout)) {
+            return request;
+        }
+        return HttpRequest.newBuilder(request, (name, value) -> true).timeout(timeout).build();
+    }
+
+    /** Builds an HTTP GET request with the request timeout for the given URL. */
     private HttpRequest buildHttpRequest(String url) {
         return HttpRequest.newBuilder()
                 .uri(URI.create(url))
+                .timeout(requestTimeout)
                 .GET()
                 .build();
     }
@@ -0,0 +1,78 @@
+package com.example.moviewatchlist.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Flight Recorder event for one call to OMDb or TMDb, including its retries and hedged attempts.
+ * The event starts when the request is sent and ends when the call completes, usually on an
+ * HTTP client thread. Stack traces are not recorded, so the event is cheap enough to keep enabled.
+ */
+@Name("com.example.moviewatchlist.UpstreamCall")
+@Label("Upstream Call")
+@Category({"Movie Watchlist", "Upstream"})
+@Description("Call to OMDb or TMDb, from sending the request to the response or failure")
+@StackTrace(false)
+public class UpstreamCallEvent extends Event {
+
+    @Label("Upstream")
+    String upstream;
+
+    @Label("URI Template")
+    String uri;
+
+    @Label("Title")
+    String title;
+
+    @Label("TMDb ID")
+    int tmdbId;
+
+    @Label("Status")
+    @Description("HTTP status, or 0 if no response was received")
+    int status;
+
+    @Label("Response Size")
+    @DataAmount
+    long bytes;
+
+    @Label("Failure")
+    String failure;
+
+    /**
+     * Ends the event and commits it, if it is enabled and over its threshold.
+     *
+     * @param upstream the upstream name
+     * @param uri      the URL template
+     * @param title    the looked up title, or null
+     * @param tmdbId   the TMDb movie id, or null
+     * @param response the response, or null if the call failed
+     * @param failure  the failure, or null
+     */
+    public void complete(String upstream, String uri, String title, Integer tmdbId,
+                         HttpResponse<JsonBody> response, Throwable failure) {
+        end();
+        if (!shouldCommit()) {
+            return;
+        }
+        this.upstream = upstream;
+        this.uri = uri;
+        this.title = title;
+        this.tmdbId = tmdbId != null ? tmdbId : 0;
+        this.status = response != null ? response.statusCode() : 0;
+        this.bytes = response != null && response.body() != null ? response.body().size() : 0;
+        if (failure != null) {
+            Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                    ? failure.getCause() : failure;
+            this.failure = cause.getClass().getSimpleName() + ": " + cause.getMessage();
+        }
+        commit();
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.moviewatchlist.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.lang.NonNull;
+
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Structured, sampled log and metrics of the calls to one upstream.
+ * Every call is recorded in a timer and a response size summary tagged with the URL template
+ * (never the full URL, which contains the API key) and the status. Log lines are key=value pairs:
+ * successful calls at DEBUG, client errors at INFO, failures at WARN. At most a fixed number of
+ * lines per second is written for each upstream; the number of suppressed lines is reported in the
+ * next one, so a burst of calls cannot flood the log.
+ */
+public class UpstreamCallLog implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(UpstreamCallLog.class);
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final String upstream;
+    private final int maxLinesPerSecond;
+    private final LongSupplier ticker;
+
+    private long window = Long.MIN_VALUE;
+    private int linesInWindow;
+    private long suppressed;
+
+    private volatile MeterRegistry registry;
+
+    /**
+     * Creates the call log.
+     *
+     * @param upstream          name of the upstream, used in log lines and metrics
+     * @param maxLinesPerSecond maximum number of log lines per second
+     */
+    public UpstreamCallLog(String upstream, int maxLinesPerSecond) {
+        this(upstream, maxLinesPerSecond, System::nanoTime);
+    }
+
+    /** Creates a call log with a custom nanosecond ticker (used by tests to control time). */
+    UpstreamCallLog(String upstream, int maxLinesPerSecond, LongSupplier ticker) {
+        this.upstream = upstream;
+        this.maxLinesPerSecond = maxLinesPerSecond;
+        this.ticker = ticker;
+    }
+
+    /**
+     * Records a finished call.
+     *
+     * @param uriTemplate  the URL template, e.g. {@code /3/movie/{id}}
+     * @param response     the response, or null if the call failed
+     * @param failure      the failure, or null if a response was received
+     * @param latencyNanos time from sending the request to the outcome, including retries
+     */
+    public void record(String uriTemplate, HttpResponse<JsonBody> response, Throwable failure, long latencyNanos) {
+        String status = response != null ? String.valueOf(response.statusCode()) : "none";
+        String outcome = outcome(response);
+        String exception = failure != null ? unwrap(failure).getClass().getSimpleName() : "none";
+        long bytes = response != null && response.body() != null ? response.body().size() : 0;
+
+        MeterRegistry meters = registry;
+        if (meters != null) {
+            Timer.builder("upstream.requests")
+                    .tag("upstream", upstream)
+                    .tag("uri", uriTemplate)
+                    .tag("status", status)
+                    .tag("outcome", outcome)
+                    .tag("exception", exception)
+                    .register(meters)
+                    .record(latencyNanos, TimeUnit.NANOSECONDS);
+            if (response != null) {
+                DistributionSummary.builder("upstream.response.size")
+                        .baseUnit("bytes")
+                        .tag("upstream", upstream)
+                        .tag("uri", uriTemplate)
+                        .register(meters)
+                        .record(bytes);
+            }
+        }
+
+        long latencyMs = TimeUnit.NANOSECONDS.toMillis(latencyNanos);
+        if (failure != null || "SERVER_ERROR".equals(outcome)) {
+            if (logger.isWarnEnabled() && sample()) {
+                logger.warn("upstream={} uri={} status={} outcome={} exception={} message=\"{}\" latency_ms={} bytes={} suppressed={}",
+                        upstream, uriTemplate, status, outcome, exception,
+                        failure != null ? unwrap(failure).getMessage() : "", latencyMs, bytes, takeSuppressed());
+            }
+        } else if ("CLIENT_ERROR".equals(outcome)) {
+            if (logger.isInfoEnabled() && sample()) {
+                logger.info("upstream={} uri={} status={} outcome={} latency_ms={} bytes={} suppressed={}",
+                        upstream, uriTemplate, status, outcome, latencyMs, bytes, takeSuppressed());
+            }
+        } else if (logger.isDebugEnabled() && sample()) {
+            logger.debug("upstream={} uri={} status={} outcome={} latency_ms={} bytes={} suppressed={}",
+                    upstream, uriTemplate, status, outcome, latencyMs, bytes, takeSuppressed());
+        }
+    }
+
+    /**
+     * Records a response that could not be parsed.
+     *
+     * @param uriTemplate the URL template
+     * @param error       the parse error
+     */
+    public void recordParseFailure(String uriTemplate, Exception error) {
+        MeterRegistry meters = registry;
+        if (meters != null) {
+            Counter.builder("upstream.parse.failures")
+                    .tag("upstream", upstream)
+                    .tag("uri", uriTemplate)
+                    .register(meters)
+                    .increment();
+        }
+        if (logger.isWarnEnabled() && sample()) {
+            logger.warn("upstream={} uri={} outcome=PARSE_ERROR message=\"{}\" suppressed={}",
+                    upstream, uriTemplate, error.getMessage(), takeSuppressed());
+        }
+    }
+
+    /** Checks whether another line fits in the current one-second window. */
+    synchronized boolean sample() {
+        long second = ticker.getAsLong() / NANOS_PER_SECOND;
+        if (second != window) {
+            window = second;
+            linesInWindow = 0;
+        }
+        if (linesInWindow < maxLinesPerSecond) {
+            linesInWindow++;
+            return true;
+        }
+        suppressed++;
+        return false;
+    }
+
+    /** Returns the number of lines suppressed since the last written one, and resets it. */
+    private synchronized long takeSuppressed() {
+        long count = suppressed;
+        suppressed = 0;
+        return count;
+    }
+
+    private static String outcome(HttpResponse<?> response) {
+        if (response == null) {
+            return "UNKNOWN";
+        }
+        int status = response.statusCode();
+        if (status >= 500) {
+            return "SERVER_ERROR";
+        }
+        if (status >= 400) {
+            return "CLIENT_ERROR";
+        }
+        return status >= 200 && status < 300 ? "SUCCESS" : "REDIRECTION";
+    }
+
+    private static Throwable unwrap(Throwable ex) {
+        return ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+    }
+
+    /**
+     * Starts recording the call timers and size summaries in the given registry.
+     *
+     * @param registry the meter registry
+     */
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        this.registry = registry;
+    }
+}
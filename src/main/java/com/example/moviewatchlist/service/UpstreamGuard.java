@@ -0,0 +1,250 @@
+package com.example.moviewatchlist.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.lang.NonNull;
+
+import java.net.http.HttpResponse;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Bulkhead and circuit breaker for the calls to one upstream API.
+ * The bulkhead limits how many calls may be in flight at once; further calls fail fast instead of queueing.
+ * The circuit breaker opens after a number of consecutive failures and then rejects calls until the open
+ * duration has passed. After that a single trial call is let through: if it succeeds the circuit closes,
+ * otherwise it opens again. Only the trial call decides this; calls admitted before the circuit opened
+ * may still finish while it is half-open, and their outcome is ignored.
+ * Rejected calls fail with {@link UpstreamUnavailableException}. Cancelling a call's future cancels the
+ * call itself; a cancelled call counts as neither success nor failure.
+ */
+public class UpstreamGuard implements MeterBinder {
+
+    /** Circuit breaker states. */
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    /** How a call was let into the circuit. */
+    private enum Admission { REJECTED, CALL, TRIAL }
+
+    private static final Logger logger = LoggerFactory.getLogger(UpstreamGuard.class);
+
+    private final String upstream;
+    private final int maxConcurrent;
+    private final Semaphore permits;
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongSupplier ticker;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    private final LongAdder rejectedOpen = new LongAdder();
+    private final LongAdder rejectedFull = new LongAdder();
+    /** Transition counters keyed "FROM-TO", created for every possible transition. */
+    private final Map<String, LongAdder> transitions = new LinkedHashMap<>();
+
+    /**
+     * Creates a guard using the system clock.
+     *
+     * @param upstream         name of the upstream, used in messages and metrics
+     * @param maxConcurrent    maximum number of calls in flight at once
+     * @param failureThreshold consecutive failures that open the circuit
+     * @param openDurationMs   how long the circuit stays open before a trial call
+     */
+    public UpstreamGuard(String upstream, int maxConcurrent, int failureThreshold, long openDurationMs) {
+        this(upstream, maxConcurrent, failureThreshold, openDurationMs, System::nanoTime);
+    }
+
+    /** Creates a guard with a custom nanosecond ticker (used by tests to control time). */
+    UpstreamGuard(String upstream, int maxConcurrent, int failureThreshold, long openDurationMs, LongSupplier ticker) {
+        if (maxConcurrent < 1 || failureThreshold < 1 || openDurationMs < 1) {
+            throw new IllegalArgumentException("Guard limits must be positive");
+        }
+        this.upstream = upstream;
+        this.maxConcurrent = maxConcurrent;
+        this.permits = new Semaphore(maxConcurrent);
+        this.failureThreshold = failureThreshold;
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openDurationMs);
+        this.ticker = ticker;
+        for (String transition : new String[] {"CLOSED-OPEN", "OPEN-HALF_OPEN", "HALF_OPEN-CLOSED", "HALF_OPEN-OPEN"}) {
+            transitions.put(transition, new LongAdder());
+        }
+    }
+
+    /**
+     * Classifies an HTTP response as a failure for the circuit breaker (any 5xx status).
+     *
+     * @param response the HTTP response
+     * @return true if the upstream reported a server error
+     */
+    public static boolean isServerError(HttpResponse<?> response) {
+        return response.statusCode() >= 500;
+    }
+
+    /**
+     * Runs an upstream call unless the circuit is open or the concurrency limit is reached.
+     *
+     * @param call      starts the upstream call
+     * @param isFailure decides whether a completed result counts as a failure; exceptions always do
+     * @param <T>       the result type
+     * @return the call's future, or a future failed with {@link UpstreamUnavailableException} if rejected
+     */
+    public <T> CompletableFuture<T> execute(Supplier<CompletableFuture<T>> call, Predicate<T> isFailure) {
+        Admission admission = tryEnterCircuit();
+        if (admission == Admission.REJECTED) {
+            rejectedOpen.increment();
+            return CompletableFuture.failedFuture(new UpstreamUnavailableException(upstream + " circuit is open"));
+        }
+        boolean trial = admission == Admission.TRIAL;
+        if (!permits.tryAcquire()) {
+            if (trial) {
+                abandonTrial();
+            }
+            rejectedFull.increment();
+            return CompletableFuture.failedFuture(
+                    new UpstreamUnavailableException(upstream + " has too many requests in flight"));
+        }
+
+        CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException e) {
+            permits.release();
+            onResult(trial, true);
+            return CompletableFuture.failedFuture(e);
+        }
+        // A separate future, so cancelling it still lets the call release its permit when it ends
+        CompletableFuture<T> guarded = new CompletableFuture<>();
+        future.whenComplete((result, ex) -> {
+            permits.release();
+            if (isCancellation(ex)) {
+                if (trial) {
+                    abandonTrial();
+                }
+            } else {
+                onResult(trial, ex != null || isFailure.test(result));
+            }
+            if (ex != null) {
+                guarded.completeExceptionally(ex);
+            } else {
+                guarded.complete(result);
+            }
+        });
+        guarded.whenComplete((result, ex) -> {
+            if (guarded.isCancelled()) {
+                future.cancel(true);
+            }
+        });
+        return guarded;
+    }
+
+    private static boolean isCancellation(Throwable ex) {
+        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+        return cause instanceof CancellationException;
+    }
+
+    /**
+     * Decides whether a call may start, moving from OPEN to HALF_OPEN once the open duration has passed.
+     * The single call let through while half-open is the trial call.
+     */
+    private synchronized Admission tryEnterCircuit() {
+        if (state == State.OPEN && ticker.getAsLong() - openedAt >= openNanos) {
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.CLOSED) {
+            return Admission.CALL;
+        }
+        if (state == State.HALF_OPEN && !trialInFlight) {
+            trialInFlight = true;
+            return Admission.TRIAL;
+        }
+        return Admission.REJECTED;
+    }
+
+    /** Gives the trial slot back when the trial call was rejected by the bulkhead or cancelled. */
+    private synchronized void abandonTrial() {
+        trialInFlight = false;
+    }
+
+    /**
+     * Updates the breaker with the outcome of a call. Only the trial call moves the circuit out of HALF_OPEN;
+     * calls admitted while it was still closed count only if it is closed when they finish.
+     */
+    private synchronized void onResult(boolean trial, boolean failed) {
+        if (trial) {
+            trialInFlight = false;
+            if (state == State.HALF_OPEN) {
+                transitionTo(failed ? State.OPEN : State.CLOSED);
+            }
+        } else if (state == State.CLOSED) {
+            consecutiveFailures = failed ? consecutiveFailures + 1 : 0;
+            if (consecutiveFailures >= failureThreshold) {
+                transitionTo(State.OPEN);
+            }
+        }
+    }
+
+    private void transitionTo(State next) {
+        transitions.get(state + "-" + next).increment();
+        logger.warn("Circuit for {} changed from {} to {}", upstream, state, next);
+        state = next;
+        consecutiveFailures = 0;
+        if (next == State.OPEN) {
+            openedAt = ticker.getAsLong();
+        }
+    }
+
+    /** @return the upstream name */
+    public String getUpstream() { return upstream; }
+    /** @return the current circuit state */
+    public synchronized State getState() { return state; }
+    /** @return the number of calls currently in flight */
+    public int activeCount() { return maxConcurrent - permits.availablePermits(); }
+    /** @return the number of calls rejected because the circuit was open */
+    public long rejectedOpenCount() { return rejectedOpen.sum(); }
+    /** @return the number of calls rejected because the concurrency limit was reached */
+    public long rejectedFullCount() { return rejectedFull.sum(); }
+
+    /**
+     * Registers the circuit state gauge (0 closed, 1 open, 2 half-open), transition counters,
+     * rejection counters and the active call gauge, all tagged with the upstream name.
+     *
+     * @param registry the meter registry
+     */
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        Gauge.builder("upstream.circuit.state", this, guard -> guard.getState().ordinal())
+                .tag("upstream", upstream)
+                .register(registry);
+        transitions.forEach((transition, counter) -> {
+            String[] states = transition.split("-");
+            FunctionCounter.builder("upstream.circuit.transitions", counter, LongAdder::sum)
+                    .tags("upstream", upstream, "from", states[0], "to", states[1])
+                    .register(registry);
+        });
+        FunctionCounter.builder("upstream.calls.rejected", this, UpstreamGuard::rejectedOpenCount)
+                .tags("upstream", upstream, "reason", "circuit_open")
+                .register(registry);
+        FunctionCounter.builder("upstream.calls.rejected", this, UpstreamGuard::rejectedFullCount)
+                .tags("upstream", upstream, "reason", "bulkhead_full")
+                .register(registry);
+        Gauge.builder("upstream.bulkhead.active", this, UpstreamGuard::activeCount)
+                .tag("upstream", upstream)
+                .register(registry);
+    }
+}
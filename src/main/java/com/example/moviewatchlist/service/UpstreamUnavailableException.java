@@ -0,0 +1,17 @@
+package com.example.moviewatchlist.service;
+
+/**
+ * Thrown when a call to an upstream API is rejected without being attempted,
+ * because its circuit breaker is open or its concurrency limit is reached.
+ */
+public class UpstreamUnavailableException extends RuntimeException {
+
+    /**
+     * Creates the exception.
+     *
+     * @param message the reason the call was rejected
+     */
+    public UpstreamUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -7,9 +7,26 @@
  * <h2>Main Services:</h2>
  * <ul>
  *   <li>{@link com.example.moviewatchlist.service.MovieService} - Core business logic for movie operations</li>
+ *   <li>{@link com.example.moviewatchlist.service.AddMovieMetrics} - Per-stage timers and failure counters of the add-movie pipeline</li>
  *   <li>{@link com.example.moviewatchlist.service.OMDbService} - Integration with OMDb API for movie data</li>
  *   <li>{@link com.example.moviewatchlist.service.TMDbService} - Integration with TMDb API for images and similar movies</li>
+ *   <li>{@link com.example.moviewatchlist.service.AutocompleteService} - Prefix-cached, debounced search-as-you-type suggestions</li>
  *   <li>{@link com.example.moviewatchlist.service.ImageDownloadService} - Handles async image downloads and storage</li>
+ *   <li>{@link com.example.moviewatchlist.service.ResponseCache} - Bounded TTL/LRU cache for upstream API responses</li>
+ *   <li>{@link com.example.moviewatchlist.service.SingleFlight} - Coalesces concurrent identical upstream requests</li>
+ *   <li>{@link com.example.moviewatchlist.service.JsonBodyHandler} - Parses JSON responses from the byte stream as they arrive</li>
+ *   <li>{@link com.example.moviewatchlist.service.JsonBody} - Buffered tokens of a parsed JSON response</li>
+ *   <li>{@link com.example.moviewatchlist.service.UpstreamCallLog} - Sampled structured log and timers of upstream calls</li>
+ *   <li>{@link com.example.moviewatchlist.service.UpstreamCallEvent} - Flight Recorder event for each upstream call</li>
+ *   <li>{@link com.example.moviewatchlist.service.ImageDownloadEvent} - Flight Recorder event for each image download</li>
+ *   <li>{@link com.example.moviewatchlist.service.RepositoryEvent} - Flight Recorder event for each movie repository call</li>
+ *   <li>{@link com.example.moviewatchlist.service.UpstreamGuard} - Per-upstream bulkhead and circuit breaker</li>
+ *   <li>{@link com.example.moviewatchlist.service.RateLimiter} - Token bucket with Retry-After aware 429 retries</li>
+ *   <li>{@link com.example.moviewatchlist.service.HedgedRetry} - p95-based hedged requests and jittered retries within a deadline</li>
+ *   <li>{@link com.example.moviewatchlist.service.Deadline} - Time limit of a request, passed down to its upstream calls</li>
+ *   <li>{@link com.example.moviewatchlist.service.ImageStore} - Content-addressed, reference-counted image storage</li>
+ *   <li>{@link com.example.moviewatchlist.service.ImageVariantService} - Generates thumbnail and medium image variants</li>
+ *   <li>{@link com.example.moviewatchlist.service.ImageCacheManager} - Keeps the images directory within its quota and removes orphans</li>
  * </ul>
  * 
  * <h2>Design Patterns Used:</h2>
@@ -0,0 +1,33 @@
+package com.example.moviewatchlist.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpClientConfigTest {
+
+    private final HttpClientConfig config = new HttpClientConfig();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void outboundHttpClient_prefersHttp2WithTimeoutsAndDedicatedExecutor() {
+        ExecutorService executor = config.httpClientExecutor(2, registry);
+        try {
+            HttpClient client = config.outboundHttpClient(1500, "off", "upstream-archive", 1.0, executor, registry);
+
+            assertInstanceOf(InstrumentedHttpClient.class, client);
+            assertEquals(HttpClient.Version.HTTP_2, client.version());
+            assertEquals(Optional.of(Duration.ofMillis(1500)), client.connectTimeout());
+            assertEquals(Optional.of(executor), client.executor());
+            assertNotNull(registry.find("executor.completed").tag("name", "http.client").functionCounter());
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
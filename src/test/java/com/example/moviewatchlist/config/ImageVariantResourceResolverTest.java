@@ -0,0 +1,72 @@
+package com.example.moviewatchlist.config;
+
+import com.example.moviewatchlist.service.ImageVariantService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ImageVariantResourceResolverTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final ImageVariantService imageVariantService = mock(ImageVariantService.class);
+    private final ResourceResolverChain chain = mock(ResourceResolverChain.class);
+    private final ImageVariantResourceResolver resolver = new ImageVariantResourceResolver(imageVariantService);
+
+    @Test
+    void resolveResource_servesVariantForSizeParameter() throws Exception {
+        Path original = Files.write(tempDir.resolve("abc.jpg"), new byte[]{1});
+        Path variant = Files.write(tempDir.resolve("abc_thumb.jpg"), new byte[]{2});
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/movie-images/abc.jpg");
+        request.setParameter("size", "thumb");
+        when(chain.resolveResource(request, "abc.jpg", List.of())).thenReturn(new FileSystemResource(original));
+        when(imageVariantService.getVariant(original, ImageVariantService.Size.THUMB)).thenReturn(variant);
+
+        Resource resource = resolver.resolveResource(request, "abc.jpg", List.of(), chain);
+
+        assertEquals(variant, resource.getFile().toPath());
+    }
+
+    @Test
+    void resolveResource_servesOriginalWithoutSizeParameter() throws Exception {
+        Resource original = new FileSystemResource(Files.write(tempDir.resolve("abc.jpg"), new byte[]{1}));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/movie-images/abc.jpg");
+        when(chain.resolveResource(request, "abc.jpg", List.of())).thenReturn(original);
+
+        assertSame(original, resolver.resolveResource(request, "abc.jpg", List.of(), chain));
+        verifyNoInteractions(imageVariantService);
+    }
+
+    @Test
+    void resolveResource_fallsBackToOriginalWhenVariantFails() throws Exception {
+        Resource original = new FileSystemResource(Files.write(tempDir.resolve("abc.jpg"), new byte[]{1}));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/movie-images/abc.jpg");
+        request.setParameter("size", "medium");
+        when(chain.resolveResource(request, "abc.jpg", List.of())).thenReturn(original);
+        when(imageVariantService.getVariant(any(), any())).thenThrow(new IOException("disk full"));
+
+        assertSame(original, resolver.resolveResource(request, "abc.jpg", List.of(), chain));
+    }
+
+    @Test
+    void resolveResource_returnsNullForMissingImage() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/movie-images/missing.jpg");
+        request.setParameter("size", "thumb");
+
+        assertNull(resolver.resolveResource(request, "missing.jpg", List.of(), chain));
+        verifyNoInteractions(imageVariantService);
+    }
+}
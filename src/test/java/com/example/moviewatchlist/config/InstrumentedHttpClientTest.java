@@ -0,0 +1,56 @@
+package com.example.moviewatchlist.config;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class InstrumentedHttpClientTest {
+
+    private final HttpClient delegate = mock(HttpClient.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final InstrumentedHttpClient client = new InstrumentedHttpClient(delegate, registry);
+    private final HttpRequest request = HttpRequest.newBuilder(URI.create("https://api.themoviedb.org/3/movie/1")).build();
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void sendAsync_recordsTimerTaggedWithHostVersionAndStatus() {
+        HttpResponse<String> response = mock(HttpResponse.class);
+        when(response.statusCode()).thenReturn(200);
+        when(response.version()).thenReturn(HttpClient.Version.HTTP_2);
+        CompletableFuture<HttpResponse<String>> pending = new CompletableFuture<>();
+        when(delegate.sendAsync(eq(request), any(HttpResponse.BodyHandler.class), any())).thenReturn(pending);
+
+        CompletableFuture<HttpResponse<String>> result = client.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(1, client.inFlightCount());
+        pending.complete(response);
+
+        assertSame(response, result.join());
+        assertEquals(0, client.inFlightCount());
+        Timer timer = registry.get(InstrumentedHttpClient.REQUESTS_METRIC)
+            .tags("host", "api.themoviedb.org", "version", "HTTP_2", "status", "200").timer();
+        assertEquals(1, timer.count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void send_recordsFailuresByExceptionType() throws Exception {
+        when(delegate.send(eq(request), any(HttpResponse.BodyHandler.class))).thenThrow(new IOException("refused"));
+
+        assertThrows(IOException.class, () -> client.send(request, HttpResponse.BodyHandlers.ofString()));
+
+        assertEquals(1, registry.get(InstrumentedHttpClient.REQUESTS_METRIC)
+            .tags("version", "none", "status", "IOException").timer().count());
+        assertEquals(0, client.inFlightCount());
+    }
+}
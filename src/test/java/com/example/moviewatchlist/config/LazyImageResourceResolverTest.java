@@ -0,0 +1,110 @@
+package com.example.moviewatchlist.config;
+
+import com.example.moviewatchlist.repository.MovieRepository;
+import com.example.moviewatchlist.service.ImageCacheManager;
+import com.example.moviewatchlist.service.ImageDownloadService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.Resource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class LazyImageResourceResolverTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final ImageDownloadService imageDownloadService = mock(ImageDownloadService.class);
+    private final ResourceResolverChain chain = mock(ResourceResolverChain.class);
+    private final ImageCacheManager imageCacheManager = mock(ImageCacheManager.class);
+    private final MovieRepository movieRepository = mock(MovieRepository.class);
+    private final LazyImageResourceResolver resolver =
+        new LazyImageResourceResolver(imageDownloadService, imageCacheManager, movieRepository);
+    private final MockHttpServletRequest request = new MockHttpServletRequest();
+
+    @Test
+    void resolveResource_fetchesTmdbImageOnDemand() throws Exception {
+        Path stored = Files.write(tempDir.resolve("hash.jpg"), new byte[]{1});
+        when(movieRepository.countByImagePath("/abc.jpg")).thenReturn(1L);
+        when(imageDownloadService.fetchImage("/abc.jpg"))
+            .thenReturn(CompletableFuture.completedFuture(stored.toString()));
+
+        Resource resource = resolver.resolveResource(request, "tmdb/abc.jpg", List.of(), chain);
+
+        assertNotNull(resource);
+        assertEquals(stored, resource.getFile().toPath());
+        verifyNoInteractions(chain);
+        verify(imageCacheManager).recordAccess("hash.jpg");
+    }
+
+    @Test
+    void resolveResource_returnsNullWhenDownloadFails() {
+        when(movieRepository.countByImagePath("/abc.jpg")).thenReturn(1L);
+        when(imageDownloadService.fetchImage("/abc.jpg")).thenReturn(CompletableFuture.completedFuture(null));
+
+        assertNull(resolver.resolveResource(request, "tmdb/abc.jpg", List.of(), chain));
+    }
+
+    @Test
+    void resolveResource_doesNotWaitForRunningDownload() {
+        CompletableFuture<String> download = new CompletableFuture<>();
+        when(movieRepository.countByImagePath("/abc.jpg")).thenReturn(1L);
+        when(imageDownloadService.fetchImage("/abc.jpg")).thenReturn(download);
+
+        assertNull(resolver.resolveResource(request, "tmdb/abc.jpg", List.of(), chain));
+        assertFalse(download.isDone());
+        verifyNoInteractions(imageCacheManager);
+    }
+
+    @Test
+    void resolveResource_doesNotFetchUnreferencedTmdbImages() {
+        when(movieRepository.countByImagePath("/abc.jpg")).thenReturn(0L);
+
+        assertNull(resolver.resolveResource(request, "tmdb/abc.jpg", List.of(), chain));
+        verifyNoInteractions(imageDownloadService);
+    }
+
+    @Test
+    void resolveResource_rejectsInvalidTmdbPaths() {
+        assertNull(resolver.resolveResource(request, "tmdb/sub/abc.jpg", List.of(), chain));
+        verifyNoInteractions(imageDownloadService, movieRepository);
+    }
+
+    @Test
+    void resolveResource_delegatesLocalImagesToChain() {
+        Resource local = mock(Resource.class);
+        when(chain.resolveResource(request, "hash.jpg", List.of())).thenReturn(local);
+
+        when(local.getFilename()).thenReturn("hash.jpg");
+
+        assertSame(local, resolver.resolveResource(request, "hash.jpg", List.of(), chain));
+        verifyNoInteractions(imageDownloadService);
+        verify(imageCacheManager).recordAccess("hash.jpg");
+    }
+
+    @Test
+    void resolveResource_restoresEvictedStoredImage() throws Exception {
+        Path restored = Files.write(tempDir.resolve("hash.jpg"), new byte[]{1});
+        when(imageDownloadService.fetchStoredFile("hash.jpg"))
+            .thenReturn(CompletableFuture.completedFuture(restored.toString()));
+
+        Resource resource = resolver.resolveResource(request, "hash.jpg", List.of(), chain);
+
+        assertNotNull(resource);
+        assertEquals(restored, resource.getFile().toPath());
+    }
+
+    @Test
+    void resolveResource_doesNotRestoreNestedPaths() {
+        assertNull(resolver.resolveResource(request, "variants/hash_thumb.jpg", List.of(), chain));
+        verifyNoInteractions(imageDownloadService, imageCacheManager);
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.moviewatchlist.config;
+
+import com.example.moviewatchlist.dto.OMDbResponse;
+import com.example.moviewatchlist.service.JsonBody;
+import com.example.moviewatchlist.service.JsonBodyHandler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Flow;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class RecordReplayHttpClientTest {
+
+    private static final String OMDB_BODY = "{\"Title\":\"Inception\",\"Year\":\"2010\",\"Response\":\"True\"}";
+
+    @TempDir
+    Path archiveDir;
+
+    private final HttpClient delegate = mock(HttpClient.class);
+
+    private static HttpRequest request(String apiKey) {
+        return HttpRequest.newBuilder(URI.create("https://www.omdbapi.com/?t=Inception&apikey=" + apiKey)).build();
+    }
+
+    /** Makes the mocked delegate answer by feeding the body to the handler it was given, in two chunks. */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void delegateAnswers(int status, Map<String, List<String>> headers, String body) {
+        when(delegate.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class))).thenAnswer(invocation -> {
+            HttpRequest request = invocation.getArgument(0);
+            HttpResponse.BodyHandler handler = invocation.getArgument(1);
+            HttpHeaders httpHeaders = HttpHeaders.of(headers, (name, value) -> true);
+            HttpResponse.BodySubscriber subscriber = handler.apply(new HttpResponse.ResponseInfo() {
+                @Override
+                public int statusCode() { return status; }
+
+                @Override
+                public HttpHeaders headers() { return httpHeaders; }
+
+                @Override
+                public HttpClient.Version version() { return HttpClient.Version.HTTP_2; }
+            });
+            subscriber.onSubscribe(mock(Flow.Subscription.class));
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            int half = bytes.length / 2;
+            subscriber.onNext(List.of(ByteBuffer.wrap(bytes, 0, half)));
+            subscriber.onNext(List.of(ByteBuffer.wrap(bytes, half, bytes.length - half)));
+            subscriber.onComplete();
+            Object parsed = subscriber.getBody().toCompletableFuture().join();
+            HttpResponse response = mock(HttpResponse.class);
+            when(response.statusCode()).thenReturn(status);
+            when(response.headers()).thenReturn(httpHeaders);
+            when(response.body()).thenReturn(parsed);
+            when(response.request()).thenReturn(request);
+            return CompletableFuture.completedFuture(response);
+        });
+    }
+
+    @Test
+    void replay_servesRecordedResponseWithoutNetwork() throws Exception {
+        delegateAnswers(200, Map.of("Content-Type", List.of("application/json"), "Set-Cookie", List.of("a=b")), OMDB_BODY);
+        RecordReplayHttpClient recorder = new RecordReplayHttpClient(delegate,
+                new UpstreamArchive(archiveDir), RecordReplayHttpClient.Mode.RECORD, 1.0);
+
+        HttpResponse<String> recorded = recorder.sendAsync(request("secret"), HttpResponse.BodyHandlers.ofString()).join();
+        assertEquals(OMDB_BODY, recorded.body(), "the caller still gets the live body while recording");
+
+        HttpClient offline = mock(HttpClient.class);
+        RecordReplayHttpClient replayer = new RecordReplayHttpClient(offline,
+                new UpstreamArchive(archiveDir), RecordReplayHttpClient.Mode.REPLAY, 0);
+
+        HttpResponse<JsonBody> replayed = replayer.sendAsync(request("other-key"), JsonBodyHandler.create()).join();
+
+        assertEquals(200, replayed.statusCode());
+        assertEquals("Inception", replayed.body().read(new ObjectMapper(), OMDbResponse.class).getTitle());
+        assertEquals(Optional.of("application/json"), replayed.headers().firstValue("Content-Type"));
+        assertTrue(replayed.headers().firstValue("Set-Cookie").isEmpty(), "only headers the services read are kept");
+        verifyNoInteractions(offline);
+    }
+
+    @Test
+    void record_neverWritesApiKeysToArchive() throws Exception {
+        delegateAnswers(200, Map.of(), OMDB_BODY);
+        RecordReplayHttpClient recorder = new RecordReplayHttpClient(delegate,
+                new UpstreamArchive(archiveDir), RecordReplayHttpClient.Mode.RECORD, 1.0);
+
+        recorder.sendAsync(request("secret-key-123"), HttpResponse.BodyHandlers.ofString()).join();
+
+        try (var files = Files.list(archiveDir)) {
+            List<Path> entries = files.toList();
+            assertEquals(1, entries.size());
+            UpstreamArchive.Entry entry = new UpstreamArchive(archiveDir)
+                    .read(UpstreamArchive.key(request("anything"))).orElseThrow();
+            assertEquals("GET https://www.omdbapi.com/?t=Inception", entry.key());
+            assertFalse(entry.key().contains("secret"));
+        }
+    }
+
+    @Test
+    void replay_writesRecordedBodyToFileHandler() throws Exception {
+        delegateAnswers(200, Map.of("Content-Type", List.of("image/jpeg")), "jpeg-bytes");
+        HttpRequest image = HttpRequest.newBuilder(URI.create("https://image.tmdb.org/t/p/w780/abc.jpg")).build();
+        new RecordReplayHttpClient(delegate, new UpstreamArchive(archiveDir), RecordReplayHttpClient.Mode.RECORD, 1.0)
+                .sendAsync(image, HttpResponse.BodyHandlers.ofString()).join();
+        Path target = archiveDir.resolve("replayed.jpg");
+
+        HttpResponse<Path> response = new RecordReplayHttpClient(mock(HttpClient.class), new UpstreamArchive(archiveDir),
+                RecordReplayHttpClient.Mode.REPLAY, 0).send(image, HttpResponse.BodyHandlers.ofFile(target));
+
+        assertEquals(target, response.body());
+        assertEquals("jpeg-bytes", Files.readString(target));
+    }
+
+    @Test
+    void replay_failsWithIOExceptionForUnrecordedRequest() {
+        RecordReplayHttpClient replayer = new RecordReplayHttpClient(delegate,
+                new UpstreamArchive(archiveDir), RecordReplayHttpClient.Mode.REPLAY, 1.0);
+
+        CompletionException ex = assertThrows(CompletionException.class,
+                () -> replayer.sendAsync(request("k"), HttpResponse.BodyHandlers.ofString()).join());
+        assertInstanceOf(IOException.class, ex.getCause());
+        assertThrows(IOException.class, () -> replayer.send(request("k"), HttpResponse.BodyHandlers.ofString()));
+        verifyNoInteractions(delegate);
+    }
+
+    @Test
+    void replay_waitsForScaledRecordedLatency() throws Exception {
+        new UpstreamArchive(archiveDir).write(new UpstreamArchive.Entry(UpstreamArchive.key(request("k")),
+                200, 200_000_000L, Map.of(), OMDB_BODY.getBytes(StandardCharsets.UTF_8)));
+        RecordReplayHttpClient replayer = new RecordReplayHttpClient(delegate,
+                new UpstreamArchive(archiveDir), RecordReplayHttpClient.Mode.REPLAY, 0.5);
+
+        long start = System.nanoTime();
+        replayer.sendAsync(request("k"), HttpResponse.BodyHandlers.ofString()).join();
+
+        assertTrue(System.nanoTime() - start >= 100_000_000L, "half of the recorded 200 ms");
+    }
+
+    @Test
+    void mode_fromProperty() {
+        assertEquals(Optional.of(RecordReplayHttpClient.Mode.RECORD), RecordReplayHttpClient.Mode.fromProperty("record"));
+        assertEquals(Optional.of(RecordReplayHttpClient.Mode.REPLAY), RecordReplayHttpClient.Mode.fromProperty(" Replay "));
+        assertTrue(RecordReplayHttpClient.Mode.fromProperty("off").isEmpty());
+        assertTrue(RecordReplayHttpClient.Mode.fromProperty(null).isEmpty());
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.moviewatchlist.config;
+
+import com.example.moviewatchlist.controller.MovieController;
+import com.example.moviewatchlist.repository.MovieRepository;
+import com.example.moviewatchlist.service.ImageCacheManager;
+import com.example.moviewatchlist.service.ImageDownloadService;
+import com.example.moviewatchlist.service.ImageVariantService;
+import com.example.moviewatchlist.service.MovieService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Tests the HTTP caching behaviour of the movie image resource handler.
+ */
+@WebMvcTest(MovieController.class)
+@AutoConfigureMockMvc(addFilters = false)
+class WebConfigTest {
+
+    private static final String HASH = "6105d6cc76af400325e94d588ce511be5bfdbb73b437dc51eca43917d7a43e3d";
+
+    @TempDir
+    static Path imagesDir;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private MovieService movieService;
+
+    @MockitoBean
+    private ImageVariantService imageVariantService;
+
+    @MockitoBean
+    private ImageDownloadService imageDownloadService;
+
+    @MockitoBean
+    private ImageCacheManager imageCacheManager;
+
+    @MockitoBean
+    private MovieRepository movieRepository;
+
+    @DynamicPropertySource
+    static void imagesPath(DynamicPropertyRegistry registry) {
+        registry.add("movie.images.path", () -> imagesDir.toString() + "/");
+    }
+
+    @BeforeAll
+    static void writeImage() throws Exception {
+        Files.write(imagesDir.resolve(HASH + ".jpg"), "0123456789".getBytes());
+    }
+
+    @Test
+    void image_isServedAsImmutableWithStrongEtag() throws Exception {
+        mockMvc.perform(get("/movie-images/" + HASH + ".jpg"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("max-age=31536000")))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("immutable")))
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + HASH + ".jpg\""))
+            .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+            .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"));
+    }
+
+    @Test
+    void titleNamedImage_isServedWithShortMaxAgeAndRevalidation() throws Exception {
+        Files.write(imagesDir.resolve("Alien_0.jpg"), new byte[4]);
+
+        mockMvc.perform(get("/movie-images/Alien_0.jpg"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("max-age=600")))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("must-revalidate")))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, not(containsString("immutable"))));
+    }
+
+    @Test
+    void tmdbImage_isServedAsImmutable() throws Exception {
+        when(movieRepository.countByImagePath("/abc.jpg")).thenReturn(1L);
+        when(imageDownloadService.fetchImage("/abc.jpg"))
+            .thenReturn(CompletableFuture.completedFuture(imagesDir.resolve(HASH + ".jpg").toString()));
+
+        mockMvc.perform(get("/movie-images/tmdb/abc.jpg"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("max-age=31536000")))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("immutable")));
+    }
+
+    @Test
+    void image_revalidationWithMatchingEtagReturnsNotModified() throws Exception {
+        MvcResult result = mockMvc.perform(get("/movie-images/" + HASH + ".jpg")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"" + HASH + ".jpg\""))
+            .andExpect(status().isNotModified())
+            .andReturn();
+
+        assertEquals(0, result.getResponse().getContentAsByteArray().length);
+    }
+
+    @Test
+    void image_rangeRequestReturnsPartialContent() throws Exception {
+        mockMvc.perform(get("/movie-images/" + HASH + ".jpg").header(HttpHeaders.RANGE, "bytes=2-5"))
+            .andExpect(status().isPartialContent())
+            .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/10"))
+            .andExpect(content().string("2345"));
+    }
+
+    @Test
+    void imageEtag_usesModificationTimeAndLengthForOtherFiles() throws Exception {
+        Path legacy = Files.write(imagesDir.resolve("Inception_0.jpg"), new byte[16]);
+        FileSystemResource resource = new FileSystemResource(legacy);
+
+        String etag = WebConfig.imageEtag(resource);
+
+        assertEquals(Long.toHexString(resource.lastModified()) + "-10", etag);
+    }
+}
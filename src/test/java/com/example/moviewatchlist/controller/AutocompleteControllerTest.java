@@ -0,0 +1,80 @@
+package com.example.moviewatchlist.controller;
+
+import com.example.moviewatchlist.service.AutocompleteService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for AutocompleteController.
+ */
+class AutocompleteControllerTest {
+
+    private final AutocompleteService service = mock(AutocompleteService.class);
+    private final AutocompleteController controller = new AutocompleteController(service);
+
+    /**
+     * Tests that suggestions are returned for the client named in the header.
+     */
+    @Test
+    void autocomplete_returnsSuggestionsForClient() {
+        List<Map<String, Object>> suggestions = List.of(Map.of("title", "Inception"));
+        when(service.suggest("tab-1", "inc")).thenReturn(CompletableFuture.completedFuture(suggestions));
+
+        DeferredResult<ResponseEntity<?>> result = controller.autocomplete("inc", "tab-1");
+
+        ResponseEntity<?> response = (ResponseEntity<?>) result.getResult();
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(suggestions, response.getBody());
+    }
+
+    /**
+     * Tests that clients sending no client id are not grouped, e.g. by their shared remote address.
+     */
+    @Test
+    void autocomplete_doesNotDebounceWithoutClientId() {
+        when(service.suggest(null, "inc")).thenReturn(CompletableFuture.completedFuture(List.of()));
+
+        controller.autocomplete("inc", null);
+        controller.autocomplete("inc", " ");
+
+        verify(service, times(2)).suggest(null, "inc");
+    }
+
+    /**
+     * Tests that a superseded lookup is answered with 204 No Content.
+     */
+    @Test
+    void autocomplete_returnsNoContentWhenSuperseded() {
+        CompletableFuture<List<Map<String, Object>>> lookup = new CompletableFuture<>();
+        when(service.suggest("tab-1", "in")).thenReturn(lookup);
+
+        DeferredResult<ResponseEntity<?>> result = controller.autocomplete("in", "tab-1");
+        lookup.cancel(false);
+
+        assertEquals(HttpStatus.NO_CONTENT, ((ResponseEntity<?>) result.getResult()).getStatusCode());
+    }
+
+    /**
+     * Tests that a failed lookup is answered with 500 and the error message.
+     */
+    @Test
+    void autocomplete_returnsErrorWhenLookupFails() {
+        when(service.suggest("tab-1", "in"))
+            .thenReturn(CompletableFuture.failedFuture(new RuntimeException("TMDb down")));
+
+        DeferredResult<ResponseEntity<?>> result = controller.autocomplete("in", "tab-1");
+
+        ResponseEntity<?> response = (ResponseEntity<?>) result.getResult();
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        assertEquals(Map.of("error", "TMDb down"), response.getBody());
+    }
+}
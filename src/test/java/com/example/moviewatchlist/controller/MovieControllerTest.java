@@ -1,6 +1,12 @@
 package com.example.moviewatchlist.controller;
 
+import com.example.moviewatchlist.repository.MovieRepository;
+import com.example.moviewatchlist.service.ImageCacheManager;
+import com.example.moviewatchlist.service.ImageDownloadService;
+import com.example.moviewatchlist.service.ImageVariantService;
+import com.example.moviewatchlist.service.Deadline;
 import com.example.moviewatchlist.service.MovieService;
+import com.example.moviewatchlist.dto.CursorPage;
 import com.example.moviewatchlist.dto.MovieResponse;
 import com.example.moviewatchlist.dto.PaginatedResponse;
 import com.example.moviewatchlist.model.Movie;
@@ -17,7 +23,9 @@ import org.springframework.test.web.servlet.MockMvc;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -40,6 +48,22 @@ public class MovieControllerTest {
     @MockitoBean
     private MovieService movieService;
 
+    /** Mocked ImageVariantService required by WebConfig's image resource handler. */
+    @MockitoBean
+    private ImageVariantService imageVariantService;
+
+    /** Mocked ImageDownloadService required by WebConfig's image resource handler. */
+    @MockitoBean
+    private ImageDownloadService imageDownloadService;
+
+    /** Mocked ImageCacheManager required by WebConfig's image resource handler. */
+    @MockitoBean
+    private ImageCacheManager imageCacheManager;
+
+    /** Mocked MovieRepository required by WebConfig's image resource handler. */
+    @MockitoBean
+    private MovieRepository movieRepository;
+
     /** converts objects to JSON and back. */
     @Autowired
     private ObjectMapper objectMapper;
@@ -96,6 +120,84 @@ public class MovieControllerTest {
                 .andExpect(status().isOk());
     }
 
+    /**
+     * Tests that a cursor parameter selects cursor pagination and returns the next cursor.
+     */
+    @Test
+    public void testGetMoviesByCursor() throws Exception {
+        CursorPage<MovieResponse> mockResponse = new CursorPage<>(new ArrayList<>(), 5, "aWQ6NQ");
+        when(movieService.getMoviesAfter("", 5)).thenReturn(mockResponse);
+
+        mockMvc.perform(get("/api/movies")
+                .param("cursor", "")
+                .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nextCursor").value("aWQ6NQ"))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
+    /**
+     * Tests that a fields parameter selects the summary listing.
+     */
+    @Test
+    public void testGetMovieSummaries() throws Exception {
+        PaginatedResponse<Map<String, Object>> mockResponse = new PaginatedResponse<>(
+            List.of(Map.of("id", 1, "title", "Inception")), 0, 10, 1, 1
+        );
+        when(movieService.getMovieSummaries(0, 10, "id,title")).thenReturn(mockResponse);
+
+        mockMvc.perform(get("/api/movies")
+                .param("fields", "id,title"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].title").value("Inception"))
+                .andExpect(jsonPath("$.content[0].overview").doesNotExist())
+                .andExpect(jsonPath("$.totalElements").value(1));
+    }
+
+    /**
+     * Tests that fields and cursor parameters together select the summary listing with cursor pagination.
+     */
+    @Test
+    public void testGetMovieSummariesByCursor() throws Exception {
+        CursorPage<Map<String, Object>> mockResponse = new CursorPage<>(List.of(Map.of("id", 1)), 5, null);
+        when(movieService.getMovieSummariesAfter("", 5, "id")).thenReturn(mockResponse);
+
+        mockMvc.perform(get("/api/movies")
+                .param("fields", "id")
+                .param("cursor", "")
+                .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(1))
+                .andExpect(jsonPath("$.hasNext").value(false));
+    }
+
+    /**
+     * Tests that an unknown field is answered with Bad Request.
+     */
+    @Test
+    public void testGetMovieSummariesUnknownField() throws Exception {
+        when(movieService.getMovieSummaries(0, 10, "overview"))
+            .thenThrow(new IllegalArgumentException("Unknown field: overview"));
+
+        mockMvc.perform(get("/api/movies")
+                .param("fields", "overview"))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Tests that an invalid cursor is answered with Bad Request.
+     */
+    @Test
+    public void testGetMoviesByCursorInvalid() throws Exception {
+        when(movieService.getMoviesAfter("bogus", 10)).thenThrow(new IllegalArgumentException("Invalid cursor"));
+
+        mockMvc.perform(get("/api/movies")
+                .param("cursor", "bogus"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid cursor"));
+    }
+
     /**
      * Tests successfully adding a movie returns a Created status and correct movie title.
      */
@@ -110,7 +212,7 @@ public class MovieControllerTest {
             .id(1L)
             .build();
 
-        when(movieService.addMovieByTitle(anyString()))
+        when(movieService.addMovieByTitle(anyString(), any(Deadline.class)))
             .thenReturn(CompletableFuture.completedFuture(mockMovie));
 
         // Step 1: Perform the request and check async started
@@ -132,7 +234,7 @@ public class MovieControllerTest {
     @Test
     public void testAddMovieServiceThrowsException() throws Exception {
         Map<String, String> request = Map.of("title", "Inception");
-        when(movieService.addMovieByTitle(anyString()))
+        when(movieService.addMovieByTitle(anyString(), any(Deadline.class)))
             .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Movie already exists")));
 
         // Step 1: Perform the request and check async started
@@ -2,9 +2,11 @@ package com.example.moviewatchlist.controller;
 
 import com.example.moviewatchlist.dto.MovieResponse;
 import com.example.moviewatchlist.model.Movie;
+import com.example.moviewatchlist.service.Deadline;
 import com.example.moviewatchlist.service.MovieService;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.context.request.async.DeferredResult;
@@ -14,8 +16,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 /**
@@ -24,6 +29,9 @@ import static org.mockito.Mockito.*;
  */
 class MovieControllerUnitTest {
 
+    /** Time limit for adding a movie, as configured by default. */
+    private static final long ADD_TIMEOUT_MS = 15000;
+
     /**
      * Tests that adding a movie with an empty title returns a Bad Request status.
      */
@@ -31,7 +39,7 @@ class MovieControllerUnitTest {
     void testAddMovieWithEmptyTitle() {
         // Arrange
         MovieService mockService = mock(MovieService.class);
-        MovieController controller = new MovieController(mockService);
+        MovieController controller = new MovieController(mockService, ADD_TIMEOUT_MS);
 
         // Act
         Map<String, String> request = new HashMap<>();
@@ -58,7 +66,7 @@ class MovieControllerUnitTest {
     void testAddMovieWithNullTitle() {
         // Arrange
         MovieService mockService = mock(MovieService.class);
-        MovieController controller = new MovieController(mockService);
+        MovieController controller = new MovieController(mockService, ADD_TIMEOUT_MS);
 
         // Act
         Map<String, String> request = new HashMap<>();
@@ -85,7 +93,7 @@ class MovieControllerUnitTest {
     void testAddMovieWithWhitespaceTitle() {
         // Arrange
         MovieService mockService = mock(MovieService.class);
-        MovieController controller = new MovieController(mockService);
+        MovieController controller = new MovieController(mockService, ADD_TIMEOUT_MS);
 
         // Act
         Map<String, String> request = new HashMap<>();
@@ -112,11 +120,11 @@ class MovieControllerUnitTest {
     void testAddMovieWithMissingTitleKey() {
         // Arrange
         MovieService mockService = mock(MovieService.class);
-        when(mockService.addMovieByTitle(null))
+        when(mockService.addMovieByTitle(isNull(), any(Deadline.class)))
             .thenReturn(CompletableFuture.failedFuture(
                 new IllegalArgumentException("Movie title is required")));
         
-        MovieController controller = new MovieController(mockService);
+        MovieController controller = new MovieController(mockService, ADD_TIMEOUT_MS);
 
         // Act
         Map<String, String> request = new HashMap<>(); // No "title" key
@@ -141,11 +149,11 @@ class MovieControllerUnitTest {
     void testAddMovieServiceThrowsException() {
         // Arrange
         MovieService mockService = mock(MovieService.class);
-        when(mockService.addMovieByTitle("Inception"))
+        when(mockService.addMovieByTitle(eq("Inception"), any(Deadline.class)))
             .thenReturn(CompletableFuture.failedFuture(
                 new RuntimeException("Movie already exists")));
 
-        MovieController controller = new MovieController(mockService);
+        MovieController controller = new MovieController(mockService, ADD_TIMEOUT_MS);
 
         // Act
         Map<String, String> request = new HashMap<>();
@@ -164,7 +172,7 @@ class MovieControllerUnitTest {
         } else {
             fail("Expected error response as a Map");
         }
-        verify(mockService).addMovieByTitle("Inception");
+        verify(mockService).addMovieByTitle(eq("Inception"), any(Deadline.class));
     }
 
     /**
@@ -182,10 +190,10 @@ class MovieControllerUnitTest {
             .id(1L)
             .build();
 
-        when(mockService.addMovieByTitle("Inception"))
+        when(mockService.addMovieByTitle(eq("Inception"), any(Deadline.class)))
             .thenReturn(CompletableFuture.completedFuture(mockMovie));
 
-        MovieController controller = new MovieController(mockService);
+        MovieController controller = new MovieController(mockService, ADD_TIMEOUT_MS);
 
         // Act
         Map<String, String> request = new HashMap<>();
@@ -201,7 +209,7 @@ class MovieControllerUnitTest {
         assertNotNull(body, "Response body should not be null");
         assertTrue(body instanceof MovieResponse);
         assertEquals("Inception", ((MovieResponse) body).getTitle());
-        verify(mockService).addMovieByTitle("Inception");
+        verify(mockService).addMovieByTitle(eq("Inception"), any(Deadline.class));
     }
 
     /**
@@ -229,7 +237,7 @@ class MovieControllerUnitTest {
             5
         );
         when(movieService.getMovieById(1L)).thenReturn(Optional.of(movieResponse));
-        MovieController controller = new MovieController(movieService);
+        MovieController controller = new MovieController(movieService, ADD_TIMEOUT_MS);
 
         // Act
         ResponseEntity<?> response = controller.getMovie(1L);
@@ -247,7 +255,7 @@ class MovieControllerUnitTest {
         // Arrange
         MovieService movieService = mock(MovieService.class);
         when(movieService.getMovieById(2L)).thenReturn(Optional.empty());
-        MovieController controller = new MovieController(movieService);
+        MovieController controller = new MovieController(movieService, ADD_TIMEOUT_MS);
 
         // Act
         ResponseEntity<?> response = controller.getMovie(2L);
@@ -258,7 +266,7 @@ class MovieControllerUnitTest {
 
     @Nested
     class ExtractWatchedTests {
-        MovieController controller = new MovieController(null);
+        MovieController controller = new MovieController(null, ADD_TIMEOUT_MS);
 
         @Test
         void returnsBoolean_whenBooleanInput() {
@@ -302,7 +310,7 @@ class MovieControllerUnitTest {
 
     @Nested
     class ExtractRatingTests {
-        MovieController controller = new MovieController(null);
+        MovieController controller = new MovieController(null, ADD_TIMEOUT_MS);
 
         @Test
         void returnsInteger_whenIntegerInput() {
@@ -350,7 +358,7 @@ class MovieControllerUnitTest {
     @Nested
     class WatchedUpdateResponseTests {
         MovieService mockService = mock(MovieService.class);
-        MovieController controller = new MovieController(mockService);
+        MovieController controller = new MovieController(mockService, ADD_TIMEOUT_MS);
 
         @SuppressWarnings({ "ConstantConditions", "null" })
         @Test
@@ -402,7 +410,7 @@ class MovieControllerUnitTest {
     @Nested
     class RatingUpdateResponseTests {
         MovieService mockService = mock(MovieService.class);
-        MovieController controller = new MovieController(mockService);
+        MovieController controller = new MovieController(mockService, ADD_TIMEOUT_MS);
 
         @SuppressWarnings("null")
         @Test
@@ -454,7 +462,7 @@ class MovieControllerUnitTest {
     @Test
     void searchMovies_setsOkResult_onSuccess() {
         MovieService mockService = mock(MovieService.class);
-        MovieController controller = new MovieController(mockService);
+        MovieController controller = new MovieController(mockService, ADD_TIMEOUT_MS);
         List<Map<String, Object>> resultList = List.of(Map.of("title", "result"));
         when(mockService.searchMovies("foo")).thenReturn(CompletableFuture.completedFuture(resultList));
         DeferredResult<ResponseEntity<?>> result = controller.searchMovies("foo");
@@ -467,7 +475,7 @@ class MovieControllerUnitTest {
     @Test
     void searchMovies_setsErrorResult_onExceptionWithCause() {
         MovieService mockService = mock(MovieService.class);
-        MovieController controller = new MovieController(mockService);
+        MovieController controller = new MovieController(mockService, ADD_TIMEOUT_MS);
         Throwable cause = new IllegalArgumentException("cause");
         CompletableFuture<List<Map<String, Object>>> failed = new CompletableFuture<>();
         failed.completeExceptionally(new RuntimeException("fail", cause));
@@ -482,7 +490,7 @@ class MovieControllerUnitTest {
     @Test
     void searchMovies_setsErrorResult_onExceptionWithoutCause() {
         MovieService mockService = mock(MovieService.class);
-        MovieController controller = new MovieController(mockService);
+        MovieController controller = new MovieController(mockService, ADD_TIMEOUT_MS);
         CompletableFuture<List<Map<String, Object>>> failed = new CompletableFuture<>();
         failed.completeExceptionally(new RuntimeException("fail")); // no cause
         when(mockService.searchMovies("foo")).thenReturn(failed);
@@ -498,7 +506,7 @@ class MovieControllerUnitTest {
     void deleteMovie_returnsOk_whenDeleted() {
         MovieService mockService = mock(MovieService.class);
         when(mockService.deleteMovie(1L)).thenReturn(true);
-        MovieController controller = new MovieController(mockService);
+        MovieController controller = new MovieController(mockService, ADD_TIMEOUT_MS);
         ResponseEntity<?> response = controller.deleteMovie(1L);
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertTrue(response.getBody().toString().contains("Movie deleted successfully"));
@@ -508,7 +516,7 @@ class MovieControllerUnitTest {
     void deleteMovie_returnsNotFound_whenNotDeleted() {
         MovieService mockService = mock(MovieService.class);
         when(mockService.deleteMovie(1L)).thenReturn(false);
-        MovieController controller = new MovieController(mockService);
+        MovieController controller = new MovieController(mockService, ADD_TIMEOUT_MS);
         ResponseEntity<?> response = controller.deleteMovie(1L);
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
     }
@@ -527,7 +535,7 @@ class MovieControllerUnitTest {
     @Test
     void updateWatchedStatus_returnsBadRequest_whenWatchedNull() {
         MovieService mockService = mock(MovieService.class);
-        MovieController controller = new MovieController(mockService);
+        MovieController controller = new MovieController(mockService, ADD_TIMEOUT_MS);
         Map<String, Object> request = new HashMap<>(); // no "watched" key
         ResponseEntity<?> response = controller.updateWatchedStatus(1L, request);
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
@@ -537,7 +545,7 @@ class MovieControllerUnitTest {
     void updateWatchedStatus_returnsNotFound_whenServiceReturnsEmpty() {
         MovieService mockService = mock(MovieService.class);
         when(mockService.updateWatchedStatus(1L, true)).thenReturn(Optional.empty());
-        MovieController controller = new MovieController(mockService);
+        MovieController controller = new MovieController(mockService, ADD_TIMEOUT_MS);
         Map<String, Object> request = Map.of("watched", true);
         ResponseEntity<?> response = controller.updateWatchedStatus(1L, request);
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
@@ -548,7 +556,7 @@ class MovieControllerUnitTest {
         MovieService mockService = mock(MovieService.class);
         Movie movie = Movie.builder().id(1L).title("Test").build();
         when(mockService.updateWatchedStatus(1L, true)).thenReturn(Optional.of(movie));
-        MovieController controller = new MovieController(mockService);
+        MovieController controller = new MovieController(mockService, ADD_TIMEOUT_MS);
         Map<String, Object> request = Map.of("watched", true);
         ResponseEntity<?> response = controller.updateWatchedStatus(1L, request);
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -558,7 +566,7 @@ class MovieControllerUnitTest {
     @Test
     void updateRating_returnsBadRequest_whenRatingNull() {
         MovieService mockService = mock(MovieService.class);
-        MovieController controller = new MovieController(mockService);
+        MovieController controller = new MovieController(mockService, ADD_TIMEOUT_MS);
         Map<String, Object> request = new HashMap<>(); // no "rating" key
         ResponseEntity<?> response = controller.updateRating(1L, request);
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
@@ -568,7 +576,7 @@ class MovieControllerUnitTest {
     void updateRating_returnsNotFound_whenServiceReturnsEmpty() {
         MovieService mockService = mock(MovieService.class);
         when(mockService.updateRating(1L, 5)).thenReturn(Optional.empty());
-        MovieController controller = new MovieController(mockService);
+        MovieController controller = new MovieController(mockService, ADD_TIMEOUT_MS);
         Map<String, Object> request = Map.of("rating", 5);
         ResponseEntity<?> response = controller.updateRating(1L, request);
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
@@ -579,7 +587,7 @@ class MovieControllerUnitTest {
         MovieService mockService = mock(MovieService.class);
         Movie movie = Movie.builder().id(1L).title("Test").build();
         when(mockService.updateRating(1L, 5)).thenReturn(Optional.of(movie));
-        MovieController controller = new MovieController(mockService);
+        MovieController controller = new MovieController(mockService, ADD_TIMEOUT_MS);
         Map<String, Object> request = Map.of("rating", 5);
         ResponseEntity<?> response = controller.updateRating(1L, request);
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -590,11 +598,11 @@ class MovieControllerUnitTest {
     @Test
     void addMovie_setsErrorResult_onExceptionWithCause() {
         MovieService mockService = mock(MovieService.class);
-        MovieController controller = new MovieController(mockService);
+        MovieController controller = new MovieController(mockService, ADD_TIMEOUT_MS);
         Throwable cause = new IllegalArgumentException("cause");
         CompletableFuture<Movie> failed = new CompletableFuture<>();
         failed.completeExceptionally(new RuntimeException("fail", cause));
-        when(mockService.addMovieByTitle("Inception")).thenReturn(failed);
+        when(mockService.addMovieByTitle(eq("Inception"), any(Deadline.class))).thenReturn(failed);
 
         Map<String, String> request = new HashMap<>();
         request.put("title", "Inception");
@@ -609,10 +617,10 @@ class MovieControllerUnitTest {
     @Test
     void addMovie_setsErrorResult_onExceptionWithoutCause() {
         MovieService mockService = mock(MovieService.class);
-        MovieController controller = new MovieController(mockService);
+        MovieController controller = new MovieController(mockService, ADD_TIMEOUT_MS);
         CompletableFuture<Movie> failed = new CompletableFuture<>();
         failed.completeExceptionally(new RuntimeException("fail")); // no cause
-        when(mockService.addMovieByTitle("Inception")).thenReturn(failed);
+        when(mockService.addMovieByTitle(eq("Inception"), any(Deadline.class))).thenReturn(failed);
 
         Map<String, String> request = new HashMap<>();
         request.put("title", "Inception");
@@ -624,10 +632,43 @@ class MovieControllerUnitTest {
         assertTrue(response.getBody().toString().contains("fail"));
     }
 
+    @SuppressWarnings("null")
+    @Test
+    void addMovie_setsGatewayTimeout_whenServiceDeadlinePassed() {
+        MovieService mockService = mock(MovieService.class);
+        MovieController controller = new MovieController(mockService, ADD_TIMEOUT_MS);
+        CompletableFuture<Movie> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new CompletionException(new TimeoutException("Adding the movie timed out")));
+        when(mockService.addMovieByTitle(eq("Inception"), any(Deadline.class))).thenReturn(failed);
+
+        Map<String, String> request = new HashMap<>();
+        request.put("title", "Inception");
+        ResponseEntity<?> response = getResult(controller.addMovie(request));
+
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, response.getStatusCode());
+        assertTrue(response.getBody().toString().contains("timed out"));
+    }
+
+    @Test
+    void addMovie_givesServiceDeadlineShorterThanRequestTimeout() {
+        MovieService mockService = mock(MovieService.class);
+        MovieController controller = new MovieController(mockService, ADD_TIMEOUT_MS);
+        when(mockService.addMovieByTitle(eq("Inception"), any(Deadline.class))).thenReturn(new CompletableFuture<>());
+
+        Map<String, String> request = new HashMap<>();
+        request.put("title", "Inception");
+        controller.addMovie(request);
+
+        ArgumentCaptor<Deadline> deadline = ArgumentCaptor.forClass(Deadline.class);
+        verify(mockService).addMovieByTitle(eq("Inception"), deadline.capture());
+        assertTrue(deadline.getValue().remaining().toMillis()
+                <= ADD_TIMEOUT_MS - MovieController.ADD_DEADLINE_MARGIN_MS);
+    }
+
     @SuppressWarnings("null")
     @Test
     void buildInternalServerErrorResponse_withAndWithoutCause() throws Exception {
-        MovieController controller = new MovieController(null);
+        MovieController controller = new MovieController(null, ADD_TIMEOUT_MS);
 
         // With cause
         Throwable cause = new IllegalArgumentException("cause");
@@ -650,7 +691,7 @@ class MovieControllerUnitTest {
     @SuppressWarnings("null")
     @Test
     void buildBadRequestResponse_withAndWithoutCause() throws Exception {
-        MovieController controller = new MovieController(null);
+        MovieController controller = new MovieController(null, ADD_TIMEOUT_MS);
 
         // With cause
         Throwable cause = new IllegalArgumentException("cause");
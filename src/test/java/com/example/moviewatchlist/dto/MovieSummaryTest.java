@@ -0,0 +1,39 @@
+package com.example.moviewatchlist.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MovieSummaryTest {
+
+    @Test
+    void constructorAndGettersWork() {
+        MovieSummary summary = new MovieSummary(1L, "Inception", "2010", "8.8", "Dreams", null, 5);
+        summary.setPoster("poster.jpg");
+
+        assertEquals(1L, summary.getId());
+        assertEquals("Inception", summary.getTitle());
+        assertEquals("2010", summary.getReleaseYear());
+        assertEquals("8.8", summary.getImdbRating());
+        assertEquals("Dreams", summary.getPlot());
+        assertFalse(summary.isWatched());
+        assertEquals(5, summary.getRating());
+        assertEquals("poster.jpg", summary.getPoster());
+    }
+
+    @Test
+    void selectKeepsFieldOrderAndNullValues() {
+        MovieSummary summary = new MovieSummary(1L, "Inception", "2010", null, null, true, null);
+
+        Map<String, Object> values = summary.select(Set.of("rating", "watched", "title"));
+
+        assertEquals(List.of("title", "watched", "rating"), List.copyOf(values.keySet()));
+        assertEquals(true, values.get("watched"));
+        assertTrue(values.containsKey("rating"));
+        assertNull(values.get("rating"));
+    }
+}
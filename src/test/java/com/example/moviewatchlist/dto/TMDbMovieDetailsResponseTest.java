@@ -0,0 +1,31 @@
+package com.example.moviewatchlist.dto;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TMDbMovieDetailsResponseTest {
+
+    @Test
+    void settersAndGettersWork() {
+        TMDbImagesResponse images = new TMDbImagesResponse();
+        TMDbSimilarResponse similar = new TMDbSimilarResponse();
+
+        TMDbMovieDetailsResponse response = new TMDbMovieDetailsResponse();
+        response.setId(27205);
+        response.setTitle("Inception");
+        response.setOverview("Dreams within dreams");
+        response.setReleaseDate("2010-07-16");
+        response.setVoteAverage(8.4);
+        response.setImages(images);
+        response.setSimilar(similar);
+
+        assertEquals(27205, response.getId());
+        assertEquals("Inception", response.getTitle());
+        assertEquals("Dreams within dreams", response.getOverview());
+        assertEquals("2010-07-16", response.getReleaseDate());
+        assertEquals(8.4, response.getVoteAverage());
+        assertSame(images, response.getImages());
+        assertSame(similar, response.getSimilar());
+    }
+}
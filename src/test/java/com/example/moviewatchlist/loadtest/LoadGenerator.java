@@ -0,0 +1,94 @@
+package com.example.moviewatchlist.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongFunction;
+
+/**
+ * Open-model load generator: sends requests at a fixed rate regardless of how fast they complete,
+ * so a slow server builds up concurrency instead of silently lowering the rate.
+ * Latency is measured from the scheduled send time, which avoids coordinated omission when the
+ * generator itself falls behind.
+ */
+public final class LoadGenerator {
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    /**
+     * Drives requests at the given rate for the given duration and waits for them to complete.
+     *
+     * @param name     scenario name used in the report
+     * @param rps      requests per second
+     * @param duration how long requests are sent
+     * @param requests builds the n-th request
+     * @return the report of the run
+     */
+    public LoadReport run(String name, double rps, Duration duration, LongFunction<HttpRequest> requests) {
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rps);
+        long total = Math.max(1, (long) (rps * duration.toMillis() / 1000.0));
+        AtomicLong sequence = new AtomicLong();
+        LongAdder errors = new LongAdder();
+        Map<Integer, Long> statusCounts = new ConcurrentHashMap<>();
+        List<Long> latencies = new CopyOnWriteArrayList<>();
+        List<CompletableFuture<?>> inFlight = new CopyOnWriteArrayList<>();
+        long start = System.nanoTime();
+
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            scheduler.scheduleAtFixedRate(() -> {
+                long n = sequence.getAndIncrement();
+                if (n >= total) {
+                    return;
+                }
+                long scheduledAt = start + n * intervalNanos;
+                inFlight.add(httpClient.sendAsync(requests.apply(n), HttpResponse.BodyHandlers.discarding())
+                        .whenComplete((response, ex) -> {
+                            int status = response != null ? response.statusCode() : 0;
+                            statusCounts.merge(status, 1L, Long::sum);
+                            if (response != null) {
+                                latencies.add(System.nanoTime() - scheduledAt);
+                            }
+                            if (ex != null || status >= 400) {
+                                errors.increment();
+                            }
+                        }));
+            }, 0, intervalNanos, TimeUnit.NANOSECONDS);
+
+            while (sequence.get() < total) {
+                sleep(10);
+            }
+        } finally {
+            scheduler.shutdownNow();
+        }
+        try {
+            CompletableFuture.allOf(inFlight.toArray(new CompletableFuture[0])).get(60, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            // Failed requests are already counted; requests still running after the grace period are left out.
+        }
+        long elapsed = System.nanoTime() - start;
+        return LoadReport.of(name, rps, Math.min(sequence.get(), total), errors.sum(), statusCounts, elapsed,
+                latencies.stream().mapToLong(Long::longValue).toArray());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
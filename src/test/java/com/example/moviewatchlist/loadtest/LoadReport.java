@@ -0,0 +1,78 @@
+package com.example.moviewatchlist.loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Result of driving one endpoint at a fixed request rate: counts, throughput and latency percentiles.
+ *
+ * @param name         scenario name
+ * @param targetRps    requested rate
+ * @param sent         requests sent
+ * @param errors       requests that failed or got a status of 400 or above
+ * @param statusCounts responses by status; 0 counts requests that got no response
+ * @param elapsedNanos time from the first request to the last completion
+ * @param latencies    latencies of the completed requests in nanoseconds, sorted
+ */
+public record LoadReport(String name, double targetRps, long sent, long errors, Map<Integer, Long> statusCounts,
+                         long elapsedNanos, long[] latencies) {
+
+    /**
+     * Creates a report, sorting the latencies.
+     *
+     * @param name         scenario name
+     * @param targetRps    requested rate
+     * @param sent         requests sent
+     * @param errors       failed requests
+     * @param statusCounts responses by status
+     * @param elapsedNanos duration of the run
+     * @param latencies    latencies in nanoseconds, in any order
+     * @return the report
+     */
+    public static LoadReport of(String name, double targetRps, long sent, long errors, Map<Integer, Long> statusCounts,
+                                long elapsedNanos, long[] latencies) {
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        return new LoadReport(name, targetRps, sent, errors, new TreeMap<>(statusCounts), elapsedNanos, sorted);
+    }
+
+    /** @return the completed requests per second */
+    public double throughput() {
+        return elapsedNanos > 0 ? latencies.length * 1e9 / elapsedNanos : 0;
+    }
+
+    /** @return the fraction of sent requests that failed */
+    public double errorRatio() {
+        return sent > 0 ? (double) errors / sent : 0;
+    }
+
+    /**
+     * Returns a latency percentile (nearest rank).
+     *
+     * @param percentile between 0 and 100
+     * @return the latency in milliseconds, or 0 if nothing completed
+     */
+    public double percentileMillis(double percentile) {
+        if (latencies.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * latencies.length);
+        return latencies[Math.min(Math.max(rank, 1), latencies.length) - 1] / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-14s target=%.0f rps sent=%d ok=%d errors=%d (%.1f%%) throughput=%.1f rps "
+                        + "p50=%.1f ms p90=%.1f ms p95=%.1f ms p99=%.1f ms max=%.1f ms statuses=%s",
+                name, targetRps, sent, latencies.length - errorsWithLatency(), errors, errorRatio() * 100, throughput(),
+                percentileMillis(50), percentileMillis(90), percentileMillis(95), percentileMillis(99),
+                percentileMillis(100), statusCounts);
+    }
+
+    /** Failed requests that still got a response, and so have a latency. */
+    private long errorsWithLatency() {
+        return errors - statusCounts.getOrDefault(0, 0L);
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.moviewatchlist.loadtest;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * End-to-end load test of the movie endpoints against local stub OMDb, TMDb and image servers,
+ * so no API quota is used. Excluded from the normal build; run it with
+ * {@code mvn -P load-test test}.
+ *
+ * <p>Tunable with system properties:</p>
+ * <ul>
+ *   <li>{@code loadtest.rps} - requests per second of each scenario (default 50)</li>
+ *   <li>{@code loadtest.duration-seconds} - length of each scenario (default 10)</li>
+ *   <li>{@code loadtest.max-error-ratio} - highest accepted fraction of failed requests (default 0.05)</li>
+ *   <li>{@code loadtest.min-throughput-ratio} - lowest accepted throughput as a fraction of the rate (default 0.9)</li>
+ *   <li>{@code loadtest.max-p95-ms} - highest accepted 95th percentile latency in milliseconds (default 1000)</li>
+ *   <li>{@code loadtest.omdb.*}, {@code loadtest.tmdb.*}, {@code loadtest.images.*} - stub
+ *       {@code latency-ms}, {@code jitter-ms} and {@code error-rate}</li>
+ * </ul>
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class MovieWatchlistLoadTest {
+
+    private static final double RPS = Double.parseDouble(System.getProperty("loadtest.rps", "50"));
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("loadtest.duration-seconds", 10));
+    private static final double MAX_ERROR_RATIO =
+            Double.parseDouble(System.getProperty("loadtest.max-error-ratio", "0.05"));
+    private static final double MIN_THROUGHPUT_RATIO =
+            Double.parseDouble(System.getProperty("loadtest.min-throughput-ratio", "0.9"));
+    private static final double MAX_P95_MS = Double.parseDouble(System.getProperty("loadtest.max-p95-ms", "1000"));
+
+    private static StubUpstreamServer omdb;
+    private static StubUpstreamServer tmdb;
+    private static StubUpstreamServer images;
+
+    @LocalServerPort
+    private int port;
+
+    private final LoadGenerator loadGenerator = new LoadGenerator();
+
+    @DynamicPropertySource
+    static void upstreamProperties(DynamicPropertyRegistry registry) throws IOException {
+        omdb = StubUpstreamServer.omdb(StubProfile.fromSystemProperties("loadtest.omdb", new StubProfile(80, 40, 0)));
+        tmdb = StubUpstreamServer.tmdb(StubProfile.fromSystemProperties("loadtest.tmdb", new StubProfile(60, 30, 0)));
+        images = StubUpstreamServer.images(StubProfile.fromSystemProperties("loadtest.images", new StubProfile(30, 20, 0)));
+
+        registry.add("omdb.api.base-url", omdb::baseUrl);
+        registry.add("tmdb.api.base-url", tmdb::baseUrl);
+        registry.add("tmdb.image.base-url", () -> images.baseUrl() + "/t/p/w780");
+        registry.add("omdb.api.key", () -> "load-test");
+        registry.add("tmdb.api.key", () -> "load-test");
+        registry.add("movie.images.path", () -> tempDirectory() + "/");
+        // The stubs have no quota, so the client-side limits must not be what is measured.
+        registry.add("omdb.ratelimit.permits-per-second", () -> "100000");
+        registry.add("omdb.ratelimit.burst", () -> "100000");
+        registry.add("tmdb.ratelimit.permits-per-second", () -> "100000");
+        registry.add("tmdb.ratelimit.burst", () -> "100000");
+        registry.add("omdb.bulkhead.max-concurrent", () -> "256");
+        registry.add("tmdb.bulkhead.max-concurrent", () -> "256");
+    }
+
+    @AfterAll
+    static void stopStubs() {
+        omdb.close();
+        tmdb.close();
+        images.close();
+    }
+
+    @Test
+    @Order(1)
+    void addMovie() {
+        LoadReport report = loadGenerator.run("POST /movies", RPS, DURATION, n -> HttpRequest
+                .newBuilder(uri("/api/movies"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"title\":\"Load Test Movie " + n + "\"}"))
+                .build());
+
+        printAndCheck(report);
+    }
+
+    @Test
+    @Order(2)
+    void listMovies() {
+        LoadReport report = loadGenerator.run("GET /movies", RPS, DURATION, n -> HttpRequest
+                .newBuilder(uri("/api/movies?page=" + (n % 5) + "&size=20"))
+                .GET()
+                .build());
+
+        printAndCheck(report);
+    }
+
+    @Test
+    @Order(3)
+    void searchMovies() {
+        LoadReport report = loadGenerator.run("GET /search", RPS, DURATION, n -> HttpRequest
+                .newBuilder(uri("/api/movies/search?query="
+                        + URLEncoder.encode("Load Test " + (n % 100), StandardCharsets.UTF_8)))
+                .GET()
+                .build());
+
+        printAndCheck(report);
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private void printAndCheck(LoadReport report) {
+        System.out.println(report);
+        System.out.printf("stubs: omdb=%d requests (%d injected errors), tmdb=%d (%d), images=%d (%d)%n",
+                omdb.requestCount(), omdb.injectedErrorCount(), tmdb.requestCount(), tmdb.injectedErrorCount(),
+                images.requestCount(), images.injectedErrorCount());
+        assertTrue(report.sent() > 0, "no requests were sent");
+        assertTrue(report.errorRatio() <= MAX_ERROR_RATIO,
+                () -> String.format("error ratio %.3f is above %.3f: %s", report.errorRatio(), MAX_ERROR_RATIO, report));
+        assertTrue(report.throughput() >= MIN_THROUGHPUT_RATIO * report.targetRps(),
+                () -> String.format("throughput %.1f rps is below %.0f%% of the target %.0f rps: %s",
+                        report.throughput(), MIN_THROUGHPUT_RATIO * 100, report.targetRps(), report));
+        assertTrue(report.percentileMillis(95) <= MAX_P95_MS,
+                () -> String.format("p95 latency %.1f ms is above %.0f ms: %s", report.percentileMillis(95), MAX_P95_MS, report));
+    }
+
+    private static String tempDirectory() {
+        try {
+            return Files.createTempDirectory("load-test-images").toString();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.moviewatchlist.loadtest;
+
+/**
+ * Latency and error behaviour of a stub upstream server.
+ * Each response is delayed by the base latency plus a uniformly random jitter, and the given
+ * fraction of requests is answered with 503 Service Unavailable.
+ *
+ * @param latencyMs base delay of every response
+ * @param jitterMs  maximum extra random delay
+ * @param errorRate fraction of requests answered with 503, between 0 and 1
+ */
+public record StubProfile(long latencyMs, long jitterMs, double errorRate) {
+
+    /**
+     * Reads a profile from system properties {@code <prefix>.latency-ms}, {@code <prefix>.jitter-ms}
+     * and {@code <prefix>.error-rate}, falling back to the given defaults.
+     *
+     * @param prefix   property prefix, e.g. "loadtest.omdb"
+     * @param defaults values of the properties that are not set
+     * @return the profile
+     */
+    public static StubProfile fromSystemProperties(String prefix, StubProfile defaults) {
+        return new StubProfile(
+                Long.getLong(prefix + ".latency-ms", defaults.latencyMs()),
+                Long.getLong(prefix + ".jitter-ms", defaults.jitterMs()),
+                Double.parseDouble(System.getProperty(prefix + ".error-rate", String.valueOf(defaults.errorRate()))));
+    }
+}
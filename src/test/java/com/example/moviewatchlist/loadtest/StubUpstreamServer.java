@@ -0,0 +1,186 @@
+package com.example.moviewatchlist.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Local HTTP server emulating one upstream API: OMDb, TMDb or the TMDb image host.
+ * Responses are generated from the request, so every title is found and every movie has images,
+ * and are delayed and failed according to a {@link StubProfile}.
+ */
+public final class StubUpstreamServer implements AutoCloseable {
+
+    private static final Pattern TMDB_DETAILS = Pattern.compile("/3/movie/(\\d+)");
+    private static final int IMAGE_SIZE = 32 * 1024;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final StubProfile profile;
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder injectedErrors = new LongAdder();
+
+    private StubUpstreamServer(StubProfile profile, Handler handler) throws IOException {
+        this.profile = profile;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        this.executor = Executors.newCachedThreadPool();
+        server.setExecutor(executor);
+        server.createContext("/", exchange -> handle(exchange, handler));
+        server.start();
+    }
+
+    /**
+     * Starts a stub of the OMDb API, finding every title.
+     *
+     * @param profile latency and error profile
+     * @return the running server
+     * @throws IOException if the server cannot be started
+     */
+    public static StubUpstreamServer omdb(StubProfile profile) throws IOException {
+        return new StubUpstreamServer(profile, exchange -> {
+            String title = queryParameter(exchange, "t");
+            return json("{\"Title\":\"" + escape(title) + "\",\"Year\":\"2020\",\"Runtime\":\"120 min\","
+                    + "\"Genre\":\"Drama\",\"Director\":\"Stub Director\",\"Plot\":\"Generated by the load test.\","
+                    + "\"imdbRating\":\"7.5\",\"Response\":\"True\"}");
+        });
+    }
+
+    /**
+     * Starts a stub of the TMDb API: search returns one match per query, and the combined details
+     * request returns two posters, one backdrop and a few similar movies.
+     *
+     * @param profile latency and error profile
+     * @return the running server
+     * @throws IOException if the server cannot be started
+     */
+    public static StubUpstreamServer tmdb(StubProfile profile) throws IOException {
+        return new StubUpstreamServer(profile, exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            if (path.equals("/3/search/movie")) {
+                String query = queryParameter(exchange, "query");
+                int id = Math.floorMod(query.hashCode(), 1_000_000) + 1;
+                return json("{\"page\":1,\"results\":[{\"id\":" + id + ",\"title\":\"" + escape(query) + "\","
+                        + "\"overview\":\"Generated by the load test.\",\"release_date\":\"2020-01-01\","
+                        + "\"vote_average\":7.5,\"poster_path\":\"/p" + id + "a.jpg\"}],"
+                        + "\"total_pages\":1,\"total_results\":1}");
+            }
+            Matcher details = TMDB_DETAILS.matcher(path);
+            if (details.matches()) {
+                String id = details.group(1);
+                return json("{\"id\":" + id + ",\"images\":{\"posters\":[{\"file_path\":\"/p" + id + "a.jpg\"},"
+                        + "{\"file_path\":\"/p" + id + "b.jpg\"}],\"backdrops\":[{\"file_path\":\"/b" + id + ".jpg\"}]},"
+                        + "\"similar\":{\"results\":[{\"id\":1,\"title\":\"Similar One\"},{\"id\":2,\"title\":\"Similar Two\"}]}}");
+            }
+            return new Response(404, "application/json", "{\"status_code\":34}".getBytes(StandardCharsets.UTF_8));
+        });
+    }
+
+    /**
+     * Starts a stub of the TMDb image host, returning a distinct body for each image path.
+     *
+     * @param profile latency and error profile
+     * @return the running server
+     * @throws IOException if the server cannot be started
+     */
+    public static StubUpstreamServer images(StubProfile profile) throws IOException {
+        return new StubUpstreamServer(profile, exchange -> {
+            byte[] body = new byte[IMAGE_SIZE];
+            byte[] path = exchange.getRequestURI().getPath().getBytes(StandardCharsets.UTF_8);
+            System.arraycopy(path, 0, body, 0, Math.min(path.length, body.length));
+            return new Response(200, "image/jpeg", body);
+        });
+    }
+
+    /**
+     * Returns the base URL of the server, without a trailing slash.
+     *
+     * @return the base URL, e.g. "http://127.0.0.1:54321"
+     */
+    public String baseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    /** @return the number of requests received */
+    public long requestCount() { return requests.sum(); }
+    /** @return the number of requests answered with an injected 503 */
+    public long injectedErrorCount() { return injectedErrors.sum(); }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange, Handler handler) throws IOException {
+        requests.increment();
+        try (exchange) {
+            sleep(profile.latencyMs() + (profile.jitterMs() > 0
+                    ? ThreadLocalRandom.current().nextLong(profile.jitterMs() + 1) : 0));
+            Response response;
+            if (ThreadLocalRandom.current().nextDouble() < profile.errorRate()) {
+                injectedErrors.increment();
+                response = new Response(503, "application/json", "{}".getBytes(StandardCharsets.UTF_8));
+            } else {
+                response = handler.respond(exchange);
+            }
+            exchange.getResponseHeaders().set("Content-Type", response.contentType());
+            exchange.sendResponseHeaders(response.status(), response.body().length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(response.body());
+            }
+        }
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String queryParameter(HttpExchange exchange, String name) {
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) {
+            return "";
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0 && pair.substring(0, eq).equals(name)) {
+                return URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            }
+        }
+        return "";
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    private static Response json(String body) {
+        return new Response(200, "application/json", body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Builds the response to a request that is not failed by the profile. */
+    @FunctionalInterface
+    private interface Handler {
+        Response respond(HttpExchange exchange);
+    }
+
+    private record Response(int status, String contentType, byte[] body) {}
+}
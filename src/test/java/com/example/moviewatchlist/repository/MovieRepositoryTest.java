@@ -1,16 +1,21 @@
 package com.example.moviewatchlist.repository;
 
+import com.example.moviewatchlist.dto.MovieSummary;
 import com.example.moviewatchlist.model.Movie;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
 import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -104,6 +109,50 @@ public class MovieRepositoryTest {
         assertFalse(page.isLast());
     }
 
+    /**
+     * Tests seeking the movies after a given ID, in ID order.
+     */
+    @Test
+    void testFindByIdGreaterThanOrderByIdAsc() {
+        Movie first = entityManager.persistAndFlush(movie1);
+        Movie second = entityManager.persistAndFlush(movie2);
+
+        List<Movie> firstPage = movieRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(1));
+        assertEquals(List.of(first), firstPage);
+
+        List<Movie> nextPage = movieRepository.findByIdGreaterThanOrderByIdAsc(first.getId(), Limit.of(5));
+        assertEquals(List.of(second), nextPage);
+
+        assertTrue(movieRepository.findByIdGreaterThanOrderByIdAsc(second.getId(), Limit.of(5)).isEmpty());
+    }
+
+    /**
+     * Tests the summary projection and the poster rows, which hold only the first image of each movie.
+     */
+    @Test
+    void testFindSummariesAndPosterPaths() {
+        movie1.setImagePaths(Arrays.asList("poster.jpg", "backdrop.jpg"));
+        movie2.setImagePaths(Arrays.asList("b-poster.jpg", "a-backdrop.jpg"));
+        movie1.setWatched(true);
+        Movie first = entityManager.persistAndFlush(movie1);
+        Movie second = entityManager.persistAndFlush(movie2);
+
+        Page<MovieSummary> page = movieRepository.findSummaries(PageRequest.of(0, 1));
+        assertEquals(2, page.getTotalElements());
+        assertEquals("Inception", page.getContent().get(0).getTitle());
+        assertEquals("2010", page.getContent().get(0).getReleaseYear());
+        assertTrue(page.getContent().get(0).isWatched());
+
+        List<MovieSummary> after = movieRepository.findSummariesByIdGreaterThan(first.getId(), Limit.of(5));
+        assertEquals(1, after.size());
+        assertEquals(second.getId(), after.get(0).getId());
+
+        entityManager.clear();
+        Map<Object, Object> posters = movieRepository.findPosterPathsByIdIn(List.of(first.getId(), second.getId()))
+                .stream().collect(Collectors.toMap(row -> row[0], row -> row[1]));
+        assertEquals(Map.of(first.getId(), "poster.jpg", second.getId(), "b-poster.jpg"), posters);
+    }
+
     /**
      * Tests deleting a movie by its ID.
      */
@@ -209,4 +258,19 @@ public class MovieRepositoryTest {
         assertNull(saved.getImagePaths());
         assertNull(saved.getSimilarMovies());
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests counting the movies that reference an image path.
+     */
+    @Test
+    void testCountByImagePath() {
+        movie1.setImagePaths(Arrays.asList("./movie-images/shared.jpg", "./movie-images/own.jpg"));
+        movie2.setImagePaths(Arrays.asList("./movie-images/shared.jpg"));
+        entityManager.persistAndFlush(movie1);
+        entityManager.persistAndFlush(movie2);
+
+        assertEquals(2, movieRepository.countByImagePath("./movie-images/shared.jpg"));
+        assertEquals(1, movieRepository.countByImagePath("./movie-images/own.jpg"));
+        assertEquals(0, movieRepository.countByImagePath("./movie-images/none.jpg"));
+    }
+}
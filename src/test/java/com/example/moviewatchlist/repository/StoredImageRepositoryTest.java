@@ -0,0 +1,34 @@
+package com.example.moviewatchlist.repository;
+
+import com.example.moviewatchlist.model.StoredImage;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for StoredImageRepository.
+ * Uses @DataJpaTest to configure an in-memory database for testing.
+ */
+@DataJpaTest
+public class StoredImageRepositoryTest {
+
+    @Autowired
+    private StoredImageRepository storedImageRepository;
+
+    /**
+     * Tests looking up stored images by TMDb path and by shared file name.
+     */
+    @Test
+    void testFindByTmdbPathAndFileName() {
+        storedImageRepository.save(StoredImage.builder()
+            .tmdbPath("/a.jpg").contentHash("abc").fileName("abc.jpg").sizeBytes(10).build());
+        storedImageRepository.save(StoredImage.builder()
+            .tmdbPath("/b.jpg").contentHash("abc").fileName("abc.jpg").sizeBytes(10).build());
+
+        assertTrue(storedImageRepository.findByTmdbPath("/a.jpg").isPresent());
+        assertTrue(storedImageRepository.findByTmdbPath("/c.jpg").isEmpty());
+        assertEquals(2, storedImageRepository.findByFileName("abc.jpg").size());
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.moviewatchlist.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for AddMovieMetrics.
+ */
+class AddMovieMetricsTest {
+
+    private final AddMovieMetrics metrics = new AddMovieMetrics();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void timeAsync_recordsStageWhenFutureCompletes() {
+        metrics.bindTo(registry);
+        CompletableFuture<String> upstream = new CompletableFuture<>();
+
+        CompletableFuture<String> timed = metrics.timeAsync(AddMovieMetrics.OMDB_FETCH, () -> upstream);
+        assertNull(registry.find("movie.add.stage").timer(), "nothing recorded while the stage runs");
+
+        upstream.complete("done");
+
+        assertEquals("done", timed.join());
+        assertEquals(1, registry.get("movie.add.stage")
+                .tags("stage", AddMovieMetrics.OMDB_FETCH, "outcome", "success").timer().count());
+    }
+
+    @Test
+    void timeAsync_cancellingTimedFutureCancelsStage() {
+        metrics.bindTo(registry);
+        CompletableFuture<String> upstream = new CompletableFuture<>();
+
+        metrics.timeAsync(AddMovieMetrics.TMDB_SEARCH, () -> upstream).cancel(true);
+
+        assertTrue(upstream.isCancelled());
+        assertEquals(1, registry.get("movie.add.stage")
+                .tags("stage", AddMovieMetrics.TMDB_SEARCH, "outcome", "failure").timer().count());
+    }
+
+    @Test
+    void timeAsync_passesNullFutureThrough() {
+        assertNull(metrics.timeAsync(AddMovieMetrics.TMDB_SEARCH, () -> null));
+    }
+
+    @Test
+    void time_recordsFailedStageAndRethrows() {
+        metrics.bindTo(registry);
+
+        assertThrows(IllegalStateException.class, () -> metrics.time(AddMovieMetrics.REPOSITORY_SAVE, () -> {
+            throw new IllegalStateException("db down");
+        }));
+
+        assertEquals(1, registry.get("movie.add.stage")
+                .tags("stage", AddMovieMetrics.REPOSITORY_SAVE, "outcome", "failure").timer().count());
+    }
+
+    @Test
+    void timeAdd_countsFailuresByReason() {
+        metrics.bindTo(registry);
+
+        metrics.timeAdd(() -> CompletableFuture.failedFuture(new UpstreamUnavailableException("omdb circuit is open")));
+        metrics.timeAdd(() -> CompletableFuture.completedFuture("movie"));
+
+        assertEquals(1, registry.get("movie.add.failures").tag("reason", "upstream_unavailable").counter().count());
+        assertEquals(1, registry.get("movie.add").tag("outcome", "success").timer().count());
+        assertEquals(1, registry.get("movie.add").tag("outcome", "failure").timer().count());
+    }
+
+    @Test
+    void failureReason_classifiesKnownFailures() {
+        assertEquals("invalid_request", AddMovieMetrics.failureReason(new IllegalArgumentException("Movie title is required")));
+        assertEquals("not_found", AddMovieMetrics.failureReason(
+                new CompletionException(new RuntimeException(MovieService.MOVIE_NOT_FOUND + "Movie not found!"))));
+        assertEquals("duplicate", AddMovieMetrics.failureReason(new RuntimeException(MovieService.MOVIE_ALREADY_EXISTS)));
+        assertEquals("parse_error", AddMovieMetrics.failureReason(new RuntimeException("Failed to parse OMDb response: x")));
+        assertEquals("upstream_io", AddMovieMetrics.failureReason(new CompletionException(new IOException("reset"))));
+        assertEquals("other", AddMovieMetrics.failureReason(new RuntimeException()));
+    }
+
+    @Test
+    void timeAdd_countsExpiredDeadlineAsTimeout() {
+        metrics.bindTo(registry);
+
+        metrics.timeAdd(() -> CompletableFuture.failedFuture(
+                new CompletionException(new TimeoutException(MovieService.ADD_TIMED_OUT))));
+
+        assertEquals("timeout", AddMovieMetrics.failureReason(new TimeoutException(MovieService.ADD_TIMED_OUT)));
+        assertEquals(1, registry.get("movie.add.failures").tag("reason", "timeout").counter().count());
+    }
+
+    @Test
+    void unboundMetricsRecordNothing() {
+        assertEquals("x", metrics.time(AddMovieMetrics.DUPLICATE_CHECK, () -> "x"));
+        assertTrue(registry.getMeters().isEmpty());
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.moviewatchlist.service;
+
+import com.example.moviewatchlist.dto.TMDbSearchResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for AutocompleteService.
+ */
+@ExtendWith(MockitoExtension.class)
+class AutocompleteServiceTest {
+
+    @Mock
+    private TMDbService tmdbService;
+
+    private AutocompleteService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new AutocompleteService(0, 600, 100, 1024 * 1024);
+        ReflectionTestUtils.setField(service, "tmdbService", tmdbService);
+    }
+
+    private static TMDbSearchResponse response(int totalResults, String... titles) {
+        List<TMDbSearchResponse.TMDbMovie> movies = new ArrayList<>();
+        for (int i = 0; i < titles.length; i++) {
+            TMDbSearchResponse.TMDbMovie movie = new TMDbSearchResponse.TMDbMovie();
+            movie.setId(i + 1);
+            movie.setTitle(titles[i]);
+            movies.add(movie);
+        }
+        TMDbSearchResponse response = new TMDbSearchResponse();
+        response.setResults(movies);
+        response.setTotalResults(totalResults);
+        return response;
+    }
+
+    private static List<Object> titles(List<Map<String, Object>> suggestions) {
+        return suggestions.stream().map(s -> s.get("title")).toList();
+    }
+
+    private List<Map<String, Object>> suggest(String clientId, String query) {
+        return service.suggest(clientId, query).orTimeout(5, TimeUnit.SECONDS).join();
+    }
+
+    /**
+     * Tests that prefixes shorter than the minimum get no suggestions and no TMDb call.
+     */
+    @Test
+    void suggest_returnsNothingForShortPrefix() {
+        assertTrue(suggest("a", "i").isEmpty());
+        assertTrue(suggest("a", " ").isEmpty());
+        verifyNoInteractions(tmdbService);
+    }
+
+    /**
+     * Tests that a prefix is looked up once and then served from the cache, whatever its case or spacing.
+     */
+    @Test
+    void suggest_cachesResultsPerNormalizedPrefix() {
+        when(tmdbService.searchMovie("inc"))
+            .thenReturn(CompletableFuture.completedFuture(response(40, "Inception", "Incendies")));
+
+        assertEquals(List.of("Inception", "Incendies"), titles(suggest("a", "Inc")));
+        assertEquals(List.of("Inception", "Incendies"), titles(suggest("b", "  INC ")));
+
+        verify(tmdbService, times(1)).searchMovie(anyString());
+        assertEquals(1, service.upstreamLookupCount());
+        assertEquals(1, service.cacheHitCount());
+    }
+
+    /**
+     * Tests that a longer prefix is answered by filtering the complete results of a shorter one.
+     */
+    @Test
+    void suggest_filtersCompleteShorterPrefixResults() {
+        when(tmdbService.searchMovie("in"))
+            .thenReturn(CompletableFuture.completedFuture(response(3, "Inception", "Interstellar", "Into the Wild")));
+
+        suggest("a", "in");
+        List<Map<String, Object>> suggestions = suggest("a", "int");
+
+        assertEquals(List.of("Interstellar", "Into the Wild"), titles(suggestions));
+        verify(tmdbService, times(1)).searchMovie(anyString());
+        assertEquals(1, service.prefixHitCount());
+    }
+
+    /**
+     * Tests that incomplete results of a shorter prefix are not filtered, since they may miss matches.
+     */
+    @Test
+    void suggest_looksUpWhenShorterPrefixIsIncomplete() {
+        when(tmdbService.searchMovie("in"))
+            .thenReturn(CompletableFuture.completedFuture(response(500, "Inception")));
+        when(tmdbService.searchMovie("int"))
+            .thenReturn(CompletableFuture.completedFuture(response(200, "Interstellar")));
+
+        suggest("a", "in");
+        assertEquals(List.of("Interstellar"), titles(suggest("a", "int")));
+
+        verify(tmdbService).searchMovie("int");
+        assertEquals(0, service.prefixHitCount());
+    }
+
+    /**
+     * Tests that a newer lookup from the same client cancels the pending one before it reaches TMDb.
+     */
+    @Test
+    void suggest_cancelsSupersededLookupOfSameClient() {
+        service = new AutocompleteService(200, 600, 100, 1024 * 1024);
+        ReflectionTestUtils.setField(service, "tmdbService", tmdbService);
+        when(tmdbService.searchMovie("inte"))
+            .thenReturn(CompletableFuture.completedFuture(response(1, "Interstellar")));
+        when(tmdbService.searchMovie("xy"))
+            .thenReturn(CompletableFuture.completedFuture(response(0)));
+
+        CompletableFuture<List<Map<String, Object>>> first = service.suggest("a", "int");
+        CompletableFuture<List<Map<String, Object>>> other = service.suggest("b", "xy");
+        CompletableFuture<List<Map<String, Object>>> second = service.suggest("a", "inte");
+
+        assertThrows(CancellationException.class, first::join);
+        assertEquals(List.of("Interstellar"), titles(second.orTimeout(5, TimeUnit.SECONDS).join()));
+        assertTrue(other.orTimeout(5, TimeUnit.SECONDS).join().isEmpty(), "other clients are not superseded");
+        verify(tmdbService, never()).searchMovie("int");
+        assertEquals(1, service.supersededCount());
+    }
+
+    /**
+     * Tests that lookups without a client id do not supersede each other and go upstream without waiting.
+     */
+    @Test
+    void suggest_doesNotDebounceLookupsWithoutClientId() {
+        service = new AutocompleteService(60_000, 600, 100, 1024 * 1024);
+        ReflectionTestUtils.setField(service, "tmdbService", tmdbService);
+        when(tmdbService.searchMovie("int"))
+            .thenReturn(CompletableFuture.completedFuture(response(500, "Interstellar")));
+        when(tmdbService.searchMovie("inte"))
+            .thenReturn(CompletableFuture.completedFuture(response(200, "Interstellar")));
+
+        CompletableFuture<List<Map<String, Object>>> first = service.suggest(null, "int");
+        CompletableFuture<List<Map<String, Object>>> second = service.suggest(null, "inte");
+
+        assertEquals(List.of("Interstellar"), titles(first.getNow(null)));
+        assertEquals(List.of("Interstellar"), titles(second.getNow(null)));
+        assertEquals(0, service.supersededCount());
+    }
+
+    /**
+     * Tests the word-prefix matching used to filter cached results.
+     */
+    @Test
+    void matches_requiresEveryPrefixWordToStartATitleWord() {
+        assertTrue(AutocompleteService.matches("The Dark Knight", "dark kn"));
+        assertTrue(AutocompleteService.matches("Spider-Man: No Way Home", "spider man"));
+        assertFalse(AutocompleteService.matches("The Dark Knight", "ark"));
+        assertFalse(AutocompleteService.matches(null, "dark"));
+    }
+}
@@ -0,0 +1,307 @@
+package com.example.moviewatchlist.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class HedgedRetryTest {
+
+    @SuppressWarnings("unchecked")
+    private static HttpResponse<String> response(int status) {
+        HttpResponse<String> response = mock(HttpResponse.class);
+        when(response.statusCode()).thenReturn(status);
+        return response;
+    }
+
+    /** Fills the latency window so the hedge delay is the given number of milliseconds. */
+    private static void warmUp(HedgedRetry retry, long millis) {
+        for (int i = 0; i < HedgedRetry.MIN_SAMPLES; i++) {
+            retry.recordLatency(TimeUnit.MILLISECONDS.toNanos(millis));
+        }
+    }
+
+    @Test
+    void returnsFirstResponseWithoutHedgingOrRetrying() {
+        HedgedRetry retry = new HedgedRetry("tmdb", 3, 10, true, 0);
+        HttpResponse<String> ok = response(200);
+        AtomicInteger calls = new AtomicInteger();
+
+        HttpResponse<String> result = retry.execute(() -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture(ok);
+        }, Deadline.none()).join();
+
+        assertSame(ok, result);
+        assertEquals(1, calls.get());
+        assertEquals(0, retry.hedgeCount());
+        assertEquals(0, retry.retryCount());
+    }
+
+    @Test
+    void hedgeDelayIsP95OfRecordedLatencies() {
+        HedgedRetry retry = new HedgedRetry("tmdb", 1, 0, true, 5);
+        assertEquals(0, retry.hedgeDelayNanos(), "no hedging before enough samples");
+
+        for (int i = 1; i <= 100; i++) {
+            retry.recordLatency(TimeUnit.MILLISECONDS.toNanos(i));
+        }
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(95), retry.hedgeDelayNanos());
+
+        HedgedRetry disabled = new HedgedRetry("tmdb", 1, 0, false, 5);
+        warmUp(disabled, 10);
+        assertEquals(0, disabled.hedgeDelayNanos());
+    }
+
+    @Test
+    void hedgeDelayHasLowerBound() {
+        HedgedRetry retry = new HedgedRetry("tmdb", 1, 0, true, 50);
+        warmUp(retry, 1);
+
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(50), retry.hedgeDelayNanos());
+    }
+
+    @Test
+    void hedgedAttemptWinsWhenFirstIsSlow() {
+        HedgedRetry retry = new HedgedRetry("tmdb", 1, 0, true, 0);
+        warmUp(retry, 10);
+        HttpResponse<String> fast = response(200);
+        CompletableFuture<HttpResponse<String>> slow = new CompletableFuture<>();
+        List<CompletableFuture<HttpResponse<String>>> attempts = new ArrayList<>(
+            List.of(slow, CompletableFuture.completedFuture(fast)));
+
+        HttpResponse<String> result = retry.execute(() -> attempts.remove(0), Deadline.none())
+            .orTimeout(5, TimeUnit.SECONDS).join();
+
+        assertSame(fast, result);
+        assertEquals(1, retry.hedgeCount());
+        assertEquals(1, retry.hedgeWinCount());
+    }
+
+    @Test
+    void hedgeIsSkippedWhenNoRateLimiterTokenIsFree() {
+        HedgedRetry retry = new HedgedRetry("tmdb", 1, 0, true, 0);
+        warmUp(retry, 10);
+        RateLimiter limiter = new RateLimiter("tmdb", 0.01, 1, 10, 0);
+        HttpResponse<String> ok = response(200);
+        CompletableFuture<HttpResponse<String>> slow = new CompletableFuture<>();
+        AtomicInteger calls = new AtomicInteger();
+
+        CompletableFuture<HttpResponse<String>> result = retry.execute(() -> {
+            calls.incrementAndGet();
+            return slow;
+        }, limiter, Deadline.none());
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            while (retry.hedgeSkippedCount() == 0) {
+                Thread.sleep(1);
+            }
+        });
+        slow.complete(ok);
+
+        assertSame(ok, result.join());
+        assertEquals(1, calls.get());
+        assertEquals(0, retry.hedgeCount());
+    }
+
+    @Test
+    void hedgeTakesFreeRateLimiterToken() {
+        HedgedRetry retry = new HedgedRetry("tmdb", 1, 0, true, 0);
+        warmUp(retry, 10);
+        RateLimiter limiter = new RateLimiter("tmdb", 0.01, 2, 10, 0);
+        HttpResponse<String> fast = response(200);
+        List<CompletableFuture<HttpResponse<String>>> attempts = new ArrayList<>(
+            List.of(new CompletableFuture<>(), CompletableFuture.completedFuture(fast)));
+
+        HttpResponse<String> result = retry.execute(() -> attempts.remove(0), limiter, Deadline.none())
+            .orTimeout(5, TimeUnit.SECONDS).join();
+
+        assertSame(fast, result);
+        assertEquals(1, retry.hedgeCount());
+        assertFalse(limiter.tryAcquire(), "both tokens were used");
+    }
+
+    @Test
+    void losingAttemptIsCancelledWhenHedgeWins() {
+        HedgedRetry retry = new HedgedRetry("tmdb", 1, 0, true, 0);
+        warmUp(retry, 10);
+        RateLimiter limiter = new RateLimiter("tmdb", 0.01, 2, 10, 0);
+        HttpResponse<String> fast = response(200);
+        CompletableFuture<HttpResponse<String>> slow = new CompletableFuture<>();
+        List<CompletableFuture<HttpResponse<String>>> attempts = new ArrayList<>(
+            List.of(slow, CompletableFuture.completedFuture(fast)));
+
+        HttpResponse<String> result = retry.execute(() -> attempts.remove(0), limiter, Deadline.none())
+            .orTimeout(5, TimeUnit.SECONDS).join();
+
+        assertSame(fast, result);
+        assertTrue(slow.isCancelled(), "the slow attempt is cancelled");
+    }
+
+    @Test
+    void hedgeTokenIsNotWastedWhenRaceIsDecidedMeanwhile() {
+        HedgedRetry retry = new HedgedRetry("tmdb", 1, 0, true, 0);
+        warmUp(retry, 10);
+        HttpResponse<String> ok = response(200);
+        CompletableFuture<HttpResponse<String>> first = new CompletableFuture<>();
+        CompletableFuture<HttpResponse<String>> hedge = new CompletableFuture<>();
+        List<CompletableFuture<HttpResponse<String>>> attempts = new ArrayList<>(List.of(first, hedge));
+        AtomicInteger tokensTaken = new AtomicInteger();
+        // The first attempt answers on another thread while the hedge takes its token
+        RateLimiter limiter = new RateLimiter("tmdb", 0.01, 2, 10, 0) {
+            @Override
+            public synchronized boolean tryAcquire() {
+                Thread answer = new Thread(() -> first.complete(ok));
+                answer.start();
+                try {
+                    answer.join(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                boolean taken = super.tryAcquire();
+                if (taken) {
+                    tokensTaken.incrementAndGet();
+                }
+                return taken;
+            }
+        };
+
+        HttpResponse<String> result = retry.execute(() -> attempts.remove(0), limiter, Deadline.none())
+            .orTimeout(5, TimeUnit.SECONDS).join();
+
+        assertSame(ok, result);
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            while (tokensTaken.get() > 0 && !hedge.isCancelled()) {
+                Thread.sleep(1);
+            }
+        });
+        assertEquals(tokensTaken.get(), retry.hedgeCount(), "every token taken was used by a sent hedge");
+    }
+
+    @Test
+    void failedAttemptWaitsForRunningHedge() {
+        HedgedRetry retry = new HedgedRetry("tmdb", 1, 0, true, 0);
+        warmUp(retry, 10);
+        HttpResponse<String> ok = response(200);
+        CompletableFuture<HttpResponse<String>> first = new CompletableFuture<>();
+        CompletableFuture<HttpResponse<String>> hedge = new CompletableFuture<>();
+        List<CompletableFuture<HttpResponse<String>>> attempts = new ArrayList<>(List.of(first, hedge));
+
+        CompletableFuture<HttpResponse<String>> result = retry.execute(() -> attempts.remove(0), Deadline.none());
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            while (retry.hedgeCount() == 0) {
+                Thread.sleep(1);
+            }
+        });
+        first.completeExceptionally(new IOException("reset"));
+        assertFalse(result.isDone());
+        hedge.complete(ok);
+
+        assertSame(ok, result.join());
+    }
+
+    @Test
+    void retriesIoErrorsAndGatewayStatuses() {
+        HedgedRetry retry = new HedgedRetry("tmdb", 3, 1, false, 0);
+        HttpResponse<String> ok = response(200);
+        List<CompletableFuture<HttpResponse<String>>> attempts = new ArrayList<>(List.of(
+            CompletableFuture.failedFuture(new HttpTimeoutException("timed out")),
+            CompletableFuture.completedFuture(response(503)),
+            CompletableFuture.completedFuture(ok)));
+
+        HttpResponse<String> result = retry.execute(() -> attempts.remove(0), Deadline.none()).join();
+
+        assertSame(ok, result);
+        assertEquals(2, retry.retryCount());
+    }
+
+    @Test
+    void returnsLastOutcomeWhenAttemptsAreUsedUp() {
+        HedgedRetry retry = new HedgedRetry("tmdb", 2, 1, false, 0);
+        HttpResponse<String> unavailable = response(503);
+        AtomicInteger calls = new AtomicInteger();
+
+        HttpResponse<String> result = retry.execute(() -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture(unavailable);
+        }, Deadline.none()).join();
+
+        assertSame(unavailable, result);
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void doesNotRetryRejectedCallsOrClientErrors() {
+        HedgedRetry retry = new HedgedRetry("tmdb", 3, 1, false, 0);
+        AtomicInteger calls = new AtomicInteger();
+
+        CompletionException ex = assertThrows(CompletionException.class, () -> retry.<String>execute(() -> {
+            calls.incrementAndGet();
+            return CompletableFuture.failedFuture(new UpstreamUnavailableException("tmdb circuit is open"));
+        }, Deadline.none()).join());
+        HttpResponse<String> notFound = response(404);
+        HttpResponse<String> result = retry.execute(() -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture(notFound);
+        }, Deadline.none()).join();
+
+        assertInstanceOf(UpstreamUnavailableException.class, ex.getCause());
+        assertSame(notFound, result);
+        assertEquals(2, calls.get());
+        assertEquals(0, retry.retryCount());
+    }
+
+    @Test
+    void failsWithoutCallingWhenDeadlineHasPassed() {
+        HedgedRetry retry = new HedgedRetry("tmdb", 3, 1, false, 0);
+        AtomicInteger calls = new AtomicInteger();
+
+        CompletionException ex = assertThrows(CompletionException.class, () -> retry.<String>execute(() -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture(response(200));
+        }, Deadline.after(Duration.ZERO)).join());
+
+        assertInstanceOf(UpstreamUnavailableException.class, ex.getCause());
+        assertEquals(0, calls.get());
+        assertEquals(1, retry.deadlineExceededCount());
+    }
+
+    @Test
+    void stopsRetryingWhenBackoffDoesNotFitBeforeDeadline() {
+        HedgedRetry retry = new HedgedRetry("tmdb", 5, 2000, false, 0);
+        AtomicInteger calls = new AtomicInteger();
+
+        CompletionException ex = assertThrows(CompletionException.class, () -> retry.<String>execute(() -> {
+            calls.incrementAndGet();
+            return CompletableFuture.failedFuture(new IOException("connection reset"));
+        }, Deadline.after(Duration.ofMillis(1))).join());
+
+        assertInstanceOf(UpstreamUnavailableException.class, ex.getCause());
+        assertTrue(calls.get() <= 2);
+    }
+
+    @Test
+    void bindsMeters() {
+        HedgedRetry retry = new HedgedRetry("omdb", 3, 10, true, 0);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        retry.bindTo(registry);
+
+        assertNotNull(registry.find("upstream.hedge.delay").tag("upstream", "omdb").gauge());
+        assertNotNull(registry.find("upstream.hedge.sent").functionCounter());
+        assertNotNull(registry.find("upstream.hedge.wins").functionCounter());
+        assertNotNull(registry.find("upstream.retry.attempts").functionCounter());
+        assertNotNull(registry.find("upstream.deadline.exceeded").functionCounter());
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.moviewatchlist.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ImageCacheManager.
+ * Uses a temporary images directory and a mocked ImageStore that deletes files like the real one.
+ */
+@ExtendWith(MockitoExtension.class)
+class ImageCacheManagerTest {
+
+    @Mock
+    private ImageStore imageStore;
+
+    @InjectMocks
+    private ImageCacheManager imageCacheManager;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(imageCacheManager, "imagesPath", tempDir.toString());
+        ReflectionTestUtils.setField(imageCacheManager, "maxBytes", 1000L);
+        ReflectionTestUtils.setField(imageCacheManager, "minAgeSeconds", 60L);
+        lenient().doAnswer(invocation -> {
+            Files.deleteIfExists(Path.of(invocation.<String>getArgument(0)));
+            return null;
+        }).when(imageStore).evict(anyString());
+    }
+
+    /** Writes a file of the given size with a modification time in the past. */
+    private Path oldFile(String name, int size, long ageSeconds) throws Exception {
+        Path file = tempDir.resolve(name);
+        Files.createDirectories(file.getParent());
+        Files.write(file, new byte[size]);
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().minusSeconds(ageSeconds)));
+        return file;
+    }
+
+    @Test
+    void maintain_removesUnreferencedImagesAndStaleTemporaryFiles() throws Exception {
+        Path orphan = oldFile("orphan.jpg", 10, 3600);
+        Path referenced = oldFile("referenced.jpg", 10, 3600);
+        Path staleDownload = oldFile(".download-1.tmp", 10, 3600);
+        Path orphanVariant = oldFile("variants/gone_thumb.jpg", 10, 3600);
+        when(imageStore.referencedFileNames()).thenReturn(Set.of("referenced.jpg"));
+
+        imageCacheManager.maintain();
+
+        verify(imageStore).referencedFileNames();
+        verify(imageStore).release(List.of(orphan.toString()));
+        verify(imageStore, never()).release(List.of(referenced.toString()));
+        assertFalse(Files.exists(staleDownload));
+        assertFalse(Files.exists(orphanVariant));
+        assertEquals(1, imageCacheManager.getOrphansRemovedCount());
+    }
+
+    @Test
+    void maintain_leavesRecentFilesAlone() throws Exception {
+        Files.write(tempDir.resolve("new.jpg"), new byte[2000]);
+        Files.write(tempDir.resolve(".download-2.tmp"), new byte[10]);
+
+        imageCacheManager.maintain();
+
+        verifyNoInteractions(imageStore);
+        assertTrue(Files.exists(tempDir.resolve(".download-2.tmp")));
+        assertEquals(2010, imageCacheManager.getUsageBytes());
+    }
+
+    @Test
+    void maintain_evictsLeastRecentlyServedImagesUntilWithinQuota() throws Exception {
+        Path first = oldFile("first.jpg", 400, 3000);
+        Path second = oldFile("second.jpg", 400, 2000);
+        Path third = oldFile("third.jpg", 400, 1000);
+        oldFile("variants/second_thumb.jpg", 100, 1000);
+        when(imageStore.referencedFileNames()).thenReturn(Set.of("first.jpg", "second.jpg", "third.jpg"));
+        imageCacheManager.recordAccess("first.jpg");
+
+        imageCacheManager.maintain();
+
+        verify(imageStore).evict(second.toString());
+        verify(imageStore, never()).evict(first.toString());
+        verify(imageStore, never()).evict(third.toString());
+        assertEquals(1, imageCacheManager.getEvictionCount());
+        assertTrue(imageCacheManager.getUsageBytes() <= 1000);
+    }
+
+    @Test
+    void bindTo_registersUsageMetrics() throws Exception {
+        oldFile("a.jpg", 100, 10);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        imageCacheManager.bindTo(registry);
+
+        imageCacheManager.maintain();
+
+        assertEquals(100, registry.get("movie.images.cache.usage").gauge().value());
+        assertEquals(1000, registry.get("movie.images.cache.quota").gauge().value());
+        assertEquals(1, registry.get("movie.images.cache.files").gauge().value());
+        assertEquals(0, registry.get("movie.images.cache.evictions").functionCounter().count());
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.moviewatchlist.service;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.http.HttpTimeoutException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ImageDownloadEvent.
+ */
+class ImageDownloadEventTest {
+
+    @TempDir
+    Path tempDir;
+
+    private List<RecordedEvent> record(Runnable action) throws IOException {
+        try (Recording recording = new Recording()) {
+            recording.enable(ImageDownloadEvent.class);
+            recording.start();
+            action.run();
+            recording.stop();
+            Path file = tempDir.resolve("recording.jfr");
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> event.getEventType().getName().equals("com.example.moviewatchlist.ImageDownload"))
+                    .toList();
+        }
+    }
+
+    @Test
+    void complete_commitsMovieAndStoredFile() throws IOException {
+        List<RecordedEvent> events = record(() -> {
+            ImageDownloadEvent event = new ImageDownloadEvent();
+            event.begin();
+            event.complete("/poster.jpg", "Inception", 27205, 200, 1024, "./movie-images/abc.jpg", null);
+        });
+
+        assertEquals(1, events.size());
+        RecordedEvent event = events.get(0);
+        assertEquals("/poster.jpg", event.getString("tmdbPath"));
+        assertEquals("Inception", event.getString("title"));
+        assertEquals(27205, event.getInt("tmdbId"));
+        assertEquals(200, event.getInt("status"));
+        assertEquals(1024, event.getLong("bytes"));
+        assertEquals("./movie-images/abc.jpg", event.getString("localPath"));
+        assertNull(event.getString("failure"));
+    }
+
+    @Test
+    void complete_commitsUnwrappedFailure() throws IOException {
+        List<RecordedEvent> events = record(() -> {
+            ImageDownloadEvent event = new ImageDownloadEvent();
+            event.begin();
+            event.complete("/poster.jpg", null, null, 0, 0, null,
+                    new CompletionException(new HttpTimeoutException("request timed out")));
+        });
+
+        assertEquals(1, events.size());
+        assertNull(events.get(0).getString("title"));
+        assertEquals(0, events.get(0).getInt("tmdbId"));
+        assertNull(events.get(0).getString("localPath"));
+        assertEquals("HttpTimeoutException: request timed out", events.get(0).getString("failure"));
+    }
+}
@@ -1,9 +1,12 @@
 package com.example.moviewatchlist.service;
 
+import com.example.moviewatchlist.model.StoredImage;
+import com.example.moviewatchlist.repository.StoredImageRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -16,14 +19,21 @@ import java.net.http.HttpResponse;
 import java.net.http.HttpResponse.BodyHandler;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.nio.file.CopyOption;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
 import static org.mockito.Mockito.*;
 import static org.mockito.Mockito.mockStatic;
 
@@ -37,19 +47,36 @@ class ImageDownloadServiceTest {
     @Mock
     private HttpClient mockHttpClient;
 
-    @Mock
-    private HttpResponse<byte[]> mockResponse;
-
     @TempDir
     Path tempDir;
 
+    @Mock
+    private StoredImageRepository storedImageRepository;
+
     private ImageDownloadService imageDownloadService;
 
     @BeforeEach
     void setUp() {
+        // Back the image store index with a map so lookups see earlier saves
+        Map<String, StoredImage> index = new HashMap<>();
+        lenient().when(storedImageRepository.findByTmdbPath(anyString()))
+            .thenAnswer(invocation -> Optional.ofNullable(index.get(invocation.<String>getArgument(0))));
+        lenient().when(storedImageRepository.save(any(StoredImage.class))).thenAnswer(invocation -> {
+            StoredImage image = invocation.getArgument(0);
+            index.put(image.getTmdbPath(), image);
+            return image;
+        });
+        lenient().when(storedImageRepository.findByFileName(anyString())).thenAnswer(invocation -> index.values().stream()
+            .filter(image -> image.getFileName().equals(invocation.getArgument(0)))
+            .toList());
+        ImageStore imageStore = new ImageStore();
+        ReflectionTestUtils.setField(imageStore, "imagesPath", tempDir.toString() + "/");
+        ReflectionTestUtils.setField(imageStore, "storedImageRepository", storedImageRepository);
+
         imageDownloadService = new ImageDownloadService();
         ReflectionTestUtils.setField(imageDownloadService, "httpClient", mockHttpClient);
         ReflectionTestUtils.setField(imageDownloadService, "imagesPath", tempDir.toString() + "/");
+        ReflectionTestUtils.setField(imageDownloadService, "imageStore", imageStore);
     }
 
     /**
@@ -59,27 +86,21 @@ class ImageDownloadServiceTest {
     void testDownloadImages_Success() throws Exception {
         // Arrange
         List<String> imagePaths = Arrays.asList("/poster1.jpg", "/poster2.jpg", "/backdrop.jpg");
-        String movieTitle = "Inception";
         byte[] fakeImageData = "fake image data".getBytes();
-
-        when(mockResponse.statusCode()).thenReturn(200);
-        when(mockResponse.body()).thenReturn(fakeImageData);
-        when(mockHttpClient.<byte[]>sendAsync(
-                any(HttpRequest.class),
-                anyBodyHandler()
-        )).thenReturn(CompletableFuture.completedFuture(mockResponse));
+        stubDownload(200, fakeImageData);
 
         // Act
-        CompletableFuture<List<String>> future = imageDownloadService.downloadImages(imagePaths, movieTitle);
+        CompletableFuture<List<String>> future = imageDownloadService.downloadImages(imagePaths);
         List<String> downloadedPaths = future.join();
 
         // Assert
         assertNotNull(downloadedPaths);
         assertEquals(3, downloadedPaths.size());
         
-        // Verify files were created
+        // Verify files were created with the downloaded content
         for (String path : downloadedPaths) {
             assertTrue(Files.exists(Path.of(path)));
+            assertArrayEquals(fakeImageData, Files.readAllBytes(Path.of(path)));
         }
         
         // Verify HTTP client was called 3 times
@@ -93,16 +114,11 @@ class ImageDownloadServiceTest {
     void testDownloadImages_FailedDownload() throws Exception {
         // Arrange
         List<String> imagePaths = Arrays.asList("/notfound.jpg");
-        String movieTitle = "Test Movie";
 
-        when(mockResponse.statusCode()).thenReturn(404);
-        when(mockHttpClient.<byte[]>sendAsync(
-                any(HttpRequest.class),
-                anyBodyHandler()
-        )).thenReturn(CompletableFuture.completedFuture(mockResponse));
+        stubDownload(404, new byte[0]);
 
         // Act
-        CompletableFuture<List<String>> future = imageDownloadService.downloadImages(imagePaths, movieTitle);
+        CompletableFuture<List<String>> future = imageDownloadService.downloadImages(imagePaths);
         List<String> downloadedPaths = future.join();
 
         // Assert
@@ -118,10 +134,9 @@ class ImageDownloadServiceTest {
     void testDownloadImages_EmptyList() {
         // Arrange
         List<String> imagePaths = Arrays.asList();
-        String movieTitle = "Empty Movie";
 
         // Act
-        CompletableFuture<List<String>> future = imageDownloadService.downloadImages(imagePaths, movieTitle);
+        CompletableFuture<List<String>> future = imageDownloadService.downloadImages(imagePaths);
         List<String> downloadedPaths = future.join();
 
         // Assert
@@ -137,18 +152,10 @@ class ImageDownloadServiceTest {
     void testDownloadImages_LimitsToThreeImages() throws Exception {
         // Arrange
         List<String> imagePaths = Arrays.asList("/img1.jpg", "/img2.jpg", "/img3.jpg", "/img4.jpg", "/img5.jpg");
-        String movieTitle = "Many Images Movie";
-        byte[] fakeImageData = "fake image".getBytes();
-
-        when(mockResponse.statusCode()).thenReturn(200);
-        when(mockResponse.body()).thenReturn(fakeImageData);
-        when(mockHttpClient.<byte[]>sendAsync(
-                any(HttpRequest.class),
-                anyBodyHandler()
-        )).thenReturn(CompletableFuture.completedFuture(mockResponse));
+        stubDownload(200, "fake image".getBytes());
 
         // Act
-        CompletableFuture<List<String>> future = imageDownloadService.downloadImages(imagePaths, movieTitle);
+        CompletableFuture<List<String>> future = imageDownloadService.downloadImages(imagePaths);
         List<String> downloadedPaths = future.join();
 
         // Assert
@@ -157,34 +164,131 @@ class ImageDownloadServiceTest {
     }
 
     /**
-     * Tests filename sanitization for special characters.
+     * Tests that stored files are named after the content hash, not the movie title.
      */
     @Test
-    void testDownloadImages_SanitizesFilename() throws Exception {
+    void testDownloadImages_NamesFilesByContentHash() throws Exception {
         // Arrange
         List<String> imagePaths = Arrays.asList("/poster.jpg");
-        String movieTitle = "Movie: With Special/Characters?";
-        byte[] fakeImageData = "image".getBytes();
-
-        when(mockResponse.statusCode()).thenReturn(200);
-        when(mockResponse.body()).thenReturn(fakeImageData);
-        when(mockHttpClient.<byte[]>sendAsync(
-                any(HttpRequest.class),
-                anyBodyHandler()
-        )).thenReturn(CompletableFuture.completedFuture(mockResponse));
+        stubDownload(200, "image".getBytes());
 
         // Act
-        CompletableFuture<List<String>> future = imageDownloadService.downloadImages(imagePaths, movieTitle);
-        List<String> downloadedPaths = future.join();
+        List<String> downloadedPaths = imageDownloadService.downloadImages(imagePaths).join();
 
         // Assert
         assertEquals(1, downloadedPaths.size());
-        String downloadedPath = downloadedPaths.get(0);
-        String fileName = Path.of(downloadedPath).getFileName().toString();
-        assertFalse(fileName.contains(":"));
-        assertFalse(fileName.contains("/"));
-        assertFalse(fileName.contains("?"));
-        assertTrue(fileName.contains("Movie_"));
+        String fileName = Path.of(downloadedPaths.get(0)).getFileName().toString();
+        // SHA-256 of "image"
+        assertEquals("6105d6cc76af400325e94d588ce511be5bfdbb73b437dc51eca43917d7a43e3d.jpg", fileName);
+    }
+
+    /**
+     * Tests that a TMDb path that is already stored is reused without any download.
+     */
+    @Test
+    void testDownloadImages_RepeatedAddSkipsDownload() throws Exception {
+        stubDownload(200, "poster".getBytes());
+
+        List<String> first = imageDownloadService.downloadImages(List.of("/poster.jpg")).join();
+        List<String> second = imageDownloadService.downloadImages(List.of("/poster.jpg")).join();
+
+        assertEquals(first, second);
+        verify(mockHttpClient, times(1)).sendAsync(any(HttpRequest.class), anyBodyHandler());
+    }
+
+    /**
+     * Tests that the download timeout is capped to the time left until the deadline of the add.
+     */
+    @Test
+    void testDownloadImages_CapsRequestTimeoutToDeadline() throws Exception {
+        stubDownload(200, "poster".getBytes());
+
+        imageDownloadService.downloadImages(List.of("/poster.jpg"), "Inception", 27205, Deadline.after(Duration.ofSeconds(2))).join();
+
+        ArgumentCaptor<HttpRequest> request = ArgumentCaptor.forClass(HttpRequest.class);
+        verify(mockHttpClient).sendAsync(request.capture(), anyBodyHandler());
+        assertTrue(request.getValue().timeout().orElseThrow().compareTo(Duration.ofSeconds(2)) <= 0);
+    }
+
+    /**
+     * Tests that a single image is downloaded on demand and reused afterwards.
+     */
+    @Test
+    void fetchImage_downloadsOnFirstRequestOnly() throws Exception {
+        stubDownload(200, "poster".getBytes());
+
+        String first = imageDownloadService.fetchImage("/poster.jpg").join();
+        String second = imageDownloadService.fetchImage("/poster.jpg").join();
+
+        assertNotNull(first);
+        assertEquals(first, second);
+        assertTrue(Files.exists(Path.of(first)));
+        verify(mockHttpClient, times(1)).sendAsync(any(HttpRequest.class), anyBodyHandler());
+    }
+
+    /**
+     * Tests that concurrent requests for the same image share one download.
+     */
+    @Test
+    void fetchImage_coalescesConcurrentRequests() throws Exception {
+        CompletableFuture<HttpResponse<Path>> pending = new CompletableFuture<>();
+        when(mockHttpClient.<Path>sendAsync(any(HttpRequest.class), anyBodyHandler())).thenReturn(pending);
+
+        CompletableFuture<String> first = imageDownloadService.fetchImage("/poster.jpg");
+        CompletableFuture<String> second = imageDownloadService.fetchImage("/poster.jpg");
+
+        verify(mockHttpClient, times(1)).sendAsync(any(HttpRequest.class), anyBodyHandler());
+        @SuppressWarnings("unchecked")
+        HttpResponse<Path> response = mock(HttpResponse.class);
+        when(response.statusCode()).thenReturn(404);
+        pending.complete(response);
+        assertNull(first.join());
+        assertNull(second.join());
+    }
+
+    /**
+     * Tests that an evicted file is downloaded again from its recorded TMDb path.
+     */
+    @Test
+    void fetchStoredFile_redownloadsEvictedImage() throws Exception {
+        stubDownload(200, "poster".getBytes());
+        Path stored = Path.of(imageDownloadService.fetchImage("/poster.jpg").join());
+        Files.delete(stored);
+
+        String restored = imageDownloadService.fetchStoredFile(stored.getFileName().toString()).join();
+
+        assertEquals(stored.toString(), restored);
+        assertTrue(Files.exists(stored));
+        assertNull(imageDownloadService.fetchStoredFile("unknown.jpg").join());
+    }
+
+    /**
+     * Tests that values that are not TMDb image paths are never fetched.
+     */
+    @Test
+    void fetchImage_rejectsInvalidPaths() {
+        assertNull(imageDownloadService.fetchImage("/../secret.jpg").join());
+        assertNull(imageDownloadService.fetchImage("//evil.example.com/x.jpg").join());
+        assertNull(imageDownloadService.fetchImage("poster.jpg").join());
+        assertNull(imageDownloadService.fetchImage(null).join());
+        verifyNoInteractions(mockHttpClient);
+        assertTrue(ImageDownloadService.isTmdbImagePath("/kqjL17yufvn9OVLyXYpvtyrFfak.jpg"));
+    }
+
+    /**
+     * Tests that different TMDb paths with identical content share one file.
+     */
+    @Test
+    void testDownloadImages_DeduplicatesIdenticalContent() throws Exception {
+        stubDownload(200, "same bytes".getBytes());
+
+        List<String> paths = imageDownloadService.downloadImages(List.of("/a.jpg", "/b.jpg")).join();
+
+        assertEquals(2, paths.size());
+        assertEquals(paths.get(0), paths.get(1));
+        try (var files = Files.list(tempDir)) {
+            assertEquals(1, files.count());
+        }
     }
 
     /**
@@ -194,16 +298,15 @@ class ImageDownloadServiceTest {
     void testDownloadImages_HttpClientException() {
         // Arrange
         List<String> imagePaths = Arrays.asList("/error.jpg");
-        String movieTitle = "Error Movie";
 
-        when(mockHttpClient.<byte[]>sendAsync(
+        when(mockHttpClient.<Path>sendAsync(
                 any(HttpRequest.class),
                 anyBodyHandler()
         )).thenReturn(CompletableFuture.failedFuture(new RuntimeException("Network error")));
 
         // Act & Assert
         assertThrows(RuntimeException.class, () -> {
-            imageDownloadService.downloadImages(imagePaths, movieTitle).join();
+            imageDownloadService.downloadImages(imagePaths).join();
         });
     }
 
@@ -256,37 +359,57 @@ class ImageDownloadServiceTest {
     }
 
     /**
-     * Tests that downloadImage returns null when an IOException occurs.
+     * Tests that downloadImage returns null when moving the finished download into place fails.
      */
     @Test
     @SuppressWarnings("unchecked")
     void downloadImage_returnsNullOnIOException() throws Exception {
-        ImageDownloadService service = new ImageDownloadService();
-        ReflectionTestUtils.setField(service, "imagesPath", "test-images");
-
         String imageUrl = "https://image.tmdb.org/t/p/w780/test.jpg";
-        String localPath = "test-images/test.jpg";
-
-        // Mock HttpClient and response
-        HttpClient mockClient = mock(HttpClient.class);
-        HttpResponse<byte[]> mockResponse = mock(HttpResponse.class);
-        when(mockResponse.statusCode()).thenReturn(200);
-        when(mockResponse.body()).thenReturn(new byte[]{1, 2, 3});
-        when(mockClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
-            .thenReturn(CompletableFuture.completedFuture(mockResponse));
-        ReflectionTestUtils.setField(service, "httpClient", mockClient);
-
-        // Mock Files.write to throw IOException
-        try (MockedStatic<Files> filesMock = mockStatic(Files.class)) {
-            filesMock.when(() -> Files.write(any(Path.class), any(byte[].class)))
+        stubDownload(200, new byte[]{1, 2, 3});
+
+        // Mock Files.move to throw IOException, everything else behaves normally
+        try (MockedStatic<Files> filesMock = mockStatic(Files.class, CALLS_REAL_METHODS)) {
+            filesMock.when(() -> Files.move(any(Path.class), any(Path.class), any(CopyOption[].class)))
                 .thenThrow(new IOException("disk full"));
 
-            Method m = ImageDownloadService.class.getDeclaredMethod("downloadImage", String.class, String.class);
+            Method m = ImageDownloadService.class.getDeclaredMethod("downloadImage", String.class, String.class, String.class, Integer.class,
+                    Deadline.class);
             m.setAccessible(true);
-            CompletableFuture<String> future = (CompletableFuture<String>) m.invoke(service, imageUrl, localPath);
+            CompletableFuture<String> future = (CompletableFuture<String>) m.invoke(imageDownloadService, imageUrl, "/test.jpg", null, null, Deadline.none());
             String result = future.join();
             assertNull(result);
         }
+        verify(storedImageRepository, never()).save(any(StoredImage.class));
+    }
+
+    /**
+     * Tests that the response body is streamed to a file handler and no temporary files are left behind.
+     */
+    @Test
+    void downloadImages_streamsToFileAndCleansUpTemporaryFiles() throws Exception {
+        stubDownload(200, "streamed".getBytes());
+
+        List<String> downloadedPaths = imageDownloadService.downloadImages(List.of("/poster.jpg")).join();
+
+        assertEquals(1, downloadedPaths.size());
+        try (var files = Files.list(tempDir)) {
+            assertTrue(files.noneMatch(file -> file.getFileName().toString().endsWith(".tmp")));
+        }
+    }
+
+    /**
+     * Tests that a failed download (non-200) leaves neither the target nor a temporary file.
+     */
+    @Test
+    void downloadImages_removesTemporaryFileOnFailedDownload() throws Exception {
+        stubDownload(500, new byte[0]);
+
+        List<String> downloadedPaths = imageDownloadService.downloadImages(List.of("/poster.jpg")).join();
+
+        assertTrue(downloadedPaths.isEmpty());
+        try (var files = Files.list(tempDir)) {
+            assertEquals(0, files.count());
+        }
     }
 
     /**
@@ -308,9 +431,27 @@ class ImageDownloadServiceTest {
         assertEquals(".jpg", ext2);
     }
 
+    /**
+     * Stubs the HTTP client like a file body handler: the answer writes the data to a file
+     * and returns a response whose body is that file.
+     */
+    @SuppressWarnings("unchecked")
+    private void stubDownload(int statusCode, byte[] data) {
+        when(mockHttpClient.<Path>sendAsync(any(HttpRequest.class), anyBodyHandler())).thenAnswer(invocation -> {
+            HttpResponse<Path> response = mock(HttpResponse.class);
+            when(response.statusCode()).thenReturn(statusCode);
+            if (statusCode == 200) {
+                Path body = Files.createTempFile(tempDir, "body-", ".tmp");
+                Files.write(body, data);
+                when(response.body()).thenReturn(body);
+            }
+            return CompletableFuture.completedFuture(response);
+        });
+    }
+
     // Helper method for type-safe BodyHandler
     @SuppressWarnings("unchecked")
-    private static BodyHandler<byte[]> anyBodyHandler() {
-        return (BodyHandler<byte[]>) any(BodyHandler.class);
+    private static BodyHandler<Path> anyBodyHandler() {
+        return (BodyHandler<Path>) any(BodyHandler.class);
     }
 }
\ No newline at end of file
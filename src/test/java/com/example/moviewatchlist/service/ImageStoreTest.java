@@ -0,0 +1,191 @@
+package com.example.moviewatchlist.service;
+
+import com.example.moviewatchlist.model.StoredImage;
+import com.example.moviewatchlist.repository.MovieRepository;
+import com.example.moviewatchlist.repository.StoredImageRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ImageStore.
+ * Uses a temporary directory for files and Mockito for the repositories.
+ */
+@ExtendWith(MockitoExtension.class)
+class ImageStoreTest {
+
+    @Mock
+    private StoredImageRepository storedImageRepository;
+
+    @Mock
+    private MovieRepository movieRepository;
+
+    @Mock
+    private ImageVariantService imageVariantService;
+
+    @InjectMocks
+    private ImageStore imageStore;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(imageStore, "imagesPath", tempDir.toString());
+    }
+
+    @Test
+    void store_movesFileUnderContentHashAndRecordsTmdbPath() throws Exception {
+        Path download = Files.write(tempDir.resolve("download.tmp"), "image".getBytes());
+        when(storedImageRepository.findByTmdbPath("/poster.jpg")).thenReturn(Optional.empty());
+
+        String localPath = imageStore.store("/poster.jpg", download, ".jpg");
+
+        Path stored = Path.of(localPath);
+        assertTrue(Files.exists(stored));
+        assertFalse(Files.exists(download));
+        assertEquals("6105d6cc76af400325e94d588ce511be5bfdbb73b437dc51eca43917d7a43e3d.jpg", stored.getFileName().toString());
+        verify(storedImageRepository).save(argThat(image ->
+            image.getTmdbPath().equals("/poster.jpg")
+                && image.getFileName().equals(stored.getFileName().toString())
+                && image.getSizeBytes() == 5));
+    }
+
+    @Test
+    void store_discardsDownloadWhenContentAlreadyStored() throws Exception {
+        Path existing = Files.write(tempDir.resolve("6105d6cc76af400325e94d588ce511be5bfdbb73b437dc51eca43917d7a43e3d.jpg"), "image".getBytes());
+        Path download = Files.write(tempDir.resolve("download.tmp"), "image".getBytes());
+        when(storedImageRepository.findByTmdbPath("/other.jpg")).thenReturn(Optional.empty());
+
+        String localPath = imageStore.store("/other.jpg", download, ".jpg");
+
+        assertEquals(existing.toString(), localPath);
+        assertFalse(Files.exists(download));
+    }
+
+    @Test
+    void findLocalPath_returnsPathOnlyIfFileExists() throws Exception {
+        StoredImage image = StoredImage.builder().tmdbPath("/poster.jpg").fileName("abc.jpg").build();
+        when(storedImageRepository.findByTmdbPath("/poster.jpg")).thenReturn(Optional.of(image));
+
+        assertTrue(imageStore.findLocalPath("/poster.jpg").isEmpty());
+
+        Files.write(tempDir.resolve("abc.jpg"), new byte[]{1});
+        assertEquals(Optional.of(tempDir.resolve("abc.jpg").toString()), imageStore.findLocalPath("/poster.jpg"));
+    }
+
+    @Test
+    void release_deletesOnlyUnreferencedImages() throws Exception {
+        Path unreferenced = Files.write(tempDir.resolve("a.jpg"), new byte[]{1});
+        Path referenced = Files.write(tempDir.resolve("b.jpg"), new byte[]{2});
+        StoredImage storedA = StoredImage.builder().tmdbPath("/a.jpg").fileName("a.jpg").build();
+        when(movieRepository.countByImagePath(unreferenced.toString())).thenReturn(0L);
+        when(movieRepository.countByImagePath("/a.jpg")).thenReturn(0L);
+        when(movieRepository.countByImagePath(referenced.toString())).thenReturn(1L);
+        when(storedImageRepository.findByFileName("a.jpg")).thenReturn(List.of(storedA));
+
+        imageStore.release(List.of(unreferenced.toString(), referenced.toString()));
+
+        assertFalse(Files.exists(unreferenced));
+        assertTrue(Files.exists(referenced));
+        verify(storedImageRepository).deleteAll(List.of(storedA));
+        verify(imageVariantService).deleteVariants("a.jpg");
+        verify(imageVariantService, never()).deleteVariants("b.jpg");
+    }
+
+    @Test
+    void release_resolvesTmdbPathsOfLazilyFetchedImages() throws Exception {
+        Path file = Files.write(tempDir.resolve("a.jpg"), new byte[]{1});
+        StoredImage storedA = StoredImage.builder().tmdbPath("/a.jpg").fileName("a.jpg").build();
+        when(storedImageRepository.findByTmdbPath("/a.jpg")).thenReturn(Optional.of(storedA));
+        when(storedImageRepository.findByFileName("a.jpg")).thenReturn(List.of(storedA));
+
+        imageStore.release(List.of("/a.jpg", "/never-stored.jpg"));
+
+        assertFalse(Files.exists(file));
+        verify(storedImageRepository).deleteAll(List.of(storedA));
+    }
+
+    @Test
+    void release_keepsImageReservedByMovieBeingAdded() throws Exception {
+        Path file = Files.write(tempDir.resolve("a.jpg"), new byte[]{1});
+        StoredImage storedA = StoredImage.builder().tmdbPath("/a.jpg").fileName("a.jpg").build();
+        when(storedImageRepository.findByFileName("a.jpg")).thenReturn(List.of(storedA));
+
+        imageStore.reserve(List.of("/a.jpg"));
+        imageStore.reserve(List.of("/a.jpg"));
+        imageStore.release(List.of(file.toString()));
+        assertTrue(Files.exists(file));
+
+        imageStore.unreserve(List.of("/a.jpg"));
+        assertTrue(imageStore.isReserved("/a.jpg"));
+        imageStore.unreserve(List.of("/a.jpg"));
+        assertFalse(imageStore.isReserved("/a.jpg"));
+
+        imageStore.release(List.of(file.toString()));
+        assertFalse(Files.exists(file));
+        verify(storedImageRepository).deleteAll(List.of(storedA));
+    }
+
+    @Test
+    void referenceCount_countsLocalAndTmdbPathReferences() {
+        Path localPath = tempDir.resolve("a.jpg");
+        StoredImage storedA = StoredImage.builder().tmdbPath("/a.jpg").fileName("a.jpg").build();
+        when(movieRepository.countByImagePath(localPath.toString())).thenReturn(2L);
+        when(movieRepository.countByImagePath("/a.jpg")).thenReturn(1L);
+        when(storedImageRepository.findByFileName("a.jpg")).thenReturn(List.of(storedA));
+
+        assertEquals(3, imageStore.referenceCount(localPath.toString()));
+        verify(storedImageRepository, never()).save(any());
+    }
+
+    @Test
+    void referencedFileNames_collectsLocalTmdbAndReservedReferencesWithTwoQueries() {
+        imageStore.reserve(List.of("/reserved.jpg"));
+        when(movieRepository.findAllImagePaths())
+            .thenReturn(List.of(tempDir.resolve("local.jpg").toString(), "/lazy.jpg"));
+        when(storedImageRepository.findAllTmdbPathsAndFileNames()).thenReturn(List.of(
+            new Object[]{"/lazy.jpg", "lazy.jpg"},
+            new Object[]{"/reserved.jpg", "reserved.jpg"},
+            new Object[]{"/orphan.jpg", "orphan.jpg"}));
+
+        assertEquals(Set.of("local.jpg", "lazy.jpg", "reserved.jpg"), imageStore.referencedFileNames());
+        verify(movieRepository, never()).countByImagePath(any());
+        verify(storedImageRepository, never()).findByFileName(any());
+    }
+
+    @Test
+    void evict_deletesFileAndVariantsButKeepsStoreEntries() throws Exception {
+        Path file = Files.write(tempDir.resolve("a.jpg"), new byte[]{1});
+
+        imageStore.evict(file.toString());
+
+        assertFalse(Files.exists(file));
+        verify(imageVariantService).deleteVariants("a.jpg");
+        verify(storedImageRepository, never()).deleteAll(any());
+    }
+
+    @Test
+    void findTmdbPath_returnsPathStoredInFile() {
+        StoredImage storedA = StoredImage.builder().tmdbPath("/a.jpg").fileName("a.jpg").build();
+        when(storedImageRepository.findByFileName("a.jpg")).thenReturn(List.of(storedA));
+
+        assertEquals(Optional.of("/a.jpg"), imageStore.findTmdbPath("a.jpg"));
+        assertTrue(imageStore.findTmdbPath("b.jpg").isEmpty());
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.moviewatchlist.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ImageVariantService.
+ * Generates real images in a temporary directory and checks the produced variants.
+ */
+class ImageVariantServiceTest {
+
+    private ImageVariantService imageVariantService;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        imageVariantService = new ImageVariantService();
+        ReflectionTestUtils.setField(imageVariantService, "imagesPath", tempDir.toString());
+    }
+
+    private Path writeImage(String fileName, int width, int height, String format) throws Exception {
+        Path file = tempDir.resolve(fileName);
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), format, file.toFile());
+        return file;
+    }
+
+    @Test
+    void getVariant_scalesJpegToThumbWidthKeepingAspectRatio() throws Exception {
+        Path original = writeImage("abc.jpg", 780, 1170, "jpg");
+
+        Path variant = imageVariantService.getVariant(original, ImageVariantService.Size.THUMB);
+
+        assertEquals(tempDir.resolve("variants").resolve("abc_thumb.jpg"), variant);
+        BufferedImage image = ImageIO.read(variant.toFile());
+        assertEquals(185, image.getWidth());
+        assertEquals(278, image.getHeight());
+        assertTrue(Files.size(variant) < Files.size(original));
+    }
+
+    @Test
+    void getVariant_reusesExistingVariant() throws Exception {
+        Path original = writeImage("abc.png", 780, 439, "png");
+        Path first = imageVariantService.getVariant(original, ImageVariantService.Size.MEDIUM);
+        long modified = Files.getLastModifiedTime(first).toMillis();
+
+        Files.delete(original);
+        Path second = imageVariantService.getVariant(original, ImageVariantService.Size.MEDIUM);
+
+        assertEquals(first, second);
+        assertEquals(modified, Files.getLastModifiedTime(second).toMillis());
+        assertEquals(342, ImageIO.read(second.toFile()).getWidth());
+    }
+
+    @Test
+    void getVariant_returnsOriginalWhenAlreadySmall() throws Exception {
+        Path original = writeImage("small.jpg", 100, 150, "jpg");
+
+        assertEquals(original, imageVariantService.getVariant(original, ImageVariantService.Size.THUMB));
+        assertFalse(Files.exists(tempDir.resolve("variants")));
+    }
+
+    @Test
+    void getVariant_returnsOriginalForUnsupportedOrUndecodableFiles() throws Exception {
+        Path webp = Files.write(tempDir.resolve("abc.webp"), new byte[]{1, 2, 3});
+        Path broken = Files.write(tempDir.resolve("broken.jpg"), new byte[]{1, 2, 3});
+
+        assertEquals(webp, imageVariantService.getVariant(webp, ImageVariantService.Size.THUMB));
+        assertEquals(broken, imageVariantService.getVariant(broken, ImageVariantService.Size.THUMB));
+    }
+
+    @Test
+    void deleteVariants_removesAllSizes() throws Exception {
+        Path original = writeImage("abc.jpg", 780, 1170, "jpg");
+        Path thumb = imageVariantService.getVariant(original, ImageVariantService.Size.THUMB);
+        Path medium = imageVariantService.getVariant(original, ImageVariantService.Size.MEDIUM);
+
+        imageVariantService.deleteVariants("abc.jpg");
+
+        assertFalse(Files.exists(thumb));
+        assertFalse(Files.exists(medium));
+        assertTrue(Files.exists(original));
+    }
+
+    @Test
+    void sizeFromParameter_parsesKnownSizesOnly() {
+        assertEquals(Optional.of(ImageVariantService.Size.THUMB), ImageVariantService.Size.fromParameter("thumb"));
+        assertEquals(Optional.of(ImageVariantService.Size.MEDIUM), ImageVariantService.Size.fromParameter(" Medium "));
+        assertTrue(ImageVariantService.Size.fromParameter("huge").isEmpty());
+        assertTrue(ImageVariantService.Size.fromParameter(null).isEmpty());
+    }
+}
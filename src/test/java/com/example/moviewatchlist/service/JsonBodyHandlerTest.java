@@ -0,0 +1,105 @@
+package com.example.moviewatchlist.service;
+
+import com.example.moviewatchlist.dto.OMDbResponse;
+import com.example.moviewatchlist.dto.TMDbSearchResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonBodyHandlerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /** Feeds a body to a fresh subscriber in chunks of the given size, as the HTTP client would. */
+    private static JsonBody feed(JsonBodyHandler handler, String json, int chunkSize) {
+        HttpResponse.BodySubscriber<JsonBody> subscriber = handler.apply(null);
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        for (int start = 0; start < bytes.length; start += chunkSize) {
+            int end = Math.min(bytes.length, start + chunkSize);
+            subscriber.onNext(List.of(ByteBuffer.wrap(bytes, start, end - start)));
+        }
+        subscriber.onComplete();
+        return subscriber.getBody().toCompletableFuture().join();
+    }
+
+    private static String searchJson(int results) {
+        List<String> movies = new ArrayList<>();
+        for (int i = 1; i <= results; i++) {
+            movies.add("{\"adult\":false,\"genre_ids\":[18,80],\"id\":" + i + ",\"title\":\"Movie " + i
+                + "\",\"overview\":\"Plot " + i + "\",\"popularity\":1.5,\"vote_average\":7.5,"
+                + "\"release_date\":\"2010-07-16\",\"poster_path\":\"/p" + i + ".jpg\",\"video\":false}");
+        }
+        return "{\"page\":1,\"results\":[" + String.join(",", movies) + "],\"total_pages\":2,\"total_results\":"
+            + (results + 20) + "}";
+    }
+
+    @Test
+    void parsesBodySplitAcrossChunks() throws IOException {
+        String json = "{\"Title\":\"Inception\",\"Year\":\"2010\",\"Plot\":\"A thief who steals \\u00e9 secrets\","
+            + "\"Response\":\"True\"}";
+
+        for (int chunkSize : new int[] {1, 3, 7, json.length()}) {
+            JsonBody body = feed(JsonBodyHandler.create(), json, chunkSize);
+            OMDbResponse response = body.read(objectMapper, OMDbResponse.class);
+
+            assertEquals("Inception", response.getTitle());
+            assertEquals("A thief who steals é secrets", response.getPlot());
+            assertEquals(json.length(), body.size());
+        }
+    }
+
+    @Test
+    void limitsArrayElementsAndFieldsButKeepsLaterFields() throws IOException {
+        JsonBodyHandler handler = JsonBodyHandler.limitingArray("results", 10, Set.of("id", "title", "poster_path"));
+        String json = searchJson(25);
+
+        JsonBody body = feed(handler, json, 5);
+        TMDbSearchResponse response = body.read(objectMapper, TMDbSearchResponse.class);
+        JsonNode tree = body.read(objectMapper, JsonNode.class);
+
+        assertEquals(10, response.getResults().size());
+        assertEquals("Movie 10", response.getResults().get(9).getTitle());
+        assertEquals("/p1.jpg", response.getResults().get(0).getPosterPath());
+        assertNull(response.getResults().get(0).getOverview(), "fields not listed are skipped");
+        assertEquals(45, response.getTotalResults());
+        assertFalse(tree.get("results").get(0).has("genre_ids"));
+        assertEquals(2, tree.get("total_pages").asInt());
+        assertEquals(json.length(), body.size());
+    }
+
+    @Test
+    void keepsEverythingWithoutLimit() throws IOException {
+        JsonBody body = JsonBodyHandler.create().parse(searchJson(25).getBytes(StandardCharsets.UTF_8));
+
+        TMDbSearchResponse response = body.read(objectMapper, TMDbSearchResponse.class);
+
+        assertEquals(25, response.getResults().size());
+        assertEquals("Plot 25", response.getResults().get(24).getOverview());
+    }
+
+    @Test
+    void reportsInvalidJsonWhenRead() {
+        JsonBody body = feed(JsonBodyHandler.create(), "{ invalid json }", 4);
+
+        assertThrows(IOException.class, () -> body.read(objectMapper, OMDbResponse.class));
+        assertEquals(16, body.size());
+    }
+
+    @Test
+    void reportsEmptyBodyWhenRead() {
+        JsonBody body = JsonBodyHandler.create().parse(new byte[0]);
+
+        assertThrows(IOException.class, () -> body.read(objectMapper, OMDbResponse.class));
+        assertEquals(0, body.size());
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.moviewatchlist.service;
+
+import com.example.moviewatchlist.dto.CursorPage;
+import com.example.moviewatchlist.dto.MovieResponse;
+import com.example.moviewatchlist.dto.PaginatedResponse;
+import com.example.moviewatchlist.model.Movie;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Counts the SQL statements of the MovieService read paths against a real database,
+ * so that loading the image paths and similar movies of each movie cannot regress to N+1 queries
+ * and the summary listing keeps reading no entities.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(MovieService.class)
+class MovieServiceQueryCountTest {
+
+    private static final int MOVIES = 100;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MovieService movieService;
+
+    @MockitoBean
+    private OMDbService omdbService;
+
+    @MockitoBean
+    private TMDbService tmdbService;
+
+    @MockitoBean
+    private ImageDownloadService imageDownloadService;
+
+    @MockitoBean
+    private ImageStore imageStore;
+
+    private Statistics statistics;
+    private Long firstId;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < MOVIES; i++) {
+            Movie movie = Movie.builder()
+                .title("Movie " + i)
+                .releaseYear("2000")
+                .imagePaths(new ArrayList<>(List.of("poster-" + i + ".jpg", "backdrop-" + i + ".jpg")))
+                .similarMovies(new ArrayList<>(List.of("Similar " + i)))
+                .build();
+            Movie saved = entityManager.persist(movie);
+            if (firstId == null) {
+                firstId = saved.getId();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void getMovies_loadsPageWithConstantStatementCount() {
+        PaginatedResponse<MovieResponse> page = movieService.getMovies(0, MOVIES);
+
+        assertEquals(MOVIES, page.getContent().size());
+        assertEquals(MOVIES, page.getTotalElements());
+        assertAllCollectionsLoaded(page.getContent());
+        // movies, count, image paths, similar movies
+        assertEquals(4, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getMoviesAfter_loadsPageWithConstantStatementCount() {
+        CursorPage<MovieResponse> page = movieService.getMoviesAfter(null, MOVIES);
+
+        assertEquals(MOVIES, page.getContent().size());
+        assertFalse(page.isHasNext());
+        assertAllCollectionsLoaded(page.getContent());
+        // movies, image paths, similar movies
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getMovieById_loadsCollectionsWithoutPerElementQueries() {
+        Optional<MovieResponse> movie = movieService.getMovieById(firstId);
+
+        assertTrue(movie.isPresent());
+        assertEquals(List.of("poster-0.jpg", "backdrop-0.jpg"), movie.get().getImagePaths());
+        assertEquals(List.of("Similar 0"), movie.get().getSimilarMovies());
+        // movie, image paths, similar movies
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getMovieSummaries_loadsPageWithConstantStatementCount() {
+        PaginatedResponse<Map<String, Object>> page = movieService.getMovieSummaries(0, MOVIES, null);
+
+        assertEquals(MOVIES, page.getContent().size());
+        assertEquals("poster-0.jpg", page.getContent().get(0).get("poster"));
+        // summaries, count, image paths
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(0, statistics.getCollectionLoadCount());
+    }
+
+    @Test
+    void getMovieSummariesAfter_withoutPosterNeedsOneStatement() {
+        CursorPage<Map<String, Object>> page = movieService.getMovieSummariesAfter(null, MOVIES, "id,title");
+
+        assertEquals(MOVIES, page.getContent().size());
+        assertEquals("Movie 0", page.getContent().get(0).get("title"));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void responsesHoldPlainListsUsableOutsideTheSession() {
+        List<MovieResponse> content = movieService.getMovies(0, 10).getContent();
+        entityManager.clear();
+
+        assertEquals(ArrayList.class, content.get(0).getImagePaths().getClass());
+        assertEquals(ArrayList.class, content.get(0).getSimilarMovies().getClass());
+        assertEquals(2, content.get(9).getImagePaths().size());
+    }
+
+    private void assertAllCollectionsLoaded(List<MovieResponse> movies) {
+        for (MovieResponse movie : movies) {
+            assertEquals(2, movie.getImagePaths().size());
+            assertEquals(1, movie.getSimilarMovies().size());
+        }
+    }
+}
@@ -4,18 +4,23 @@ import com.example.moviewatchlist.dto.*;
 import com.example.moviewatchlist.model.Movie;
 import com.example.moviewatchlist.repository.MovieRepository;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.io.IOException;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -23,6 +28,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -47,6 +53,9 @@ public class MovieServiceTest {
     @Mock
     private ImageDownloadService imageDownloadService;
 
+    @Mock
+    private ImageStore imageStore;
+
     @InjectMocks
     private MovieService movieService;
 
@@ -95,16 +104,14 @@ public class MovieServiceTest {
     void testAddMovieToWatchlist_Success() {
         // Given
         String movieTitle = "Inception";
-        when(omdbService.getMovieData(movieTitle))
+        when(omdbService.getMovieData(eq(movieTitle), any(Deadline.class)))
             .thenReturn(CompletableFuture.completedFuture(omdbResponse));
         when(movieRepository.existsByTitleAndReleaseYear("Inception", "2010"))
             .thenReturn(false);
-        when(tmdbService.searchMovie(movieTitle))
+        when(tmdbService.searchMovie(eq(movieTitle), any(Deadline.class)))
             .thenReturn(CompletableFuture.completedFuture(tmdbSearchResponse));
-        when(tmdbService.getMovieImages(27205))
-            .thenReturn(CompletableFuture.completedFuture(new TMDbImagesResponse()));
-        when(tmdbService.getSimilarMovies(27205))
-            .thenReturn(CompletableFuture.completedFuture(new TMDbSimilarResponse()));
+        when(tmdbService.getMovieDetails(eq(27205), any(Deadline.class)))
+            .thenReturn(CompletableFuture.completedFuture(new TMDbMovieDetailsResponse()));
         when(movieRepository.save(any(Movie.class)))
             .thenReturn(testMovie);
 
@@ -120,6 +127,134 @@ public class MovieServiceTest {
         verify(movieRepository).save(any(Movie.class));
     }
 
+    /**
+     * Tests that an open TMDb circuit degrades to saving the OMDb-only movie.
+     */
+    @Test
+    void testAddMovieToWatchlist_savesOmdbOnlyMovieWhenTmdbUnavailable() {
+        String movieTitle = "Inception";
+        when(omdbService.getMovieData(eq(movieTitle), any(Deadline.class)))
+            .thenReturn(CompletableFuture.completedFuture(omdbResponse));
+        when(movieRepository.existsByTitleAndReleaseYear("Inception", "2010")).thenReturn(false);
+        when(tmdbService.searchMovie(eq(movieTitle), any(Deadline.class)))
+            .thenReturn(CompletableFuture.failedFuture(new UpstreamUnavailableException("tmdb circuit is open")));
+        when(movieRepository.save(any(Movie.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Movie savedMovie = movieService.addMovieToWatchlist(movieTitle).join();
+
+        assertEquals("Inception", savedMovie.getTitle());
+        assertNull(savedMovie.getTmdbId());
+        verify(tmdbService, never()).getMovieDetails(any(), any());
+    }
+
+    /**
+     * Tests that an unavailable TMDb does not save the OMDb-only movie once the deadline has passed,
+     * since the client has already been told that adding it timed out.
+     */
+    @Test
+    void testAddMovieToWatchlist_savesNothingWhenTmdbUnavailableAfterDeadline() {
+        String movieTitle = "Inception";
+        when(omdbService.getMovieData(eq(movieTitle), any(Deadline.class)))
+            .thenReturn(CompletableFuture.completedFuture(omdbResponse));
+        when(movieRepository.existsByTitleAndReleaseYear("Inception", "2010")).thenReturn(false);
+        when(tmdbService.searchMovie(eq(movieTitle), any(Deadline.class)))
+            .thenReturn(CompletableFuture.failedFuture(new UpstreamUnavailableException("tmdb deadline exceeded")));
+
+        CompletableFuture<Movie> result = movieService.addMovieToWatchlist(movieTitle, Deadline.after(Duration.ZERO));
+
+        CompletionException thrown = assertThrows(CompletionException.class, result::join);
+        assertInstanceOf(TimeoutException.class, thrown.getCause());
+        assertEquals(MovieService.ADD_TIMED_OUT, thrown.getCause().getMessage());
+        verify(movieRepository, never()).save(any(Movie.class));
+    }
+
+    /**
+     * Tests that a TMDb details call rejected by the guard still saves the movie with the search data.
+     */
+    @Test
+    void testAddMovieToWatchlist_savesSearchDataWhenTmdbDetailsUnavailable() {
+        String movieTitle = "Inception";
+        when(omdbService.getMovieData(eq(movieTitle), any(Deadline.class)))
+            .thenReturn(CompletableFuture.completedFuture(omdbResponse));
+        when(movieRepository.existsByTitleAndReleaseYear("Inception", "2010")).thenReturn(false);
+        when(tmdbService.searchMovie(eq(movieTitle), any(Deadline.class)))
+            .thenReturn(CompletableFuture.completedFuture(tmdbSearchResponse));
+        when(tmdbService.getMovieDetails(eq(27205), any(Deadline.class)))
+            .thenReturn(CompletableFuture.failedFuture(new UpstreamUnavailableException("tmdb has too many requests in flight")));
+        when(movieRepository.save(any(Movie.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Movie savedMovie = movieService.addMovieToWatchlist(movieTitle).join();
+
+        assertEquals(27205, savedMovie.getTmdbId());
+        verifyNoInteractions(imageDownloadService);
+    }
+
+    /**
+     * Tests that other TMDb failures are still reported instead of degrading.
+     */
+    @Test
+    void testAddMovieToWatchlist_propagatesOtherTmdbFailures() {
+        String movieTitle = "Inception";
+        when(omdbService.getMovieData(eq(movieTitle), any(Deadline.class)))
+            .thenReturn(CompletableFuture.completedFuture(omdbResponse));
+        when(movieRepository.existsByTitleAndReleaseYear("Inception", "2010")).thenReturn(false);
+        when(tmdbService.searchMovie(eq(movieTitle), any(Deadline.class)))
+            .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Failed to parse TMDb search response")));
+
+        CompletionException ex = assertThrows(CompletionException.class,
+            () -> movieService.addMovieToWatchlist(movieTitle).join());
+        assertEquals("Failed to parse TMDb search response", ex.getCause().getMessage());
+        verify(movieRepository, never()).save(any());
+    }
+
+    /**
+     * Tests that a successful addition records the whole pipeline and each stage it went through.
+     */
+    @Test
+    void testAddMovieToWatchlist_timesEachStage() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        movieService.getAddMovieMetrics().bindTo(registry);
+        String movieTitle = "Inception";
+        when(omdbService.getMovieData(eq(movieTitle), any(Deadline.class)))
+            .thenReturn(CompletableFuture.completedFuture(omdbResponse));
+        when(movieRepository.existsByTitleAndReleaseYear("Inception", "2010")).thenReturn(false);
+        when(tmdbService.searchMovie(eq(movieTitle), any(Deadline.class)))
+            .thenReturn(CompletableFuture.completedFuture(tmdbSearchResponse));
+        when(tmdbService.getMovieDetails(eq(27205), any(Deadline.class)))
+            .thenReturn(CompletableFuture.completedFuture(new TMDbMovieDetailsResponse()));
+        when(movieRepository.save(any(Movie.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        movieService.addMovieToWatchlist(movieTitle).join();
+
+        assertEquals(1, registry.get("movie.add").tag("outcome", "success").timer().count());
+        for (String stage : List.of(AddMovieMetrics.OMDB_FETCH, AddMovieMetrics.TMDB_SEARCH,
+                AddMovieMetrics.DUPLICATE_CHECK, AddMovieMetrics.TMDB_DETAILS, AddMovieMetrics.REPOSITORY_SAVE)) {
+            assertEquals(1, registry.get("movie.add.stage").tags("stage", stage, "outcome", "success").timer().count(),
+                stage);
+        }
+        assertNull(registry.find("movie.add.stage").tag("stage", AddMovieMetrics.IMAGE_DOWNLOAD).timer());
+    }
+
+    /**
+     * Tests that a duplicate is counted as a failure with its own reason.
+     */
+    @Test
+    void testAddMovieToWatchlist_countsFailureReason() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        movieService.getAddMovieMetrics().bindTo(registry);
+        String movieTitle = "Inception";
+        when(omdbService.getMovieData(eq(movieTitle), any(Deadline.class)))
+            .thenReturn(CompletableFuture.completedFuture(omdbResponse));
+        when(tmdbService.searchMovie(eq(movieTitle), any(Deadline.class)))
+            .thenReturn(CompletableFuture.completedFuture(tmdbSearchResponse));
+        when(movieRepository.existsByTitleAndReleaseYear("Inception", "2010")).thenReturn(true);
+
+        assertThrows(CompletionException.class, () -> movieService.addMovieToWatchlist(movieTitle).join());
+
+        assertEquals(1, registry.get("movie.add.failures").tag("reason", "duplicate").counter().count());
+        assertEquals(1, registry.get("movie.add").tag("outcome", "failure").timer().count());
+    }
+
     @Test
     void testAddMovieToWatchlist_MovieNotFound() {
         // Given
@@ -128,13 +263,16 @@ public class MovieServiceTest {
         errorResponse.setResponse("False");
         errorResponse.setError("Movie not found!");
         
-        when(omdbService.getMovieData(movieTitle))
+        when(omdbService.getMovieData(eq(movieTitle), any(Deadline.class)))
             .thenReturn(CompletableFuture.completedFuture(errorResponse));
+        when(tmdbService.searchMovie(eq(movieTitle), any(Deadline.class)))
+            .thenReturn(CompletableFuture.completedFuture(tmdbSearchResponse));
 
         // When & Then
         CompletableFuture<Movie> result = movieService.addMovieToWatchlist(movieTitle);
         
-        assertThrows(RuntimeException.class, () -> result.join());
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> result.join());
+        assertTrue(exception.getMessage().contains("Movie not found"));
         verify(movieRepository, never()).save(any(Movie.class));
     }
 
@@ -142,8 +280,10 @@ public class MovieServiceTest {
     void testAddMovieToWatchlist_AlreadyExists() {
         // Given
         String movieTitle = "Inception";
-        when(omdbService.getMovieData(movieTitle))
+        when(omdbService.getMovieData(eq(movieTitle), any(Deadline.class)))
             .thenReturn(CompletableFuture.completedFuture(omdbResponse));
+        when(tmdbService.searchMovie(eq(movieTitle), any(Deadline.class)))
+            .thenReturn(CompletableFuture.completedFuture(tmdbSearchResponse));
         when(movieRepository.existsByTitleAndReleaseYear("Inception", "2010"))
             .thenReturn(true);
 
@@ -155,6 +295,58 @@ public class MovieServiceTest {
         verify(movieRepository, never()).save(any(Movie.class));
     }
 
+    /**
+     * Tests that the TMDb search still running is cancelled when OMDb does not know the title.
+     */
+    @Test
+    void testAddMovieToWatchlist_MovieNotFoundCancelsTmdbSearch() {
+        String movieTitle = "NonExistentMovie";
+        OMDbResponse errorResponse = new OMDbResponse();
+        errorResponse.setResponse("False");
+        errorResponse.setError("Movie not found!");
+        CompletableFuture<TMDbSearchResponse> search = new CompletableFuture<>();
+        when(omdbService.getMovieData(eq(movieTitle), any(Deadline.class)))
+            .thenReturn(CompletableFuture.completedFuture(errorResponse));
+        when(tmdbService.searchMovie(eq(movieTitle), any(Deadline.class))).thenReturn(search);
+
+        assertThrows(CompletionException.class, () -> movieService.addMovieToWatchlist(movieTitle).join());
+
+        assertTrue(search.isCancelled());
+    }
+
+    /**
+     * Tests that the TMDb search still running is cancelled when the movie is already in the watchlist.
+     */
+    @Test
+    void testAddMovieToWatchlist_AlreadyExistsCancelsTmdbSearch() {
+        String movieTitle = "Inception";
+        CompletableFuture<TMDbSearchResponse> search = new CompletableFuture<>();
+        when(omdbService.getMovieData(eq(movieTitle), any(Deadline.class)))
+            .thenReturn(CompletableFuture.completedFuture(omdbResponse));
+        when(tmdbService.searchMovie(eq(movieTitle), any(Deadline.class))).thenReturn(search);
+        when(movieRepository.existsByTitleAndReleaseYear("Inception", "2010")).thenReturn(true);
+
+        assertThrows(CompletionException.class, () -> movieService.addMovieToWatchlist(movieTitle).join());
+
+        assertTrue(search.isCancelled());
+    }
+
+    /**
+     * Tests that the TMDb search still running is cancelled when the OMDb lookup fails.
+     */
+    @Test
+    void testAddMovieToWatchlist_OmdbFailureCancelsTmdbSearch() {
+        String movieTitle = "Inception";
+        CompletableFuture<TMDbSearchResponse> search = new CompletableFuture<>();
+        when(omdbService.getMovieData(eq(movieTitle), any(Deadline.class)))
+            .thenReturn(CompletableFuture.failedFuture(new IOException("connection reset")));
+        when(tmdbService.searchMovie(eq(movieTitle), any(Deadline.class))).thenReturn(search);
+
+        assertThrows(CompletionException.class, () -> movieService.addMovieToWatchlist(movieTitle).join());
+
+        assertTrue(search.isCancelled());
+    }
+
     @Test
     void testGetMovies() {
         // Given
@@ -229,7 +421,7 @@ public class MovieServiceTest {
     @Test
     void testDeleteMovie_Success() {
         // Given
-        when(movieRepository.existsById(1L)).thenReturn(true);
+        when(movieRepository.findById(1L)).thenReturn(Optional.of(testMovie));
 
         // When
         boolean result = movieService.deleteMovie(1L);
@@ -237,12 +429,24 @@ public class MovieServiceTest {
         // Then
         assertTrue(result);
         verify(movieRepository).deleteById(1L);
+        verify(imageStore, never()).release(anyList());
+    }
+
+    @Test
+    void deleteMovie_releasesImagesOfDeletedMovie() {
+        testMovie.setImagePaths(List.of("./movie-images/a.jpg", "./movie-images/b.jpg"));
+        when(movieRepository.findById(1L)).thenReturn(Optional.of(testMovie));
+
+        assertTrue(movieService.deleteMovie(1L));
+
+        verify(movieRepository).deleteById(1L);
+        verify(imageStore).release(List.of("./movie-images/a.jpg", "./movie-images/b.jpg"));
     }
 
     @Test
     void testDeleteMovie_NotFound() {
         // Given
-        when(movieRepository.existsById(999L)).thenReturn(false);
+        when(movieRepository.findById(999L)).thenReturn(Optional.empty());
 
         // When
         boolean result = movieService.deleteMovie(999L);
@@ -303,7 +507,7 @@ public class MovieServiceTest {
 
     @Test
     void addMovieToWatchlist_throwsExceptionIfOmdbFutureIsNull() {
-        when(omdbService.getMovieData(anyString())).thenReturn(null);
+        when(omdbService.getMovieData(anyString(), any(Deadline.class))).thenReturn(null);
         CompletionException ex = assertThrows(CompletionException.class, () -> movieService.addMovieToWatchlist("Some Movie").join());
         assertTrue(ex.getCause() instanceof NullPointerException);
     }
@@ -388,15 +592,13 @@ public class MovieServiceTest {
     }
 
     @Test
-    void enrichMovieWithTmdbData_throwsExceptionIfTmdbFutureIsNull() {
-        Movie movie = new Movie();
-        String title = "Some Movie";
-        when(tmdbService.searchMovie(anyString())).thenReturn(null);
+    void addMovieToWatchlist_throwsExceptionIfTmdbFutureIsNull() {
+        when(omdbService.getMovieData(anyString(), any(Deadline.class)))
+            .thenReturn(CompletableFuture.completedFuture(omdbResponse));
+        when(tmdbService.searchMovie(anyString(), any(Deadline.class))).thenReturn(null);
 
-        CompletableFuture<Movie> result = ReflectionTestUtils.invokeMethod(
-            movieService, "enrichMovieWithTmdbData", movie, title);
+        CompletableFuture<Movie> result = movieService.addMovieToWatchlist("Some Movie");
 
-        assertNotNull(result, "ReflectionTestUtils.invokeMethod returned null");
         CompletionException ex = assertThrows(CompletionException.class, result::join);
         assertTrue(ex.getCause() instanceof NullPointerException);
         assertEquals("TMDbService.searchMovie returned null", ex.getCause().getMessage());
@@ -405,21 +607,19 @@ public class MovieServiceTest {
     @Test
     void enrichMovieWithTmdbData_savesMovieIfTmdbResultsEmpty() {
         Movie movie = new Movie();
-        String title = "Some Movie";
 
         // TMDb returns empty results
         TMDbSearchResponse tmdbResponse = new TMDbSearchResponse();
         tmdbResponse.setResults(new java.util.ArrayList<>());
 
         CompletableFuture<TMDbSearchResponse> tmdbFuture = CompletableFuture.completedFuture(tmdbResponse);
-        when(tmdbService.searchMovie(anyString())).thenReturn(tmdbFuture);
 
         Movie savedMovie = new Movie();
         when(movieRepository.save(any(Movie.class))).thenReturn(savedMovie);
 
         // Use reflection to call the private method
         CompletableFuture<Movie> result = ReflectionTestUtils.invokeMethod(
-            movieService, "enrichMovieWithTmdbData", movie, title);
+            movieService, "enrichMovieWithTmdbData", movie, tmdbFuture, Deadline.none());
 
         assertNotNull(result, "ReflectionTestUtils.invokeMethod returned null");
         assertSame(savedMovie, result.join());
@@ -440,18 +640,38 @@ public class MovieServiceTest {
         doReturn(imagePaths).when(spyService).extractImagePaths(imagesResponse);
 
         Movie savedMovie = new Movie();
-        when(imageDownloadService.downloadImages(anyList(), any())).thenReturn(CompletableFuture.completedFuture(imagePaths));
+        when(imageDownloadService.downloadImages(anyList(), any(), any(), any(Deadline.class))).thenReturn(CompletableFuture.completedFuture(imagePaths));
         when(movieRepository.save(any(Movie.class))).thenReturn(savedMovie);
 
         CompletableFuture<Movie> result = ReflectionTestUtils.invokeMethod(
-            spyService, "processAdditionalData", movie, imagesResponse, similarResponse);
+            spyService, "processAdditionalData", movie, imagesResponse, similarResponse, Deadline.none());
 
         assertNotNull(result);
         assertSame(savedMovie, result.join());
-        verify(imageDownloadService).downloadImages(anyList(), any());
+        verify(imageDownloadService).downloadImages(anyList(), any(), any(), any(Deadline.class));
         verify(movieRepository).save(movie);
     }
 
+    @Test
+    void processAdditionalData_storesTmdbPathsWithoutDownloadInLazyMode() {
+        Movie movie = new Movie();
+        TMDbImagesResponse imagesResponse = mock(TMDbImagesResponse.class);
+        TMDbSimilarResponse similarResponse = mock(TMDbSimilarResponse.class);
+        List<String> imagePaths = List.of("/poster1.jpg", "/backdrop1.jpg");
+
+        ReflectionTestUtils.setField(movieService, "imageFetchMode", "lazy");
+        MovieService spyService = spy(movieService);
+        doReturn(imagePaths).when(spyService).extractImagePaths(imagesResponse);
+        when(movieRepository.save(any(Movie.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        CompletableFuture<Movie> result = ReflectionTestUtils.invokeMethod(
+            spyService, "processAdditionalData", movie, imagesResponse, similarResponse, Deadline.none());
+
+        assertNotNull(result);
+        assertEquals(imagePaths, result.join().getImagePaths());
+        verifyNoInteractions(imageDownloadService);
+    }
+
     @Test
     void extractSimilarMovieTitles_returnsEmptyListIfResultsNull() {
         TMDbSimilarResponse similarResponse = mock(TMDbSimilarResponse.class);
@@ -546,22 +766,158 @@ public class MovieServiceTest {
     void downloadAndSaveImages_setsImagePathsAndSavesMovie() {
         Movie movie = new Movie();
         movie.setTitle("Test Movie");
+        movie.setTmdbId(27205);
         List<String> imagePaths = List.of("/img1.jpg", "/img2.jpg");
         List<String> downloadedPaths = List.of("/local/img1.jpg", "/local/img2.jpg");
 
-        when(imageDownloadService.downloadImages(imagePaths, "Test Movie"))
+        when(imageDownloadService.downloadImages(imagePaths, "Test Movie", 27205, Deadline.none()))
             .thenReturn(CompletableFuture.completedFuture(downloadedPaths));
 
         Movie savedMovie = new Movie();
         when(movieRepository.save(any(Movie.class))).thenReturn(savedMovie);
 
         CompletableFuture<Movie> result = ReflectionTestUtils.invokeMethod(
-            movieService, "downloadAndSaveImages", movie, imagePaths);
+            movieService, "downloadAndSaveImages", movie, imagePaths, Deadline.none());
 
         assertNotNull(result);
         assertSame(savedMovie, result.join());
         assertEquals(downloadedPaths, movie.getImagePaths());
-        verify(movieRepository).save(movie);
+        InOrder inOrder = inOrder(imageStore, movieRepository);
+        inOrder.verify(imageStore).reserve(imagePaths);
+        inOrder.verify(movieRepository).save(movie);
+        inOrder.verify(imageStore).unreserve(imagePaths);
+    }
+
+    @Test
+    void downloadAndSaveImages_boundsDownloadsByDeadlineAndSavesNothingAfterIt() {
+        Movie movie = new Movie();
+        List<String> imagePaths = List.of("/img1.jpg");
+        Deadline deadline = Deadline.after(Duration.ZERO);
+        when(imageDownloadService.downloadImages(imagePaths, null, null, deadline))
+            .thenReturn(CompletableFuture.completedFuture(List.of("/local/img1.jpg")));
+
+        CompletableFuture<Movie> result = ReflectionTestUtils.invokeMethod(
+            movieService, "downloadAndSaveImages", movie, imagePaths, deadline);
+
+        CompletionException thrown = assertThrows(CompletionException.class, result::join);
+        assertInstanceOf(TimeoutException.class, thrown.getCause());
+        verify(movieRepository, never()).save(any(Movie.class));
+        verify(imageStore).unreserve(imagePaths);
+    }
+
+    @Test
+    void downloadAndSaveImages_unreservesPathsWhenSaveFails() {
+        Movie movie = new Movie();
+        List<String> imagePaths = List.of("/img1.jpg");
+        when(imageDownloadService.downloadImages(imagePaths, null, null, Deadline.none()))
+            .thenReturn(CompletableFuture.completedFuture(List.of("/local/img1.jpg")));
+        when(movieRepository.save(any(Movie.class))).thenThrow(new RuntimeException("DB down"));
+
+        CompletableFuture<Movie> result = ReflectionTestUtils.invokeMethod(
+            movieService, "downloadAndSaveImages", movie, imagePaths, Deadline.none());
+
+        assertThrows(CompletionException.class, result::join);
+        verify(imageStore).unreserve(imagePaths);
+    }
+
+    @Test
+    void getMoviesAfter_firstPageSeeksFromStartWithoutCounting() {
+        List<Movie> movies = List.of(movieWithId(1L), movieWithId(2L), movieWithId(3L));
+        when(movieRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(3))).thenReturn(movies);
+
+        CursorPage<MovieResponse> page = movieService.getMoviesAfter(null, 2);
+
+        assertEquals(2, page.getContent().size());
+        assertEquals(2L, page.getContent().get(1).getId());
+        assertTrue(page.isHasNext());
+        assertEquals(2L, MovieService.decodeCursor(page.getNextCursor()));
+        verify(movieRepository, never()).findAll(any(Pageable.class));
+        verify(movieRepository, never()).count();
+    }
+
+    @Test
+    void getMoviesAfter_seeksAfterCursorAndEndsOnLastPage() {
+        String cursor = MovieService.encodeCursor(40L);
+        when(movieRepository.findByIdGreaterThanOrderByIdAsc(40L, Limit.of(11)))
+            .thenReturn(List.of(movieWithId(41L)));
+
+        CursorPage<MovieResponse> page = movieService.getMoviesAfter(cursor, 0);
+
+        assertEquals(1, page.getContent().size());
+        assertEquals(10, page.getPageSize());
+        assertNull(page.getNextCursor());
+        assertFalse(page.isHasNext());
+    }
+
+    @Test
+    void getMoviesAfter_rejectsInvalidCursor() {
+        String negative = java.util.Base64.getUrlEncoder().encodeToString("id:-1".getBytes());
+
+        assertThrows(IllegalArgumentException.class, () -> movieService.getMoviesAfter("not base64!", 10));
+        assertThrows(IllegalArgumentException.class, () -> movieService.getMoviesAfter("aWQ6eA", 10));
+        assertThrows(IllegalArgumentException.class, () -> movieService.getMoviesAfter(negative, 10));
+        verifyNoInteractions(movieRepository);
+    }
+
+    @Test
+    void getMovieSummaries_returnsSelectedFieldsWithPoster() {
+        MovieSummary summary = new MovieSummary(1L, "Inception", "2010", "8.8", "Dreams", true, 4);
+        when(movieRepository.findSummaries(any(Pageable.class)))
+            .thenReturn(new PageImpl<>(List.of(summary), PageRequest.of(0, 10), 1));
+        when(movieRepository.findPosterPathsByIdIn(List.of(1L))).thenReturn(List.<Object[]>of(
+            new Object[] {1L, "poster.jpg"}));
+
+        PaginatedResponse<Map<String, Object>> page = movieService.getMovieSummaries(0, 10, "title, poster,id");
+
+        assertEquals(1, page.getTotalElements());
+        assertEquals(List.of("id", "title", "poster"), List.copyOf(page.getContent().get(0).keySet()));
+        assertEquals("poster.jpg", page.getContent().get(0).get("poster"));
+        verify(movieRepository, never()).findAll(any(Pageable.class));
+    }
+
+    @Test
+    void getMovieSummaries_skipsImageQueryWithoutPoster() {
+        MovieSummary summary = new MovieSummary(1L, "Inception", "2010", null, null, null, null);
+        when(movieRepository.findSummaries(any(Pageable.class)))
+            .thenReturn(new PageImpl<>(List.of(summary), PageRequest.of(0, 10), 1));
+
+        PaginatedResponse<Map<String, Object>> page = movieService.getMovieSummaries(0, 10, "id,watched,rating");
+
+        Map<String, Object> movie = page.getContent().get(0);
+        assertEquals(false, movie.get("watched"));
+        assertTrue(movie.containsKey("rating"));
+        assertNull(movie.get("rating"));
+        verify(movieRepository, never()).findPosterPathsByIdIn(any());
+    }
+
+    @Test
+    void getMovieSummaries_rejectsUnknownField() {
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+            () -> movieService.getMovieSummaries(0, 10, "id,overview"));
+
+        assertTrue(ex.getMessage().startsWith("Unknown field: overview"));
+        verifyNoInteractions(movieRepository);
+    }
+
+    @Test
+    void getMovieSummariesAfter_returnsAllSummaryFieldsAndNextCursor() {
+        List<MovieSummary> summaries = List.of(
+            new MovieSummary(5L, "A", "2001", null, null, false, null),
+            new MovieSummary(6L, "B", "2002", null, null, false, null));
+        when(movieRepository.findSummariesByIdGreaterThan(4L, Limit.of(2))).thenReturn(summaries);
+        when(movieRepository.findPosterPathsByIdIn(List.of(5L))).thenReturn(List.of());
+
+        CursorPage<Map<String, Object>> page =
+            movieService.getMovieSummariesAfter(MovieService.encodeCursor(4L), 1, "");
+
+        assertEquals(1, page.getContent().size());
+        assertEquals(MovieSummary.FIELDS, List.copyOf(page.getContent().get(0).keySet()));
+        assertNull(page.getContent().get(0).get("poster"));
+        assertEquals(5L, MovieService.decodeCursor(page.getNextCursor()));
+    }
+
+    private Movie movieWithId(Long id) {
+        return Movie.builder().id(id).title("Movie " + id).build();
     }
 
     @Test
@@ -631,16 +987,14 @@ public class MovieServiceTest {
     @Test
     void addMovieByTitle_returnsMovieForValidTitle() {
         String movieTitle = "Inception";
-        when(omdbService.getMovieData(movieTitle))
+        when(omdbService.getMovieData(eq(movieTitle), any(Deadline.class)))
             .thenReturn(CompletableFuture.completedFuture(omdbResponse));
         when(movieRepository.existsByTitleAndReleaseYear("Inception", "2010"))
             .thenReturn(false);
-        when(tmdbService.searchMovie(movieTitle))
+        when(tmdbService.searchMovie(eq(movieTitle), any(Deadline.class)))
             .thenReturn(CompletableFuture.completedFuture(tmdbSearchResponse));
-        when(tmdbService.getMovieImages(27205))
-            .thenReturn(CompletableFuture.completedFuture(new TMDbImagesResponse()));
-        when(tmdbService.getSimilarMovies(27205))
-            .thenReturn(CompletableFuture.completedFuture(new TMDbSimilarResponse()));
+        when(tmdbService.getMovieDetails(eq(27205), any(Deadline.class)))
+            .thenReturn(CompletableFuture.completedFuture(new TMDbMovieDetailsResponse()));
         when(movieRepository.save(any(Movie.class)))
             .thenReturn(testMovie);
 
@@ -650,4 +1004,75 @@ public class MovieServiceTest {
         assertNotNull(savedMovie);
         assertEquals("Inception", savedMovie.getTitle());
     }
-}
\ No newline at end of file
+
+    @Test
+    void fetchAdditionalTmdbData_usesSingleCombinedDetailsRequest() {
+        Movie movie = new Movie();
+        movie.setTitle("Inception");
+
+        TMDbImagesResponse.ImageData poster = new TMDbImagesResponse.ImageData();
+        poster.setFile_path("/poster.jpg");
+        TMDbImagesResponse images = new TMDbImagesResponse();
+        images.setPosters(List.of(poster));
+        TMDbSimilarResponse.SimilarMovie similarMovie = new TMDbSimilarResponse.SimilarMovie();
+        similarMovie.setTitle("The Prestige");
+        TMDbSimilarResponse similar = new TMDbSimilarResponse();
+        similar.setResults(List.of(similarMovie));
+        TMDbMovieDetailsResponse details = new TMDbMovieDetailsResponse();
+        details.setImages(images);
+        details.setSimilar(similar);
+
+        when(tmdbService.getMovieDetails(eq(27205), any(Deadline.class))).thenReturn(CompletableFuture.completedFuture(details));
+        when(imageDownloadService.downloadImages(eq(List.of("/poster.jpg")), eq("Inception"), any(), any(Deadline.class)))
+            .thenReturn(CompletableFuture.completedFuture(List.of("./movie-images/poster.jpg")));
+        when(movieRepository.save(movie)).thenReturn(movie);
+
+        CompletableFuture<Movie> result = ReflectionTestUtils.invokeMethod(
+            movieService, "fetchAdditionalTmdbData", movie, 27205, Deadline.none());
+
+        assertNotNull(result);
+        Movie saved = result.join();
+        assertEquals(List.of("The Prestige"), saved.getSimilarMovies());
+        assertEquals(List.of("./movie-images/poster.jpg"), saved.getImagePaths());
+        verify(tmdbService, never()).getMovieImages(anyInt());
+        verify(tmdbService, never()).getSimilarMovies(anyInt());
+    }
+
+    @Test
+    void addMovieToWatchlist_startsTmdbSearchBeforeOmdbCompletes() {
+        String movieTitle = "Inception";
+        CompletableFuture<OMDbResponse> pendingOmdb = new CompletableFuture<>();
+        when(omdbService.getMovieData(eq(movieTitle), any(Deadline.class))).thenReturn(pendingOmdb);
+        when(tmdbService.searchMovie(eq(movieTitle), any(Deadline.class)))
+            .thenReturn(CompletableFuture.completedFuture(tmdbSearchResponse));
+        when(movieRepository.existsByTitleAndReleaseYear("Inception", "2010")).thenReturn(false);
+        when(tmdbService.getMovieDetails(eq(27205), any(Deadline.class)))
+            .thenReturn(CompletableFuture.completedFuture(new TMDbMovieDetailsResponse()));
+        when(movieRepository.save(any(Movie.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        CompletableFuture<Movie> result = movieService.addMovieToWatchlist(movieTitle);
+
+        // TMDb is already queried while OMDb is still outstanding
+        verify(tmdbService).searchMovie(eq(movieTitle), any(Deadline.class));
+        assertFalse(result.isDone());
+
+        pendingOmdb.complete(omdbResponse);
+        Movie saved = result.join();
+        assertEquals("Christopher Nolan", saved.getDirector());
+        assertEquals(27205, saved.getTmdbId());
+    }
+
+    @Test
+    void addMovieToWatchlist_reportsOmdbErrorEvenIfTmdbFails() {
+        OMDbResponse errorResponse = new OMDbResponse();
+        errorResponse.setResponse("False");
+        errorResponse.setError("Movie not found!");
+        when(omdbService.getMovieData(eq("Nope"), any(Deadline.class))).thenReturn(CompletableFuture.completedFuture(errorResponse));
+        when(tmdbService.searchMovie(eq("Nope"), any(Deadline.class)))
+            .thenReturn(CompletableFuture.failedFuture(new RuntimeException("TMDb down")));
+
+        CompletionException ex = assertThrows(CompletionException.class,
+            () -> movieService.addMovieToWatchlist("Nope").join());
+        assertEquals("Movie not found: Movie not found!", ex.getCause().getMessage());
+    }
+}
@@ -11,6 +11,7 @@ import org.springframework.test.util.ReflectionTestUtils;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 
@@ -30,15 +31,20 @@ public class OMDbServiceTest {
     private HttpClient mockHttpClient;
 
     @Mock
-    private HttpResponse<String> mockResponse;
+    private HttpResponse<JsonBody> mockResponse;
 
     private OMDbService omdbService;
 
+    /** Parses a JSON body the way the service's body handler does. */
+    private static JsonBody json(String json) {
+        return JsonBodyHandler.create().parse(json.getBytes(StandardCharsets.UTF_8));
+    }
+
     @BeforeEach
     void setUp() {
-        omdbService = new OMDbService();
-        // Use reflection to inject the mock HttpClient and API key
-        ReflectionTestUtils.setField(omdbService, "httpClient", mockHttpClient);
+        omdbService = new OMDbService(mockHttpClient, new UpstreamGuard("omdb", 16, 5, 30000),
+            new RateLimiter("omdb", 5, 5, 100, 2), new HedgedRetry("omdb", 3, 100, true, 50), 10000, 1800, 1000, 8L * 1024 * 1024);
+        // Use reflection to inject the API key
         ReflectionTestUtils.setField(omdbService, "apiKey", "test-api-key");
     }
 
@@ -61,12 +67,12 @@ public class OMDbServiceTest {
             }
             """;
 
-        when(mockResponse.body()).thenReturn(jsonResponse);
+        when(mockResponse.body()).thenReturn(json(jsonResponse));
         when(mockHttpClient.sendAsync(
                 any(HttpRequest.class),
                 any(HttpResponse.BodyHandler.class)
             ))
-            .thenReturn(CompletableFuture.<HttpResponse<String>>completedFuture(mockResponse));
+            .thenReturn(CompletableFuture.<HttpResponse<JsonBody>>completedFuture(mockResponse));
 
         CompletableFuture<OMDbResponse> future = omdbService.getMovieData(movieTitle);
         OMDbResponse result = future.join();
@@ -92,12 +98,12 @@ public class OMDbServiceTest {
             }
             """;
 
-        when(mockResponse.body()).thenReturn(jsonResponse);
+        when(mockResponse.body()).thenReturn(json(jsonResponse));
         when(mockHttpClient.sendAsync(
                 any(HttpRequest.class),
                 any(HttpResponse.BodyHandler.class)
             ))
-            .thenReturn(CompletableFuture.<HttpResponse<String>>completedFuture(mockResponse));
+            .thenReturn(CompletableFuture.<HttpResponse<JsonBody>>completedFuture(mockResponse));
 
         CompletableFuture<OMDbResponse> future = omdbService.getMovieData(movieTitle);
         OMDbResponse result = future.join();
@@ -116,12 +122,12 @@ public class OMDbServiceTest {
         String movieTitle = "Test Movie";
         String invalidJson = "{ invalid json }";
 
-        when(mockResponse.body()).thenReturn(invalidJson);
+        when(mockResponse.body()).thenReturn(json(invalidJson));
         when(mockHttpClient.sendAsync(
                 any(HttpRequest.class),
                 any(HttpResponse.BodyHandler.class)
             ))
-            .thenReturn(CompletableFuture.<HttpResponse<String>>completedFuture(mockResponse));
+            .thenReturn(CompletableFuture.<HttpResponse<JsonBody>>completedFuture(mockResponse));
 
         CompletableFuture<OMDbResponse> future = omdbService.getMovieData(movieTitle);
 
@@ -141,7 +147,7 @@ public class OMDbServiceTest {
             }
             """;
 
-        when(mockResponse.body()).thenReturn(jsonResponse);
+        when(mockResponse.body()).thenReturn(json(jsonResponse));
         when(mockHttpClient.sendAsync(
                 any(HttpRequest.class),
                 any(HttpResponse.BodyHandler.class)
@@ -185,7 +191,7 @@ public class OMDbServiceTest {
             }
             """;
 
-        when(mockResponse.body()).thenReturn(jsonResponse);
+        when(mockResponse.body()).thenReturn(json(jsonResponse));
         when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
             .thenReturn(CompletableFuture.completedFuture(mockResponse));
 
@@ -213,4 +219,57 @@ public class OMDbServiceTest {
         assertTrue(ex.getCause() instanceof IllegalArgumentException);
         assertEquals("Title cannot be null or blank", ex.getCause().getMessage());
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests that a repeated lookup for the same (differently formatted) title is served from the cache.
+     */
+    @Test
+    void getMovieData_servesRepeatedTitleFromCache() {
+        when(mockResponse.statusCode()).thenReturn(200);
+        when(mockResponse.body()).thenReturn(json("{\"Title\": \"Inception\", \"Response\": \"True\"}"));
+        when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+            .thenReturn(CompletableFuture.completedFuture(mockResponse));
+
+        OMDbResponse first = omdbService.getMovieData("Inception").join();
+        OMDbResponse second = omdbService.getMovieData("INCEPTION").join();
+
+        assertSame(first, second);
+        verify(mockHttpClient, times(1)).sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+        assertEquals(1, omdbService.getCache().hitCount());
+    }
+
+    /**
+     * Tests that a not-found answer, which OMDb sends with status 200, is not cached.
+     */
+    @Test
+    void getMovieData_doesNotCacheMovieNotFound() {
+        when(mockResponse.statusCode()).thenReturn(200);
+        when(mockResponse.body()).thenReturn(json("{\"Response\": \"False\", \"Error\": \"Movie not found!\"}"));
+        when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+            .thenReturn(CompletableFuture.completedFuture(mockResponse));
+
+        omdbService.getMovieData("Upcoming").join();
+        omdbService.getMovieData("Upcoming").join();
+
+        verify(mockHttpClient, times(2)).sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+        assertEquals(0, omdbService.getCache().size());
+    }
+
+    /**
+     * Tests that concurrent lookups for the same title share one HTTP call.
+     */
+    @Test
+    void getMovieData_coalescesConcurrentIdenticalRequests() {
+        CompletableFuture<HttpResponse<JsonBody>> pending = new CompletableFuture<>();
+        when(mockResponse.body()).thenReturn(json("{\"Title\": \"Inception\", \"Response\": \"True\"}"));
+        when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+            .thenReturn(pending);
+
+        CompletableFuture<OMDbResponse> first = omdbService.getMovieData("Inception");
+        CompletableFuture<OMDbResponse> second = omdbService.getMovieData("Inception");
+        pending.complete(mockResponse);
+
+        assertSame(first.join(), second.join());
+        verify(mockHttpClient, times(1)).sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+    }
+}
@@ -0,0 +1,239 @@
+package com.example.moviewatchlist.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.net.http.HttpHeaders;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    private RateLimiter limiter(int burst, int maxQueue, int maxRetries) {
+        return new RateLimiter("tmdb", 10, burst, maxQueue, maxRetries, now::get);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static HttpResponse<String> response(int status, String retryAfter) {
+        HttpResponse<String> response = mock(HttpResponse.class);
+        when(response.statusCode()).thenReturn(status);
+        lenient().when(response.headers()).thenReturn(HttpHeaders.of(
+            retryAfter == null ? Map.of() : Map.of("Retry-After", List.of(retryAfter)), (name, value) -> true));
+        return response;
+    }
+
+    @Test
+    void acquire_grantsBurstImmediatelyThenQueuesUntilRefill() {
+        RateLimiter limiter = limiter(2, 10, 0);
+
+        assertTrue(limiter.acquire().isDone());
+        assertTrue(limiter.acquire().isDone());
+        CompletableFuture<Void> queued = limiter.acquire();
+
+        assertFalse(queued.isDone());
+        assertEquals(1, limiter.queueDepth());
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        limiter.drain();
+
+        assertTrue(queued.isDone());
+        assertEquals(0, limiter.queueDepth());
+    }
+
+    @Test
+    void drain_skipsWaiterWhoseDeadlinePassedWithoutUsingToken() throws InterruptedException {
+        RateLimiter limiter = limiter(1, 10, 0);
+        assertTrue(limiter.acquire().isDone());
+        CompletableFuture<Void> expiring = limiter.acquire(Deadline.after(Duration.ofMillis(10)));
+        CompletableFuture<Void> live = limiter.acquire();
+        Thread.sleep(20);
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        limiter.drain();
+
+        CompletionException ex = assertThrows(CompletionException.class, expiring::join);
+        assertInstanceOf(UpstreamUnavailableException.class, ex.getCause());
+        assertTrue(live.isDone() && !live.isCompletedExceptionally(), "the token went to the live request");
+        assertEquals(0, limiter.queueDepth());
+    }
+
+    @Test
+    void acquire_failsAtOnceWhenDeadlineHasPassed() {
+        RateLimiter limiter = limiter(1, 10, 0);
+
+        CompletableFuture<Void> permit = limiter.acquire(Deadline.after(Duration.ZERO));
+
+        assertThrows(CompletionException.class, permit::join);
+        assertTrue(limiter.tryAcquire(), "no token was taken");
+    }
+
+    @Test
+    void execute_cancellingQueuedRequestLeavesQueueWithoutSending() {
+        RateLimiter limiter = limiter(1, 10, 0);
+        assertTrue(limiter.acquire().isDone());
+        AtomicInteger calls = new AtomicInteger();
+
+        CompletableFuture<HttpResponse<String>> result = limiter.execute(() -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture(response(200, null));
+        });
+        assertEquals(1, limiter.queueDepth());
+        result.cancel(true);
+
+        assertEquals(0, limiter.queueDepth());
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        limiter.drain();
+        assertEquals(0, calls.get());
+        assertTrue(limiter.tryAcquire(), "the refilled token is still free");
+    }
+
+    @Test
+    void acquire_shedsRequestsWhenQueueIsFull() {
+        RateLimiter limiter = limiter(1, 1, 0);
+        limiter.acquire();
+        limiter.acquire();
+
+        CompletionException ex = assertThrows(CompletionException.class, () -> limiter.acquire().join());
+
+        assertInstanceOf(UpstreamUnavailableException.class, ex.getCause());
+        assertEquals(1, limiter.shedCount());
+    }
+
+    @Test
+    void pause_blocksTokensUntilRetryAfterHasPassed() {
+        RateLimiter limiter = limiter(5, 10, 0);
+        limiter.pause(Duration.ofSeconds(2));
+
+        CompletableFuture<Void> queued = limiter.acquire();
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        limiter.drain();
+        assertFalse(queued.isDone());
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1100));
+        limiter.drain();
+        assertTrue(queued.isDone());
+    }
+
+    @Test
+    void tryAcquire_takesOnlyTokensNobodyIsWaitingFor() {
+        RateLimiter limiter = limiter(1, 10, 0);
+
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        CompletableFuture<Void> queued = limiter.acquire();
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        assertFalse(limiter.tryAcquire(), "the refilled token belongs to the queued request");
+        limiter.drain();
+        assertTrue(queued.isDone());
+    }
+
+    @Test
+    void executeAcquired_doesNotRetryTooManyRequests() {
+        RateLimiter limiter = limiter(1, 10, 2);
+        AtomicInteger calls = new AtomicInteger();
+        assertTrue(limiter.tryAcquire());
+
+        CompletionException ex = assertThrows(CompletionException.class, () -> limiter.<String>executeAcquired(() -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture(response(429, "0"));
+        }).join());
+
+        assertInstanceOf(UpstreamUnavailableException.class, ex.getCause());
+        assertEquals(1, calls.get());
+        assertEquals(0, limiter.retryCount());
+    }
+
+    @Test
+    void execute_cancellingResultCancelsRequestInFlight() {
+        RateLimiter limiter = limiter(1, 10, 0);
+        CompletableFuture<HttpResponse<String>> sent = new CompletableFuture<>();
+
+        CompletableFuture<HttpResponse<String>> result = limiter.execute(() -> sent);
+        result.cancel(true);
+
+        assertTrue(sent.isCancelled());
+    }
+
+    @Test
+    void execute_retriesTooManyRequestsResponses() {
+        RateLimiter limiter = new RateLimiter("tmdb", 1000, 10, 10, 2);
+        HttpResponse<String> throttled = response(429, "0");
+        HttpResponse<String> ok = response(200, null);
+        AtomicInteger calls = new AtomicInteger();
+
+        HttpResponse<String> result = limiter.execute(() -> CompletableFuture.completedFuture(
+            calls.incrementAndGet() < 3 ? throttled : ok)).join();
+
+        assertSame(ok, result);
+        assertEquals(3, calls.get());
+        assertEquals(2, limiter.retryCount());
+    }
+
+    @Test
+    void execute_failsWithUnavailableWhenRetriesAreExhausted() {
+        RateLimiter limiter = new RateLimiter("tmdb", 1000, 10, 10, 1);
+        HttpResponse<String> throttled = response(429, "0");
+
+        CompletionException ex = assertThrows(CompletionException.class,
+            () -> limiter.execute(() -> CompletableFuture.completedFuture(throttled)).join());
+
+        assertInstanceOf(UpstreamUnavailableException.class, ex.getCause());
+        assertEquals("tmdb rate limit exceeded", ex.getCause().getMessage());
+    }
+
+    @Test
+    void execute_doesNotWaitForExcessiveRetryAfter() {
+        RateLimiter limiter = new RateLimiter("tmdb", 1000, 10, 10, 3);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(CompletionException.class, () -> limiter.execute(() -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture(response(429, "3600"));
+        }).join());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void retryAfter_parsesSecondsAndHttpDates() {
+        assertEquals(Optional.of(Duration.ofSeconds(5)), RateLimiter.retryAfter(response(429, "5")));
+        assertEquals(Optional.empty(), RateLimiter.retryAfter(response(429, null)));
+        assertEquals(Optional.empty(), RateLimiter.retryAfter(response(429, "soon")));
+
+        String date = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now().plusSeconds(10));
+        Duration delay = RateLimiter.retryAfter(response(429, date)).orElseThrow();
+        assertTrue(delay.getSeconds() > 5 && delay.getSeconds() <= 10);
+    }
+
+    @Test
+    void bindTo_reportsQueueDepthAndWaitTime() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RateLimiter limiter = limiter(1, 10, 0);
+        limiter.bindTo(registry);
+
+        limiter.acquire();
+        limiter.acquire();
+        assertEquals(1.0, registry.get("upstream.ratelimit.queue").tag("upstream", "tmdb").gauge().value());
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(250));
+        limiter.drain();
+
+        assertEquals(2, registry.get("upstream.ratelimit.wait").timer().count());
+        assertEquals(250, registry.get("upstream.ratelimit.wait").timer().max(TimeUnit.MILLISECONDS), 1);
+    }
+}
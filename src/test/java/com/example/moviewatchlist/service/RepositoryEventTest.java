@@ -0,0 +1,66 @@
+package com.example.moviewatchlist.service;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RepositoryEvent.
+ */
+class RepositoryEventTest {
+
+    @TempDir
+    Path tempDir;
+
+    private List<RecordedEvent> record(Runnable action) throws IOException {
+        try (Recording recording = new Recording()) {
+            recording.enable(RepositoryEvent.class);
+            recording.start();
+            action.run();
+            recording.stop();
+            Path file = tempDir.resolve("recording.jfr");
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> event.getEventType().getName().equals("com.example.moviewatchlist.RepositoryCall"))
+                    .toList();
+        }
+    }
+
+    @Test
+    void record_commitsEventWithMovieFields() throws IOException {
+        List<RecordedEvent> events = record(() ->
+                assertEquals("saved", RepositoryEvent.record("save", "Inception", 27205, 7L, () -> "saved")));
+
+        assertEquals(1, events.size());
+        RecordedEvent event = events.get(0);
+        assertEquals("save", event.getString("operation"));
+        assertEquals("Inception", event.getString("title"));
+        assertEquals(27205, event.getInt("tmdbId"));
+        assertEquals(7L, event.getLong("movieId"));
+        assertFalse(event.getBoolean("failed"));
+    }
+
+    @Test
+    void record_marksFailedCallAndRethrows() throws IOException {
+        List<RecordedEvent> events = record(() ->
+                assertThrows(IllegalStateException.class, () -> RepositoryEvent.record("findById", null, null, 1L, () -> {
+                    throw new IllegalStateException("db down");
+                })));
+
+        assertEquals(1, events.size());
+        assertTrue(events.get(0).getBoolean("failed"));
+    }
+
+    @Test
+    void record_runsCallWithoutRecording() {
+        assertEquals(3, RepositoryEvent.record("findAll", null, null, null, () -> 3));
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.moviewatchlist.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ResponseCache.
+ * Uses a manual ticker to control expiry without sleeping.
+ */
+class ResponseCacheTest {
+
+    private AtomicLong now;
+    private ResponseCache<String, String> cache;
+
+    @BeforeEach
+    void setUp() {
+        now = new AtomicLong();
+        cache = new ResponseCache<>("test", 60, 3, 100, now::get);
+    }
+
+    @Test
+    void get_returnsStoredValueAndCountsHit() {
+        cache.put("a", "value", 10);
+
+        assertEquals("value", cache.get("a"));
+        assertEquals(1, cache.hitCount());
+        assertEquals(0, cache.missCount());
+    }
+
+    @Test
+    void get_returnsNullAndCountsMissForUnknownKey() {
+        assertNull(cache.get("missing"));
+        assertEquals(1, cache.missCount());
+    }
+
+    @Test
+    void get_expiresEntriesAfterTtl() {
+        cache.put("a", "value", 10);
+        now.addAndGet(TimeUnit.SECONDS.toNanos(59));
+        assertEquals("value", cache.get("a"));
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.weight());
+    }
+
+    @Test
+    void peek_returnsValueWithoutCountingHitOrMiss() {
+        cache.put("a", "value", 10);
+
+        assertEquals("value", cache.peek("a"));
+        assertNull(cache.peek("missing"));
+        assertEquals(0, cache.hitCount());
+        assertEquals(0, cache.missCount());
+    }
+
+    @Test
+    void put_evictsLeastRecentlyUsedWhenEntryLimitExceeded() {
+        cache.put("a", "1", 1);
+        cache.put("b", "2", 1);
+        cache.put("c", "3", 1);
+        cache.get("a");
+
+        cache.put("d", "4", 1);
+
+        assertNull(cache.get("b"));
+        assertEquals("1", cache.get("a"));
+        assertEquals(3, cache.size());
+        assertEquals(1, cache.evictionCount());
+    }
+
+    @Test
+    void put_evictsWhenWeightLimitExceeded() {
+        cache.put("a", "1", 60);
+        cache.put("b", "2", 50);
+
+        assertNull(cache.get("a"));
+        assertEquals("2", cache.get("b"));
+        assertEquals(50, cache.weight());
+        assertEquals(1, cache.evictionCount());
+    }
+
+    @Test
+    void put_ignoresValuesHeavierThanCache() {
+        cache.put("a", "huge", 101);
+
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.evictionCount());
+    }
+
+    @Test
+    void put_replacingKeyUpdatesWeight() {
+        cache.put("a", "1", 30);
+        cache.put("a", "2", 20);
+
+        assertEquals(1, cache.size());
+        assertEquals(20, cache.weight());
+        assertEquals("2", cache.get("a"));
+    }
+
+    @Test
+    void invalidateAndClear_removeEntries() {
+        cache.put("a", "1", 10);
+        cache.put("b", "2", 10);
+
+        cache.invalidate("a");
+        assertNull(cache.get("a"));
+        assertEquals(10, cache.weight());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.weight());
+    }
+
+    @Test
+    void constructor_rejectsNonPositiveLimits() {
+        assertThrows(IllegalArgumentException.class, () -> new ResponseCache<String, String>("x", 0, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new ResponseCache<String, String>("x", 1, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new ResponseCache<String, String>("x", 1, 1, 0));
+    }
+
+    @Test
+    void normalizeTitle_ignoresCaseAndSpacing() {
+        assertEquals("the dark knight", ResponseCache.normalizeTitle("  The   Dark\tKNIGHT "));
+    }
+
+    @Test
+    void bindTo_registersCountersAndGauges() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+        cache.put("a", "1", 10);
+        cache.get("a");
+        cache.get("b");
+
+        assertEquals(1.0, registry.get("upstream.cache.requests").tags("cache", "test", "result", "hit").functionCounter().count());
+        assertEquals(1.0, registry.get("upstream.cache.requests").tags("cache", "test", "result", "miss").functionCounter().count());
+        assertEquals(1.0, registry.get("upstream.cache.size").tag("cache", "test").gauge().value());
+        assertEquals(10.0, registry.get("upstream.cache.weight").tag("cache", "test").gauge().value());
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.moviewatchlist.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SingleFlight.
+ */
+class SingleFlightTest {
+
+    private final SingleFlight singleFlight = new SingleFlight("test");
+
+    @Test
+    void execute_sharesInFlightCallForSameKey() {
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<String> upstream = new CompletableFuture<>();
+
+        CompletableFuture<String> first = singleFlight.execute("url", () -> {
+            calls.incrementAndGet();
+            return upstream;
+        });
+        CompletableFuture<String> second = singleFlight.execute("url", () -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture("other");
+        });
+
+        assertEquals(1, singleFlight.inFlightCount());
+        upstream.complete("result");
+
+        assertEquals("result", first.join());
+        assertEquals("result", second.join());
+        assertEquals(1, calls.get());
+        assertEquals(1, singleFlight.coalescedCount());
+        assertEquals(0, singleFlight.inFlightCount());
+    }
+
+    @Test
+    void execute_joinerGivesUpAtItsOwnDeadline() {
+        CompletableFuture<String> upstream = new CompletableFuture<>();
+        CompletableFuture<String> first = singleFlight.execute("url", () -> upstream, Deadline.none());
+        CompletableFuture<String> joiner = singleFlight.execute("url",
+            () -> CompletableFuture.completedFuture("other"), Deadline.after(Duration.ofMillis(20)));
+
+        CompletionException ex = assertThrows(CompletionException.class, joiner::join);
+        assertInstanceOf(UpstreamUnavailableException.class, ex.getCause());
+        assertFalse(first.isDone());
+
+        upstream.complete("result");
+        assertEquals("result", first.join());
+    }
+
+    @Test
+    void execute_startsNewCallOncePreviousCompleted() {
+        AtomicInteger calls = new AtomicInteger();
+
+        singleFlight.execute("url", () -> CompletableFuture.completedFuture(calls.incrementAndGet())).join();
+        singleFlight.execute("url", () -> CompletableFuture.completedFuture(calls.incrementAndGet())).join();
+
+        assertEquals(2, calls.get());
+        assertEquals(0, singleFlight.coalescedCount());
+    }
+
+    @Test
+    void execute_doesNotShareCallsForDifferentKeys() {
+        CompletableFuture<String> a = singleFlight.execute("a", CompletableFuture::new);
+        CompletableFuture<String> b = singleFlight.execute("b", CompletableFuture::new);
+
+        assertNotSame(a, b);
+        assertEquals(2, singleFlight.inFlightCount());
+    }
+
+    @Test
+    void execute_propagatesFailureToAllCallers() {
+        CompletableFuture<String> upstream = new CompletableFuture<>();
+        CompletableFuture<String> first = singleFlight.execute("url", () -> upstream);
+        CompletableFuture<String> second = singleFlight.execute("url", () -> upstream);
+
+        upstream.completeExceptionally(new RuntimeException("boom"));
+
+        assertEquals("boom", assertThrows(CompletionException.class, first::join).getCause().getMessage());
+        assertEquals("boom", assertThrows(CompletionException.class, second::join).getCause().getMessage());
+        assertEquals(0, singleFlight.inFlightCount());
+    }
+
+    @Test
+    void execute_handlesCallThatThrows() {
+        CompletableFuture<String> result = singleFlight.execute("url", () -> {
+            throw new IllegalStateException("bad");
+        });
+
+        assertTrue(assertThrows(CompletionException.class, result::join).getCause() instanceof IllegalStateException);
+        assertEquals(0, singleFlight.inFlightCount());
+    }
+
+    @Test
+    void execute_cancellingOneCallerDoesNotAffectOthers() {
+        CompletableFuture<String> upstream = new CompletableFuture<>();
+        CompletableFuture<String> first = singleFlight.execute("url", () -> upstream);
+        CompletableFuture<String> second = singleFlight.execute("url", () -> upstream);
+
+        first.cancel(true);
+        upstream.complete("result");
+
+        assertEquals("result", second.join());
+    }
+
+    @Test
+    void bindTo_registersMeters() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        singleFlight.bindTo(registry);
+        singleFlight.execute("url", CompletableFuture::new);
+        singleFlight.execute("url", CompletableFuture::new);
+
+        assertEquals(1.0, registry.get("upstream.requests.coalesced").tag("upstream", "test").functionCounter().count());
+        assertEquals(1.0, registry.get("upstream.requests.inflight").tag("upstream", "test").gauge().value());
+    }
+}
@@ -2,19 +2,29 @@ package com.example.moviewatchlist.service;
 
 import com.example.moviewatchlist.dto.TMDbSearchResponse;
 import com.example.moviewatchlist.dto.TMDbImagesResponse;
+import com.example.moviewatchlist.dto.TMDbMovieDetailsResponse;
 import com.example.moviewatchlist.dto.TMDbSimilarResponse;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -32,15 +42,30 @@ public class TMDbServiceTest {
     private HttpClient mockHttpClient;
 
     @Mock
-    private HttpResponse<String> mockResponse;
+    private HttpResponse<JsonBody> mockResponse;
 
     private TMDbService tmdbService;
 
+    /** Parses a JSON body the way the service's body handler does. */
+    private static JsonBody json(String json) {
+        return JsonBodyHandler.create().parse(json.getBytes(StandardCharsets.UTF_8));
+    }
+
     @BeforeEach
     void setUp() {
-        tmdbService = new TMDbService();
-        ReflectionTestUtils.setField(tmdbService, "httpClient", mockHttpClient);
-        ReflectionTestUtils.setField(tmdbService, "apiKey", "test-tmdb-key");
+        tmdbService = newService(mockHttpClient, new UpstreamGuard("tmdb", 16, 5, 30000), defaultHedgedRetry());
+    }
+
+    /** Returns the hedging and retry policy the application uses by default. */
+    private static HedgedRetry defaultHedgedRetry() {
+        return new HedgedRetry("tmdb", 3, 100, true, 50);
+    }
+
+    /** Creates a service on the given client, guard and retry policy, with the default timeout and cache settings. */
+    private static TMDbService newService(HttpClient httpClient, UpstreamGuard guard, HedgedRetry hedgedRetry) {
+        TMDbService service = new TMDbService(httpClient, guard, new RateLimiter("tmdb", 20, 20, 100, 2), hedgedRetry, 10000, 1800, 1000, 16L * 1024 * 1024);
+        ReflectionTestUtils.setField(service, "apiKey", "test-tmdb-key");
+        return service;
     }
 
     /**
@@ -64,9 +89,9 @@ public class TMDbServiceTest {
             }
             """;
 
-        when(mockResponse.body()).thenReturn(jsonResponse);
+        when(mockResponse.body()).thenReturn(json(jsonResponse));
         when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
-            .thenReturn(CompletableFuture.<HttpResponse<String>>completedFuture(mockResponse));
+            .thenReturn(CompletableFuture.<HttpResponse<JsonBody>>completedFuture(mockResponse));
 
         CompletableFuture<TMDbSearchResponse> future = tmdbService.searchMovie(movieTitle);
         TMDbSearchResponse result = future.join();
@@ -94,9 +119,9 @@ public class TMDbServiceTest {
             }
             """;
 
-        when(mockResponse.body()).thenReturn(jsonResponse);
+        when(mockResponse.body()).thenReturn(json(jsonResponse));
         when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
-            .thenReturn(CompletableFuture.<HttpResponse<String>>completedFuture(mockResponse));
+            .thenReturn(CompletableFuture.<HttpResponse<JsonBody>>completedFuture(mockResponse));
 
         CompletableFuture<TMDbSearchResponse> future = tmdbService.searchMovie(movieTitle);
         TMDbSearchResponse result = future.join();
@@ -133,9 +158,9 @@ public class TMDbServiceTest {
             }
             """;
 
-        when(mockResponse.body()).thenReturn(jsonResponse);
+        when(mockResponse.body()).thenReturn(json(jsonResponse));
         when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
-            .thenReturn(CompletableFuture.<HttpResponse<String>>completedFuture(mockResponse));
+            .thenReturn(CompletableFuture.<HttpResponse<JsonBody>>completedFuture(mockResponse));
 
         CompletableFuture<TMDbImagesResponse> future = tmdbService.getMovieImages(movieId);
         TMDbImagesResponse result = future.join();
@@ -169,9 +194,9 @@ public class TMDbServiceTest {
             }
             """;
 
-        when(mockResponse.body()).thenReturn(jsonResponse);
+        when(mockResponse.body()).thenReturn(json(jsonResponse));
         when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
-            .thenReturn(CompletableFuture.<HttpResponse<String>>completedFuture(mockResponse));
+            .thenReturn(CompletableFuture.<HttpResponse<JsonBody>>completedFuture(mockResponse));
 
         CompletableFuture<TMDbSimilarResponse> future = tmdbService.getSimilarMovies(movieId);
         TMDbSimilarResponse result = future.join();
@@ -196,14 +221,14 @@ public class TMDbServiceTest {
             }
             """;
 
-        when(mockResponse.body()).thenReturn(jsonResponse);
+        when(mockResponse.body()).thenReturn(json(jsonResponse));
         when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
             .thenAnswer(invocation -> {
                 HttpRequest request = invocation.getArgument(0);
                 String url = request.uri().toString();
                 // Verify URL encoding
                 assertTrue(url.contains("The%20Dark%20Knight"));
-                return CompletableFuture.<HttpResponse<String>>completedFuture(mockResponse);
+                return CompletableFuture.<HttpResponse<JsonBody>>completedFuture(mockResponse);
             });
 
         // When
@@ -221,7 +246,7 @@ public class TMDbServiceTest {
         String movieTitle = "Inception";
         String invalidJson = "{ invalid json }";
 
-        when(mockResponse.body()).thenReturn(invalidJson);
+        when(mockResponse.body()).thenReturn(json(invalidJson));
         when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
             .thenReturn(CompletableFuture.completedFuture(mockResponse));
 
@@ -246,23 +271,22 @@ public class TMDbServiceTest {
 
     static class FailingObjectMapper extends ObjectMapper {
         @Override
-        public <T> T readValue(String content, Class<T> valueType) {
+        public <T> T readValue(JsonParser parser, Class<T> valueType) {
             throw new RuntimeException("Parse error");
         }
     }
 
     @Test
     void getMovieImages_throwsRuntimeExceptionOnParseError() throws Exception {
-        TMDbService service = new TMDbService();
+        HttpClient mockClient = mock(HttpClient.class);
+        TMDbService service = newService(mockClient, new UpstreamGuard("tmdb", 16, 5, 30000), defaultHedgedRetry());
         ObjectMapper failingMapper = new FailingObjectMapper();
         ReflectionTestUtils.setField(service, "objectMapper", failingMapper);
 
-        HttpClient mockClient = mock(HttpClient.class);
-        HttpResponse<String> mockResponse = mock(HttpResponse.class);
-        when(mockResponse.body()).thenReturn("{}");
+        HttpResponse<JsonBody> mockResponse = mock(HttpResponse.class);
+        when(mockResponse.body()).thenReturn(json("{}"));
         when(mockClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
             .thenReturn(CompletableFuture.completedFuture(mockResponse));
-        ReflectionTestUtils.setField(service, "httpClient", mockClient);
 
         CompletableFuture<TMDbImagesResponse> future = service.getMovieImages(123);
         RuntimeException ex = assertThrows(RuntimeException.class, future::join);
@@ -274,21 +298,20 @@ public class TMDbServiceTest {
 
     @Test
     void getSimilarMovies_throwsRuntimeExceptionOnParseError() throws Exception {
-        TMDbService service = new TMDbService();
+        HttpClient mockClient = mock(HttpClient.class);
+        TMDbService service = newService(mockClient, new UpstreamGuard("tmdb", 16, 5, 30000), defaultHedgedRetry());
         ObjectMapper failingMapper = new ObjectMapper() {
             @Override
-            public <T> T readValue(String content, Class<T> valueType) {
+            public <T> T readValue(JsonParser parser, Class<T> valueType) {
                 throw new RuntimeException("Parse error");
             }
         };
         ReflectionTestUtils.setField(service, "objectMapper", failingMapper);
 
-        HttpClient mockClient = mock(HttpClient.class);
-        HttpResponse<String> mockResponse = mock(HttpResponse.class);
-        when(mockResponse.body()).thenReturn("{}");
+        HttpResponse<JsonBody> mockResponse = mock(HttpResponse.class);
+        when(mockResponse.body()).thenReturn(json("{}"));
         when(mockClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
             .thenReturn(CompletableFuture.completedFuture(mockResponse));
-        ReflectionTestUtils.setField(service, "httpClient", mockClient);
 
         CompletableFuture<TMDbSimilarResponse> future = service.getSimilarMovies(123);
         RuntimeException ex = assertThrows(RuntimeException.class, future::join);
@@ -297,4 +320,281 @@ public class TMDbServiceTest {
         assertNotNull(real.getCause());
         assertEquals("Parse error", real.getCause().getMessage());
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests that a repeated search for the same (differently formatted) title is served from the cache.
+     */
+    @Test
+    void searchMovie_servesRepeatedTitleFromCache() {
+        when(mockResponse.statusCode()).thenReturn(200);
+        when(mockResponse.body()).thenReturn(json("{\"results\": [{\"id\": 1, \"title\": \"Inception\"}]}"));
+        when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+            .thenReturn(CompletableFuture.completedFuture(mockResponse));
+
+        TMDbSearchResponse first = tmdbService.searchMovie("Inception").join();
+        TMDbSearchResponse second = tmdbService.searchMovie("  inception ").join();
+
+        assertSame(first, second);
+        verify(mockHttpClient, times(1)).sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+        ResponseCache<?, ?> searchCache = tmdbService.getCaches().get(0);
+        assertEquals(1, searchCache.hitCount());
+        assertEquals(1, searchCache.missCount());
+    }
+
+    /**
+     * Tests that images and similar movies are cached per TMDb ID.
+     */
+    @Test
+    void getMovieImagesAndSimilar_areCachedByMovieId() {
+        when(mockResponse.statusCode()).thenReturn(200);
+        when(mockResponse.body()).thenReturn(json("{}"));
+        when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+            .thenReturn(CompletableFuture.completedFuture(mockResponse));
+
+        tmdbService.getMovieImages(42).join();
+        tmdbService.getMovieImages(42).join();
+        tmdbService.getSimilarMovies(42).join();
+        tmdbService.getSimilarMovies(42).join();
+
+        verify(mockHttpClient, times(2)).sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+    }
+
+    /**
+     * Tests that error responses are not cached.
+     */
+    @Test
+    void searchMovie_doesNotCacheNonOkResponses() {
+        when(mockResponse.statusCode()).thenReturn(401);
+        when(mockResponse.body()).thenReturn(json("{\"status_message\": \"Invalid API key\"}"));
+        when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+            .thenReturn(CompletableFuture.completedFuture(mockResponse));
+
+        tmdbService.searchMovie("Inception").join();
+        tmdbService.searchMovie("Inception").join();
+
+        verify(mockHttpClient, times(2)).sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+    }
+
+    /**
+     * Tests that concurrent searches for the same title share one HTTP call.
+     */
+    @Test
+    void searchMovie_coalescesConcurrentIdenticalRequests() {
+        CompletableFuture<HttpResponse<JsonBody>> pending = new CompletableFuture<>();
+        when(mockResponse.body()).thenReturn(json("{\"results\": []}"));
+        when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+            .thenReturn(pending);
+
+        CompletableFuture<TMDbSearchResponse> first = tmdbService.searchMovie("Inception");
+        CompletableFuture<TMDbSearchResponse> second = tmdbService.searchMovie("Inception");
+        pending.complete(mockResponse);
+
+        assertSame(first.join(), second.join());
+        verify(mockHttpClient, times(1)).sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+        assertEquals(1, tmdbService.getInFlightRequests().coalescedCount());
+    }
+
+    /**
+     * Tests that details, images and similar movies are fetched and parsed from one appended request.
+     */
+    @Test
+    void getMovieDetails_parsesAppendedImagesAndSimilar() {
+        String jsonResponse = """
+            {
+                "id": 27205,
+                "title": "Inception",
+                "overview": "Cobb steals secrets from subconscious",
+                "release_date": "2010-07-16",
+                "vote_average": 8.4,
+                "images": {
+                    "backdrops": [{"file_path": "/backdrop1.jpg"}],
+                    "posters": [{"file_path": "/poster1.jpg"}]
+                },
+                "similar": {
+                    "results": [{"id": 1124, "title": "The Prestige"}]
+                }
+            }
+            """;
+
+        when(mockResponse.statusCode()).thenReturn(200);
+        when(mockResponse.body()).thenReturn(json(jsonResponse));
+        when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+            .thenAnswer(invocation -> {
+                HttpRequest request = invocation.getArgument(0);
+                String url = request.uri().toString();
+                assertTrue(url.contains("/movie/27205?"));
+                assertTrue(url.contains("append_to_response=images,similar"));
+                return CompletableFuture.completedFuture(mockResponse);
+            });
+
+        TMDbMovieDetailsResponse result = tmdbService.getMovieDetails(27205).join();
+
+        assertEquals(27205, result.getId());
+        assertEquals("Inception", result.getTitle());
+        assertEquals("2010-07-16", result.getReleaseDate());
+        assertEquals("/poster1.jpg", result.getImages().getPosters().get(0).getFile_path());
+        assertEquals("/backdrop1.jpg", result.getImages().getBackdrops().get(0).getFile_path());
+        assertEquals("The Prestige", result.getSimilar().getResults().get(0).getTitle());
+
+        // The similar movies are served from the cached details, so that endpoint is not called again
+        assertSame(result.getSimilar(), tmdbService.getSimilarMovies(27205).join());
+        verify(mockHttpClient, times(1)).sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+        // Reading the details for similar movies is not a details lookup: only the first fetch counts as a miss
+        ResponseCache<?, ?> detailsCache = tmdbService.getCaches().get(3);
+        assertEquals(1, detailsCache.missCount());
+        assertEquals(0, detailsCache.hitCount());
+    }
+
+    /**
+     * Tests that a details response is weighed once and its language-filtered images are not
+     * served in place of the unfiltered images endpoint.
+     */
+    @Test
+    void getMovieDetails_cachesResponseOnceAndNotItsImages() {
+        when(mockResponse.statusCode()).thenReturn(200);
+        when(mockResponse.body())
+            .thenReturn(json("{\"id\": 1, \"images\": {\"posters\": []}, \"similar\": {\"results\": []}}"))
+            .thenReturn(json("{\"id\": 1, \"posters\": [{\"file_path\": \"/other.jpg\"}]}"));
+        when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+            .thenReturn(CompletableFuture.completedFuture(mockResponse));
+
+        tmdbService.getMovieDetails(1).join();
+        TMDbImagesResponse images = tmdbService.getMovieImages(1).join();
+
+        assertEquals("/other.jpg", images.getPosters().get(0).getFile_path());
+        verify(mockHttpClient, times(2)).sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+        List<ResponseCache<?, ?>> caches = tmdbService.getCaches();
+        assertEquals(1, caches.get(3).size());
+        assertEquals(0, caches.get(2).size());
+    }
+
+    /**
+     * Tests that a details parse failure is reported with a clear message.
+     */
+    @Test
+    void getMovieDetails_throwsRuntimeExceptionOnInvalidJson() {
+        when(mockResponse.body()).thenReturn(json("{ invalid json }"));
+        when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+            .thenReturn(CompletableFuture.completedFuture(mockResponse));
+
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> tmdbService.getMovieDetails(1).join());
+        assertEquals("Failed to parse TMDb movie details response", ex.getCause().getMessage());
+    }
+
+    /**
+     * Tests that the injected client is used and requests carry the configured timeout.
+     */
+    @Test
+    void searchMovie_usesInjectedClientAndRequestTimeout() {
+        TMDbService service = new TMDbService(mockHttpClient, new UpstreamGuard("tmdb", 16, 5, 30000),
+            new RateLimiter("tmdb", 20, 20, 100, 2), defaultHedgedRetry(), 2500, 60, 10, 1024);
+        ReflectionTestUtils.setField(service, "apiKey", "test-tmdb-key");
+        when(mockResponse.body()).thenReturn(json("{\"results\": []}"));
+        when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+            .thenReturn(CompletableFuture.<HttpResponse<JsonBody>>completedFuture(mockResponse));
+
+        service.searchMovie("Inception").join();
+
+        ArgumentCaptor<HttpRequest> captor = ArgumentCaptor.forClass(HttpRequest.class);
+        verify(mockHttpClient).sendAsync(captor.capture(), any(HttpResponse.BodyHandler.class));
+        assertEquals(Optional.of(Duration.ofMillis(2500)), captor.getValue().timeout());
+    }
+
+    /**
+     * Tests that repeated server errors open the circuit and later calls fail fast without a request.
+     */
+    @Test
+    void searchMovie_failsFastWhenCircuitIsOpen() {
+        tmdbService = newService(mockHttpClient, new UpstreamGuard("tmdb", 4, 2, 60000),
+            new HedgedRetry("tmdb", 1, 0, false, 0));
+        when(mockResponse.statusCode()).thenReturn(503);
+        when(mockResponse.body()).thenReturn(json("{\"results\": []}"));
+        when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+            .thenReturn(CompletableFuture.<HttpResponse<JsonBody>>completedFuture(mockResponse));
+
+        tmdbService.searchMovie("First").join();
+        tmdbService.searchMovie("Second").join();
+        CompletionException ex = assertThrows(CompletionException.class,
+            () -> tmdbService.searchMovie("Third").join());
+
+        assertInstanceOf(UpstreamUnavailableException.class, ex.getCause());
+        assertEquals(UpstreamGuard.State.OPEN, tmdbService.getGuard().getState());
+        verify(mockHttpClient, times(2)).sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+    }
+
+    /**
+     * Tests that a 429 response is retried instead of being parsed as a search result.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void searchMovie_retriesTooManyRequests() {
+        HttpResponse<JsonBody> throttled = mock(HttpResponse.class);
+        when(throttled.statusCode()).thenReturn(429);
+        when(throttled.headers()).thenReturn(HttpHeaders.of(
+            Map.of("Retry-After", List.of("0")), (name, value) -> true));
+        when(mockResponse.statusCode()).thenReturn(200);
+        when(mockResponse.body()).thenReturn(json("{\"results\": []}"));
+        when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+            .thenReturn(CompletableFuture.<HttpResponse<JsonBody>>completedFuture(throttled))
+            .thenReturn(CompletableFuture.<HttpResponse<JsonBody>>completedFuture(mockResponse));
+
+        TMDbSearchResponse result = tmdbService.searchMovie("Inception").join();
+
+        assertNotNull(result.getResults());
+        assertEquals(1, tmdbService.getRateLimiter().retryCount());
+        verify(mockHttpClient, times(2)).sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+    }
+
+    /**
+     * Tests that a 503 response is retried and the successful retry is parsed.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void searchMovie_retriesServiceUnavailable() {
+        tmdbService = newService(mockHttpClient, new UpstreamGuard("tmdb", 16, 5, 30000),
+            new HedgedRetry("tmdb", 3, 1, false, 0));
+        HttpResponse<JsonBody> unavailable = mock(HttpResponse.class);
+        when(unavailable.statusCode()).thenReturn(503);
+        when(mockResponse.statusCode()).thenReturn(200);
+        when(mockResponse.body()).thenReturn(json("{\"results\": []}"));
+        when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+            .thenReturn(CompletableFuture.<HttpResponse<JsonBody>>completedFuture(unavailable))
+            .thenReturn(CompletableFuture.<HttpResponse<JsonBody>>completedFuture(mockResponse));
+
+        TMDbSearchResponse result = tmdbService.searchMovie("Inception").join();
+
+        assertNotNull(result.getResults());
+        assertEquals(1, tmdbService.getHedgedRetry().retryCount());
+        verify(mockHttpClient, times(2)).sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+    }
+
+    /**
+     * Tests that the request timeout is capped to the time left until the caller's deadline.
+     */
+    @Test
+    void searchMovie_capsTimeoutToDeadline() {
+        when(mockResponse.statusCode()).thenReturn(200);
+        when(mockResponse.body()).thenReturn(json("{\"results\": []}"));
+        when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+            .thenReturn(CompletableFuture.<HttpResponse<JsonBody>>completedFuture(mockResponse));
+
+        tmdbService.searchMovie("Inception", Deadline.after(Duration.ofSeconds(2))).join();
+
+        ArgumentCaptor<HttpRequest> captor = ArgumentCaptor.forClass(HttpRequest.class);
+        verify(mockHttpClient).sendAsync(captor.capture(), any(HttpResponse.BodyHandler.class));
+        Duration timeout = captor.getValue().timeout().orElseThrow();
+        assertTrue(timeout.compareTo(Duration.ofSeconds(2)) <= 0 && timeout.compareTo(Duration.ZERO) > 0);
+    }
+
+    /**
+     * Tests that no request is sent once the deadline has passed.
+     */
+    @Test
+    void searchMovie_failsWithoutRequestAfterDeadline() {
+        CompletionException ex = assertThrows(CompletionException.class,
+            () -> tmdbService.searchMovie("Inception", Deadline.after(Duration.ZERO)).join());
+
+        assertInstanceOf(UpstreamUnavailableException.class, ex.getCause());
+        verifyNoInteractions(mockHttpClient);
+    }
+}
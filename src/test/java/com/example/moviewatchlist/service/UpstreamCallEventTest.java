@@ -0,0 +1,78 @@
+package com.example.moviewatchlist.service;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for UpstreamCallEvent.
+ */
+class UpstreamCallEventTest {
+
+    @TempDir
+    Path tempDir;
+
+    private List<RecordedEvent> record(Runnable action) throws IOException {
+        try (Recording recording = new Recording()) {
+            recording.enable(UpstreamCallEvent.class);
+            recording.start();
+            action.run();
+            recording.stop();
+            Path file = tempDir.resolve("recording.jfr");
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> event.getEventType().getName().equals("com.example.moviewatchlist.UpstreamCall"))
+                    .toList();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void complete_commitsResponseStatusAndSize() throws IOException {
+        HttpResponse<JsonBody> response = mock(HttpResponse.class);
+        when(response.statusCode()).thenReturn(200);
+        when(response.body()).thenReturn(JsonBodyHandler.create().parse("{\"id\":27205}".getBytes(StandardCharsets.UTF_8)));
+
+        List<RecordedEvent> events = record(() -> {
+            UpstreamCallEvent event = new UpstreamCallEvent();
+            event.begin();
+            event.complete("tmdb", "/3/movie/{id}", null, 27205, response, null);
+        });
+
+        assertEquals(1, events.size());
+        RecordedEvent event = events.get(0);
+        assertEquals("tmdb", event.getString("upstream"));
+        assertEquals("/3/movie/{id}", event.getString("uri"));
+        assertEquals(27205, event.getInt("tmdbId"));
+        assertEquals(200, event.getInt("status"));
+        assertEquals(12, event.getLong("bytes"));
+        assertNull(event.getString("failure"));
+    }
+
+    @Test
+    void complete_commitsUnwrappedFailure() throws IOException {
+        List<RecordedEvent> events = record(() -> {
+            UpstreamCallEvent event = new UpstreamCallEvent();
+            event.begin();
+            event.complete("omdb", "/?t={title}", "Inception", null, null,
+                    new CompletionException(new IOException("connection reset")));
+        });
+
+        assertEquals(1, events.size());
+        assertEquals("Inception", events.get(0).getString("title"));
+        assertEquals(0, events.get(0).getInt("status"));
+        assertEquals("IOException: connection reset", events.get(0).getString("failure"));
+    }
+}
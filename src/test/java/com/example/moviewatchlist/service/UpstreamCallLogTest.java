@@ -0,0 +1,96 @@
+package com.example.moviewatchlist.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for UpstreamCallLog.
+ */
+class UpstreamCallLogTest {
+
+    @SuppressWarnings("unchecked")
+    private static HttpResponse<JsonBody> response(int status, String body) {
+        HttpResponse<JsonBody> response = mock(HttpResponse.class);
+        when(response.statusCode()).thenReturn(status);
+        when(response.body()).thenReturn(JsonBodyHandler.create().parse(body.getBytes(StandardCharsets.UTF_8)));
+        return response;
+    }
+
+    @Test
+    void record_timesCallByUriTemplateAndStatus() {
+        UpstreamCallLog callLog = new UpstreamCallLog("tmdb", 10);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        callLog.bindTo(registry);
+
+        callLog.record("/3/movie/{id}", response(200, "{\"id\":1}"), null, TimeUnit.MILLISECONDS.toNanos(40));
+        callLog.record("/3/movie/{id}", response(200, "{\"id\":2}"), null, TimeUnit.MILLISECONDS.toNanos(60));
+
+        Timer timer = registry.get("upstream.requests")
+                .tags("upstream", "tmdb", "uri", "/3/movie/{id}", "status", "200", "outcome", "SUCCESS")
+                .timer();
+        assertEquals(2, timer.count());
+        assertEquals(100, timer.totalTime(TimeUnit.MILLISECONDS), 0.001);
+
+        DistributionSummary size = registry.get("upstream.response.size").tag("uri", "/3/movie/{id}").summary();
+        assertEquals(2, size.count());
+        assertEquals(16, size.totalAmount(), 0.001);
+    }
+
+    @Test
+    void record_tagsFailuresWithUnwrappedExceptionType() {
+        UpstreamCallLog callLog = new UpstreamCallLog("omdb", 10);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        callLog.bindTo(registry);
+
+        callLog.record("/?t={title}", null, new CompletionException(new IOException("reset")), 1_000);
+
+        Timer timer = registry.get("upstream.requests")
+                .tags("upstream", "omdb", "status", "none", "exception", "IOException")
+                .timer();
+        assertEquals(1, timer.count());
+        assertTrue(registry.find("upstream.response.size").summaries().isEmpty(), "no size without a response");
+    }
+
+    @Test
+    void record_worksWithoutRegistry() {
+        UpstreamCallLog callLog = new UpstreamCallLog("omdb", 10);
+
+        assertDoesNotThrow(() -> callLog.record("/?t={title}", response(503, "{}"), null, 1_000));
+    }
+
+    @Test
+    void recordParseFailure_countsByUriTemplate() {
+        UpstreamCallLog callLog = new UpstreamCallLog("tmdb", 10);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        callLog.bindTo(registry);
+
+        callLog.recordParseFailure("/3/search/movie", new IOException("bad json"));
+
+        assertEquals(1, registry.get("upstream.parse.failures").tag("uri", "/3/search/movie").counter().count());
+    }
+
+    @Test
+    void sample_limitsLinesPerSecond() {
+        AtomicLong now = new AtomicLong(TimeUnit.SECONDS.toNanos(100));
+        UpstreamCallLog callLog = new UpstreamCallLog("tmdb", 2, now::get);
+
+        assertTrue(callLog.sample());
+        assertTrue(callLog.sample());
+        assertFalse(callLog.sample(), "third line in the same second is suppressed");
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertTrue(callLog.sample(), "a new second allows lines again");
+    }
+}
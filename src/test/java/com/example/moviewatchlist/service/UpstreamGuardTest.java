@@ -0,0 +1,171 @@
+package com.example.moviewatchlist.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UpstreamGuardTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final UpstreamGuard guard = new UpstreamGuard("tmdb", 2, 3, 1000, now::get);
+    private final AtomicInteger calls = new AtomicInteger();
+
+    private CompletableFuture<String> call(String result) {
+        return guard.execute(() -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture(result);
+        }, "error"::equals);
+    }
+
+    private CompletableFuture<String> failingCall() {
+        return guard.execute(() -> {
+            calls.incrementAndGet();
+            return CompletableFuture.failedFuture(new RuntimeException("timeout"));
+        }, "error"::equals);
+    }
+
+    private static void assertRejected(CompletableFuture<?> future) {
+        CompletionException ex = assertThrows(CompletionException.class, future::join);
+        assertInstanceOf(UpstreamUnavailableException.class, ex.getCause());
+    }
+
+    @Test
+    void opensAfterConsecutiveFailuresAndRejectsWithoutCalling() {
+        call("error");
+        failingCall();
+        call("error");
+
+        assertEquals(UpstreamGuard.State.OPEN, guard.getState());
+        assertRejected(call("ok"));
+        assertEquals(3, calls.get());
+        assertEquals(1, guard.rejectedOpenCount());
+    }
+
+    @Test
+    void successResetsConsecutiveFailures() {
+        call("error");
+        call("error");
+        call("ok");
+        call("error");
+        call("error");
+
+        assertEquals(UpstreamGuard.State.CLOSED, guard.getState());
+    }
+
+    @Test
+    void halfOpenTrialClosesCircuitOnSuccess() {
+        call("error");
+        call("error");
+        call("error");
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+
+        assertEquals("ok", call("ok").join());
+        assertEquals(UpstreamGuard.State.CLOSED, guard.getState());
+    }
+
+    @Test
+    void halfOpenAllowsSingleTrialAndReopensOnFailure() {
+        call("error");
+        call("error");
+        call("error");
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+
+        CompletableFuture<String> trial = new CompletableFuture<>();
+        CompletableFuture<String> trialResult = guard.execute(() -> trial, "error"::equals);
+        assertEquals(UpstreamGuard.State.HALF_OPEN, guard.getState());
+        assertRejected(call("ok"));
+
+        trial.complete("error");
+        assertEquals("error", trialResult.join());
+        assertEquals(UpstreamGuard.State.OPEN, guard.getState());
+    }
+
+    @Test
+    void callAdmittedBeforeOpeningDoesNotDecideHalfOpenCircuit() {
+        CompletableFuture<String> old = new CompletableFuture<>();
+        CompletableFuture<String> oldResult = guard.execute(() -> old, "error"::equals);
+        call("error");
+        call("error");
+        call("error");
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+
+        CompletableFuture<String> trial = new CompletableFuture<>();
+        CompletableFuture<String> trialResult = guard.execute(() -> trial, "error"::equals);
+        old.complete("ok");
+        assertEquals("ok", oldResult.join());
+
+        assertEquals(UpstreamGuard.State.HALF_OPEN, guard.getState());
+        assertRejected(call("ok"));
+
+        trial.complete("error");
+        assertEquals("error", trialResult.join());
+        assertEquals(UpstreamGuard.State.OPEN, guard.getState());
+    }
+
+    @Test
+    void cancellingCallReleasesPermitWithoutCountingFailure() {
+        call("error");
+        call("error");
+        CompletableFuture<String> running = new CompletableFuture<>();
+        CompletableFuture<String> result = guard.execute(() -> running, "error"::equals);
+
+        result.cancel(true);
+
+        assertTrue(running.isCancelled(), "the call itself is cancelled");
+        assertEquals(0, guard.activeCount());
+        call("ok");
+        call("error");
+        call("error");
+        assertEquals(UpstreamGuard.State.CLOSED, guard.getState());
+    }
+
+    @Test
+    void bulkheadRejectsCallsBeyondConcurrencyLimit() {
+        CompletableFuture<String> first = new CompletableFuture<>();
+        CompletableFuture<String> second = new CompletableFuture<>();
+        guard.execute(() -> first, r -> false);
+        guard.execute(() -> second, r -> false);
+
+        assertEquals(2, guard.activeCount());
+        assertRejected(call("ok"));
+        assertEquals(1, guard.rejectedFullCount());
+
+        first.complete("done");
+        assertEquals(1, guard.activeCount());
+        assertEquals("ok", call("ok").join());
+        assertEquals(UpstreamGuard.State.CLOSED, guard.getState());
+    }
+
+    @Test
+    void callThatThrowsReleasesPermitAndCountsAsFailure() {
+        CompletableFuture<String> result = guard.execute(() -> {
+            throw new IllegalStateException("boom");
+        }, r -> false);
+
+        assertThrows(CompletionException.class, result::join);
+        assertEquals(0, guard.activeCount());
+    }
+
+    @Test
+    void bindTo_exposesStateAndTransitions() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        guard.bindTo(registry);
+
+        call("error");
+        call("error");
+        call("error");
+
+        assertEquals(1.0, registry.get("upstream.circuit.state").tag("upstream", "tmdb").gauge().value());
+        assertEquals(1.0, registry.get("upstream.circuit.transitions")
+            .tags("upstream", "tmdb", "from", "CLOSED", "to", "OPEN").functionCounter().count());
+        assertEquals(0.0, registry.get("upstream.circuit.transitions")
+            .tags("upstream", "tmdb", "from", "HALF_OPEN", "to", "CLOSED").functionCounter().count());
+    }
+}
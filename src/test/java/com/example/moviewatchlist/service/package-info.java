@@ -4,6 +4,7 @@
  * <p>This package contains unit tests for service classes, including:
  * <ul>
  *   <li><b>MovieServiceTest</b> – tests business logic for managing movies and watchlists.</li>
+ *   <li><b>MovieServiceQueryCountTest</b> – counts the SQL statements of the listing, summary and detail reads.</li>
  *   <li><b>OMDbServiceTest</b> – tests integration with the OMDb API.</li>
  *   <li><b>TMDbServiceTest</b> – tests integration with the TMDb API.</li>
  *   <li><b>ImageDownloadServiceTest</b> – tests image download and file handling logic.</li>